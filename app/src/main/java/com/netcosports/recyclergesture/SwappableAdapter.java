@@ -13,7 +13,7 @@ import java.util.Collections;
  * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Swapper} interface.
  */
 public abstract class SwappableAdapter<T, H extends RecyclerView.ViewHolder> extends RecyclerArrayAdapter<T, H>
-        implements DragDropGesture.Swapper, SwipeToDismissGesture.Dismisser {
+        implements DragDropGesture.Swapper, DragDropGesture.Mover, SwipeToDismissGesture.Dismisser {
 
     /**
      * Simple {@link com.netcosports.recyclergesture.RecyclerArrayAdapter} which implements
@@ -30,6 +30,11 @@ public abstract class SwappableAdapter<T, H extends RecyclerView.ViewHolder> ext
         Collections.swap(getItems(), from, to);
     }
 
+    @Override
+    public void moveItem(int from, int to) {
+        getItems().add(to, getItems().remove(from));
+    }
+
     @Override
     public void dismiss(int position) {
         removeItem(position);
@@ -0,0 +1,151 @@
+package com.netcosports.recyclergesture.benchmarks;
+
+import com.netcosports.recyclergesture.core.DragGeometry;
+import com.netcosports.recyclergesture.core.LayoutBounds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per event decisions of a drag gesture : slot lookup, auto scroll and divider hovering.
+ * <p/>
+ * Coordinates are drawn once from a seeded generator and cycled through so that the branches
+ * aren't trivially predicted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DragGeometryBenchmark {
+
+    /**
+     * Number of precomputed coordinates, a power of two.
+     */
+    private static final int SAMPLES = 1024;
+
+    /**
+     * Size of a slot along the drag axis.
+     */
+    private static final int SLOT_SIZE = 96;
+
+    /**
+     * Number of laid out slots, from a short list to a screen full of small grid cells.
+     */
+    @Param({"8", "64", "512"})
+    private int slotCount;
+
+    private ArrayBounds bounds;
+    private ArrayBounds reversedBounds;
+    private float[] coordinates;
+    private int index;
+
+    /**
+     * Lay the slots out and draw the coordinates.
+     */
+    @Setup
+    public void setUp() {
+        bounds = new ArrayBounds(slotCount, false);
+        reversedBounds = new ArrayBounds(slotCount, true);
+        coordinates = new float[SAMPLES];
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            coordinates[i] = random.nextFloat() * slotCount * SLOT_SIZE;
+        }
+    }
+
+    /**
+     * Slot under the dragged item.
+     *
+     * @return slot index.
+     */
+    @Benchmark
+    public int findSlot() {
+        return DragGeometry.findSlot(bounds, next());
+    }
+
+    /**
+     * Slot under the dragged item of a reversed layout.
+     *
+     * @return slot index.
+     */
+    @Benchmark
+    public int findSlotReversed() {
+        return DragGeometry.findSlot(reversedBounds, next());
+    }
+
+    /**
+     * Auto scroll ratio of the dragged item.
+     *
+     * @return ratio.
+     */
+    @Benchmark
+    public float autoScrollRatio() {
+        return DragGeometry.getAutoScrollRatio(next(), SLOT_SIZE, slotCount * SLOT_SIZE);
+    }
+
+    /**
+     * Both divider checks performed on each move, dividers framing the middle of the list.
+     *
+     * @return true if blocked.
+     */
+    @Benchmark
+    public boolean hoverDividers() {
+        float coordinate = next();
+        float length = slotCount * SLOT_SIZE;
+        return DragGeometry.willHoverPreviousDivider(length / 4, coordinate)
+          || DragGeometry.willHoverNextDivider(length * 3 / 4, coordinate);
+    }
+
+    private float next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return coordinates[index];
+    }
+
+    /**
+     * Slots of equal size laid out back to back.
+     */
+    private static final class ArrayBounds implements LayoutBounds {
+
+        private final int[] starts;
+        private final int[] ends;
+
+        private ArrayBounds(int count, boolean reversed) {
+            starts = new int[count];
+            ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                int slot = reversed ? count - 1 - i : i;
+                starts[i] = slot * SLOT_SIZE;
+                ends[i] = starts[i] + SLOT_SIZE;
+            }
+        }
+
+        @Override
+        public int getCount() {
+            return starts.length;
+        }
+
+        @Override
+        public int getStart(int index) {
+            return starts[index];
+        }
+
+        @Override
+        public int getEnd(int index) {
+            return ends[index];
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.netcosports.recyclergesture.benchmarks;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.GestureTrace;
+import com.netcosports.recyclergesture.core.GestureTraceReader;
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
+import com.netcosports.recyclergesture.core.SwipeTracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay a gesture trace through the swipe state machine, straight from the memory-mapped file.
+ * <p/>
+ * Pass a recorded trace with -p trace=/path/to/file, a synthetic one of random horizontal swipes
+ * is generated otherwise.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GestureTraceBenchmark {
+
+    private static final int ACTION_DOWN = 0;
+    private static final int ACTION_UP = 1;
+    private static final int ACTION_MOVE = 2;
+    private static final long FRAME_MILLIS = 8;
+    private static final int MOVES_PER_SWIPE = 30;
+    private static final int ITEM_SIZE = 1080;
+
+    /**
+     * Trace file to replay, empty to generate one.
+     */
+    @Param({""})
+    private String trace;
+
+    /**
+     * Number of records of the generated trace, about 24 MB.
+     */
+    @Param({"1000000"})
+    private int recordCount;
+
+    private File generated;
+    private GestureTraceReader reader;
+    private SwipeTracker tracker;
+
+    /**
+     * Open the trace, generating it if needed.
+     *
+     * @throws IOException if the trace can't be written or read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        File file;
+        if (trace.isEmpty()) {
+            generated = File.createTempFile("gesture", ".trace");
+            generate(generated);
+            file = generated;
+        } else {
+            file = new File(trace);
+        }
+        reader = new GestureTraceReader(file);
+        tracker = new SwipeTracker(24, 200, 8000);
+    }
+
+    /**
+     * Close the trace.
+     *
+     * @throws IOException if the trace can't be closed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        if (generated != null && !generated.delete()) {
+            generated.deleteOnExit();
+        }
+    }
+
+    /**
+     * Feed every event of the trace to the swipe state machine.
+     *
+     * @return number of dismisses.
+     */
+    @Benchmark
+    public int replay() {
+        int dismisses = 0;
+        int count = reader.getRecordCount();
+        float lastX = 0;
+        long lastTime = 0;
+        for (int i = 0; i < count; i++) {
+            if (reader.getKind(i) != GestureTrace.KIND_EVENT || reader.getPointerId(i) != 0) {
+                continue;
+            }
+            float x = reader.getX(i);
+            float y = reader.getY(i);
+            long time = reader.getEventTime(i);
+            switch (reader.getAction(i)) {
+                case ACTION_DOWN:
+                    tracker.down(x, y, Axis.HORIZONTAL, 0);
+                    break;
+                case ACTION_MOVE:
+                    tracker.move(x, y);
+                    break;
+                case ACTION_UP:
+                    float velocity = time == lastTime ? 0 : (x - lastX) * 1000f / (time - lastTime);
+                    if (tracker.up(x, y, velocity, 0, ITEM_SIZE) != 0) {
+                        dismisses++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            lastX = x;
+            lastTime = time;
+        }
+        return dismisses;
+    }
+
+    /**
+     * Write random horizontal swipes.
+     */
+    private void generate(File file) throws IOException {
+        GestureTraceRecorder recorder = new GestureTraceRecorder(recordCount);
+        Random random = new Random(42);
+        long time = 0;
+        int written = 0;
+        while (written + MOVES_PER_SWIPE + 2 <= recordCount) {
+            float y = random.nextFloat() * 1920;
+            float distance = (random.nextFloat() * 2 - 1) * ITEM_SIZE;
+            recorder.recordEvent(ACTION_DOWN, 0, 0, 1, ITEM_SIZE / 2f, y, time);
+            for (int step = 1; step <= MOVES_PER_SWIPE; step++) {
+                time += FRAME_MILLIS;
+                recorder.recordEvent(ACTION_MOVE, 0, 0, 1, ITEM_SIZE / 2f + distance * step / MOVES_PER_SWIPE,
+                  y + random.nextFloat() * 4, time);
+            }
+            time += FRAME_MILLIS;
+            recorder.recordEvent(ACTION_UP, 0, 0, 1, ITEM_SIZE / 2f + distance, y, time);
+            written += MOVES_PER_SWIPE + 2;
+        }
+        recorder.writeTo(file);
+    }
+}
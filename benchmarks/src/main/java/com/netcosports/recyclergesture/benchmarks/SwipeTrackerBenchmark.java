@@ -0,0 +1,122 @@
+package com.netcosports.recyclergesture.benchmarks;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.SwipeTracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per event decisions of a swipe to dismiss gesture : swipe detection, dismiss resolution and a
+ * whole tracked gesture.
+ * <p/>
+ * Deltas and velocities are drawn once from a seeded generator and cycled through so that the
+ * branches aren't trivially predicted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwipeTrackerBenchmark {
+
+    /**
+     * Number of precomputed samples, a power of two.
+     */
+    private static final int SAMPLES = 1024;
+
+    /**
+     * Move events of a tracked gesture.
+     */
+    private static final int GESTURE_MOVES = 16;
+
+    private static final float SLOP = 24;
+    private static final float MIN_FLING_VELOCITY = 200;
+    private static final float MAX_FLING_VELOCITY = 8000;
+    private static final int ITEM_SIZE = 1080;
+
+    private float[] deltas;
+    private float[] crossDeltas;
+    private float[] velocities;
+    private SwipeTracker tracker;
+    private int index;
+
+    /**
+     * Draw the samples.
+     */
+    @Setup
+    public void setUp() {
+        deltas = new float[SAMPLES];
+        crossDeltas = new float[SAMPLES];
+        velocities = new float[SAMPLES];
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            deltas[i] = (random.nextFloat() * 2 - 1) * ITEM_SIZE;
+            crossDeltas[i] = (random.nextFloat() * 2 - 1) * ITEM_SIZE / 4;
+            velocities[i] = (random.nextFloat() * 2 - 1) * MAX_FLING_VELOCITY;
+        }
+        tracker = new SwipeTracker(SLOP, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+    }
+
+    /**
+     * Swipe detection performed on each move until the swipe starts.
+     *
+     * @return true if swiping.
+     */
+    @Benchmark
+    public boolean isSwiping() {
+        int i = next();
+        return SwipeTracker.isSwiping(deltas[i], crossDeltas[i], SLOP);
+    }
+
+    /**
+     * Dismiss resolution performed on release.
+     *
+     * @return dismiss direction.
+     */
+    @Benchmark
+    public int resolveDismiss() {
+        int i = next();
+        return SwipeTracker.resolveDismiss(deltas[i], ITEM_SIZE, velocities[i], velocities[SAMPLES - 1 - i],
+          MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+    }
+
+    /**
+     * A whole gesture : down, moves toward a sampled delta and release.
+     *
+     * @param blackhole sink of the per move states.
+     * @return dismiss direction.
+     */
+    @Benchmark
+    public int trackGesture(Blackhole blackhole) {
+        int i = next();
+        float delta = deltas[i];
+        float crossDelta = crossDeltas[i];
+        tracker.down(0, 0, Axis.HORIZONTAL, 0);
+        for (int step = 1; step <= GESTURE_MOVES; step++) {
+            float ratio = (float) step / GESTURE_MOVES;
+            blackhole.consume(tracker.move(delta * ratio, crossDelta * ratio));
+            blackhole.consume(tracker.getOffset());
+            blackhole.consume(tracker.getAlpha(ITEM_SIZE));
+        }
+        return tracker.up(delta, crossDelta, velocities[i], velocities[SAMPLES - 1 - i], ITEM_SIZE);
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+}
@@ -0,0 +1,103 @@
+package com.netcosports.recyclergesture.benchmarks;
+
+import com.netcosports.recyclergesture.core.VelocityEstimator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity estimation : a sample followed by a velocity read, as done on each move, and a whole
+ * gesture read on release only.
+ * <p/>
+ * Positions are drawn once from a seeded generator and cycled through, samples being 8 ms apart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VelocityEstimatorBenchmark {
+
+    /**
+     * Number of precomputed samples, a power of two.
+     */
+    private static final int SAMPLES = 1024;
+
+    /**
+     * Move events of a tracked gesture.
+     */
+    private static final int GESTURE_MOVES = 16;
+
+    private static final long FRAME_MILLIS = 8;
+
+    private float[] xs;
+    private float[] ys;
+    private VelocityEstimator estimator;
+    private long time;
+    private int index;
+
+    /**
+     * Draw the samples.
+     */
+    @Setup
+    public void setUp() {
+        xs = new float[SAMPLES];
+        ys = new float[SAMPLES];
+        Random random = new Random(42);
+        float x = 0;
+        float y = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            x += random.nextFloat() * 40 - 10;
+            y += random.nextFloat() * 10 - 5;
+            xs[i] = x;
+            ys[i] = y;
+        }
+        estimator = new VelocityEstimator();
+    }
+
+    /**
+     * A sample and the velocity it gives, the estimator being full.
+     *
+     * @return horizontal velocity.
+     */
+    @Benchmark
+    public float sampleAndRead() {
+        int i = next();
+        time += FRAME_MILLIS;
+        estimator.addSample(xs[i], ys[i], time);
+        return estimator.getVelocityX();
+    }
+
+    /**
+     * A whole gesture : reset, moves and a single read on release.
+     *
+     * @return horizontal velocity.
+     */
+    @Benchmark
+    public float trackGesture() {
+        estimator.reset();
+        for (int step = 0; step < GESTURE_MOVES; step++) {
+            int i = next();
+            time += FRAME_MILLIS;
+            estimator.addSample(xs[i], ys[i], time);
+        }
+        return estimator.getVelocityX();
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLES - 1);
+        return index;
+    }
+}
@@ -0,0 +1,53 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Axis along which a gesture is performed.
+ */
+public enum Axis {
+    /**
+     * Gesture performed along the x axis.
+     */
+    HORIZONTAL {
+        @Override
+        public float along(float x, float y) {
+            return x;
+        }
+
+        @Override
+        public float across(float x, float y) {
+            return y;
+        }
+    },
+    /**
+     * Gesture performed along the y axis.
+     */
+    VERTICAL {
+        @Override
+        public float along(float x, float y) {
+            return y;
+        }
+
+        @Override
+        public float across(float x, float y) {
+            return x;
+        }
+    };
+
+    /**
+     * Pick the coordinate along this axis.
+     *
+     * @param x x coordinate.
+     * @param y y coordinate.
+     * @return coordinate along the axis.
+     */
+    public abstract float along(float x, float y);
+
+    /**
+     * Pick the coordinate across this axis.
+     *
+     * @param x x coordinate.
+     * @param y y coordinate.
+     * @return coordinate across the axis.
+     */
+    public abstract float across(float x, float y);
+}
@@ -0,0 +1,119 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Flung value slowed down by a friction proportional to its velocity, on plain floats.
+ * <p/>
+ * The velocity decays exponentially, each step being solved analytically from the current state.
+ * As {@link Spring}, the decay doesn't hold any animation : load a state with
+ * {@link #start(float, float)}, step it and read it back. Nothing is allocated.
+ */
+public final class Decay {
+
+    /**
+     * Friction of a fling stopping after travelling half of its initial velocity, in units.
+     */
+    public static final float FRICTION_DEFAULT = 2f;
+
+    /**
+     * Friction, in 1/s.
+     */
+    private final float friction;
+
+    private float position;
+    private float velocity;
+
+    /**
+     * Flung value slowed down by friction.
+     *
+     * @param friction friction, in 1/s, positive. A fling stops after travelling its initial
+     *                 velocity divided by the friction.
+     */
+    public Decay(float friction) {
+        if (friction <= 0) {
+            throw new IllegalArgumentException("Friction must be positive : " + friction);
+        }
+        this.friction = friction;
+    }
+
+    /**
+     * Load the state of an animated value.
+     *
+     * @param position current position.
+     * @param velocity current velocity, in units per second.
+     */
+    public void start(float position, float velocity) {
+        this.position = position;
+        this.velocity = velocity;
+    }
+
+    /**
+     * Advance the loaded value.
+     *
+     * @param seconds elapsed time, in seconds.
+     */
+    public void step(float seconds) {
+        float nextVelocity = (float) (velocity * Math.exp(-friction * seconds));
+        position += (velocity - nextVelocity) / friction;
+        velocity = nextVelocity;
+    }
+
+    /**
+     * Position where the loaded value stops.
+     *
+     * @return final position.
+     */
+    public float getFinalPosition() {
+        return position + velocity / friction;
+    }
+
+    /**
+     * Time the loaded value takes to reach a position, approached asymptotically when it's close to
+     * the final position.
+     *
+     * @param target position to reach.
+     * @return time in seconds, {@link Float#POSITIVE_INFINITY} if the value stops before.
+     */
+    public float getTimeTo(float target) {
+        float distance = target - position;
+        if (distance == 0) {
+            return 0;
+        }
+        if (velocity == 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        float ratio = friction * distance / velocity;
+        if (ratio <= 0 || ratio >= 1) {
+            // moving away from the target, or stopping before it.
+            return Float.POSITIVE_INFINITY;
+        }
+        return (float) (-Math.log(1 - ratio) / friction);
+    }
+
+    /**
+     * Used to know if the loaded value stopped.
+     *
+     * @param velocityThreshold speed below which the value is at rest, in units per second.
+     * @return true if at rest.
+     */
+    public boolean isAtRest(float velocityThreshold) {
+        return Math.abs(velocity) < velocityThreshold;
+    }
+
+    /**
+     * Position of the loaded value.
+     *
+     * @return position.
+     */
+    public float getPosition() {
+        return position;
+    }
+
+    /**
+     * Velocity of the loaded value.
+     *
+     * @return velocity in units per second.
+     */
+    public float getVelocity() {
+        return velocity;
+    }
+}
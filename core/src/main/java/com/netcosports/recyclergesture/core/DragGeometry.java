@@ -0,0 +1,97 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Per event decisions of a drag gesture, on plain coordinates along the drag axis.
+ * <p/>
+ * Nothing is allocated, every method can be called on each touch event or frame.
+ */
+public final class DragGeometry {
+
+    /**
+     * Non instantiable class.
+     */
+    private DragGeometry() {
+
+    }
+
+    /**
+     * Find the slot whose layout bounds contain the given coordinate along the drag axis.
+     * <p/>
+     * Slots are laid out in order, the slot is found through a binary search over their layout
+     * ends so that a fast drag resolves its true target in a single step, whatever the distance
+     * travelled since the last event. Reversed layouts, whose slots are added from the end of the
+     * axis, are detected from the first and last slots.
+     *
+     * @param bounds     layout bounds of the slots.
+     * @param coordinate coordinate along the drag axis.
+     * @return index of the closest slot, -1 if no slot is laid out.
+     */
+    public static int findSlot(LayoutBounds bounds, float coordinate) {
+        int count = bounds.getCount();
+        if (count == 0) {
+            return -1;
+        }
+
+        boolean reversed = count > 1 && bounds.getStart(0) > bounds.getStart(count - 1);
+
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds.getEnd(reversed ? count - 1 - mid : mid) <= coordinate) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return reversed ? count - 1 - low : low;
+    }
+
+    /**
+     * Define how deep the dragged item is within the auto scroll hot zones of the list.
+     * <p/>
+     * Hot zones lie along both ends of the list, half the dragged item deep. The ratio reaches 1
+     * once the dragged item crosses the edge.
+     *
+     * @param start         start of the dragged item along the drag axis, relative to the list.
+     * @param size          size of the dragged item along the drag axis.
+     * @param containerSize size of the list along the drag axis.
+     * @return ratio in [-1, 0[ to scroll to the "start" direction, in ]0, 1] to scroll to the "end"
+     * direction, 0 if the dragged item is outside the hot zones.
+     */
+    public static float getAutoScrollRatio(float start, float size, float containerSize) {
+        float hotZone = size / 2f;
+        if (hotZone <= 0f) {
+            return 0f;
+        }
+        float end = containerSize - start - size;
+        if (start < hotZone) {
+            return -Math.min(1f, (hotZone - start) / hotZone);
+        } else if (end < hotZone) {
+            return Math.min(1f, (hotZone - end) / hotZone);
+        }
+        return 0f;
+    }
+
+    /**
+     * Define if the dragged item will hover the previous divider at its new position.
+     *
+     * @param dividerStart start of the divider along the drag axis.
+     * @param newStart     future start of the dragged item along the drag axis.
+     * @return true if the dragged item should be blocked by the divider.
+     */
+    public static boolean willHoverPreviousDivider(float dividerStart, float newStart) {
+        return newStart < dividerStart;
+    }
+
+    /**
+     * Define if the dragged item will hover the next divider at its new position.
+     *
+     * @param dividerStart start of the divider along the drag axis.
+     * @param newStart     future start of the dragged item along the drag axis.
+     * @return true if the dragged item should be blocked by the divider.
+     */
+    public static boolean willHoverNextDivider(float dividerStart, float newStart) {
+        return newStart > dividerStart;
+    }
+}
@@ -0,0 +1,118 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Binary format of the gesture traces written by {@link GestureTraceRecorder} and read by
+ * {@link GestureTraceReader}.
+ * <p/>
+ * A trace is a 16 bytes header followed by fixed size records, oldest first, big endian :
+ * <pre>
+ * header : magic (int), version (short), record size (short), record count (int),
+ *          records dropped by the ring buffer before the first one (int).
+ * record : kind (byte), action or decision (byte), pointer id (byte), pointer count (byte),
+ *          event time in milliseconds (long),
+ *          x (float) or first decision argument (int),
+ *          y (float) or second decision argument (int),
+ *          action index (int) or third decision argument (int).
+ * </pre>
+ * An event is recorded as one record per pointer, all of them sharing the event time, action and
+ * pointer count. Decisions share the time of the event which led to them.
+ */
+public final class GestureTrace {
+
+    /**
+     * Record of a touch event pointer.
+     */
+    public static final int KIND_EVENT = 0;
+
+    /**
+     * Record of a decision taken by a gesture.
+     */
+    public static final int KIND_DECISION = 1;
+
+    /**
+     * Drag started, first argument is the position of the dragged item.
+     */
+    public static final int DECISION_DRAG_START = 0;
+
+    /**
+     * Dragged item switched, arguments are the source and destination positions.
+     */
+    public static final int DECISION_SWITCH = 1;
+
+    /**
+     * Dragged view blocked by a divider, first argument is the divider position.
+     */
+    public static final int DECISION_DIVIDER_BLOCK = 2;
+
+    /**
+     * Auto scroll started, first argument is -1 toward the start, 1 toward the end.
+     */
+    public static final int DECISION_AUTO_SCROLL = 3;
+
+    /**
+     * Drag ended, first argument is the position of the dropped item.
+     */
+    public static final int DECISION_DROP = 4;
+
+    /**
+     * Swipe started, first argument is the position of the swiped item.
+     */
+    public static final int DECISION_SWIPE_START = 5;
+
+    /**
+     * Swiped item dismissed, arguments are its position and the dismiss direction.
+     */
+    public static final int DECISION_DISMISS = 6;
+
+    /**
+     * Swipe canceled, first argument is the position of the swiped item.
+     */
+    public static final int DECISION_SWIPE_CANCEL = 7;
+
+    /**
+     * Swiped item settled, arguments are its position and the side its actions are revealed on,
+     * 0 if closed.
+     */
+    public static final int DECISION_REVEAL = 8;
+
+    /**
+     * Revealed action clicked, arguments are the position of the item and the index of the action.
+     */
+    public static final int DECISION_ACTION = 9;
+
+    /**
+     * Marker written at the beginning of a trace.
+     */
+    static final int MAGIC = 0x52475431;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Bytes of the header.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Bytes of a record.
+     */
+    static final int RECORD_SIZE = 24;
+
+    static final int KIND_OFFSET = 0;
+    static final int CODE_OFFSET = 1;
+    static final int POINTER_ID_OFFSET = 2;
+    static final int POINTER_COUNT_OFFSET = 3;
+    static final int TIME_OFFSET = 4;
+    static final int X_OFFSET = 12;
+    static final int Y_OFFSET = 16;
+    static final int ARG_OFFSET = 20;
+
+    /**
+     * Non instantiable class.
+     */
+    private GestureTrace() {
+
+    }
+}
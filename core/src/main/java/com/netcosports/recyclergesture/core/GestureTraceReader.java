@@ -0,0 +1,212 @@
+package com.netcosports.recyclergesture.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read a gesture trace written by {@link GestureTraceRecorder}, see {@link GestureTrace} for the
+ * format.
+ * <p/>
+ * The trace is memory-mapped and records are read in place by index, so that traces of several
+ * megabytes are replayed without being loaded or decoded upfront.
+ */
+public final class GestureTraceReader implements Closeable {
+
+    /**
+     * Trace file.
+     */
+    private final RandomAccessFile file;
+
+    /**
+     * Mapping of the trace file.
+     */
+    private final MappedByteBuffer mapped;
+
+    /**
+     * Number of records of the trace.
+     */
+    private final int recordCount;
+
+    /**
+     * Number of records dropped by the recorder before the first one.
+     */
+    private final int droppedCount;
+
+    /**
+     * Open a trace file.
+     *
+     * @param traceFile trace file.
+     * @throws IOException if the file can't be mapped or isn't a trace.
+     */
+    public GestureTraceReader(File traceFile) throws IOException {
+        file = new RandomAccessFile(traceFile, "r");
+        try {
+            long length = file.length();
+            if (length < GestureTrace.HEADER_SIZE) {
+                throw new IOException("Not a gesture trace : " + traceFile);
+            }
+            mapped = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (mapped.getInt(0) != GestureTrace.MAGIC) {
+                throw new IOException("Not a gesture trace : " + traceFile);
+            }
+            int version = mapped.getShort(4);
+            if (version != GestureTrace.VERSION || mapped.getShort(6) != GestureTrace.RECORD_SIZE) {
+                throw new IOException("Unsupported gesture trace version " + version + " : " + traceFile);
+            }
+            recordCount = mapped.getInt(8);
+            droppedCount = mapped.getInt(12);
+            if (recordCount < 0
+              || GestureTrace.HEADER_SIZE + (long) recordCount * GestureTrace.RECORD_SIZE > length) {
+                throw new IOException("Corrupted gesture trace : " + traceFile);
+            }
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of records of the trace.
+     *
+     * @return record count.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Number of records dropped by the recorder because its buffer was full, the trace starts in
+     * the middle of a session when positive.
+     *
+     * @return dropped record count.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Kind of a record.
+     *
+     * @param index index of the record.
+     * @return {@link GestureTrace#KIND_EVENT} or {@link GestureTrace#KIND_DECISION}.
+     */
+    public int getKind(int index) {
+        return mapped.get(offset(index) + GestureTrace.KIND_OFFSET);
+    }
+
+    /**
+     * Masked action of an event record.
+     *
+     * @param index index of the record.
+     * @return action.
+     */
+    public int getAction(int index) {
+        return mapped.get(offset(index) + GestureTrace.CODE_OFFSET) & 0xff;
+    }
+
+    /**
+     * Decision code of a decision record.
+     *
+     * @param index index of the record.
+     * @return one of the {@code GestureTrace.DECISION_*} codes.
+     */
+    public int getDecision(int index) {
+        return mapped.get(offset(index) + GestureTrace.CODE_OFFSET) & 0xff;
+    }
+
+    /**
+     * Pointer id of an event record.
+     *
+     * @param index index of the record.
+     * @return pointer id.
+     */
+    public int getPointerId(int index) {
+        return mapped.get(offset(index) + GestureTrace.POINTER_ID_OFFSET) & 0xff;
+    }
+
+    /**
+     * Number of pointers of the event an event record belongs to, its records are consecutive.
+     *
+     * @param index index of the record.
+     * @return pointer count.
+     */
+    public int getPointerCount(int index) {
+        return mapped.get(offset(index) + GestureTrace.POINTER_COUNT_OFFSET) & 0xff;
+    }
+
+    /**
+     * Event time of a record.
+     *
+     * @param index index of the record.
+     * @return time in milliseconds.
+     */
+    public long getEventTime(int index) {
+        return mapped.getLong(offset(index) + GestureTrace.TIME_OFFSET);
+    }
+
+    /**
+     * X of an event record.
+     *
+     * @param index index of the record.
+     * @return pointer x.
+     */
+    public float getX(int index) {
+        return mapped.getFloat(offset(index) + GestureTrace.X_OFFSET);
+    }
+
+    /**
+     * Y of an event record.
+     *
+     * @param index index of the record.
+     * @return pointer y.
+     */
+    public float getY(int index) {
+        return mapped.getFloat(offset(index) + GestureTrace.Y_OFFSET);
+    }
+
+    /**
+     * Index of the pointer the action of an event record applies to.
+     *
+     * @param index index of the record.
+     * @return action index.
+     */
+    public int getActionIndex(int index) {
+        return mapped.getInt(offset(index) + GestureTrace.ARG_OFFSET);
+    }
+
+    /**
+     * Argument of a decision record.
+     *
+     * @param index    index of the record.
+     * @param argument argument in [0, 2].
+     * @return argument value.
+     */
+    public int getDecisionArgument(int index, int argument) {
+        switch (argument) {
+            case 0:
+                return mapped.getInt(offset(index) + GestureTrace.X_OFFSET);
+            case 1:
+                return mapped.getInt(offset(index) + GestureTrace.Y_OFFSET);
+            case 2:
+                return mapped.getInt(offset(index) + GestureTrace.ARG_OFFSET);
+            default:
+                throw new IllegalArgumentException("Decisions have 3 arguments : " + argument);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " out of " + recordCount);
+        }
+        return GestureTrace.HEADER_SIZE + index * GestureTrace.RECORD_SIZE;
+    }
+}
@@ -0,0 +1,188 @@
+package com.netcosports.recyclergesture.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Record the touch events received by a gesture and the decisions it takes, see
+ * {@link GestureTrace} for the format.
+ * <p/>
+ * Records are written into a ring buffer allocated once : the latest records are kept, older ones
+ * are dropped once the buffer is full. Recording doesn't allocate and can be left on in the field,
+ * dump the buffer with {@link #writeTo(File)} when a session goes wrong.
+ * <p/>
+ * Not thread safe, records are expected from the main thread.
+ */
+public final class GestureTraceRecorder {
+
+    /**
+     * Ring buffer of the records.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of records the buffer holds.
+     */
+    private final int capacity;
+
+    /**
+     * Number of records written since the last clear, dropped ones included.
+     */
+    private long recorded;
+
+    /**
+     * Time of the last recorded event, shared by the following decisions.
+     */
+    private long lastEventTime;
+
+    /**
+     * Recorder keeping the latest records.
+     *
+     * @param capacity number of records kept, one per pointer of each event plus one per decision.
+     */
+    public GestureTraceRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+        }
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocate(capacity * GestureTrace.RECORD_SIZE);
+        this.recorded = 0;
+        this.lastEventTime = 0;
+    }
+
+    /**
+     * Record a pointer of a touch event.
+     *
+     * @param action       masked action of the event.
+     * @param actionIndex  index of the pointer the action applies to.
+     * @param pointerId    id of the recorded pointer.
+     * @param pointerCount number of pointers of the event.
+     * @param x            x of the recorded pointer.
+     * @param y            y of the recorded pointer.
+     * @param eventTime    time of the event in milliseconds.
+     */
+    public void recordEvent(int action, int actionIndex, int pointerId, int pointerCount, float x, float y,
+                            long eventTime) {
+        int offset = next();
+        buffer.put(offset + GestureTrace.KIND_OFFSET, (byte) GestureTrace.KIND_EVENT);
+        buffer.put(offset + GestureTrace.CODE_OFFSET, (byte) action);
+        buffer.put(offset + GestureTrace.POINTER_ID_OFFSET, (byte) pointerId);
+        buffer.put(offset + GestureTrace.POINTER_COUNT_OFFSET, (byte) pointerCount);
+        buffer.putLong(offset + GestureTrace.TIME_OFFSET, eventTime);
+        buffer.putFloat(offset + GestureTrace.X_OFFSET, x);
+        buffer.putFloat(offset + GestureTrace.Y_OFFSET, y);
+        buffer.putInt(offset + GestureTrace.ARG_OFFSET, actionIndex);
+        lastEventTime = eventTime;
+    }
+
+    /**
+     * Record a decision taken by a gesture, at the time of the last recorded event.
+     *
+     * @param decision one of the {@code GestureTrace.DECISION_*} codes.
+     * @param first    first argument.
+     * @param second   second argument.
+     * @param third    third argument.
+     */
+    public void recordDecision(int decision, int first, int second, int third) {
+        int offset = next();
+        buffer.put(offset + GestureTrace.KIND_OFFSET, (byte) GestureTrace.KIND_DECISION);
+        buffer.put(offset + GestureTrace.CODE_OFFSET, (byte) decision);
+        buffer.put(offset + GestureTrace.POINTER_ID_OFFSET, (byte) 0);
+        buffer.put(offset + GestureTrace.POINTER_COUNT_OFFSET, (byte) 0);
+        buffer.putLong(offset + GestureTrace.TIME_OFFSET, lastEventTime);
+        buffer.putInt(offset + GestureTrace.X_OFFSET, first);
+        buffer.putInt(offset + GestureTrace.Y_OFFSET, second);
+        buffer.putInt(offset + GestureTrace.ARG_OFFSET, third);
+    }
+
+    /**
+     * Number of records currently kept.
+     *
+     * @return record count.
+     */
+    public int getRecordCount() {
+        return (int) Math.min(recorded, capacity);
+    }
+
+    /**
+     * Number of records dropped because the buffer was full.
+     *
+     * @return dropped record count.
+     */
+    public long getDroppedCount() {
+        return Math.max(0, recorded - capacity);
+    }
+
+    /**
+     * Drop every record.
+     */
+    public void clear() {
+        recorded = 0;
+        lastEventTime = 0;
+    }
+
+    /**
+     * Dump the kept records to a file, replacing its content.
+     *
+     * @param file trace file.
+     * @throws IOException if the file can't be written.
+     */
+    public void writeTo(File file) throws IOException {
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            writeTo(stream.getChannel());
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Dump the kept records to a channel, oldest first.
+     *
+     * @param channel channel the trace is written to.
+     * @throws IOException if the channel can't be written.
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        int count = getRecordCount();
+        ByteBuffer header = ByteBuffer.allocate(GestureTrace.HEADER_SIZE);
+        header.putInt(GestureTrace.MAGIC)
+          .putShort((short) GestureTrace.VERSION)
+          .putShort((short) GestureTrace.RECORD_SIZE)
+          .putInt(count)
+          .putInt((int) Math.min(Integer.MAX_VALUE, getDroppedCount()));
+        header.flip();
+        writeFully(channel, header);
+
+        // once wrapped, the oldest record is the one about to be overwritten.
+        int oldest = recorded > capacity ? (int) (recorded % capacity) : 0;
+        ByteBuffer records = buffer.duplicate();
+        records.limit(count * GestureTrace.RECORD_SIZE);
+        records.position(oldest * GestureTrace.RECORD_SIZE);
+        writeFully(channel, records);
+        if (oldest > 0) {
+            records.position(0);
+            records.limit(oldest * GestureTrace.RECORD_SIZE);
+            writeFully(channel, records);
+        }
+    }
+
+    /**
+     * Reserve the next record of the ring buffer.
+     *
+     * @return offset of the record.
+     */
+    private int next() {
+        int offset = (int) (recorded % capacity) * GestureTrace.RECORD_SIZE;
+        recorded++;
+        return offset;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
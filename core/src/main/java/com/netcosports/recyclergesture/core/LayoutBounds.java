@@ -0,0 +1,33 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Layout bounds of a sequence of slots laid out in order along a drag axis.
+ * <p/>
+ * Implemented over the children of a list by the platform adapters, and over plain arrays by the
+ * tests and benchmarks.
+ */
+public interface LayoutBounds {
+
+    /**
+     * Number of slots laid out.
+     *
+     * @return slot count.
+     */
+    int getCount();
+
+    /**
+     * Layout start of a slot along the drag axis, translation excluded.
+     *
+     * @param index index of the slot in [0, count[.
+     * @return start of the slot.
+     */
+    int getStart(int index);
+
+    /**
+     * Layout end of a slot along the drag axis, translation excluded.
+     *
+     * @param index index of the slot in [0, count[.
+     * @return end of the slot.
+     */
+    int getEnd(int index);
+}
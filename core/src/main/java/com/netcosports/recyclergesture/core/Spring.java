@@ -0,0 +1,143 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Damped spring pulling a value toward a target, on plain floats.
+ * <p/>
+ * Each step solves the spring equation analytically from the current position and velocity, so
+ * that frames of any duration keep the motion stable and the velocity of a gesture can be handed
+ * over as is. The spring doesn't hold any animation : load a state with
+ * {@link #start(float, float, float)}, step it and read it back, the same spring being reused for
+ * any number of animated values. Nothing is allocated.
+ */
+public final class Spring {
+
+    /**
+     * Critical damping : the value reaches its target as fast as possible without overshooting.
+     */
+    public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
+
+    /**
+     * Stiffness of a spring, in 1/s^2, settling in a quarter of a second.
+     */
+    public static final float STIFFNESS_MEDIUM = 1500f;
+
+    /**
+     * Undamped angular frequency, in rad/s.
+     */
+    private final double naturalFrequency;
+    private final double dampingRatio;
+
+    private float position;
+    private float velocity;
+    private float target;
+
+    /**
+     * Damped spring.
+     *
+     * @param stiffness    stiffness of the spring for a unit mass, in 1/s^2, positive.
+     * @param dampingRatio damping ratio, below 1 to bounce, 1 for critical damping, above 1 for
+     *                     slower motions without bounce. Positive.
+     */
+    public Spring(float stiffness, float dampingRatio) {
+        if (stiffness <= 0) {
+            throw new IllegalArgumentException("Stiffness must be positive : " + stiffness);
+        }
+        if (dampingRatio <= 0) {
+            throw new IllegalArgumentException("Damping ratio must be positive : " + dampingRatio);
+        }
+        this.naturalFrequency = Math.sqrt(stiffness);
+        this.dampingRatio = dampingRatio;
+    }
+
+    /**
+     * Load the state of an animated value.
+     *
+     * @param position current position.
+     * @param velocity current velocity, in units per second.
+     * @param target   position the value is pulled to.
+     */
+    public void start(float position, float velocity, float target) {
+        this.position = position;
+        this.velocity = velocity;
+        this.target = target;
+    }
+
+    /**
+     * Advance the loaded value.
+     *
+     * @param seconds elapsed time, in seconds.
+     */
+    public void step(float seconds) {
+        double w = naturalFrequency;
+        double z = dampingRatio;
+        double x0 = position - target;
+        double v0 = velocity;
+        double t = seconds;
+        double x;
+        double v;
+        if (z < 1) {
+            double wd = w * Math.sqrt(1 - z * z);
+            double decay = Math.exp(-z * w * t);
+            double cos = Math.cos(wd * t);
+            double sin = Math.sin(wd * t);
+            double b = (v0 + z * w * x0) / wd;
+            x = decay * (x0 * cos + b * sin);
+            v = decay * ((b * wd - z * w * x0) * cos - (x0 * wd + z * w * b) * sin);
+        } else if (z == 1) {
+            double decay = Math.exp(-w * t);
+            double b = v0 + w * x0;
+            x = (x0 + b * t) * decay;
+            v = (b - w * (x0 + b * t)) * decay;
+        } else {
+            double root = w * Math.sqrt(z * z - 1);
+            double r1 = -z * w + root;
+            double r2 = -z * w - root;
+            double c2 = (v0 - r1 * x0) / (r2 - r1);
+            double c1 = x0 - c2;
+            double e1 = Math.exp(r1 * t);
+            double e2 = Math.exp(r2 * t);
+            x = c1 * e1 + c2 * e2;
+            v = c1 * r1 * e1 + c2 * r2 * e2;
+        }
+        position = (float) (target + x);
+        velocity = (float) v;
+    }
+
+    /**
+     * Used to know if the loaded value settled on its target.
+     *
+     * @param positionThreshold distance to the target below which the value is at rest.
+     * @param velocityThreshold speed below which the value is at rest, in units per second.
+     * @return true if at rest.
+     */
+    public boolean isAtRest(float positionThreshold, float velocityThreshold) {
+        return Math.abs(position - target) < positionThreshold && Math.abs(velocity) < velocityThreshold;
+    }
+
+    /**
+     * Position of the loaded value.
+     *
+     * @return position.
+     */
+    public float getPosition() {
+        return position;
+    }
+
+    /**
+     * Velocity of the loaded value.
+     *
+     * @return velocity in units per second.
+     */
+    public float getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Target of the loaded value.
+     *
+     * @return target.
+     */
+    public float getTarget() {
+        return target;
+    }
+}
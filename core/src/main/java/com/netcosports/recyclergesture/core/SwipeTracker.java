@@ -0,0 +1,314 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * State machine of a swipe to dismiss gesture, on plain pointer coordinates.
+ * <p/>
+ * A gesture is {@link #STATE_TRACKING} from the down event until the pointer travels further than
+ * the touch slop along the swipe axis, twice as far as across it. It is then
+ * {@link #STATE_SWIPING} until the pointer is released, when {@link #up(float, float, float, float, int)}
+ * decides if the item is dismissed. Moving toward a forbidden direction goes back to
+ * {@link #STATE_IDLE}.
+ * <p/>
+ * Nothing is allocated, every method can be called on each touch event.
+ */
+public final class SwipeTracker {
+
+    /**
+     * No gesture tracked.
+     */
+    public static final int STATE_IDLE = 0;
+
+    /**
+     * Pointer is down, the motion isn't a swipe yet.
+     */
+    public static final int STATE_TRACKING = 1;
+
+    /**
+     * Pointer is swiping the item.
+     */
+    public static final int STATE_SWIPING = 2;
+
+    /**
+     * Distance travelled along the swipe axis before a swipe starts.
+     */
+    private final float slop;
+
+    /**
+     * Minimum velocity of a fling dismissing the item, in pixels per second.
+     */
+    private final float minFlingVelocity;
+
+    /**
+     * Maximum velocity of a fling dismissing the item, in pixels per second.
+     */
+    private final float maxFlingVelocity;
+
+    private int state;
+    private Axis axis;
+    private int allowedSign;
+    private float downX;
+    private float downY;
+    private float deltaX;
+    private float deltaY;
+
+    /**
+     * Slop consumed before the swipe started, signed as the swipe.
+     */
+    private float slopOffset;
+
+    /**
+     * State machine of a swipe to dismiss gesture.
+     *
+     * @param slop             distance travelled along the swipe axis before a swipe starts.
+     * @param minFlingVelocity minimum velocity of a fling dismissing the item, in pixels per second.
+     * @param maxFlingVelocity maximum velocity of a fling dismissing the item, in pixels per second.
+     */
+    public SwipeTracker(float slop, float minFlingVelocity, float maxFlingVelocity) {
+        if (slop < 0) {
+            throw new IllegalArgumentException("Slop can't be negative : " + slop);
+        }
+        if (minFlingVelocity < 0 || maxFlingVelocity < minFlingVelocity) {
+            throw new IllegalArgumentException("Fling velocities must satisfy 0 <= min <= max : "
+              + minFlingVelocity + ", " + maxFlingVelocity);
+        }
+        this.slop = slop;
+        this.minFlingVelocity = minFlingVelocity;
+        this.maxFlingVelocity = maxFlingVelocity;
+        this.state = STATE_IDLE;
+    }
+
+    /**
+     * Used to know if a motion is a swipe along the swipe axis.
+     *
+     * @param delta      delta along the swipe axis between the current pointer and the down one.
+     * @param crossDelta delta across the swipe axis.
+     * @param slop       touch slop.
+     * @return true if the motion is a swipe.
+     */
+    public static boolean isSwiping(float delta, float crossDelta, float slop) {
+        return Math.abs(delta) > slop && Math.abs(crossDelta) < Math.abs(delta) / 2;
+    }
+
+    /**
+     * Used to know if a motion goes toward a forbidden direction.
+     *
+     * @param allowedSign 1 if only positive deltas are allowed, -1 if only negative ones are, 0 if
+     *                    both are.
+     * @param delta       delta along the swipe axis.
+     * @return true if the motion is forbidden.
+     */
+    public static boolean isBlocked(int allowedSign, float delta) {
+        return (allowedSign > 0 && delta < 0) || (allowedSign < 0 && delta > 0);
+    }
+
+    /**
+     * Used to know if a released swipe dismisses the item, and toward which direction.
+     * <p/>
+     * The item is dismissed once swiped further than half its size, or when flung toward the
+     * direction it was swiped to.
+     *
+     * @param delta            delta along the swipe axis between the release and the down pointer.
+     * @param size             size of the item along the swipe axis.
+     * @param velocity         release velocity along the swipe axis, in pixels per second.
+     * @param crossVelocity    release velocity across the swipe axis, in pixels per second.
+     * @param minFlingVelocity minimum velocity of a dismissing fling.
+     * @param maxFlingVelocity maximum velocity of a dismissing fling.
+     * @return -1 if dismissed toward the start (left or top), 1 toward the end (right or bottom), 0
+     * if not dismissed.
+     */
+    public static int resolveDismiss(float delta, int size, float velocity, float crossVelocity,
+                                     float minFlingVelocity, float maxFlingVelocity) {
+        if (Math.abs(delta) > size / 2) {
+            return delta > 0 ? 1 : -1;
+        }
+        float absVelocity = Math.abs(velocity);
+        if (minFlingVelocity <= absVelocity && absVelocity <= maxFlingVelocity
+          && Math.abs(crossVelocity) < absVelocity
+          && (velocity < 0) == (delta < 0)) {
+            // dismiss only if flinging in the same direction as swiping.
+            return velocity > 0 ? 1 : -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Used to know where a released item of a reveal gesture settles.
+     * <p/>
+     * The item settles open once more than half its actions are revealed. A fling toward the
+     * side the item is swiped to opens it, a fling back closes it.
+     *
+     * @param offset           offset of the item along the swipe axis.
+     * @param revealSize       size of the revealed actions along the swipe axis.
+     * @param velocity         release velocity along the swipe axis, in pixels per second.
+     * @param minFlingVelocity minimum velocity of a fling.
+     * @param maxFlingVelocity maximum velocity of a fling.
+     * @return -1 if settled open toward the start (left or top), 1 toward the end (right or
+     * bottom), 0 if closed.
+     */
+    public static int resolveReveal(float offset, float revealSize, float velocity,
+                                    float minFlingVelocity, float maxFlingVelocity) {
+        if (offset == 0) {
+            return 0;
+        }
+        int side = offset > 0 ? 1 : -1;
+        float absVelocity = Math.abs(velocity);
+        if (minFlingVelocity <= absVelocity && absVelocity <= maxFlingVelocity) {
+            return (velocity > 0) == (offset > 0) ? side : 0;
+        }
+        return Math.abs(offset) > revealSize / 2 ? side : 0;
+    }
+
+    /**
+     * Opacity of a swiped item, fully transparent once swiped over half its size.
+     *
+     * @param delta delta along the swipe axis.
+     * @param size  size of the item along the swipe axis.
+     * @return alpha in [0, 1].
+     */
+    public static float getSwipeAlpha(float delta, float size) {
+        return Math.max(0f, Math.min(1f, 1f - 2f * Math.abs(delta) / size));
+    }
+
+    /**
+     * Start tracking a gesture.
+     *
+     * @param x           down pointer x.
+     * @param y           down pointer y.
+     * @param axis        swipe axis.
+     * @param allowedSign 1 if the item can only be swiped toward the end (right or bottom), -1
+     *                    toward the start (left or top), 0 toward both.
+     */
+    public void down(float x, float y, Axis axis, int allowedSign) {
+        this.axis = axis;
+        this.allowedSign = allowedSign;
+        this.downX = x;
+        this.downY = y;
+        this.deltaX = 0;
+        this.deltaY = 0;
+        this.slopOffset = 0;
+        this.state = STATE_TRACKING;
+    }
+
+    /**
+     * Track a pointer move.
+     *
+     * @param x pointer x.
+     * @param y pointer y.
+     * @return state after the move, {@link #STATE_IDLE} if the gesture has been given up.
+     */
+    public int move(float x, float y) {
+        if (state == STATE_IDLE) {
+            return STATE_IDLE;
+        }
+        deltaX = x - downX;
+        deltaY = y - downY;
+        float delta = axis.along(deltaX, deltaY);
+        if (isBlocked(allowedSign, delta)) {
+            state = STATE_IDLE;
+            return state;
+        }
+        if (isSwiping(delta, axis.across(deltaX, deltaY), slop)) {
+            slopOffset = delta > 0 ? slop : -slop;
+            state = STATE_SWIPING;
+        }
+        return state;
+    }
+
+    /**
+     * Release the pointer and end the gesture.
+     *
+     * @param x         release pointer x.
+     * @param y         release pointer y.
+     * @param velocityX release velocity on x, in pixels per second.
+     * @param velocityY release velocity on y, in pixels per second.
+     * @param size      size of the swiped item along the swipe axis.
+     * @return -1 if dismissed toward the start (left or top), 1 toward the end (right or bottom), 0
+     * if not dismissed or not swiping.
+     */
+    public int up(float x, float y, float velocityX, float velocityY, int size) {
+        if (state != STATE_SWIPING) {
+            state = STATE_IDLE;
+            return 0;
+        }
+        state = STATE_IDLE;
+        deltaX = x - downX;
+        deltaY = y - downY;
+        return resolveDismiss(axis.along(deltaX, deltaY), size, axis.along(velocityX, velocityY),
+          axis.across(velocityX, velocityY), minFlingVelocity, maxFlingVelocity);
+    }
+
+    /**
+     * Give up the tracked gesture.
+     */
+    public void reset() {
+        state = STATE_IDLE;
+        deltaX = 0;
+        deltaY = 0;
+        slopOffset = 0;
+    }
+
+    /**
+     * Current state.
+     *
+     * @return one of {@link #STATE_IDLE}, {@link #STATE_TRACKING} and {@link #STATE_SWIPING}.
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Used to know if the tracked gesture is a swipe.
+     *
+     * @return true if swiping.
+     */
+    public boolean isSwiping() {
+        return state == STATE_SWIPING;
+    }
+
+    /**
+     * Swipe axis of the tracked gesture.
+     *
+     * @return axis, null if no gesture has been tracked yet.
+     */
+    public Axis getAxis() {
+        return axis;
+    }
+
+    /**
+     * Delta on x between the last tracked pointer and the down one.
+     *
+     * @return delta x.
+     */
+    public float getDeltaX() {
+        return deltaX;
+    }
+
+    /**
+     * Delta on y between the last tracked pointer and the down one.
+     *
+     * @return delta y.
+     */
+    public float getDeltaY() {
+        return deltaY;
+    }
+
+    /**
+     * Offset of the swiped item along the swipe axis, the slop consumed before the swipe started
+     * excluded so that the item doesn't jump.
+     *
+     * @return offset of the item.
+     */
+    public float getOffset() {
+        return axis == null ? 0 : axis.along(deltaX, deltaY) - slopOffset;
+    }
+
+    /**
+     * Opacity of the swiped item.
+     *
+     * @param size size of the item along the swipe axis.
+     * @return alpha in [0, 1].
+     */
+    public float getAlpha(float size) {
+        return axis == null ? 1f : getSwipeAlpha(axis.along(deltaX, deltaY), size);
+    }
+}
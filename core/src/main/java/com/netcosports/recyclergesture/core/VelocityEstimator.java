@@ -0,0 +1,262 @@
+package com.netcosports.recyclergesture.core;
+
+/**
+ * Pointer velocity fitted by least squares over the latest samples of a gesture.
+ * <p/>
+ * Samples are kept in a fixed size ring buffer of primitives reused from one gesture to the other,
+ * call {@link #reset()} on each down event. The velocity can be read after any sample, so that
+ * decisions can rely on it in the middle of a gesture and not only on release.
+ * <p/>
+ * Only the samples of the last {@link #getWindowMillis()} are fitted, and the pointer is assumed
+ * to have stopped before any pause longer than 40 ms between two samples, as done by the
+ * platform velocity tracker. Nothing is allocated once built.
+ */
+public final class VelocityEstimator {
+
+    /**
+     * Default number of samples kept.
+     */
+    public static final int DEFAULT_CAPACITY = 20;
+
+    /**
+     * Default age of the oldest sample fitted.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = 100;
+
+    /**
+     * Pause between two samples after which older samples are ignored.
+     */
+    private static final long POINTER_STOPPED_MILLIS = 40;
+
+    private final float[] sampleX;
+    private final float[] sampleY;
+    private final long[] sampleTime;
+    private final long windowMillis;
+
+    /**
+     * Index of the oldest sample.
+     */
+    private int head;
+
+    /**
+     * Number of samples.
+     */
+    private int size;
+
+    /**
+     * True when the velocity must be fitted again before being read.
+     */
+    private boolean dirty;
+
+    /**
+     * Fitted velocity, in pixels per second.
+     */
+    private float velocityX;
+    private float velocityY;
+
+    /**
+     * Velocity estimator keeping {@link #DEFAULT_CAPACITY} samples fitted over
+     * {@link #DEFAULT_WINDOW_MILLIS}.
+     */
+    public VelocityEstimator() {
+        this(DEFAULT_CAPACITY, DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Velocity estimator.
+     *
+     * @param capacity     number of samples kept, at least 2.
+     * @param windowMillis age of the oldest sample fitted, positive.
+     */
+    public VelocityEstimator(int capacity, long windowMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2 : " + capacity);
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be positive : " + windowMillis);
+        }
+        this.sampleX = new float[capacity];
+        this.sampleY = new float[capacity];
+        this.sampleTime = new long[capacity];
+        this.windowMillis = windowMillis;
+        reset();
+    }
+
+    /**
+     * Forget the samples of the previous gesture.
+     */
+    public void reset() {
+        head = 0;
+        size = 0;
+        dirty = false;
+        velocityX = 0;
+        velocityY = 0;
+    }
+
+    /**
+     * Add a sample, the oldest one is dropped when full.
+     *
+     * @param x          abscissa.
+     * @param y          ordinate.
+     * @param timeMillis sample time, in ms.
+     */
+    public void addSample(float x, float y, long timeMillis) {
+        int capacity = sampleTime.length;
+        int index;
+        if (size == capacity) {
+            index = head;
+            head = (head + 1) % capacity;
+        } else {
+            index = (head + size) % capacity;
+            size++;
+        }
+        sampleX[index] = x;
+        sampleY[index] = y;
+        sampleTime[index] = timeMillis;
+        dirty = true;
+    }
+
+    /**
+     * Velocity along x.
+     *
+     * @return velocity in pixels per second, 0 with less than two samples.
+     */
+    public float getVelocityX() {
+        fitIfNeeded();
+        return velocityX;
+    }
+
+    /**
+     * Velocity along y.
+     *
+     * @return velocity in pixels per second, 0 with less than two samples.
+     */
+    public float getVelocityY() {
+        fitIfNeeded();
+        return velocityY;
+    }
+
+    /**
+     * Velocity along an axis.
+     *
+     * @param axis axis.
+     * @return velocity in pixels per second.
+     */
+    public float getVelocity(Axis axis) {
+        return axis == Axis.HORIZONTAL ? getVelocityX() : getVelocityY();
+    }
+
+    /**
+     * Number of samples kept.
+     *
+     * @return sample count.
+     */
+    public int getSampleCount() {
+        return size;
+    }
+
+    /**
+     * Abscissa of a sample.
+     *
+     * @param rank sample rank in [0, {@link #getSampleCount()}[, from the oldest one.
+     * @return abscissa.
+     */
+    public float getSampleX(int rank) {
+        return sampleX[indexOf(rank)];
+    }
+
+    /**
+     * Ordinate of a sample.
+     *
+     * @param rank sample rank in [0, {@link #getSampleCount()}[, from the oldest one.
+     * @return ordinate.
+     */
+    public float getSampleY(int rank) {
+        return sampleY[indexOf(rank)];
+    }
+
+    /**
+     * Time of a sample.
+     *
+     * @param rank sample rank in [0, {@link #getSampleCount()}[, from the oldest one.
+     * @return time in ms.
+     */
+    public long getSampleTime(int rank) {
+        return sampleTime[indexOf(rank)];
+    }
+
+    /**
+     * Age of the oldest sample fitted.
+     *
+     * @return window in ms.
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Fit the velocity on the samples of the window, centered on the last sample.
+     */
+    private void fitIfNeeded() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        velocityX = 0;
+        velocityY = 0;
+        if (size < 2) {
+            return;
+        }
+
+        int capacity = sampleTime.length;
+        int last = (head + size - 1) % capacity;
+        long lastTime = sampleTime[last];
+        float lastX = sampleX[last];
+        float lastY = sampleY[last];
+        double sumT = 0;
+        double sumTT = 0;
+        double sumX = 0;
+        double sumTX = 0;
+        double sumY = 0;
+        double sumTY = 0;
+        int count = 0;
+        long previousTime = lastTime;
+        for (int i = size - 1; i >= 0; i--) {
+            int index = (head + i) % capacity;
+            long time = sampleTime[index];
+            if (lastTime - time > windowMillis || previousTime - time > POINTER_STOPPED_MILLIS) {
+                break;
+            }
+            previousTime = time;
+            double age = time - lastTime;
+            double x = sampleX[index] - lastX;
+            double y = sampleY[index] - lastY;
+            sumT += age;
+            sumTT += age * age;
+            sumX += x;
+            sumTX += age * x;
+            sumY += y;
+            sumTY += age * y;
+            count++;
+        }
+        double denominator = count * sumTT - sumT * sumT;
+        if (count < 2 || denominator == 0) {
+            return;
+        }
+        velocityX = (float) ((count * sumTX - sumT * sumX) / denominator * 1000);
+        velocityY = (float) ((count * sumTY - sumT * sumY) / denominator * 1000);
+    }
+
+    /**
+     * Index in the ring buffer of a sample.
+     *
+     * @param rank sample rank, from the oldest one.
+     * @return buffer index.
+     */
+    private int indexOf(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Sample " + rank + " out of " + size);
+        }
+        return (head + rank) % sampleTime.length;
+    }
+}
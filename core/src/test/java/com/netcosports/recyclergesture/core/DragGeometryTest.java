@@ -0,0 +1,78 @@
+package com.netcosports.recyclergesture.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check the per event decisions of a drag gesture on plain coordinates.
+ */
+public class DragGeometryTest {
+
+    private static final int SLOT_SIZE = 100;
+
+    @Test
+    public void slotContainingTheCoordinateIsFound() {
+        LayoutBounds bounds = slots(0, 100, 250, 300);
+        assertEquals(0, DragGeometry.findSlot(bounds, -20));
+        assertEquals(0, DragGeometry.findSlot(bounds, 99));
+        assertEquals(1, DragGeometry.findSlot(bounds, 100));
+        assertEquals(1, DragGeometry.findSlot(bounds, 199));
+        assertEquals(2, DragGeometry.findSlot(bounds, 349));
+        assertEquals(3, DragGeometry.findSlot(bounds, 5000));
+    }
+
+    @Test
+    public void reversedSlotsAreSearchedFromTheEnd() {
+        LayoutBounds bounds = slots(300, 200, 100, 0);
+        assertEquals(3, DragGeometry.findSlot(bounds, 50));
+        assertEquals(2, DragGeometry.findSlot(bounds, 150));
+        assertEquals(0, DragGeometry.findSlot(bounds, 399));
+    }
+
+    @Test
+    public void noSlotLaidOut() {
+        assertEquals(-1, DragGeometry.findSlot(slots(), 10));
+    }
+
+    @Test
+    public void autoScrollRatioWithinHotZones() {
+        assertEquals(0f, DragGeometry.getAutoScrollRatio(400, 100, 1000), 0f);
+        assertEquals(-0.5f, DragGeometry.getAutoScrollRatio(25, 100, 1000), 1e-6f);
+        assertEquals(-1f, DragGeometry.getAutoScrollRatio(-80, 100, 1000), 0f);
+        assertEquals(0.5f, DragGeometry.getAutoScrollRatio(875, 100, 1000), 1e-6f);
+        assertEquals(0f, DragGeometry.getAutoScrollRatio(0, 0, 1000), 0f);
+    }
+
+    @Test
+    public void dividersBlockTheDraggedItem() {
+        assertTrue(DragGeometry.willHoverPreviousDivider(100, 99));
+        assertFalse(DragGeometry.willHoverPreviousDivider(100, 100));
+        assertTrue(DragGeometry.willHoverNextDivider(500, 501));
+        assertFalse(DragGeometry.willHoverNextDivider(500, 500));
+    }
+
+    /**
+     * Slots of {@link #SLOT_SIZE} starting at the given coordinates.
+     */
+    private static LayoutBounds slots(final int... starts) {
+        return new LayoutBounds() {
+            @Override
+            public int getCount() {
+                return starts.length;
+            }
+
+            @Override
+            public int getStart(int index) {
+                return starts[index];
+            }
+
+            @Override
+            public int getEnd(int index) {
+                return starts[index] + SLOT_SIZE;
+            }
+        };
+    }
+}
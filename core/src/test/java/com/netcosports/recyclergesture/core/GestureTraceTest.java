@@ -0,0 +1,115 @@
+package com.netcosports.recyclergesture.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that recorded traces are read back as written.
+ */
+public class GestureTraceTest {
+
+    private static final int ACTION_DOWN = 0;
+    private static final int ACTION_MOVE = 2;
+    private static final int ACTION_POINTER_DOWN = 5;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recordsAreReadBack() throws IOException {
+        GestureTraceRecorder recorder = new GestureTraceRecorder(16);
+        recorder.recordEvent(ACTION_DOWN, 0, 0, 1, 10.5f, 20f, 1000);
+        recorder.recordDecision(GestureTrace.DECISION_DRAG_START, 3, 0, 0);
+        recorder.recordEvent(ACTION_POINTER_DOWN, 1, 0, 2, 11f, 21f, 1016);
+        recorder.recordEvent(ACTION_POINTER_DOWN, 1, 4, 2, 300f, -5f, 1016);
+        recorder.recordDecision(GestureTrace.DECISION_SWITCH, 3, 7, 0);
+
+        File file = folder.newFile();
+        recorder.writeTo(file);
+        GestureTraceReader reader = new GestureTraceReader(file);
+        try {
+            assertEquals(5, reader.getRecordCount());
+            assertEquals(0, reader.getDroppedCount());
+
+            assertEquals(GestureTrace.KIND_EVENT, reader.getKind(0));
+            assertEquals(ACTION_DOWN, reader.getAction(0));
+            assertEquals(10.5f, reader.getX(0), 0f);
+            assertEquals(20f, reader.getY(0), 0f);
+            assertEquals(1000, reader.getEventTime(0));
+
+            // decisions share the time of the last event.
+            assertEquals(GestureTrace.KIND_DECISION, reader.getKind(1));
+            assertEquals(GestureTrace.DECISION_DRAG_START, reader.getDecision(1));
+            assertEquals(3, reader.getDecisionArgument(1, 0));
+            assertEquals(1000, reader.getEventTime(1));
+
+            assertEquals(ACTION_POINTER_DOWN, reader.getAction(3));
+            assertEquals(4, reader.getPointerId(3));
+            assertEquals(2, reader.getPointerCount(3));
+            assertEquals(1, reader.getActionIndex(3));
+            assertEquals(-5f, reader.getY(3), 0f);
+
+            assertEquals(7, reader.getDecisionArgument(4, 1));
+            assertEquals(1016, reader.getEventTime(4));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void ringBufferKeepsTheLatestRecords() throws IOException {
+        GestureTraceRecorder recorder = new GestureTraceRecorder(8);
+        for (int i = 0; i < 21; i++) {
+            recorder.recordEvent(ACTION_MOVE, 0, 0, 1, i, 0, i);
+        }
+        assertEquals(8, recorder.getRecordCount());
+        assertEquals(13, recorder.getDroppedCount());
+
+        File file = folder.newFile();
+        recorder.writeTo(file);
+        GestureTraceReader reader = new GestureTraceReader(file);
+        try {
+            assertEquals(8, reader.getRecordCount());
+            assertEquals(13, reader.getDroppedCount());
+            for (int i = 0; i < 8; i++) {
+                assertEquals(13 + i, reader.getEventTime(i));
+                assertEquals(13f + i, reader.getX(i), 0f);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws IOException {
+        File file = folder.newFile();
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(new byte[64]);
+        } finally {
+            stream.close();
+        }
+        new GestureTraceReader(file);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void recordsBeyondTheTraceAreRejected() throws IOException {
+        GestureTraceRecorder recorder = new GestureTraceRecorder(4);
+        recorder.recordDecision(GestureTrace.DECISION_DROP, 1, 0, 0);
+        File file = folder.newFile();
+        recorder.writeTo(file);
+        GestureTraceReader reader = new GestureTraceReader(file);
+        try {
+            reader.getKind(1);
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.netcosports.recyclergesture.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check the spring and decay motions against their closed forms.
+ */
+public class SpringTest {
+
+    private static final float FRAME = 1 / 60f;
+
+    @Test
+    public void criticallyDampedSpringSettlesWithoutOvershooting() {
+        Spring spring = new Spring(Spring.STIFFNESS_MEDIUM, Spring.DAMPING_RATIO_NO_BOUNCY);
+        spring.start(0, 0, 100);
+        float previous = 0;
+        for (int i = 0; i < 30; i++) {
+            spring.step(FRAME);
+            assertTrue(spring.getPosition() >= previous);
+            assertTrue(spring.getPosition() <= 100);
+            previous = spring.getPosition();
+        }
+        assertTrue(spring.isAtRest(0.5f, 10));
+    }
+
+    @Test
+    public void stepsOfAnyDurationFollowTheSameCurve() {
+        Spring spring = new Spring(400, 0.5f);
+        spring.start(0, 2000, 0);
+        for (int i = 0; i < 12; i++) {
+            spring.step(FRAME);
+        }
+        float position = spring.getPosition();
+        float velocity = spring.getVelocity();
+
+        spring.start(0, 2000, 0);
+        spring.step(12 * FRAME);
+        assertEquals(position, spring.getPosition(), 1e-2f);
+        assertEquals(velocity, spring.getVelocity(), 1e-1f);
+    }
+
+    @Test
+    public void releaseVelocityIsHandedOver() {
+        Spring spring = new Spring(Spring.STIFFNESS_MEDIUM, 2f);
+        spring.start(0, -3000, 0);
+        spring.step(1e-5f);
+        assertEquals(-3000f, spring.getVelocity(), 30f);
+        assertTrue(spring.getPosition() < 0);
+        assertFalse(spring.isAtRest(0.5f, 10));
+    }
+
+    @Test
+    public void decayStopsAtItsFinalPosition() {
+        Decay decay = new Decay(Decay.FRICTION_DEFAULT);
+        decay.start(10, 1000);
+        assertEquals(510f, decay.getFinalPosition(), 1e-3f);
+        decay.step(1f);
+        assertEquals(1000 * Math.exp(-2), decay.getVelocity(), 1e-2f);
+        assertEquals(510f, decay.getFinalPosition(), 1e-2f);
+        decay.step(10f);
+        assertTrue(decay.isAtRest(1));
+        assertEquals(510f, decay.getPosition(), 1e-2f);
+    }
+
+    @Test
+    public void decayTimeToAPositionMatchesItsSteps() {
+        Decay decay = new Decay(Decay.FRICTION_DEFAULT);
+        decay.start(0, 1000);
+        float time = decay.getTimeTo(400);
+        decay.step(time);
+        assertEquals(400f, decay.getPosition(), 1e-2f);
+
+        decay.start(0, 1000);
+        assertTrue(Float.isInfinite(decay.getTimeTo(500)));
+        assertTrue(Float.isInfinite(decay.getTimeTo(-1)));
+        decay.start(0, 0);
+        assertTrue(Float.isInfinite(decay.getTimeTo(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stiffnessMustBePositive() {
+        new Spring(0, 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.netcosports.recyclergesture.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check the swipe to dismiss state machine on plain coordinates.
+ */
+public class SwipeTrackerTest {
+
+    private static final float SLOP = 10;
+    private static final float MIN_FLING_VELOCITY = 400;
+    private static final float MAX_FLING_VELOCITY = 8000;
+    private static final int SIZE = 400;
+
+    @Test
+    public void swipeStartsOnceTheSlopIsCrossed() {
+        SwipeTracker tracker = new SwipeTracker(SLOP, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+        tracker.down(100, 100, Axis.HORIZONTAL, 0);
+        assertEquals(SwipeTracker.STATE_TRACKING, tracker.move(105, 100));
+        // too steep to be a horizontal swipe.
+        assertEquals(SwipeTracker.STATE_TRACKING, tracker.move(120, 110));
+        assertEquals(SwipeTracker.STATE_SWIPING, tracker.move(130, 102));
+
+        // slop consumed before the swipe started doesn't move the item.
+        assertEquals(20f, tracker.getOffset(), 0f);
+        assertEquals(0.85f, tracker.getAlpha(SIZE), 1e-6f);
+    }
+
+    @Test
+    public void forbiddenDirectionGivesUp() {
+        SwipeTracker tracker = new SwipeTracker(SLOP, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+        tracker.down(100, 100, Axis.VERTICAL, 1);
+        assertEquals(SwipeTracker.STATE_SWIPING, tracker.move(100, 150));
+        assertEquals(SwipeTracker.STATE_IDLE, tracker.move(100, 90));
+        assertEquals(SwipeTracker.STATE_IDLE, tracker.move(100, 200));
+        assertEquals(0, tracker.up(100, 200, 0, 0, SIZE));
+    }
+
+    @Test
+    public void releaseBeyondHalfTheSizeDismisses() {
+        SwipeTracker tracker = new SwipeTracker(SLOP, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+        tracker.down(0, 0, Axis.VERTICAL, 0);
+        tracker.move(0, -150);
+        assertEquals(-1, tracker.up(0, -250, 0, 0, SIZE));
+        assertFalse(tracker.isSwiping());
+
+        tracker.down(0, 0, Axis.VERTICAL, 0);
+        tracker.move(0, 150);
+        assertEquals(0, tracker.up(0, 150, 0, 0, SIZE));
+    }
+
+    @Test
+    public void flingDismissesOnlyTowardTheSwipe() {
+        assertEquals(1, SwipeTracker.resolveDismiss(50, SIZE, 1000, 100, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(0, SwipeTracker.resolveDismiss(50, SIZE, -1000, 100, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        // too slow, too fast or mostly across the axis.
+        assertEquals(0, SwipeTracker.resolveDismiss(50, SIZE, 300, 0, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(0, SwipeTracker.resolveDismiss(50, SIZE, 9000, 0, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(0, SwipeTracker.resolveDismiss(50, SIZE, 1000, 1200, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+    }
+
+    @Test
+    public void revealSettlesOnTheClosestSideUnlessFlung() {
+        assertEquals(-1, SwipeTracker.resolveReveal(-120, 200, 0, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(0, SwipeTracker.resolveReveal(-80, 200, 0, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(1, SwipeTracker.resolveReveal(30, 200, 1000, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        // flung back toward closed.
+        assertEquals(0, SwipeTracker.resolveReveal(180, 200, -1000, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+        assertEquals(0, SwipeTracker.resolveReveal(0, 200, 1000, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY));
+    }
+
+    @Test
+    public void releaseWithoutSwipingDoesNothing() {
+        SwipeTracker tracker = new SwipeTracker(SLOP, MIN_FLING_VELOCITY, MAX_FLING_VELOCITY);
+        tracker.down(0, 0, Axis.HORIZONTAL, 0);
+        tracker.move(5, 0);
+        assertEquals(0, tracker.up(300, 0, 5000, 0, SIZE));
+        assertEquals(SwipeTracker.STATE_IDLE, tracker.getState());
+    }
+
+    @Test
+    public void blockedDeltas() {
+        assertTrue(SwipeTracker.isBlocked(1, -1));
+        assertTrue(SwipeTracker.isBlocked(-1, 1));
+        assertFalse(SwipeTracker.isBlocked(0, -1));
+        assertFalse(SwipeTracker.isBlocked(1, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void flingVelocitiesMustBeOrdered() {
+        new SwipeTracker(SLOP, MAX_FLING_VELOCITY, MIN_FLING_VELOCITY);
+    }
+}
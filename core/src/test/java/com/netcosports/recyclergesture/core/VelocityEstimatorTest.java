@@ -0,0 +1,67 @@
+package com.netcosports.recyclergesture.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check the least squares velocity against simple pointer motions.
+ */
+public class VelocityEstimatorTest {
+
+    @Test
+    public void constantMotionGivesItsVelocity() {
+        VelocityEstimator estimator = new VelocityEstimator();
+        for (int i = 0; i <= 10; i++) {
+            estimator.addSample(100 + 2f * i * 8, 50 - 0.5f * i * 8, 1000 + i * 8);
+        }
+        assertEquals(2000f, estimator.getVelocityX(), 1f);
+        assertEquals(-500f, estimator.getVelocityY(), 1f);
+        assertEquals(2000f, estimator.getVelocity(Axis.HORIZONTAL), 1f);
+    }
+
+    @Test
+    public void velocityIsAvailableMidGesture() {
+        VelocityEstimator estimator = new VelocityEstimator();
+        estimator.addSample(0, 0, 0);
+        assertEquals(0f, estimator.getVelocityX(), 0f);
+        estimator.addSample(10, 0, 10);
+        assertEquals(1000f, estimator.getVelocityX(), 1f);
+        estimator.addSample(10, 0, 20);
+        estimator.addSample(10, 0, 30);
+        assertEquals(300f, estimator.getVelocityX(), 1f);
+    }
+
+    @Test
+    public void samplesBeforeAPauseAreIgnored() {
+        VelocityEstimator estimator = new VelocityEstimator();
+        estimator.addSample(0, 0, 0);
+        estimator.addSample(500, 0, 10);
+        estimator.addSample(500, 0, 60);
+        estimator.addSample(500, 0, 70);
+        assertEquals(0f, estimator.getVelocityX(), 0f);
+    }
+
+    @Test
+    public void ringBufferKeepsTheLatestSamples() {
+        VelocityEstimator estimator = new VelocityEstimator(4, 1000);
+        for (int i = 0; i < 10; i++) {
+            // slow first, then a constant 3 px/ms.
+            float x = i < 6 ? i : 5 + 3 * (i - 5) * 10;
+            estimator.addSample(x, 0, i * 10);
+        }
+        assertEquals(4, estimator.getSampleCount());
+        assertEquals(60, estimator.getSampleTime(0));
+        assertEquals(125f, estimator.getSampleX(3), 0f);
+        assertEquals(3000f, estimator.getVelocityX(), 1f);
+
+        estimator.reset();
+        assertEquals(0, estimator.getSampleCount());
+        assertEquals(0f, estimator.getVelocityX(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void singleSampleCapacityIsRejected() {
+        new VelocityEstimator(1, 100);
+    }
+}
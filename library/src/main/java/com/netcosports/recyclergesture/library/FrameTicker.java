@@ -0,0 +1,182 @@
+package com.netcosports.recyclergesture.library;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Call back on every display frame until stopped.
+ * <p/>
+ * Paced by {@link android.view.Choreographer} frame callbacks, falls back on a fixed delay on
+ * devices older than {@link android.os.Build.VERSION_CODES#JELLY_BEAN}. Nothing is allocated
+ * per frame.
+ * <p/>
+ * A stopped ticker leaves its pending frame request, dropped once dispatched, so that a ticker
+ * started and stopped on each touch event requests a single frame.
+ */
+public final class FrameTicker {
+
+    /**
+     * Delay between two frames when the Choreographer isn't available.
+     */
+    private static final long FALLBACK_FRAME_DELAY_MILLIS = 16;
+
+    /**
+     * Callback invoked on each frame.
+     */
+    private final Callback callback;
+
+    /**
+     * Scheduler used to request the next frame.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * True while frames are requested.
+     */
+    private boolean running;
+
+    /**
+     * True while a frame is requested, the request may outlive a stop and serve the next start.
+     */
+    private boolean scheduled;
+
+    /**
+     * Call back on every display frame until stopped.
+     *
+     * @param host     view used to post frames when the Choreographer isn't available.
+     * @param callback callback invoked on each frame.
+     */
+    public FrameTicker(View host, Callback callback) {
+        this.callback = callback;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            this.scheduler = new ChoreographerScheduler();
+        } else {
+            this.scheduler = new HandlerScheduler(host);
+        }
+        this.running = false;
+        this.scheduled = false;
+    }
+
+    /**
+     * Start requesting frames, does nothing if already started.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (!scheduled) {
+            scheduled = true;
+            scheduler.schedule();
+        }
+    }
+
+    /**
+     * Stop requesting frames, the callback isn't invoked anymore until started again.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Used to know if frames are currently requested.
+     *
+     * @return true if started.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Dispatch a frame to the callback and request the next one if needed.
+     *
+     * @param frameTimeNanos frame time in {@link System#nanoTime()} time base.
+     */
+    private void dispatchFrame(long frameTimeNanos) {
+        scheduled = false;
+        if (!running) {
+            return;
+        }
+        if (callback.doFrame(frameTimeNanos)) {
+            if (running && !scheduled) {
+                scheduled = true;
+                scheduler.schedule();
+            }
+        } else {
+            running = false;
+        }
+    }
+
+    /**
+     * Callback invoked on each frame.
+     */
+    public interface Callback {
+        /**
+         * Called on each frame while the ticker is running.
+         *
+         * @param frameTimeNanos frame time in {@link System#nanoTime()} time base.
+         * @return true to be called back on the next frame, false to stop the ticker.
+         */
+        boolean doFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Request frames to the platform.
+     */
+    private abstract static class Scheduler {
+
+        /**
+         * Request the next frame.
+         */
+        abstract void schedule();
+    }
+
+    /**
+     * Scheduler paced by the {@link android.view.Choreographer}.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class ChoreographerScheduler extends Scheduler implements Choreographer.FrameCallback {
+
+        @Override
+        void schedule() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Scheduler posting frames on the host view with a fixed delay.
+     */
+    private final class HandlerScheduler extends Scheduler implements Runnable {
+
+        /**
+         * View used to post frames.
+         */
+        private final View host;
+
+        /**
+         * Scheduler posting frames on the host view with a fixed delay.
+         *
+         * @param host view used to post frames.
+         */
+        HandlerScheduler(View host) {
+            this.host = host;
+        }
+
+        @Override
+        void schedule() {
+            host.postDelayed(this, FALLBACK_FRAME_DELAY_MILLIS);
+        }
+
+        @Override
+        public void run() {
+            dispatchFrame(System.nanoTime());
+        }
+    }
+}
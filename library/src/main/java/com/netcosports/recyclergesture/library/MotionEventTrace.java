@@ -0,0 +1,39 @@
+package com.netcosports.recyclergesture.library;
+
+import android.view.MotionEvent;
+
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
+
+/**
+ * Record {@link android.view.MotionEvent} into a
+ * {@link com.netcosports.recyclergesture.core.GestureTraceRecorder}.
+ */
+public final class MotionEventTrace {
+
+    /**
+     * Non instantiable class.
+     */
+    private MotionEventTrace() {
+
+    }
+
+    /**
+     * Record every pointer of a touch event, as received by a gesture.
+     *
+     * @param recorder recorder, nothing is recorded if null.
+     * @param event    touch event.
+     */
+    public static void record(GestureTraceRecorder recorder, MotionEvent event) {
+        if (recorder == null) {
+            return;
+        }
+        int action = event.getActionMasked();
+        int actionIndex = event.getActionIndex();
+        int pointerCount = event.getPointerCount();
+        long eventTime = event.getEventTime();
+        for (int i = 0; i < pointerCount; i++) {
+            recorder.recordEvent(action, actionIndex, event.getPointerId(i), pointerCount,
+              event.getX(i), event.getY(i), eventTime);
+        }
+    }
+}
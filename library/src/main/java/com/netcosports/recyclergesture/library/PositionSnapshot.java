@@ -0,0 +1,535 @@
+package com.netcosports.recyclergesture.library;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Per position values of an adapter evaluated in bulk on a worker thread.
+ * <p/>
+ * Values are evaluated once the adapter is attached and stored in a byte per position. Adapter
+ * notifications shift the stored values right away on the main thread, only the positions they
+ * touch being unknown until evaluated again. Notifications received within a message of the
+ * main thread are coalesced, the positions they touch being evaluated at once, and a data set
+ * change evaluates every position again. Reads happen on the main thread and never lock.
+ * <p/>
+ * Items whose view type has a default value aren't evaluated at all. An evaluator failure is
+ * thrown on the main thread, unless the adapter changed meanwhile.
+ */
+public final class PositionSnapshot extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Value read for positions not evaluated yet.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Evaluator called on the worker thread.
+     */
+    private final Evaluator evaluator;
+
+    /**
+     * Executor running the evaluations.
+     */
+    private final Executor executor;
+
+    /**
+     * Handler used to publish the evaluations on the main thread.
+     */
+    private final Handler mainHandler;
+
+    /**
+     * Default value per view type.
+     */
+    private final SparseIntArray viewTypeDefaults;
+
+    /**
+     * Adapter whose positions are evaluated.
+     */
+    private RecyclerView.Adapter adapter;
+
+    /**
+     * Value per position, null if nothing evaluated yet.
+     */
+    private byte[] values;
+
+    /**
+     * Number of positions stored in {@link #values}.
+     */
+    private int valueCount;
+
+    /**
+     * Buffer given to the next evaluation.
+     */
+    private byte[] spareValues;
+
+    /**
+     * First position to evaluate again, once values are evaluated.
+     */
+    private int invalidStart;
+
+    /**
+     * Exclusive end of the positions to evaluate again, none if not after {@link #invalidStart}.
+     */
+    private int invalidEnd;
+
+    /**
+     * Incremented on each adapter change, evaluations of a previous generation are dropped.
+     */
+    private int generation;
+
+    /**
+     * True while an evaluation is running.
+     */
+    private boolean evaluating;
+
+    /**
+     * True if the adapter changed while an evaluation was running.
+     */
+    private boolean dirty;
+
+    /**
+     * True while the start of an evaluation is posted, notifications are coalesced meanwhile.
+     */
+    private boolean startPosted;
+
+    /**
+     * Start the evaluation once the notifications of the current message are received.
+     */
+    private final Runnable starter = new Runnable() {
+        @Override
+        public void run() {
+            startPosted = false;
+            startEvaluation();
+        }
+    };
+
+    /**
+     * Per position values of an adapter evaluated in bulk on a worker thread.
+     *
+     * @param evaluator evaluator called on the worker thread.
+     * @param executor  executor running the evaluations.
+     */
+    public PositionSnapshot(Evaluator evaluator, Executor executor) {
+        this.evaluator = evaluator;
+        this.executor = executor;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.viewTypeDefaults = new SparseIntArray();
+        this.values = null;
+        this.valueCount = 0;
+        this.invalidStart = 0;
+        this.invalidEnd = 0;
+        this.generation = 0;
+        this.evaluating = false;
+        this.dirty = false;
+        this.startPosted = false;
+    }
+
+    /**
+     * Give a default value to every item of a view type, those items aren't evaluated.
+     * <p/>
+     * Must be called before {@link #attach(android.support.v7.widget.RecyclerView.Adapter)}.
+     *
+     * @param viewType view type.
+     * @param value    value in [0, 127].
+     */
+    public void setViewTypeDefault(int viewType, int value) {
+        checkValue(value);
+        if (adapter != null) {
+            throw new IllegalStateException("View type defaults must be set before attaching the snapshot");
+        }
+        viewTypeDefaults.put(viewType, value);
+    }
+
+    /**
+     * Start evaluating the positions of an adapter, and evaluate them again each time it changes.
+     *
+     * @param target adapter whose positions are evaluated.
+     */
+    public void attach(RecyclerView.Adapter target) {
+        if (adapter == target) {
+            return;
+        }
+        if (adapter != null) {
+            throw new IllegalStateException("Snapshot already attached to another adapter");
+        }
+        adapter = target;
+        adapter.registerAdapterDataObserver(this);
+        scheduleEvaluation();
+    }
+
+    /**
+     * Stop evaluating the attached adapter, the values are dropped and an evaluation running is
+     * ignored once done. The snapshot can then be attached to another adapter.
+     */
+    public void detach() {
+        if (adapter == null) {
+            return;
+        }
+        adapter.unregisterAdapterDataObserver(this);
+        adapter = null;
+        generation++;
+        mainHandler.removeCallbacks(starter);
+        startPosted = false;
+        dirty = false;
+        values = null;
+        valueCount = 0;
+        invalidStart = 0;
+        invalidEnd = 0;
+    }
+
+    /**
+     * Retrieve the value of a position.
+     * <p/>
+     * Main thread only.
+     *
+     * @param position adapter position.
+     * @return value in [0, 127], {@link #UNKNOWN} if not evaluated yet.
+     */
+    public int get(int position) {
+        if (values == null || position < 0 || position >= valueCount) {
+            return UNKNOWN;
+        }
+        return values[position];
+    }
+
+    @Override
+    public void onChanged() {
+        super.onChanged();
+        values = null;
+        valueCount = 0;
+        onAdapterChanged();
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        super.onItemRangeChanged(positionStart, itemCount);
+        if (values != null) {
+            int end = Math.min(valueCount, positionStart + itemCount);
+            if (positionStart < end) {
+                Arrays.fill(values, positionStart, end, (byte) UNKNOWN);
+                invalidate(positionStart, end);
+            }
+        }
+        onAdapterChanged();
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        super.onItemRangeInserted(positionStart, itemCount);
+        if (values != null && positionStart <= valueCount) {
+            if (valueCount + itemCount > values.length) {
+                values = Arrays.copyOf(values, Math.max(valueCount + itemCount, values.length * 2));
+            }
+            System.arraycopy(values, positionStart, values, positionStart + itemCount,
+              valueCount - positionStart);
+            Arrays.fill(values, positionStart, positionStart + itemCount, (byte) UNKNOWN);
+            valueCount += itemCount;
+            if (invalidStart < invalidEnd) {
+                if (invalidStart >= positionStart) {
+                    invalidStart += itemCount;
+                }
+                if (invalidEnd > positionStart) {
+                    invalidEnd += itemCount;
+                }
+            }
+            invalidate(positionStart, positionStart + itemCount);
+        }
+        onAdapterChanged();
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        super.onItemRangeRemoved(positionStart, itemCount);
+        if (values != null && positionStart < valueCount) {
+            int end = Math.min(valueCount, positionStart + itemCount);
+            System.arraycopy(values, end, values, positionStart, valueCount - end);
+            valueCount -= end - positionStart;
+            if (invalidStart > positionStart) {
+                invalidStart = Math.max(positionStart, invalidStart - (end - positionStart));
+            }
+            if (invalidEnd > positionStart) {
+                invalidEnd = Math.max(positionStart, invalidEnd - (end - positionStart));
+            }
+        }
+        onAdapterChanged();
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        super.onItemRangeMoved(fromPosition, toPosition, itemCount);
+        if (values != null) {
+            if (itemCount == 1 && fromPosition < valueCount && toPosition < valueCount) {
+                byte moved = values[fromPosition];
+                if (fromPosition < toPosition) {
+                    System.arraycopy(values, fromPosition + 1, values, fromPosition, toPosition - fromPosition);
+                } else {
+                    System.arraycopy(values, toPosition, values, toPosition + 1, fromPosition - toPosition);
+                }
+                values[toPosition] = moved;
+                int low = Math.min(fromPosition, toPosition);
+                int high = Math.max(fromPosition, toPosition) + 1;
+                if (invalidStart < invalidEnd && invalidStart < high && invalidEnd > low) {
+                    // positions to evaluate are shifted by the move, evaluate the moved range too.
+                    invalidate(low, high);
+                }
+            } else {
+                values = null;
+                valueCount = 0;
+            }
+        }
+        onAdapterChanged();
+    }
+
+    /**
+     * Drop the running evaluation, if any, and evaluate the adapter again.
+     */
+    private void onAdapterChanged() {
+        generation++;
+        scheduleEvaluation();
+    }
+
+    /**
+     * Add a range to the positions to evaluate again.
+     *
+     * @param start first position.
+     * @param end   exclusive end.
+     */
+    private void invalidate(int start, int end) {
+        if (invalidStart >= invalidEnd) {
+            invalidStart = start;
+            invalidEnd = end;
+        } else {
+            invalidStart = Math.min(invalidStart, start);
+            invalidEnd = Math.max(invalidEnd, end);
+        }
+    }
+
+    /**
+     * Evaluate the adapter positions on the worker thread once the notifications of the current
+     * message are received, at most one evaluation runs at a time.
+     */
+    private void scheduleEvaluation() {
+        if (evaluating) {
+            dirty = true;
+            return;
+        }
+        if (!startPosted) {
+            startPosted = true;
+            mainHandler.post(starter);
+        }
+    }
+
+    /**
+     * Evaluate every position if nothing is evaluated yet, the invalid positions otherwise.
+     */
+    private void startEvaluation() {
+        dirty = false;
+        boolean full = values == null;
+        int start = full ? 0 : invalidStart;
+        int end = full ? adapter.getItemCount() : Math.min(invalidEnd, valueCount);
+        if (!full && start >= end) {
+            // shifted values are up to date.
+            return;
+        }
+        evaluating = true;
+
+        // defaults are copied so that the worker never reads a structure owned by the main thread.
+        int defaultCount = viewTypeDefaults.size();
+        int[] defaultTypes = new int[defaultCount];
+        byte[] defaultValues = new byte[defaultCount];
+        for (int i = 0; i < defaultCount; i++) {
+            defaultTypes[i] = viewTypeDefaults.keyAt(i);
+            defaultValues[i] = (byte) viewTypeDefaults.valueAt(i);
+        }
+
+        byte[] buffer = spareValues;
+        spareValues = null;
+        executor.execute(new Evaluation(generation, full, start, end, buffer, defaultTypes, defaultValues));
+    }
+
+    /**
+     * Publish the result of an evaluation, main thread only.
+     *
+     * @param evaluation evaluation done.
+     */
+    private void publish(Evaluation evaluation) {
+        evaluating = false;
+        boolean current = evaluation.generation == generation;
+        if (evaluation.failure != null && current) {
+            // the adapter didn't change, the evaluator itself failed.
+            throw evaluation.failure;
+        }
+        if (evaluation.result != null && current) {
+            if (evaluation.full) {
+                spareValues = values;
+                values = evaluation.result;
+                valueCount = evaluation.end;
+            } else {
+                System.arraycopy(evaluation.result, 0, values, evaluation.start, evaluation.end - evaluation.start);
+                spareValues = evaluation.result;
+            }
+            invalidStart = 0;
+            invalidEnd = 0;
+        } else if (evaluation.result != null) {
+            spareValues = evaluation.result;
+        }
+        if (dirty) {
+            // adapter changed meanwhile, evaluate again.
+            scheduleEvaluation();
+        }
+    }
+
+    /**
+     * Check that a value can be stored.
+     *
+     * @param value value.
+     */
+    private static void checkValue(int value) {
+        if (value < 0 || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Value must be in [0, 127] : " + value);
+        }
+    }
+
+    /**
+     * Evaluate the value of an adapter position.
+     */
+    public interface Evaluator {
+        /**
+         * Called on a worker thread to evaluate the value of a position, must only read data which
+         * can be safely accessed from another thread.
+         *
+         * @param position adapter position.
+         * @return value in [0, 127].
+         */
+        int evaluate(int position);
+    }
+
+    /**
+     * Bulk evaluation of a range of adapter positions, run on the worker thread then published on
+     * the main thread.
+     */
+    private final class Evaluation implements Runnable {
+
+        /**
+         * Generation of the adapter evaluated.
+         */
+        private final int generation;
+
+        /**
+         * True if every position is evaluated.
+         */
+        private final boolean full;
+
+        /**
+         * First position evaluated.
+         */
+        private final int start;
+
+        /**
+         * Exclusive end of the positions evaluated.
+         */
+        private final int end;
+
+        /**
+         * Sorted view types having a default value.
+         */
+        private final int[] defaultTypes;
+
+        /**
+         * Default value of each view type.
+         */
+        private final byte[] defaultValues;
+
+        /**
+         * Buffer to fill, may be null or too small.
+         */
+        private byte[] buffer;
+
+        /**
+         * Value per position from {@link #start}, null until evaluated or if the evaluation failed.
+         */
+        private byte[] result;
+
+        /**
+         * Failure of the evaluation, null if none.
+         */
+        private RuntimeException failure;
+
+        /**
+         * False until evaluated on the worker thread.
+         */
+        private boolean done;
+
+        /**
+         * Bulk evaluation of a range of adapter positions.
+         *
+         * @param generation    generation of the adapter evaluated.
+         * @param full          true if every position is evaluated.
+         * @param start         first position evaluated.
+         * @param end           exclusive end of the positions evaluated.
+         * @param buffer        buffer to fill, may be null or too small.
+         * @param defaultTypes  sorted view types having a default value.
+         * @param defaultValues default value of each view type.
+         */
+        private Evaluation(int generation, boolean full, int start, int end, byte[] buffer, int[] defaultTypes,
+          byte[] defaultValues) {
+            this.generation = generation;
+            this.full = full;
+            this.start = start;
+            this.end = end;
+            this.buffer = buffer;
+            this.defaultTypes = defaultTypes;
+            this.defaultValues = defaultValues;
+            this.done = false;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                publish(this);
+                return;
+            }
+            done = true;
+            try {
+                result = evaluate();
+            } catch (RuntimeException e) {
+                // adapter may have changed under the worker, checked against the generation once
+                // published.
+                result = null;
+                failure = e;
+            }
+            mainHandler.post(this);
+        }
+
+        /**
+         * Evaluate the range of adapter positions.
+         *
+         * @return value per position from {@link #start}.
+         */
+        private byte[] evaluate() {
+            int count = end - start;
+            byte[] evaluated = buffer != null && buffer.length >= count ? buffer : new byte[count];
+            buffer = null;
+            boolean hasDefaults = defaultTypes.length > 0;
+            for (int position = start; position < end; position++) {
+                int index = -1;
+                if (hasDefaults) {
+                    index = Arrays.binarySearch(defaultTypes, adapter.getItemViewType(position));
+                }
+                if (index >= 0) {
+                    evaluated[position - start] = defaultValues[index];
+                } else {
+                    int value = evaluator.evaluate(position);
+                    checkValue(value);
+                    evaluated[position - start] = (byte) value;
+                }
+            }
+            return evaluated;
+        }
+    }
+}
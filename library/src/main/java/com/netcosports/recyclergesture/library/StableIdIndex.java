@@ -0,0 +1,106 @@
+package com.netcosports.recyclergesture.library;
+
+import java.util.Arrays;
+
+/**
+ * Index from stable item ids to their index in an array, such as adapter positions, backed by
+ * primitive arrays.
+ * <p/>
+ * Open addressing with linear probing, the table is reused from one build to the next and only
+ * grows. Not thread safe.
+ */
+public final class StableIdIndex {
+
+    /**
+     * Smallest table size.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Ids of the table slots.
+     */
+    private long[] keys;
+
+    /**
+     * Position + 1 of the table slots, 0 for empty slots.
+     */
+    private int[] values;
+
+    /**
+     * Table size - 1, table size being a power of 2.
+     */
+    private int mask;
+
+    /**
+     * Empty index.
+     */
+    public StableIdIndex() {
+        this.keys = new long[MIN_CAPACITY];
+        this.values = new int[MIN_CAPACITY];
+        this.mask = MIN_CAPACITY - 1;
+    }
+
+    /**
+     * Index the ids of a list, replacing the previous content.
+     * <p/>
+     * When an id is duplicated, its first position is kept.
+     *
+     * @param ids   ids by position.
+     * @param count number of positions.
+     */
+    public void build(long[] ids, int count) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, count * 2 - 1)) << 1;
+        if (capacity > keys.length) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        } else {
+            Arrays.fill(values, 0);
+        }
+        for (int position = 0; position < count; position++) {
+            int slot = slotOf(ids[position]);
+            if (values[slot] == 0) {
+                keys[slot] = ids[position];
+                values[slot] = position + 1;
+            }
+        }
+    }
+
+    /**
+     * Retrieve the position of an id.
+     *
+     * @param id stable id.
+     * @return position, -1 if not indexed.
+     */
+    public int get(long id) {
+        return values[slotOf(id)] - 1;
+    }
+
+    /**
+     * Find the slot of an id, or the empty slot where it would be stored.
+     *
+     * @param id stable id.
+     * @return table slot.
+     */
+    private int slotOf(long id) {
+        int slot = hash(id) & mask;
+        while (values[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spread the bits of an id, sequential ids would otherwise cluster.
+     *
+     * @param id stable id.
+     * @return hash.
+     */
+    private static int hash(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,262 @@
+package com.netcosports.recyclergesture.library;
+
+import android.view.MotionEvent;
+
+import com.netcosports.recyclergesture.core.VelocityEstimator;
+
+/**
+ * Estimate where the pointer will be a few milliseconds ahead of the last touch sample, so that
+ * the dragged or swiped view stays closer to the finger.
+ * <p/>
+ * Every sample batched in a {@link android.view.MotionEvent}, historical ones included, is kept
+ * along with its event time. The pointer velocity is fitted by a {@link VelocityEstimator} over the
+ * samples of the last 40 ms, then the pointer is extrapolated from the last sample
+ * to the prediction horizon. A horizon of 0 reads the last sample as is.
+ * <p/>
+ * Predictions are checked against the samples received once their time is reached, see
+ * {@link #getPredictionErrorRms()}. Nothing is allocated per event.
+ */
+public final class TouchPredictor {
+
+    /**
+     * Largest prediction horizon allowed, further predictions overshoot on each direction change.
+     */
+    public static final long MAX_HORIZON_MILLIS = 50;
+
+    /**
+     * Age of the oldest sample used to fit the velocity.
+     */
+    private static final long FIT_WINDOW_MILLIS = 40;
+
+    /**
+     * Number of samples kept, enough for a window of high rate stylus samples.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Prediction horizon.
+     */
+    private final long horizonMillis;
+
+    /**
+     * Samples of the gesture, fitted by least squares.
+     */
+    private final VelocityEstimator estimator;
+
+    /**
+     * Predicted abscissa.
+     */
+    private float predictedX;
+
+    /**
+     * Predicted ordinate.
+     */
+    private float predictedY;
+
+    /**
+     * True while a prediction waits to be checked.
+     */
+    private boolean pending;
+
+    /**
+     * Abscissa of the prediction waiting to be checked.
+     */
+    private float pendingX;
+
+    /**
+     * Ordinate of the prediction waiting to be checked.
+     */
+    private float pendingY;
+
+    /**
+     * Time of the prediction waiting to be checked.
+     */
+    private long pendingTime;
+
+    /**
+     * Sum of the squared errors of the checked predictions.
+     */
+    private double squaredErrorSum;
+
+    /**
+     * Largest error of the checked predictions.
+     */
+    private float maxError;
+
+    /**
+     * Number of checked predictions.
+     */
+    private int errorCount;
+
+    /**
+     * Predict the pointer position a few milliseconds ahead of the last touch sample.
+     *
+     * @param horizonMillis prediction horizon in [0, {@link #MAX_HORIZON_MILLIS}], the time
+     *                      between the dispatch of a touch event and the display of the frame it
+     *                      updates, usually a frame.
+     */
+    public TouchPredictor(long horizonMillis) {
+        if (horizonMillis < 0 || horizonMillis > MAX_HORIZON_MILLIS) {
+            throw new IllegalArgumentException("Prediction horizon must be in [0, " + MAX_HORIZON_MILLIS
+              + "] ms : " + horizonMillis);
+        }
+        this.horizonMillis = horizonMillis;
+        this.estimator = new VelocityEstimator(CAPACITY, FIT_WINDOW_MILLIS);
+        resetMetrics();
+        reset();
+    }
+
+    /**
+     * Forget the samples of the previous gesture, to be called on each down event.
+     * <p/>
+     * Error metrics are kept.
+     */
+    public void reset() {
+        estimator.reset();
+        pending = false;
+        predictedX = 0;
+        predictedY = 0;
+    }
+
+    /**
+     * Add the samples of a touch event, historical ones first, then update the prediction.
+     *
+     * @param event        touch event.
+     * @param pointerIndex index of the tracked pointer.
+     * @param offsetX      offset added to the abscissa of each sample, to track raw coordinates.
+     * @param offsetY      offset added to the ordinate of each sample, to track raw coordinates.
+     */
+    public void addSamples(MotionEvent event, int pointerIndex, float offsetX, float offsetY) {
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            estimator.addSample(event.getHistoricalX(pointerIndex, h) + offsetX,
+              event.getHistoricalY(pointerIndex, h) + offsetY, event.getHistoricalEventTime(h));
+        }
+        estimator.addSample(event.getX(pointerIndex) + offsetX, event.getY(pointerIndex) + offsetY,
+          event.getEventTime());
+
+        checkPendingPrediction();
+        predict();
+    }
+
+    /**
+     * Predicted abscissa, the abscissa of the last sample if the horizon is 0.
+     *
+     * @return abscissa.
+     */
+    public float getX() {
+        return predictedX;
+    }
+
+    /**
+     * Predicted ordinate, the ordinate of the last sample if the horizon is 0.
+     *
+     * @return ordinate.
+     */
+    public float getY() {
+        return predictedY;
+    }
+
+    /**
+     * Prediction horizon.
+     *
+     * @return horizon in ms.
+     */
+    public long getHorizonMillis() {
+        return horizonMillis;
+    }
+
+    /**
+     * Root mean square distance between the checked predictions and the pointer position at
+     * their time, interpolated from the samples received afterwards.
+     *
+     * @return error in pixels, 0 if no prediction has been checked yet.
+     */
+    public float getPredictionErrorRms() {
+        return errorCount == 0 ? 0f : (float) Math.sqrt(squaredErrorSum / errorCount);
+    }
+
+    /**
+     * Largest distance between a checked prediction and the pointer position at its time.
+     *
+     * @return error in pixels.
+     */
+    public float getMaxPredictionError() {
+        return maxError;
+    }
+
+    /**
+     * Number of predictions checked, only one prediction is checked at a time so it may be lower
+     * than the number of events.
+     *
+     * @return checked prediction count.
+     */
+    public int getPredictionErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Reset the error metrics.
+     */
+    public void resetMetrics() {
+        squaredErrorSum = 0;
+        maxError = 0;
+        errorCount = 0;
+    }
+
+    /**
+     * Check the pending prediction against the samples once its time is reached.
+     */
+    private void checkPendingPrediction() {
+        int size = estimator.getSampleCount();
+        if (!pending || estimator.getSampleTime(size - 1) < pendingTime) {
+            return;
+        }
+        pending = false;
+
+        // interpolate the pointer position at the prediction time.
+        for (int i = size - 1; i > 0; i--) {
+            long before = estimator.getSampleTime(i - 1);
+            if (before <= pendingTime) {
+                long span = estimator.getSampleTime(i) - before;
+                float ratio = span == 0 ? 1f : (float) (pendingTime - before) / span;
+                float beforeX = estimator.getSampleX(i - 1);
+                float beforeY = estimator.getSampleY(i - 1);
+                float x = beforeX + (estimator.getSampleX(i) - beforeX) * ratio;
+                float y = beforeY + (estimator.getSampleY(i) - beforeY) * ratio;
+                float dx = x - pendingX;
+                float dy = y - pendingY;
+                double squaredError = dx * dx + dy * dy;
+                squaredErrorSum += squaredError;
+                maxError = Math.max(maxError, (float) Math.sqrt(squaredError));
+                errorCount++;
+                return;
+            }
+        }
+        // prediction time is older than every kept sample, can't be checked.
+    }
+
+    /**
+     * Extrapolate the last sample to the prediction horizon with the fitted velocity.
+     */
+    private void predict() {
+        int last = estimator.getSampleCount() - 1;
+        long lastTime = estimator.getSampleTime(last);
+        predictedX = estimator.getSampleX(last);
+        predictedY = estimator.getSampleY(last);
+        if (horizonMillis == 0 || estimator.getSampleCount() < 2) {
+            return;
+        }
+
+        // velocities are fitted in pixels per second.
+        predictedX += estimator.getVelocityX() * horizonMillis / 1000f;
+        predictedY += estimator.getVelocityY() * horizonMillis / 1000f;
+
+        if (!pending) {
+            pending = true;
+            pendingX = predictedX;
+            pendingY = predictedY;
+            pendingTime = lastTime + horizonMillis;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.FrameTicker;
+
+import java.util.Arrays;
+
+/**
+ * Translation animations of the children of a recycler view while dragging, at most one per
+ * child.
+ * <p/>
+ * Animating a child already animated retargets its running animation : the new one starts from
+ * the current position and velocity of the child, so that a fast drag crossing the same views
+ * over and over doesn't stack animators and views never jump. Animations follow a cubic Hermite
+ * curve reaching the target at rest after a fixed duration, and are dropped once their child is
+ * detached from the recycler view.
+ * <p/>
+ * Animations are stored in parallel arrays and driven by a {@link FrameTicker}, nothing is
+ * allocated once the arrays have grown to the number of animated children.
+ */
+final class ChildAnimator implements FrameTicker.Callback, RecyclerView.OnChildAttachStateChangeListener {
+
+    /**
+     * Number of nanoseconds in a millisecond.
+     */
+    private static final float NANOS_PER_MILLI = 1000000f;
+
+    /**
+     * Animations initially held, about a screen of children.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Ticker pacing the animations on the display frames.
+     */
+    private final FrameTicker frameTicker;
+
+    /**
+     * Duration of an animation, in nanoseconds.
+     */
+    private final long durationNanos;
+
+    /**
+     * Animated children.
+     */
+    private View[] views;
+
+    /**
+     * Start time of each animation, in nanoseconds.
+     */
+    private long[] startTimes;
+
+    /**
+     * Start translation, velocity in pixels per millisecond and target translation of each
+     * animation, on x then on y.
+     */
+    private float[] startX;
+    private float[] startY;
+    private float[] velocityX;
+    private float[] velocityY;
+    private float[] targetX;
+    private float[] targetY;
+
+    /**
+     * Number of running animations.
+     */
+    private int count;
+
+    /**
+     * Animations of the children of a recycler view.
+     *
+     * @param recyclerView   recycler view whose children are animated.
+     * @param durationMillis duration of an animation.
+     */
+    ChildAnimator(RecyclerView recyclerView, long durationMillis) {
+        this.frameTicker = new FrameTicker(recyclerView, this);
+        this.durationNanos = durationMillis * (long) NANOS_PER_MILLI;
+        this.views = new View[INITIAL_CAPACITY];
+        this.startTimes = new long[INITIAL_CAPACITY];
+        this.startX = new float[INITIAL_CAPACITY];
+        this.startY = new float[INITIAL_CAPACITY];
+        this.velocityX = new float[INITIAL_CAPACITY];
+        this.velocityY = new float[INITIAL_CAPACITY];
+        this.targetX = new float[INITIAL_CAPACITY];
+        this.targetY = new float[INITIAL_CAPACITY];
+        this.count = 0;
+        recyclerView.addOnChildAttachStateChangeListener(this);
+    }
+
+    /**
+     * Animate the translation of a child to a target, from its current position and velocity.
+     *
+     * @param view    child to animate.
+     * @param targetX target translation on x.
+     * @param targetY target translation on y.
+     */
+    void animateTo(View view, float targetX, float targetY) {
+        long now = System.nanoTime();
+        int index = indexOf(view);
+        float vx = 0;
+        float vy = 0;
+        if (index != -1) {
+            float u = getProgress(index, now);
+            vx = getVelocity(u, startX[index], velocityX[index], this.targetX[index]);
+            vy = getVelocity(u, startY[index], velocityY[index], this.targetY[index]);
+        } else if (view.getTranslationX() == targetX && view.getTranslationY() == targetY) {
+            return;
+        }
+        start(index, view, now, view.getTranslationX(), view.getTranslationY(), vx, vy, targetX, targetY);
+    }
+
+    /**
+     * Animate a child from the place of another one back to its layout position.
+     * <p/>
+     * Used once a child displays the item previously displayed by the source : the item keeps
+     * being displayed where it was, and keeps moving the way it was, when it starts sliding to
+     * its new slot.
+     *
+     * @param view   child to animate.
+     * @param source child previously displaying the item, not animated yet by this switch.
+     */
+    void slideFrom(View view, View source) {
+        long now = System.nanoTime();
+        int sourceIndex = indexOf(source);
+        float vx = 0;
+        float vy = 0;
+        if (sourceIndex != -1) {
+            float u = getProgress(sourceIndex, now);
+            vx = getVelocity(u, startX[sourceIndex], velocityX[sourceIndex], targetX[sourceIndex]);
+            vy = getVelocity(u, startY[sourceIndex], velocityY[sourceIndex], targetY[sourceIndex]);
+        }
+        float fromX = source.getLeft() + source.getTranslationX() - view.getLeft();
+        float fromY = source.getTop() + source.getTranslationY() - view.getTop();
+        view.setTranslationX(fromX);
+        view.setTranslationY(fromY);
+        start(indexOf(view), view, now, fromX, fromY, vx, vy, 0, 0);
+    }
+
+    /**
+     * Stop animating a child, its translation is left as is.
+     *
+     * @param view child.
+     */
+    void cancel(View view) {
+        int index = indexOf(view);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    /**
+     * Used to know if a child is being animated.
+     *
+     * @param view child.
+     * @return true if animated.
+     */
+    boolean isAnimating(View view) {
+        return indexOf(view) != -1;
+    }
+
+    /**
+     * Number of running animations.
+     *
+     * @return animation count.
+     */
+    int getAnimationCount() {
+        return count;
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        for (int i = count - 1; i >= 0; i--) {
+            float u = getProgress(i, frameTimeNanos);
+            View view = views[i];
+            view.setTranslationX(getPosition(u, startX[i], velocityX[i], targetX[i]));
+            view.setTranslationY(getPosition(u, startY[i], velocityY[i], targetY[i]));
+            if (u >= 1f) {
+                remove(i);
+            }
+        }
+        return count > 0;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        // the child left the viewport, settle it at its target so that it's recycled at rest.
+        int index = indexOf(view);
+        if (index != -1) {
+            view.setTranslationX(targetX[index]);
+            view.setTranslationY(targetY[index]);
+            remove(index);
+        }
+    }
+
+    /**
+     * Start or restart an animation.
+     */
+    private void start(int index, View view, long now, float fromX, float fromY, float vx, float vy,
+      float toX, float toY) {
+        view.animate().cancel();
+        if (index == -1) {
+            ensureCapacity(count + 1);
+            index = count++;
+            views[index] = view;
+        }
+        startTimes[index] = now;
+        startX[index] = fromX;
+        startY[index] = fromY;
+        velocityX[index] = vx;
+        velocityY[index] = vy;
+        targetX[index] = toX;
+        targetY[index] = toY;
+        frameTicker.start();
+    }
+
+    /**
+     * Progress of an animation.
+     *
+     * @return progress in [0, 1].
+     */
+    private float getProgress(int index, long timeNanos) {
+        if (durationNanos <= 0) {
+            return 1f;
+        }
+        float u = (float) (timeNanos - startTimes[index]) / durationNanos;
+        return Math.max(0f, Math.min(1f, u));
+    }
+
+    /**
+     * Position on a cubic Hermite curve ending at rest.
+     *
+     * @param u        progress in [0, 1].
+     * @param from     start position.
+     * @param velocity start velocity, in pixels per millisecond.
+     * @param to       target position.
+     * @return position.
+     */
+    private float getPosition(float u, float from, float velocity, float to) {
+        float u2 = u * u;
+        float u3 = u2 * u;
+        float durationMillis = durationNanos / NANOS_PER_MILLI;
+        return (2 * u3 - 3 * u2 + 1) * from + (u3 - 2 * u2 + u) * durationMillis * velocity
+          + (-2 * u3 + 3 * u2) * to;
+    }
+
+    /**
+     * Velocity on a cubic Hermite curve ending at rest.
+     *
+     * @param u        progress in [0, 1].
+     * @param from     start position.
+     * @param velocity start velocity, in pixels per millisecond.
+     * @param to       target position.
+     * @return velocity, in pixels per millisecond.
+     */
+    private float getVelocity(float u, float from, float velocity, float to) {
+        float durationMillis = durationNanos / NANOS_PER_MILLI;
+        if (durationMillis <= 0) {
+            return 0;
+        }
+        float u2 = u * u;
+        return ((6 * u2 - 6 * u) * (from - to)) / durationMillis + (3 * u2 - 4 * u + 1) * velocity;
+    }
+
+    private int indexOf(View view) {
+        for (int i = 0; i < count; i++) {
+            if (views[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remove an animation, the last one takes its place.
+     */
+    private void remove(int index) {
+        int last = --count;
+        views[index] = views[last];
+        startTimes[index] = startTimes[last];
+        startX[index] = startX[last];
+        startY[index] = startY[last];
+        velocityX[index] = velocityX[last];
+        velocityY[index] = velocityY[last];
+        targetX[index] = targetX[last];
+        targetY[index] = targetY[last];
+        views[last] = null;
+        if (count == 0) {
+            frameTicker.stop();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= views.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, views.length * 2);
+        views = Arrays.copyOf(views, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        startX = Arrays.copyOf(startX, newCapacity);
+        startY = Arrays.copyOf(startY, newCapacity);
+        velocityX = Arrays.copyOf(velocityX, newCapacity);
+        velocityY = Arrays.copyOf(velocityY, newCapacity);
+        targetX = Arrays.copyOf(targetX, newCapacity);
+        targetY = Arrays.copyOf(targetY, newCapacity);
+    }
+}
@@ -0,0 +1,265 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Sorted index of the adapter positions which can't be hovered while dragging.
+ * <p/>
+ * Kept up to date through adapter notifications so that looking for the closest dividers of a
+ * dragged item is a binary search instead of a full adapter scan. A full scan is only performed
+ * when the index has been invalidated, for instance after a
+ * {@link android.support.v7.widget.RecyclerView.Adapter#notifyDataSetChanged()}.
+ * <p/>
+ * See also : {@link DragStrategy#isItemHoverable(int)}
+ */
+final class DividerIndex extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Initial capacity of the position buffer.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Strategy used to know if an item can be hovered.
+     */
+    private final DragStrategy dragStrategy;
+
+    /**
+     * Sorted positions of the dividers, only the first {@link #size} entries are meaningful.
+     */
+    private int[] positions;
+
+    /**
+     * Number of dividers currently indexed.
+     */
+    private int size;
+
+    /**
+     * False when the index must be rebuilt from a full scan before being used.
+     */
+    private boolean valid;
+
+    /**
+     * Sorted index of the adapter positions which can't be hovered while dragging.
+     *
+     * @param dragStrategy strategy used to know if an item can be hovered.
+     */
+    DividerIndex(DragStrategy dragStrategy) {
+        this.dragStrategy = dragStrategy;
+        this.positions = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.valid = false;
+    }
+
+    /**
+     * Force a full scan the next time the index is used.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Rebuild the index from a full adapter scan if it has been invalidated.
+     *
+     * @param itemCount current number of items in the adapter.
+     */
+    void ensureValid(int itemCount) {
+        if (valid) {
+            return;
+        }
+        size = 0;
+        for (int i = 0; i < itemCount; i++) {
+            if (!dragStrategy.isItemHoverable(i)) {
+                append(i);
+            }
+        }
+        valid = true;
+    }
+
+    /**
+     * Find the closest divider placed before the given position.
+     *
+     * @param position adapter position.
+     * @return position of the previous divider, -1 if none.
+     */
+    int previous(int position) {
+        int index = lowerBound(position) - 1;
+        return index < 0 ? -1 : positions[index];
+    }
+
+    /**
+     * Find the closest divider placed after the given position.
+     *
+     * @param position adapter position.
+     * @return position of the next divider, -1 if none.
+     */
+    int next(int position) {
+        int index = lowerBound(position + 1);
+        return index < size ? positions[index] : -1;
+    }
+
+    @Override
+    public void onChanged() {
+        invalidate();
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        if (!valid) {
+            return;
+        }
+        // hoverable state of the changed items may have changed, evaluate them again.
+        int from = lowerBound(positionStart);
+        int to = lowerBound(positionStart + itemCount);
+        removeRange(from, to);
+        insertEvaluated(from, positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (!valid) {
+            return;
+        }
+        int from = lowerBound(positionStart);
+        shift(from, size, itemCount);
+        insertEvaluated(from, positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (!valid) {
+            return;
+        }
+        int from = lowerBound(positionStart);
+        int to = lowerBound(positionStart + itemCount);
+        removeRange(from, to);
+        shift(from, size, -itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (!valid) {
+            return;
+        }
+        if (itemCount != 1) {
+            invalidate();
+            return;
+        }
+
+        int movedIndex = Arrays.binarySearch(positions, 0, size, fromPosition);
+        if (movedIndex >= 0) {
+            removeRange(movedIndex, movedIndex + 1);
+        }
+
+        // items between the two positions move by one slot toward the source.
+        if (fromPosition < toPosition) {
+            shift(lowerBound(fromPosition + 1), lowerBound(toPosition + 1), -1);
+        } else {
+            shift(lowerBound(toPosition), lowerBound(fromPosition), 1);
+        }
+
+        if (movedIndex >= 0) {
+            insertAt(lowerBound(toPosition), toPosition);
+        }
+    }
+
+    /**
+     * Index of the first divider whose position is greater or equal to the given one.
+     *
+     * @param position adapter position.
+     * @return index in the positions buffer, {@link #size} if none.
+     */
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Evaluate a range of adapter positions and insert the dividers found.
+     *
+     * @param index         index in the buffer at which the range starts.
+     * @param positionStart first adapter position to evaluate.
+     * @param itemCount     number of positions to evaluate.
+     */
+    private void insertEvaluated(int index, int positionStart, int itemCount) {
+        int insertIndex = index;
+        for (int i = positionStart; i < positionStart + itemCount; i++) {
+            if (!dragStrategy.isItemHoverable(i)) {
+                insertAt(insertIndex, i);
+                insertIndex++;
+            }
+        }
+    }
+
+    /**
+     * Add a divider position at the end of the buffer.
+     *
+     * @param position adapter position.
+     */
+    private void append(int position) {
+        ensureCapacity(size + 1);
+        positions[size++] = position;
+    }
+
+    /**
+     * Insert a divider position at the given index of the buffer.
+     *
+     * @param index    index in the buffer.
+     * @param position adapter position.
+     */
+    private void insertAt(int index, int position) {
+        ensureCapacity(size + 1);
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        positions[index] = position;
+        size++;
+    }
+
+    /**
+     * Remove the entries between the two indexes of the buffer.
+     *
+     * @param from first index, inclusive.
+     * @param to   last index, exclusive.
+     */
+    private void removeRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        System.arraycopy(positions, to, positions, from, size - to);
+        size -= to - from;
+    }
+
+    /**
+     * Offset the positions stored between the two indexes of the buffer.
+     *
+     * @param from  first index, inclusive.
+     * @param to    last index, exclusive.
+     * @param delta offset applied.
+     */
+    private void shift(int from, int to, int delta) {
+        for (int i = from; i < to; i++) {
+            positions[i] += delta;
+        }
+    }
+
+    /**
+     * Grow the buffer if needed.
+     *
+     * @param capacity minimum capacity required.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(capacity, positions.length * 2));
+        }
+    }
+}
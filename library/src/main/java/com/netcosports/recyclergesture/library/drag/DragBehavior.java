@@ -1,6 +1,7 @@
 package com.netcosports.recyclergesture.library.drag;
 
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewPropertyAnimator;
 
 /**
@@ -18,37 +19,31 @@ interface DragBehavior {
     public void move(float deltaX, float deltaY, View draggedView);
 
     /**
-     * Define if the dragged current view should be switched with the previous one in the
-     * recycle view.
+     * Find the recycler view child laid out at the slot the dragged view is hovering.
+     * <p/>
+     * Used to find the slot the dragged view should be switched to.
      *
+     * @param recyclerView recycler view where drag event happened.
      * @param draggedView  view currently dragged.
-     * @param previousView previous view.
-     * @return true to perform a switch.
+     * @return index of the closest child, -1 if no child is laid out.
      */
-    public boolean shouldSwitchWithPrevious(View draggedView, View previousView);
+    public int findTargetChildIndex(ViewGroup recyclerView, View draggedView);
 
     /**
-     * Define if the dragged current view should be switched with the next one in the
-     * recycle view.
+     * Define the layout start of a recycler view child along the drag axis, translation excluded.
      *
-     * @param draggedView view currently dragged.
-     * @param nextView    previous view.
-     * @return true to perform a switch.
+     * @param child recycler view child.
+     * @return start of the child layout bounds.
      */
-    public boolean shouldSwitchWithNext(View draggedView, View nextView);
+    public int getLayoutStart(View child);
 
     /**
-     * Define how the switched view should be animated.
-     * <p/>
-     * See also :
-     * {@link DragBehavior#shouldSwitchWithNext(android.view.View, android.view.View)}
-     * {@link DragBehavior#shouldSwitchWithPrevious(android.view.View, android.view.View)}
+     * Define the layout end of a recycler view child along the drag axis, translation excluded.
      *
-     * @param viewToAnimate view from witch the animator should be created.
-     * @param dest          current view at the destination.
-     * @return animator started on the viewToSwitch.
+     * @param child recycler view child.
+     * @return end of the child layout bounds.
      */
-    public ViewPropertyAnimator getSwitchAnimator(View viewToAnimate, View dest);
+    public int getLayoutEnd(View child);
 
     /**
      * Define how the dragged view will be animated once the user release it.
@@ -60,30 +55,64 @@ interface DragBehavior {
     public ViewPropertyAnimator getDropAnimator(View viewToAnimate, View dest);
 
     /**
-     * Define if the recycle view should be scrolled in the "start" direction while dragging.
+     * Define the size of a view along the drag axis.
+     *
+     * @param view view to measure.
+     * @return size of the view along the drag axis.
+     */
+    public int getSize(View view);
+
+    /**
+     * Move a view along the drag axis without any animation.
+     * <p/>
+     * Used to keep the views at their expected place while reordering is only committed on drop.
+     *
+     * @param view   view to move.
+     * @param offset offset from the view layout position.
+     */
+    public void shift(View view, float offset);
+
+    /**
+     * Define how a view should be animated when it is moved along the drag axis to make room for
+     * the dragged view while reordering is only committed on drop.
+     * <p/>
+     * A view already moving is retargeted by the child animator from its current position.
+     *
+     * @param animator animator of the recycler view children.
+     * @param view     view to animate.
+     * @param offset   offset from the view layout position at the end of the animation.
+     */
+    public void animateShift(ChildAnimator animator, View view, float offset);
+
+    /**
+     * Define how deep the dragged view is within the auto scroll hot zones of the recycler view.
+     * <p/>
+     * Hot zones lie along the recycler view edges, auto scroll speed is proportional to the
+     * returned ratio.
      *
      * @param recyclerView recycler view where drag event happened.
      * @param draggedView  view currently being dragged.
-     * @return true if a scroll to the "start" direction should be performed.
+     * @return ratio in [-1, 0[ to scroll to the "start" direction, in ]0, 1] to scroll to the "end"
+     * direction, 0 if the dragged view is outside the hot zones.
      */
-    public boolean shouldStartScrollingToStart(View recyclerView, View draggedView);
+    public float getAutoScrollRatio(View recyclerView, View draggedView);
 
     /**
-     * Define if the recycle view should be scrolled in the "end" direction while dragging.
+     * Define if the recycler view can still be scrolled in the given direction.
      *
      * @param recyclerView recycler view where drag event happened.
-     * @param draggedView  view currently being dragged.
-     * @return true if a scroll to the "end" direction should be performed.
+     * @param direction    negative to check the "start" direction, positive for the "end" one.
+     * @return true if the recycler view can be scrolled further.
      */
-    public boolean shouldStartScrollingToEnd(View recyclerView, View draggedView);
+    public boolean canScroll(View recyclerView, int direction);
 
     /**
      * Define how recycle view should be scrolled when a scroll is requested.
      *
      * @param recyclerView recycler view where drag event happened to perform a scroll.
-     * @param velocity     velocity which should basically be used.
+     * @param distance     distance to scroll in pixels, negative to scroll to the "start".
      */
-    public void scroll(View recyclerView, int velocity);
+    public void scroll(View recyclerView, int distance);
 
     /**
      * Define if the dragged view will hover the previous divider with the new coordinates.
@@ -0,0 +1,187 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewPropertyAnimator;
+
+import com.netcosports.recyclergesture.core.DragGeometry;
+
+/**
+ * Drag behavior for grids, {@link android.support.v7.widget.GridLayoutManager} or
+ * {@link android.support.v7.widget.StaggeredGridLayoutManager}.
+ * <p/>
+ * The dragged view moves on both axis, its slot is looked up in a spatial index of the laid out
+ * children while auto scroll happens along the scrolling axis of the grid only.
+ */
+class DragBehaviorGrid implements DragBehavior {
+
+    /**
+     * True if the grid scrolls vertically.
+     */
+    private final boolean vertical;
+
+    /**
+     * Spatial index of the laid out children.
+     */
+    private final GridSlotIndex slotIndex;
+
+    /**
+     * Drag behavior for grids.
+     *
+     * @param vertical true if the grid scrolls vertically.
+     */
+    DragBehaviorGrid(boolean vertical) {
+        this.vertical = vertical;
+        this.slotIndex = new GridSlotIndex(vertical);
+    }
+
+    /**
+     * Check if the layout manager of a recycler view lays its children out as a grid.
+     *
+     * @param layoutManager layout manager to check.
+     * @return true for {@link android.support.v7.widget.GridLayoutManager} and
+     * {@link android.support.v7.widget.StaggeredGridLayoutManager}.
+     */
+    static boolean isGrid(RecyclerView.LayoutManager layoutManager) {
+        return layoutManager instanceof GridLayoutManager
+          || layoutManager instanceof StaggeredGridLayoutManager;
+    }
+
+    /**
+     * Check if a grid layout manager scrolls vertically.
+     *
+     * @param layoutManager grid layout manager.
+     * @return true if the grid scrolls vertically.
+     */
+    static boolean isVertical(RecyclerView.LayoutManager layoutManager) {
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            return ((StaggeredGridLayoutManager) layoutManager).getOrientation()
+              == StaggeredGridLayoutManager.VERTICAL;
+        }
+        return ((GridLayoutManager) layoutManager).getOrientation() == GridLayoutManager.VERTICAL;
+    }
+
+    /**
+     * Retrieve the number of spans of a grid.
+     *
+     * @param layoutManager grid layout manager.
+     * @return span count, 1 if the layout manager isn't a grid one.
+     */
+    private static int getSpanCount(RecyclerView.LayoutManager layoutManager) {
+        if (layoutManager instanceof StaggeredGridLayoutManager) {
+            return ((StaggeredGridLayoutManager) layoutManager).getSpanCount();
+        } else if (layoutManager instanceof GridLayoutManager) {
+            return ((GridLayoutManager) layoutManager).getSpanCount();
+        }
+        return 1;
+    }
+
+    @Override
+    public void move(float deltaX, float deltaY, View draggedView) {
+        // free translation on both axis
+        draggedView.setTranslationX(deltaX);
+        draggedView.setTranslationY(deltaY);
+    }
+
+    @Override
+    public int findTargetChildIndex(ViewGroup recyclerView, View draggedView) {
+        RecyclerView grid = (RecyclerView) recyclerView;
+        slotIndex.attach(grid);
+
+        // items spanning several cells are dropped according to their leading cell, so that a
+        // wide item can be moved to the first spans of a row.
+        int spanCount = getSpanCount(grid.getLayoutManager());
+        float x = draggedView.getX() - recyclerView.getLeft();
+        float y = draggedView.getY() - recyclerView.getTop();
+        if (vertical) {
+            float cellWidth = (float) recyclerView.getWidth() / spanCount;
+            x += Math.min(cellWidth, draggedView.getWidth()) / 2f;
+            y += draggedView.getHeight() / 2f;
+        } else {
+            float cellHeight = (float) recyclerView.getHeight() / spanCount;
+            x += draggedView.getWidth() / 2f;
+            y += Math.min(cellHeight, draggedView.getHeight()) / 2f;
+        }
+        return slotIndex.findNearestChild(recyclerView, x, y);
+    }
+
+    @Override
+    public int getLayoutStart(View child) {
+        return vertical ? child.getTop() : child.getLeft();
+    }
+
+    @Override
+    public int getLayoutEnd(View child) {
+        return vertical ? child.getBottom() : child.getRight();
+    }
+
+    @Override
+    public ViewPropertyAnimator getDropAnimator(View viewToAnimate, View dest) {
+        return viewToAnimate.animate().translationX(dest.getX()).translationY(dest.getY());
+    }
+
+    @Override
+    public int getSize(View view) {
+        return vertical ? view.getHeight() : view.getWidth();
+    }
+
+    @Override
+    public void shift(View view, float offset) {
+        view.animate().cancel();
+        if (vertical) {
+            view.setTranslationY(offset);
+        } else {
+            view.setTranslationX(offset);
+        }
+    }
+
+    @Override
+    public void animateShift(ChildAnimator animator, View view, float offset) {
+        if (vertical) {
+            animator.animateTo(view, view.getTranslationX(), offset);
+        } else {
+            animator.animateTo(view, offset, view.getTranslationY());
+        }
+    }
+
+    @Override
+    public float getAutoScrollRatio(View recyclerView, View draggedView) {
+        // hot zones lie along the edges of the scrolling axis only, half the dragged view deep.
+        float start = vertical
+          ? draggedView.getY() - recyclerView.getTop() : draggedView.getX() - recyclerView.getLeft();
+        return DragGeometry.getAutoScrollRatio(start, getSize(draggedView), getSize(recyclerView));
+    }
+
+    @Override
+    public boolean canScroll(View recyclerView, int direction) {
+        return vertical
+          ? recyclerView.canScrollVertically(direction) : recyclerView.canScrollHorizontally(direction);
+    }
+
+    @Override
+    public void scroll(View recyclerView, int distance) {
+        if (vertical) {
+            recyclerView.scrollBy(0, distance);
+        } else {
+            recyclerView.scrollBy(distance, 0);
+        }
+    }
+
+    @Override
+    public boolean willHoverPreviousDivider(View previous, float newX, float newY) {
+        // dividers are full span items, they can only be hovered along the scrolling axis.
+        return vertical
+          ? DragGeometry.willHoverPreviousDivider(previous.getY(), newY)
+          : DragGeometry.willHoverPreviousDivider(previous.getX(), newX);
+    }
+
+    @Override
+    public boolean willHoverNextDivider(View next, float newX, float newY) {
+        return vertical
+          ? DragGeometry.willHoverNextDivider(next.getY(), newY)
+          : DragGeometry.willHoverNextDivider(next.getX(), newX);
+    }
+}
@@ -1,13 +1,21 @@
 package com.netcosports.recyclergesture.library.drag;
 
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewPropertyAnimator;
 
+import com.netcosports.recyclergesture.core.DragGeometry;
+
 /**
  * Simple drag behavior for drag only on x axis.
  */
 class DragBehaviorHorizontal implements DragBehavior {
 
+    /**
+     * Resolver of the slot under the dragged view.
+     */
+    private final DragTargetResolver targetResolver = new DragTargetResolver(this);
+
     @Override
     public void move(float deltaX, float deltaY, View draggedView) {
         // simple translation on X axis
@@ -15,24 +23,19 @@ class DragBehaviorHorizontal implements DragBehavior {
     }
 
     @Override
-    public boolean shouldSwitchWithPrevious(View draggedView, View previousView) {
-        // simply check if the dragged view left is on the left of the view on the left
-        return previousView != null && previousView.getX() > -1 && draggedView.getX() < previousView.getX();
+    public int findTargetChildIndex(ViewGroup recyclerView, View draggedView) {
+        float center = draggedView.getX() - recyclerView.getLeft() + draggedView.getWidth() / 2f;
+        return targetResolver.findChildIndex(recyclerView, center);
     }
 
     @Override
-    public boolean shouldSwitchWithNext(View draggedView, View nextView) {
-        // simply check if the dragged view right is on the right of the view on the right
-        return nextView != null && nextView.getX() > -1 && draggedView.getX() > nextView.getX();
+    public int getLayoutStart(View child) {
+        return child.getLeft();
     }
 
     @Override
-    public ViewPropertyAnimator getSwitchAnimator(View viewToAnimate, View dest) {
-        int switchViewLeft = dest.getLeft();
-        int originalViewLeft = viewToAnimate.getLeft();
-        int delta = originalViewLeft - switchViewLeft;
-        viewToAnimate.setTranslationX(-delta);
-        return viewToAnimate.animate().translationXBy(delta);
+    public int getLayoutEnd(View child) {
+        return child.getRight();
     }
 
     @Override
@@ -42,27 +45,44 @@ class DragBehaviorHorizontal implements DragBehavior {
     }
 
     @Override
-    public boolean shouldStartScrollingToStart(View recyclerView, View draggedView) {
-        return draggedView.getX() <= 0;
+    public int getSize(View view) {
+        return view.getWidth();
+    }
+
+    @Override
+    public void shift(View view, float offset) {
+        view.animate().cancel();
+        view.setTranslationX(offset);
+    }
+
+    @Override
+    public void animateShift(ChildAnimator animator, View view, float offset) {
+        animator.animateTo(view, offset, view.getTranslationY());
+    }
+
+    @Override
+    public float getAutoScrollRatio(View recyclerView, View draggedView) {
+        return DragGeometry.getAutoScrollRatio(draggedView.getX() - recyclerView.getLeft(), draggedView.getWidth(),
+          recyclerView.getWidth());
     }
 
     @Override
-    public boolean shouldStartScrollingToEnd(View recyclerView, View draggedView) {
-        return draggedView.getX() + draggedView.getWidth() >= recyclerView.getWidth();
+    public boolean canScroll(View recyclerView, int direction) {
+        return recyclerView.canScrollHorizontally(direction);
     }
 
     @Override
-    public void scroll(View recyclerView, int velocity) {
-        recyclerView.scrollBy(velocity, 0);
+    public void scroll(View recyclerView, int distance) {
+        recyclerView.scrollBy(distance, 0);
     }
 
     @Override
     public boolean willHoverPreviousDivider(View previous, float newX, float newY) {
-        return newX < previous.getX();
+        return DragGeometry.willHoverPreviousDivider(previous.getX(), newX);
     }
 
     @Override
     public boolean willHoverNextDivider(View next, float newX, float newY) {
-        return newX > next.getX();
+        return DragGeometry.willHoverNextDivider(next.getX(), newX);
     }
 }
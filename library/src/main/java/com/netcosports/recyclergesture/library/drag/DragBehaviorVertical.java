@@ -1,13 +1,21 @@
 package com.netcosports.recyclergesture.library.drag;
 
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewPropertyAnimator;
 
+import com.netcosports.recyclergesture.core.DragGeometry;
+
 /**
  * Simple drag behavior for drag only on y axis.
  */
 class DragBehaviorVertical implements DragBehavior {
 
+    /**
+     * Resolver of the slot under the dragged view.
+     */
+    private final DragTargetResolver targetResolver = new DragTargetResolver(this);
+
     @Override
     public void move(float deltaX, float deltaY, View draggedView) {
         // simple translation on Y axis
@@ -15,25 +23,19 @@ class DragBehaviorVertical implements DragBehavior {
     }
 
     @Override
-    public boolean shouldSwitchWithPrevious(View draggedView, View previousView) {
-        // simply check if the dragged view top is above the view at the top.
-        return previousView != null && previousView.getY() > -1 && draggedView.getY() < previousView.getY();
+    public int findTargetChildIndex(ViewGroup recyclerView, View draggedView) {
+        float center = draggedView.getY() - recyclerView.getTop() + draggedView.getHeight() / 2f;
+        return targetResolver.findChildIndex(recyclerView, center);
     }
 
     @Override
-    public boolean shouldSwitchWithNext(View draggedView, View nextView) {
-        // simply check if the dragged view bottom is below the view at the bottom.
-        return nextView != null && nextView.getY() > -1 && draggedView.getY() > nextView.getY();
+    public int getLayoutStart(View child) {
+        return child.getTop();
     }
 
     @Override
-    public ViewPropertyAnimator getSwitchAnimator(View viewToAnimate, View dest) {
-        // simply move the view to animate on the destination one with a vertical motion.
-        int switchViewTop = dest.getTop();
-        int originalViewTop = viewToAnimate.getTop();
-        int delta = originalViewTop - switchViewTop;
-        viewToAnimate.setTranslationY(-delta);
-        return viewToAnimate.animate().translationYBy(delta);
+    public int getLayoutEnd(View child) {
+        return child.getBottom();
     }
 
     @Override
@@ -43,27 +45,44 @@ class DragBehaviorVertical implements DragBehavior {
     }
 
     @Override
-    public boolean shouldStartScrollingToStart(View recyclerView, View draggedView) {
-        return draggedView.getY() <= 0;
+    public int getSize(View view) {
+        return view.getHeight();
+    }
+
+    @Override
+    public void shift(View view, float offset) {
+        view.animate().cancel();
+        view.setTranslationY(offset);
+    }
+
+    @Override
+    public void animateShift(ChildAnimator animator, View view, float offset) {
+        animator.animateTo(view, view.getTranslationX(), offset);
+    }
+
+    @Override
+    public float getAutoScrollRatio(View recyclerView, View draggedView) {
+        return DragGeometry.getAutoScrollRatio(draggedView.getY() - recyclerView.getTop(), draggedView.getHeight(),
+          recyclerView.getHeight());
     }
 
     @Override
-    public boolean shouldStartScrollingToEnd(View recyclerView, View draggedView) {
-        return draggedView.getY() + draggedView.getHeight() >= recyclerView.getHeight();
+    public boolean canScroll(View recyclerView, int direction) {
+        return recyclerView.canScrollVertically(direction);
     }
 
     @Override
-    public void scroll(View recyclerView, int velocity) {
-        recyclerView.scrollBy(0, velocity);
+    public void scroll(View recyclerView, int distance) {
+        recyclerView.scrollBy(0, distance);
     }
 
     @Override
     public boolean willHoverPreviousDivider(View previous, float newX, float newY) {
-        return newY < previous.getY();
+        return DragGeometry.willHoverPreviousDivider(previous.getY(), newY);
     }
 
     @Override
     public boolean willHoverNextDivider(View next, float newX, float newY) {
-        return newY > next.getY();
+        return DragGeometry.willHoverNextDivider(next.getY(), newY);
     }
 }
@@ -0,0 +1,277 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import com.netcosports.recyclergesture.library.RecyclerGesture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gesture which allow user to drag an item of a {@link android.support.v7.widget.RecyclerView}
+ * and drop it in another one, or at another position of the same one.
+ * <p/>
+ * A single drag session is shared by every registered recycler view: one thumbnail is displayed
+ * in a common ancestor, the recycler view under the pointer is resolved once per event and the
+ * item is moved on drop through a remove and insert pair.
+ */
+public final class DragDropCoordinator extends RecyclerGesture {
+
+    /**
+     * Dummy listener.
+     */
+    private static DragDropGesture.Listener sDummyListener = new DragDropGesture.Listener() {
+        @Override
+        public void onDragStarted() {
+
+        }
+
+        @Override
+        public void onDragEnded() {
+
+        }
+    };
+
+    /**
+     * Manager which process gesture detection.
+     */
+    private DragTransferListener transferListener;
+
+    /**
+     * Pool used to build the dragging thumbnails.
+     */
+    private DragThumbnailPool thumbnailPool;
+
+    /**
+     * Builder constructor.
+     * <p/>
+     * See also : {@link com.netcosports.recyclergesture.library.drag.DragDropCoordinator.Builder}
+     *
+     * @param container        common ancestor of the recycler views.
+     * @param recyclerViews    recycler views items can be dragged between.
+     * @param strategies       drag strategy of each recycler view.
+     * @param thumbnailFactory factory used to build the dragging thumbnail.
+     * @param listener         listener used to catch motion events.
+     */
+    private DragDropCoordinator(ViewGroup container, List<RecyclerView> recyclerViews,
+                                List<DragStrategy> strategies, DragThumbnailFactory thumbnailFactory,
+                                DragDropGesture.Listener listener) {
+        super();
+
+        thumbnailPool = thumbnailFactory.getPool();
+        transferListener = new DragTransferListener(container.getContext(), container, thumbnailFactory, listener);
+        for (int i = 0; i < recyclerViews.size(); i++) {
+            RecyclerView recyclerView = recyclerViews.get(i);
+            LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+            transferListener.register(recyclerView, (Transferer) recyclerView.getAdapter(), strategies.get(i),
+              layoutManager.getOrientation() == LinearLayoutManager.VERTICAL);
+        }
+    }
+
+    @Override
+    public void setEnable(boolean enable) {
+        super.setEnable(enable);
+        this.transferListener.setEnabled(enable);
+    }
+
+    /**
+     * Pool used to build the dragging thumbnails.
+     *
+     * @return thumbnail pool, can be shared with other gestures.
+     */
+    public DragThumbnailPool getThumbnailPool() {
+        return thumbnailPool;
+    }
+
+    /**
+     * Builder pattern.
+     */
+    public static final class Builder {
+
+        /**
+         * Common ancestor of the recycler views, the dragging thumbnail is added to it.
+         */
+        private ViewGroup container;
+
+        /**
+         * Recycler views items can be dragged between.
+         */
+        private List<RecyclerView> recyclerViews;
+
+        /**
+         * Drag strategy of each recycler view.
+         */
+        private List<DragStrategy> strategies;
+
+        /**
+         * Listener used to catch motion events.
+         */
+        private DragDropGesture.Listener listener;
+
+        /**
+         * Pool used to build the dragging thumbnails.
+         */
+        private DragThumbnailPool thumbnailPool;
+
+        /**
+         * Builder pattern.
+         */
+        public Builder() {
+            this.container = null;
+            this.recyclerViews = new ArrayList<>();
+            this.strategies = new ArrayList<>();
+            this.listener = sDummyListener;
+            this.thumbnailPool = null;
+        }
+
+        /**
+         * View the dragging thumbnail is displayed in, must be a common ancestor of the recycler
+         * views, a {@link android.widget.FrameLayout} for instance.
+         *
+         * @param target container of the dragging thumbnail.
+         * @return builder to chain param.
+         */
+        public Builder in(ViewGroup target) {
+            this.container = target;
+            return this;
+        }
+
+        /**
+         * Add a recycler view items can be dragged from and dropped in.
+         * <p/>
+         * Note : the recycler adapter must implements
+         * {@link com.netcosports.recyclergesture.library.drag.DragDropCoordinator.Transferer}
+         * interface and the recycler view must be laid out by a
+         * {@link android.support.v7.widget.LinearLayoutManager}.
+         *
+         * @param target recycler view to add.
+         * @return builder to chain param.
+         */
+        public Builder add(RecyclerView target) {
+            return add(target, new DragStrategy());
+        }
+
+        /**
+         * Add a recycler view items can be dragged from and dropped in.
+         * <p/>
+         * See also : {@link #add(android.support.v7.widget.RecyclerView)}
+         *
+         * @param target   recycler view to add.
+         * @param strategy drag strategy to customize which items of the recycler view are draggable.
+         * @return builder to chain param.
+         */
+        public Builder add(RecyclerView target, DragStrategy strategy) {
+            if (!(target.getAdapter() instanceof Transferer)) {
+                throw new IllegalArgumentException("RecyclerView adapter must implement Transferer"
+                  + " interface to proceed to the data transfer");
+            }
+            RecyclerView.LayoutManager layoutManager = target.getLayoutManager();
+            if (!(layoutManager instanceof LinearLayoutManager) || DragBehaviorGrid.isGrid(layoutManager)) {
+                throw new IllegalArgumentException("RecyclerView must be laid out by a LinearLayoutManager");
+            }
+            this.recyclerViews.add(target);
+            this.strategies.add(strategy == null ? new DragStrategy() : strategy);
+            return this;
+        }
+
+        /**
+         * Register a listener to catch the motions events
+         *
+         * @param listener listener to register.
+         * @return builder to chain param.
+         */
+        public Builder register(DragDropGesture.Listener listener) {
+            if (listener == null) {
+                this.listener = sDummyListener;
+            } else {
+                this.listener = listener;
+            }
+            return this;
+        }
+
+        /**
+         * Share a thumbnail pool with other gestures.
+         *
+         * @param pool pool used to build the dragging thumbnails.
+         * @return builder to chain param.
+         */
+        public Builder thumbnailPool(DragThumbnailPool pool) {
+            this.thumbnailPool = pool;
+            return this;
+        }
+
+        /**
+         * Build the gesture based on builder param.
+         *
+         * @return well instantiate gesture.
+         */
+        public DragDropCoordinator build() {
+            if (this.container == null) {
+                throw new IllegalStateException("Container can't be null, see Builder.in(container)");
+            }
+
+            if (this.recyclerViews.isEmpty()) {
+                throw new IllegalStateException("No recycler view added, see Builder.add(recyclerView)");
+            }
+
+            for (RecyclerView recyclerView : this.recyclerViews) {
+                if (!isAncestor(this.container, recyclerView)) {
+                    throw new IllegalStateException("Container must be an ancestor of every recycler view");
+                }
+            }
+
+            if (this.thumbnailPool == null) {
+                this.thumbnailPool = new DragThumbnailPool();
+            }
+
+            DragThumbnailFactory thumbnailFactory = new DragThumbnailFactory(this.thumbnailPool, null, 1f);
+
+            return new DragDropCoordinator(this.container, this.recyclerViews, this.strategies,
+              thumbnailFactory, this.listener);
+        }
+
+        /**
+         * Check if a view group is an ancestor of a recycler view.
+         *
+         * @param ancestor     view group.
+         * @param recyclerView recycler view.
+         * @return true if the recycler view lies in the view group hierarchy.
+         */
+        private static boolean isAncestor(ViewGroup ancestor, RecyclerView recyclerView) {
+            ViewParent parent = recyclerView.getParent();
+            while (parent != null) {
+                if (parent == ancestor) {
+                    return true;
+                }
+                parent = parent.getParent();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Interface used to transfer the dragged item between adapters.
+     * <p/>
+     * Both callbacks of a transfer are performed before any adapter is notified.
+     */
+    public interface Transferer {
+        /**
+         * Called when the dragged item should be removed from the adapter.
+         *
+         * @param position position of the item.
+         * @return removed item, given back to {@link #insertItem(int, Object)}.
+         */
+        public Object removeItem(int position);
+
+        /**
+         * Called when the dragged item should be inserted in the adapter.
+         *
+         * @param position position of the item once inserted.
+         * @param item     item previously removed.
+         */
+        public void insertItem(int position, Object item);
+    }
+}
@@ -1,8 +1,11 @@
 package com.netcosports.recyclergesture.library.drag;
 
+import android.graphics.Bitmap;
 import android.support.v7.widget.RecyclerView;
 
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
 import com.netcosports.recyclergesture.library.RecyclerGesture;
+import com.netcosports.recyclergesture.library.TouchPredictor;
 
 /**
  * Gesture which allow user to perform a drag and drop between raw items of a
@@ -30,6 +33,16 @@ public final class DragDropGesture extends RecyclerGesture {
      */
     private DragDropListener dragDropListener;
 
+    /**
+     * Recycler view on which gesture is detected.
+     */
+    private RecyclerView recyclerView;
+
+    /**
+     * Pool used to build the dragging thumbnails.
+     */
+    private DragThumbnailPool thumbnailPool;
+
     /**
      * Turn default constructor private.
      * <p/>
@@ -44,19 +57,26 @@ public final class DragDropGesture extends RecyclerGesture {
      * <p/>
      * See also : {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Builder}
      *
-     * @param recyclerView recyclerView on which gesture is detected.
-     * @param adapter      data of the recyclerView.
-     * @param swapper      process to the swap.
-     * @param dragBehavior behavior to adopt while dragging.
-     * @param strategy     drag strategy.
-     * @param listener     listener used to catch motion events.
+     * @param recyclerView     recyclerView on which gesture is detected.
+     * @param adapter          data of the recyclerView.
+     * @param swapper          process to the swap.
+     * @param mover            process to the move on drop, null to swap while dragging.
+     * @param dragBehavior     behavior to adopt while dragging.
+     * @param strategy         drag strategy.
+     * @param selection        selection dragged as a group, null to only drag single items.
+     * @param thumbnailFactory factory used to build the dragging thumbnail.
+     * @param listener         listener used to catch motion events.
      */
     private DragDropGesture(RecyclerView recyclerView, RecyclerView.Adapter adapter, Swapper swapper,
-                            DragBehavior dragBehavior, DragStrategy strategy, Listener listener) {
+                            Mover mover, DragBehavior dragBehavior, DragStrategy strategy,
+                            DragSelection selection, DragThumbnailFactory thumbnailFactory,
+                            Listener listener) {
         super();
 
-        dragDropListener
-          = new DragDropListener(recyclerView, adapter, swapper, dragBehavior, strategy, listener);
+        this.recyclerView = recyclerView;
+        thumbnailPool = thumbnailFactory.getPool();
+        dragDropListener = new DragDropListener(recyclerView, adapter, swapper, mover, dragBehavior,
+          strategy, selection, thumbnailFactory, listener);
 
         recyclerView.addOnItemTouchListener(dragDropListener);
     }
@@ -67,6 +87,30 @@ public final class DragDropGesture extends RecyclerGesture {
         this.dragDropListener.setEnabled(enable);
     }
 
+    /**
+     * Remove the gesture from its recycler view and unregister the observers it registered to the
+     * adapter, a drag in progress is aborted.
+     * <p/>
+     * Must be called before swapping the adapter of the recycler view or building the gesture
+     * again, the selection and the drag strategy snapshot can then be given to the new gesture.
+     * The gesture can't be used once detached.
+     */
+    public void detach() {
+        recyclerView.removeOnItemTouchListener(dragDropListener);
+        dragDropListener.detach();
+    }
+
+    /**
+     * Pool used to build the dragging thumbnails.
+     * <p/>
+     * See also : {@link DragThumbnailPool#getHitCount()}, {@link DragThumbnailPool#getMissCount()}
+     *
+     * @return thumbnail pool.
+     */
+    public DragThumbnailPool getThumbnailPool() {
+        return thumbnailPool;
+    }
+
     /**
      * Builder pattern.
      */
@@ -87,6 +131,11 @@ public final class DragDropGesture extends RecyclerGesture {
          */
         private DragBehavior dragBehavior;
 
+        /**
+         * True if the recycler view is laid out as a grid.
+         */
+        private boolean grid;
+
         /**
          * Define which items are draggable.
          */
@@ -97,11 +146,51 @@ public final class DragDropGesture extends RecyclerGesture {
          */
         private Swapper swapper;
 
+        /**
+         * True to commit the reordering once on drop instead of swapping items while dragging.
+         */
+        private boolean commitOnDrop;
+
+        /**
+         * Selection dragged as a group, null to only drag single items.
+         */
+        private DragSelection selection;
+
+        /**
+         * Journal logging the reorderings, null if not journaled.
+         */
+        private ReorderJournal journal;
+
+        /**
+         * Predictor of the pointer position, null to follow the last touch sample.
+         */
+        private TouchPredictor touchPredictor;
+
+        /**
+         * Recorder of the received events and of the decisions taken, null if not recorded.
+         */
+        private GestureTraceRecorder traceRecorder;
+
         /**
          * Listener used to catch motion events.
          */
         private Listener listener;
 
+        /**
+         * Pool used to build the dragging thumbnails.
+         */
+        private DragThumbnailPool thumbnailPool;
+
+        /**
+         * Config of the thumbnail bitmaps, null to pick it from the view opacity.
+         */
+        private Bitmap.Config thumbnailConfig;
+
+        /**
+         * Maximum scale at which the dragged view is captured.
+         */
+        private float thumbnailScale;
+
         /**
          * Builder pattern.
          */
@@ -109,9 +198,18 @@ public final class DragDropGesture extends RecyclerGesture {
             this.attachedRecyclerView = null;
             this.recyclerArrayAdapter = null;
             this.dragBehavior = null;
+            this.grid = false;
             this.dragStrategy = null;
             this.swapper = null;
+            this.commitOnDrop = false;
+            this.selection = null;
+            this.journal = null;
+            this.touchPredictor = null;
+            this.traceRecorder = null;
             this.listener = sDummyListener;
+            this.thumbnailPool = null;
+            this.thumbnailConfig = null;
+            this.thumbnailScale = 1f;
         }
 
         /**
@@ -153,6 +251,7 @@ public final class DragDropGesture extends RecyclerGesture {
          */
         public Builder horizontal() {
             this.dragBehavior = new DragBehaviorHorizontal();
+            this.grid = false;
             return this;
         }
 
@@ -163,10 +262,113 @@ public final class DragDropGesture extends RecyclerGesture {
          */
         public Builder vertical() {
             this.dragBehavior = new DragBehaviorVertical();
+            this.grid = false;
+            return this;
+        }
+
+        /**
+         * Indicate your recycler view is laid out as a grid, through a
+         * {@link android.support.v7.widget.GridLayoutManager} or a
+         * {@link android.support.v7.widget.StaggeredGridLayoutManager}.
+         * <p/>
+         * Items can be dragged on both axis, auto scroll follows the orientation of the layout
+         * manager set when the gesture is built.
+         * <p/>
+         * Note : can't be combined with {@link #commitOnDrop()}.
+         *
+         * @return builder to chain param.
+         */
+        public Builder grid() {
+            this.dragBehavior = null;
+            this.grid = true;
             return this;
         }
 
 
+        /**
+         * Commit the reordering once when the dragged item is dropped instead of swapping items
+         * each time the dragged item crosses one of its neighbours.
+         * <p/>
+         * Note : the recycler adapter must implements
+         * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Mover} interface to
+         * proceed to the move.
+         *
+         * @return builder to chain param.
+         */
+        public Builder commitOnDrop() {
+            this.commitOnDrop = true;
+            return this;
+        }
+
+        /**
+         * Drag every selected item at once when a selected item is long pressed, the other
+         * items are still dragged alone.
+         * <p/>
+         * Selected items are displayed as a stack while dragging and moved as a block on drop.
+         * The selection is registered to the adapter to keep it up to date, and it's up to you to
+         * select items, on click for instance, and to display them as selected.
+         * <p/>
+         * Note : the recycler adapter must implements
+         * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.GroupMover}
+         * interface to proceed to the move.
+         *
+         * @param selection selection dragged as a group.
+         * @return builder to chain param.
+         */
+        public Builder select(DragSelection selection) {
+            this.selection = selection;
+            return this;
+        }
+
+        /**
+         * Log the reorderings performed by each drag in a journal.
+         * <p/>
+         * Swaps and moves are compacted on drop into the minimal sequence of moves, available
+         * from {@link DragDropGesture.Listener#onDragEnded()} through
+         * {@link ReorderJournal#getMoveCount()}, and appended to the journal file if any.
+         * <p/>
+         * A journal file which can't be written is only logged, the drop isn't failed : save the
+         * order by other means then call {@link ReorderJournal#reset()}.
+         *
+         * @param journal journal logging the reorderings.
+         * @return builder to chain param.
+         */
+        public Builder journal(ReorderJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * Move the dragged item to the pointer position predicted a few milliseconds ahead,
+         * estimated from every touch sample batched in the events, so that it stays closer to the
+         * finger on high rate displays.
+         * <p/>
+         * Keep a reference on the predictor to read its error metrics, see
+         * {@link TouchPredictor#getPredictionErrorRms()}.
+         *
+         * @param predictor predictor of the pointer position.
+         * @return builder to chain param.
+         */
+        public Builder predict(TouchPredictor predictor) {
+            this.touchPredictor = predictor;
+            return this;
+        }
+
+        /**
+         * Record the touch events received by the gesture and the decisions it takes, such as
+         * drag start, switches, divider blocks, auto scroll and drop.
+         * <p/>
+         * The recorder keeps the latest records in a ring buffer, dump it with
+         * {@link GestureTraceRecorder#writeTo(java.io.File)} to replay a session in JVM tests.
+         *
+         * @param recorder recorder of the gesture.
+         * @return builder to chain param.
+         */
+        public Builder trace(GestureTraceRecorder recorder) {
+            this.traceRecorder = recorder;
+            return this;
+        }
+
         /**
          * Register a listener to catch the motions events
          *
@@ -182,6 +384,55 @@ public final class DragDropGesture extends RecyclerGesture {
             return this;
         }
 
+        /**
+         * Share a thumbnail pool between several gestures.
+         * <p/>
+         * By default each gesture uses its own pool of
+         * {@link DragThumbnailPool#DEFAULT_MAX_SIZE_IN_BYTES}.
+         *
+         * @param pool pool used to build the dragging thumbnails.
+         * @return builder to chain param.
+         */
+        public Builder thumbnailPool(DragThumbnailPool pool) {
+            this.thumbnailPool = pool;
+            return this;
+        }
+
+        /**
+         * Config used to capture the dragged view.
+         * <p/>
+         * By default {@link android.graphics.Bitmap.Config#RGB_565} is used for opaque views and
+         * {@link android.graphics.Bitmap.Config#ARGB_8888} for the others.
+         *
+         * @param config {@link android.graphics.Bitmap.Config#RGB_565} or
+         *               {@link android.graphics.Bitmap.Config#ARGB_8888}, null for the default behavior.
+         * @return builder to chain param.
+         */
+        public Builder thumbnailConfig(Bitmap.Config config) {
+            if (config != null && config != Bitmap.Config.RGB_565 && config != Bitmap.Config.ARGB_8888) {
+                throw new IllegalArgumentException("Thumbnail config must be RGB_565 or ARGB_8888");
+            }
+            this.thumbnailConfig = config;
+            return this;
+        }
+
+        /**
+         * Maximum scale at which the dragged view is captured.
+         * <p/>
+         * Lower scale reduce the memory used by large items, the thumbnail is still displayed at
+         * the item size. Default is 1.
+         *
+         * @param scale maximum scale in ]0, 1].
+         * @return builder to chain param.
+         */
+        public Builder thumbnailScale(float scale) {
+            if (scale <= 0f || scale > 1f) {
+                throw new IllegalArgumentException("Thumbnail scale must be in ]0, 1]");
+            }
+            this.thumbnailScale = scale;
+            return this;
+        }
+
         /**
          * Build the gesture based on builder param.
          *
@@ -196,6 +447,19 @@ public final class DragDropGesture extends RecyclerGesture {
                 throw new IllegalStateException("Recycler view can't be null, see Builder.on(recyclerView)");
             }
 
+            if (this.grid) {
+                RecyclerView.LayoutManager layoutManager = this.attachedRecyclerView.getLayoutManager();
+                if (!DragBehaviorGrid.isGrid(layoutManager)) {
+                    throw new IllegalStateException("Grid drag requires a GridLayoutManager or a"
+                      + " StaggeredGridLayoutManager, see RecyclerView.setLayoutManager(layoutManager)");
+                }
+                if (this.commitOnDrop) {
+                    throw new IllegalStateException("Grid drag can't commit the reordering on drop,"
+                      + " see Builder.commitOnDrop()");
+                }
+                this.dragBehavior = new DragBehaviorGrid(DragBehaviorGrid.isVertical(layoutManager));
+            }
+
             if (this.dragBehavior == null) {
                 this.dragBehavior = new DragBehaviorVertical();
             }
@@ -204,8 +468,34 @@ public final class DragDropGesture extends RecyclerGesture {
                 this.dragStrategy = new DragStrategy();
             }
 
-            return new DragDropGesture(this.attachedRecyclerView, this.recyclerArrayAdapter,
-              this.swapper, this.dragBehavior, this.dragStrategy, this.listener);
+            if (this.thumbnailPool == null) {
+                this.thumbnailPool = new DragThumbnailPool();
+            }
+
+            Mover mover = null;
+            if (this.commitOnDrop) {
+                if (!(this.recyclerArrayAdapter instanceof Mover)) {
+                    throw new IllegalArgumentException("RecyclerView adapter must implement Mover"
+                      + " interface to commit the reordering on drop");
+                }
+                mover = (Mover) this.recyclerArrayAdapter;
+            }
+
+            if (this.selection != null && !(this.recyclerArrayAdapter instanceof GroupMover)) {
+                throw new IllegalArgumentException("RecyclerView adapter must implement GroupMover"
+                  + " interface to drag a selection");
+            }
+
+            DragThumbnailFactory thumbnailFactory
+              = new DragThumbnailFactory(this.thumbnailPool, this.thumbnailConfig, this.thumbnailScale);
+
+            DragDropGesture gesture = new DragDropGesture(this.attachedRecyclerView, this.recyclerArrayAdapter,
+              this.swapper, mover, this.dragBehavior, this.dragStrategy, this.selection, thumbnailFactory,
+              this.listener);
+            gesture.dragDropListener.setJournal(this.journal);
+            gesture.dragDropListener.setTouchPredictor(this.touchPredictor);
+            gesture.dragDropListener.setTraceRecorder(this.traceRecorder);
+            return gesture;
         }
     }
 
@@ -225,6 +515,47 @@ public final class DragDropGesture extends RecyclerGesture {
 
     }
 
+    /**
+     * Interface used to move the dragged item at once, whatever the number of items crossed.
+     * <p/>
+     * Required to commit the reordering on drop, see
+     * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Builder#commitOnDrop()}.
+     * Otherwise, when implemented by the {@link Swapper}, it replaces the consecutive swaps
+     * performed when a fast drag crosses several items at once.
+     */
+    public interface Mover {
+        /**
+         * Called when the dragged item should be moved to a new position.
+         * <p/>
+         * Items between the two positions are shifted by one toward the source position.
+         *
+         * @param from src position.
+         * @param to   dest position.
+         */
+        public void moveItem(int from, int to);
+
+    }
+
+    /**
+     * Interface used to move the selected items at once, as a single block.
+     * <p/>
+     * Required to drag a selection, see
+     * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Builder#select(DragSelection)}.
+     */
+    public interface GroupMover {
+        /**
+         * Called when the selected items should be moved as a block.
+         * <p/>
+         * Selected items keep their relative order, the first one lands at the given position
+         * once every selected item has been removed, the other ones right after it.
+         *
+         * @param selection selected positions, before the move.
+         * @param to        position of the first selected item after the move.
+         */
+        public void moveItems(DragSelection selection, int to);
+
+    }
+
     /**
      * Listener used to catch {@link DragDropGesture} events.
      */
@@ -17,18 +17,24 @@ package com.netcosports.recyclergesture.library.drag;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.drawable.Drawable;
 import android.support.v7.widget.RecyclerView;
 import android.util.DisplayMetrics;
+import android.util.Log;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.FrameLayout;
+import android.view.ViewTreeObserver;
 import android.widget.ImageView;
 
+import com.netcosports.recyclergesture.core.GestureTrace;
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
+import com.netcosports.recyclergesture.library.FrameTicker;
+import com.netcosports.recyclergesture.library.MotionEventTrace;
+import com.netcosports.recyclergesture.library.TouchPredictor;
+
+import java.io.IOException;
+
 
 /**
  * Implementation of RecyclerView.OnItemTouchListener that allows reordering items in
@@ -38,18 +44,28 @@ import android.widget.ImageView;
 
 class DragDropListener implements RecyclerView.OnItemTouchListener {
 
+    /**
+     * Log tag.
+     */
+    private static final String TAG = DragDropListener.class.getSimpleName();
+
     /**
      * Switch motion delay in milliseconds.
      */
     private static final int MOVE_DURATION = 150;
 
+    /**
+     * Auto scroll speed in dp per second when the dragged view is at the deepest of a hot zone.
+     */
+    private static final float MAX_SCROLL_SPEED_DP = 1000f;
+
     private RecyclerView recyclerView;
     private RecyclerView.Adapter adapter;
 
-    private final int scrollAmount;
+    private final float maxScrollSpeed;
     private int downY = -1;
     private int downX = -1;
-    private View mobileView;
+    private ImageView mobileView;
     private float mobileViewStartY = -1;
     private float mobileViewStartX = -1;
     private int mobileViewCurrentPos = -1;
@@ -58,9 +74,9 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
     private boolean enabled = true;
 
     /**
-     * Bitmap used to build the view displayed as dragging thumbnail.
+     * Factory used to build the view displayed as dragging thumbnail.
      */
-    private Bitmap draggingThumbnail;
+    private DragThumbnailFactory thumbnailFactory;
 
     /**
      * Simple gesture listener used to cached long touched in order to start the drag.
@@ -78,9 +94,14 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
     private AutoScroller autoScroller;
 
     /**
-     * Used to know if the auto scroller is already started.
+     * Switch and shift animations of the recycler view children, at most one per child.
+     */
+    private final ChildAnimator childAnimator;
+
+    /**
+     * Listener reused to end each drop animation.
      */
-    private boolean isScrolling;
+    private final DropAnimatorListener dropAnimatorListener;
 
     /**
      * Behavior to adopt while dragging.
@@ -92,6 +113,11 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      */
     private DragStrategy dragStrategy;
 
+    /**
+     * Index of the items which can't be hovered, kept in sync with the adapter.
+     */
+    private DividerIndex dividerIndex;
+
     /**
      * View holder of the previous item which can't be crossed while dragging.
      */
@@ -117,6 +143,82 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      */
     private DragDropGesture.Swapper swapper;
 
+    /**
+     * Mover used to commit the reordering once an item is dropped, null when items are swapped
+     * while dragging.
+     */
+    private DragDropGesture.Mover mover;
+
+    /**
+     * Adapter position of the dragged item when the drag started.
+     */
+    private int dragStartPos;
+
+    /**
+     * Size of the dragged item along the drag axis.
+     */
+    private int draggedSize;
+
+    /**
+     * Offset between the dragged item layout position and the slot it would be dropped in.
+     */
+    private float draggedOffset;
+
+    /**
+     * Selection dragged as a group, null to only drag single items.
+     */
+    private DragSelection selection;
+
+    /**
+     * Group mover used to move the selection once dropped, null without selection.
+     */
+    private DragDropGesture.GroupMover groupMover;
+
+    /**
+     * True while the selection is dragged as a group.
+     */
+    private boolean groupDragging;
+
+    /**
+     * Position of the first selected item once the group dropped, -1 if unknown.
+     */
+    private int groupTarget;
+
+    /**
+     * Journal logging the reorderings, null if not journaled.
+     */
+    private ReorderJournal journal;
+
+    /**
+     * Predictor of the pointer position, null to follow the last touch sample.
+     */
+    private TouchPredictor touchPredictor;
+
+    /**
+     * Recorder of the received events and of the decisions taken, null if not recorded.
+     */
+    private GestureTraceRecorder traceRecorder;
+
+    /**
+     * Session following the dragged item through the adapter notifications.
+     */
+    private DragSession session;
+
+    /**
+     * Refresh the dragged views once laid out after a change of the tracked positions.
+     */
+    private ViewRefresher viewRefresher;
+
+    /**
+     * Keep the views entering the screen shifted, null if reordering isn't committed on drop.
+     */
+    private ShiftKeeper shiftKeeper;
+
+    /**
+     * Keep the selected views entering the screen hidden, null without selection.
+     */
+    private GroupKeeper groupKeeper;
+
     /**
      * Listener used to catch drag and drop motion.
      */
@@ -126,38 +228,81 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
     /**
      * Drag and drop listener.
      *
-     * @param recyclerView recycler view on which listener will be applied.
-     * @param adapter      adapter.
-     * @param swapper      swapper used to swap items model once a drop event happened.
-     * @param dragBehavior behavior to adopt while dragging.
-     * @param dragStrategy strategy used to enable drag on items.
-     * @param listener     listener used to catch motion events.
+     * @param recyclerView     recycler view on which listener will be applied.
+     * @param adapter          adapter.
+     * @param swapper          swapper used to swap items model once a drop event happened.
+     * @param mover            mover used to commit the reordering on drop, null to swap items while
+     *                         dragging.
+     * @param dragBehavior     behavior to adopt while dragging.
+     * @param dragStrategy     strategy used to enable drag on items.
+     * @param selection        selection dragged as a group, null to only drag single items, the
+     *                         adapter must then implement {@link DragDropGesture.GroupMover}.
+     * @param thumbnailFactory factory used to build the dragging thumbnail.
+     * @param listener         listener used to catch motion events.
      */
     public DragDropListener(RecyclerView recyclerView, RecyclerView.Adapter adapter
-      , DragDropGesture.Swapper swapper, DragBehavior dragBehavior, DragStrategy dragStrategy
+      , DragDropGesture.Swapper swapper, DragDropGesture.Mover mover, DragBehavior dragBehavior
+      , DragStrategy dragStrategy, DragSelection selection, DragThumbnailFactory thumbnailFactory
       , DragDropGesture.Listener listener) {
         this.dragBehavior = dragBehavior;
         this.recyclerView = recyclerView;
         this.dragStrategy = dragStrategy;
+        this.thumbnailFactory = thumbnailFactory;
         this.adapter = adapter;
         this.swapper = swapper;
+        this.mover = mover;
         this.listener = listener;
 
         dragging = false;
 
+        // observers are notified from the last registered, the session must be notified once the
+        // other observers are up to date.
+        this.session = new DragSession(adapter, new SessionKeeper());
+        adapter.registerAdapterDataObserver(session);
+        this.viewRefresher = new ViewRefresher();
+
+        // index dividers once and let the adapter notifications keep it up to date.
+        this.dividerIndex = new DividerIndex(dragStrategy);
+        adapter.registerAdapterDataObserver(dividerIndex);
+
+        // observers are notified from the last registered, the snapshot must be up to date before
+        // the divider index evaluates the changed items.
+        if (dragStrategy instanceof DragStrategySnapshot) {
+            ((DragStrategySnapshot) dragStrategy).attach(adapter);
+        }
+
         DisplayMetrics displayMetrics = recyclerView.getResources().getDisplayMetrics();
-        this.scrollAmount = (int) (50 / displayMetrics.density);
+        this.maxScrollSpeed = MAX_SCROLL_SPEED_DP * displayMetrics.density;
 
         // init gesture listener used to catch long pressed event.
         initInternalGestureListener();
 
         // init auto scroller used to scroll while dragging.
         autoScroller = new AutoScroller();
+        dropAnimatorListener = new DropAnimatorListener();
+        childAnimator = new ChildAnimator(recyclerView, MOVE_DURATION);
 
         this.previousDividerViewHolder = null;
         this.nextDividerViewHolder = null;
         this.previousDividerPosition = -1;
         this.nextDividerPosition = -1;
+        this.dragStartPos = -1;
+
+        // views entering or leaving the screen while dragging must be shifted or restored.
+        if (mover != null) {
+            this.shiftKeeper = new ShiftKeeper();
+            recyclerView.addOnChildAttachStateChangeListener(shiftKeeper);
+        }
+
+        // selection follows the adapter notifications, selected views are hidden while dragged.
+        this.selection = selection;
+        this.groupTarget = -1;
+        if (selection != null) {
+            this.groupMover = (DragDropGesture.GroupMover) adapter;
+            adapter.registerAdapterDataObserver(selection);
+            this.groupKeeper = new GroupKeeper();
+            recyclerView.addOnChildAttachStateChangeListener(groupKeeper);
+        }
     }
 
     @Override
@@ -165,6 +310,7 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
         if (!enabled) {
             return false;
         }
+        MotionEventTrace.record(traceRecorder, event);
 
         // dragging not start, listen for long pressed
         if (!dragging) {
@@ -194,6 +340,7 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
         if (!dragging) {
             return;
         }
+        MotionEventTrace.record(traceRecorder, event);
 
         switch (event.getAction() & MotionEvent.ACTION_MASK) {
             case MotionEvent.ACTION_MOVE:
@@ -214,6 +361,83 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
         }
     }
 
+    /**
+     * Log the reorderings of each drag in a journal, compacted on drop.
+     * <p/>
+     * private package.
+     *
+     * @param journal journal, null to stop journaling.
+     */
+    void setJournal(ReorderJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Move the dragged view to the predicted pointer position instead of the last touch sample.
+     * <p/>
+     * private package.
+     *
+     * @param touchPredictor predictor, null to follow the last touch sample.
+     */
+    void setTouchPredictor(TouchPredictor touchPredictor) {
+        this.touchPredictor = touchPredictor;
+    }
+
+    /**
+     * Record the received events and the decisions taken.
+     * <p/>
+     * private package.
+     *
+     * @param traceRecorder recorder, null to stop recording.
+     */
+    void setTraceRecorder(GestureTraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Stop following the adapter and the recycler view, a drag in progress is aborted.
+     * <p/>
+     * Observers registered to the adapter are unregistered, so that the adapter can be swapped or
+     * the gesture built again without notifying stale observers. The listener can't be used once
+     * detached.
+     * <p/>
+     * private package.
+     */
+    void detach() {
+        if (dragging) {
+            abortDrag();
+        }
+        enabled = false;
+        viewRefresher.cancel();
+        adapter.unregisterAdapterDataObserver(session);
+        adapter.unregisterAdapterDataObserver(dividerIndex);
+        if (dragStrategy instanceof DragStrategySnapshot) {
+            ((DragStrategySnapshot) dragStrategy).detach();
+        }
+        if (shiftKeeper != null) {
+            recyclerView.removeOnChildAttachStateChangeListener(shiftKeeper);
+        }
+        if (selection != null) {
+            adapter.unregisterAdapterDataObserver(selection);
+            recyclerView.removeOnChildAttachStateChangeListener(groupKeeper);
+        }
+    }
+
+    /**
+     * Dispatch a display frame to the auto scroller the way its frame ticker does.
+     * <p/>
+     * private package, lets tests pace the auto scroll on chosen frame times.
+     *
+     * @param frameTimeNanos frame time in {@link System#nanoTime()} time base.
+     * @return true while auto scrolling.
+     */
+    boolean doAutoScrollFrame(long frameTimeNanos) {
+        if (autoScroller.isScrolling() && !autoScroller.doFrame(frameTimeNanos)) {
+            autoScroller.stopScrolling();
+        }
+        return autoScroller.isScrolling();
+    }
+
     /**
      * Enable/disable drag/drop
      *
@@ -235,26 +459,89 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
             return;
         }
 
+        if (selection != null && selection.getCount() > 1 && selection.isSelected(mobileViewCurrentPos)) {
+            if (isSelectionDraggable()) {
+                startGroupDrag(viewUnder);
+            }
+            return;
+        }
+
         dragging = true;
+        dragStartPos = mobileViewCurrentPos;
+        draggedSize = dragBehavior.getSize(viewUnder);
+        draggedOffset = 0;
+        session.start(dragStartPos);
+        recordDecision(GestureTrace.DECISION_DRAG_START, dragStartPos, 0);
 
         // get closest divider index to block the drag if needed
         findClosestDivider();
 
         // initialize the view used as thumbnail while dragging.
-        mobileView = getDraggingView(viewUnder);
+        mobileView = thumbnailFactory.create(viewUnder);
         mobileView.setX(viewUnder.getLeft() + recyclerView.getLeft());
         mobileView.setY(viewUnder.getTop() + recyclerView.getTop());
         mobileViewStartY = mobileView.getY();
         mobileViewStartX = mobileView.getX();
 
-        ViewGroup.LayoutParams lp = new ViewGroup.LayoutParams(
-          ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
-        ((ViewGroup) recyclerView.getParent()).addView(mobileView, lp);
+        ((ViewGroup) recyclerView.getParent()).addView(mobileView);
         mobileView.bringToFront();
         viewUnder.setVisibility(View.INVISIBLE);
         listener.onDragStarted();
     }
 
+    /**
+     * Start dragging every selected item at once, displayed as a stack.
+     * <p/>
+     * Nothing moves until the group is dropped, selected views are hidden meanwhile.
+     *
+     * @param viewUnder long pressed view, on top of the stack.
+     */
+    private void startGroupDrag(View viewUnder) {
+        dragging = true;
+        groupDragging = true;
+        groupTarget = -1;
+        dragStartPos = mobileViewCurrentPos;
+        draggedSize = dragBehavior.getSize(viewUnder);
+        draggedOffset = 0;
+        session.start(dragStartPos);
+        recordDecision(GestureTrace.DECISION_DRAG_START, dragStartPos, selection.getCount());
+
+        // the group lands between the dividers around the long pressed item.
+        findClosestDivider();
+
+        mobileView = thumbnailFactory.create(viewUnder, selection.getCount());
+        mobileView.setX(viewUnder.getLeft() + recyclerView.getLeft());
+        mobileView.setY(viewUnder.getTop() + recyclerView.getTop());
+        mobileViewStartY = mobileView.getY();
+        mobileViewStartX = mobileView.getX();
+
+        ((ViewGroup) recyclerView.getParent()).addView(mobileView);
+        mobileView.bringToFront();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int adapterPos = recyclerView.getChildPosition(child);
+            if (adapterPos != RecyclerView.NO_POSITION && selection.isSelected(adapterPos)) {
+                child.setVisibility(View.INVISIBLE);
+            }
+        }
+        listener.onDragStarted();
+    }
+
+    /**
+     * Check that every selected item can be dragged, a group holding an item which can't be
+     * dragged isn't dragged at all.
+     *
+     * @return true if the selection can be dragged.
+     */
+    private boolean isSelectionDraggable() {
+        for (int pos = selection.nextSelected(0); pos != -1; pos = selection.nextSelected(pos + 1)) {
+            if (!dragStrategy.isItemDraggable(pos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Find closest divider when drag start.
      * <p/>
@@ -264,31 +551,9 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      * {@link com.netcosports.recyclergesture.library.drag.DragStrategy#isItemHoverable(int)}
      */
     private void findClosestDivider() {
-        previousDividerViewHolder = null;
-        nextDividerViewHolder = null;
-        previousDividerPosition = -1;
-        nextDividerPosition = -1;
-        for (int i = 0; i < recyclerView.getAdapter().getItemCount(); i++) {
-            boolean isHoverable = dragStrategy.isItemHoverable(i);
-            // if hoverable, not a divider, go to the next.
-            if (isHoverable) {
-                continue;
-            }
-
-            if (i < mobileViewCurrentPos) {
-                if (previousDividerPosition == -1) {
-                    previousDividerPosition = i;
-                } else if (i > previousDividerPosition) {
-                    previousDividerPosition = i;
-                }
-            } else if (i > mobileViewCurrentPos) {
-                if (nextDividerPosition == -1) {
-                    nextDividerPosition = i;
-                } else if (i < nextDividerPosition) {
-                    nextDividerPosition = i;
-                }
-            }
-        }
+        dividerIndex.ensureValid(adapter.getItemCount());
+        previousDividerPosition = dividerIndex.previous(mobileViewCurrentPos);
+        nextDividerPosition = dividerIndex.next(mobileViewCurrentPos);
 
         previousDividerViewHolder = recyclerView.findViewHolderForPosition(previousDividerPosition);
         nextDividerViewHolder = recyclerView.findViewHolderForPosition(nextDividerPosition);
@@ -298,6 +563,9 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
         activePointerId = event.getPointerId(0);
         downY = (int) event.getY();
         downX = (int) event.getX();
+        if (touchPredictor != null) {
+            touchPredictor.reset();
+        }
         return false;
     }
 
@@ -307,12 +575,15 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
         }
 
         int pointerIndex = event.findPointerIndex(activePointerId);
+        if (touchPredictor != null) {
+            touchPredictor.addSamples(event, pointerIndex, 0, 0);
+        }
 
-        int currentX = (int) event.getX(pointerIndex);
+        int currentX = (int) (touchPredictor == null ? event.getX(pointerIndex) : touchPredictor.getX());
         float deltaX = currentX - downX;
         float mobileViewX = mobileViewStartX + deltaX;
 
-        int currentY = (int) event.getY(pointerIndex);
+        int currentY = (int) (touchPredictor == null ? event.getY(pointerIndex) : touchPredictor.getY());
         float deltaY = currentY - downY;
         float mobileViewY = mobileViewStartY + deltaY;
 
@@ -321,6 +592,7 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
             View previousDivider = previousDividerViewHolder.itemView;
             if (previousDivider != null
               && dragBehavior.willHoverPreviousDivider(previousDivider, mobileViewX, mobileViewY)) {
+                recordDecision(GestureTrace.DECISION_DIVIDER_BLOCK, previousDividerPosition, 0);
                 return false;
             }
         }
@@ -329,6 +601,7 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
             View nextDivider = nextDividerViewHolder.itemView;
             if (nextDivider != null
               && dragBehavior.willHoverNextDivider(nextDivider, mobileViewX, mobileViewY)) {
+                recordDecision(GestureTrace.DECISION_DIVIDER_BLOCK, nextDividerPosition, 0);
                 return false;
             }
         }
@@ -339,40 +612,185 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
 
         // is scrolling, switch will be handle by the auto scroller since
         // view will be recycled, closest divider should be refreshed.
-        if (!isScrolling) {
+        if (!autoScroller.isScrolling()) {
             switchViewsIfNeeded();
         }
 
         return true;
     }
 
+    /**
+     * Switch the dragged item to the slot under the dragged view, whatever the number of items
+     * crossed since the last event.
+     * <p/>
+     * Target slot can't go beyond the closest dividers.
+     */
     private void switchViewsIfNeeded() {
-        int pos = mobileViewCurrentPos;
-        int previousPos = pos - 1;
-        int nextPos = pos + 1;
+        if (session.isReconciling()) {
+            // dragged item is being found back after a data set change.
+            return;
+        }
+        int childIndex = dragBehavior.findTargetChildIndex(recyclerView, mobileView);
+        if (childIndex == -1) {
+            return;
+        }
 
-        View previousView = getViewByPosition(previousPos);
-        View nextView = getViewByPosition(nextPos);
+        int target = recyclerView.getChildPosition(recyclerView.getChildAt(childIndex));
+        if (target == RecyclerView.NO_POSITION) {
+            return;
+        }
+        if (previousDividerPosition != -1 && target <= previousDividerPosition) {
+            target = previousDividerPosition + 1;
+        }
+        if (nextDividerPosition != -1 && target >= nextDividerPosition) {
+            target = nextDividerPosition - 1;
+        }
+        if (groupDragging) {
+            groupTarget = getGroupTarget(target);
+            return;
+        }
+        if (target == mobileViewCurrentPos) {
+            return;
+        }
 
-        if (dragBehavior.shouldSwitchWithPrevious(mobileView, previousView)) {
-            doSwitch(previousView, pos, previousPos);
-        } else if (dragBehavior.shouldSwitchWithNext(mobileView, nextView)) {
-            doSwitch(nextView, pos, nextPos);
+        recordDecision(GestureTrace.DECISION_SWITCH, mobileViewCurrentPos, target);
+        if (mover != null) {
+            shiftTo(target);
+        } else {
+            switchTo(target);
         }
     }
 
-    private void doSwitch(final View switchView, final int originalViewPos, final int switchViewPos) {
-        View originalView = getViewByPosition(originalViewPos);
+    /**
+     * Move the dragged item to the target position, shifting every item in between by one.
+     * <p/>
+     * Data are shifted through a single move when the swapper also implements
+     * {@link DragDropGesture.Mover}, through consecutive swaps otherwise, and the adapter is
+     * notified once for the whole range.
+     *
+     * @param target new position of the dragged item.
+     */
+    private void switchTo(int target) {
+        int from = mobileViewCurrentPos;
+        int step = target > from ? 1 : -1;
 
-        onItemSwitch(originalViewPos, switchViewPos);
+        onItemSwitch(from, target);
 
-        switchView.setVisibility(View.INVISIBLE);
-        originalView.setVisibility(View.VISIBLE);
+        // each view of the range now displays the item previously displayed by its neighbour.
+        for (int pos = from; pos != target; pos += step) {
+            View view = getViewByPosition(pos);
+            if (view == null) {
+                continue;
+            }
+            view.setVisibility(View.VISIBLE);
+            View source = getViewByPosition(pos + step);
+            if (source != null) {
+                childAnimator.slideFrom(view, source);
+            }
+        }
 
-        dragBehavior.getSwitchAnimator(originalView, switchView)
-          .setDuration(MOVE_DURATION);
+        View targetView = getViewByPosition(target);
+        if (targetView != null) {
+            targetView.setVisibility(View.INVISIBLE);
+        }
+
+        mobileViewCurrentPos = target;
+    }
+
+    /**
+     * Move the views crossed by the dragged item into the slots it left, without touching the
+     * data.
+     * <p/>
+     * Reordering will be committed once on drop, see {@link #commitMove()}.
+     *
+     * @param target slot the dragged item is moved to.
+     */
+    private void shiftTo(int target) {
+        int step = target > mobileViewCurrentPos ? 1 : -1;
+        while (mobileViewCurrentPos != target) {
+            View crossedView = getViewAtSlot(mobileViewCurrentPos + step);
+            int crossedSize = crossedView == null ? draggedSize : dragBehavior.getSize(crossedView);
+            draggedOffset += step * crossedSize;
+            mobileViewCurrentPos += step;
+
+            if (crossedView != null) {
+                int crossedAdapterPos = recyclerView.getChildPosition(crossedView);
+                dragBehavior.animateShift(childAnimator, crossedView, getShift(crossedAdapterPos));
+            }
+        }
+
+        // hidden dragged item follows its future slot, used as drop destination.
+        View draggedItemView = getViewByPosition(dragStartPos);
+        if (draggedItemView != null) {
+            shiftView(draggedItemView, draggedOffset);
+        }
+    }
+
+    /**
+     * Move a view along the drag axis without any animation, dropping its running one if any.
+     *
+     * @param view   view to move.
+     * @param offset offset from the view layout position.
+     */
+    private void shiftView(View view, float offset) {
+        childAnimator.cancel(view);
+        dragBehavior.shift(view, offset);
+    }
 
-        mobileViewCurrentPos = switchViewPos;
+    /**
+     * Offset to apply to a view while reordering is only committed on drop.
+     *
+     * @param adapterPos adapter position of the view.
+     * @return offset along the drag axis.
+     */
+    private float getShift(int adapterPos) {
+        if (adapterPos == dragStartPos) {
+            return draggedOffset;
+        } else if (dragStartPos < adapterPos && adapterPos <= mobileViewCurrentPos) {
+            return -draggedSize;
+        } else if (mobileViewCurrentPos <= adapterPos && adapterPos < dragStartPos) {
+            return draggedSize;
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieve the view currently displayed at a given slot.
+     * <p/>
+     * Slots and adapter positions only differ while reordering is committed on drop.
+     *
+     * @param slot position in the displayed order.
+     * @return view displayed at the given slot, null if not laid out.
+     */
+    private View getViewAtSlot(int slot) {
+        if (mover == null) {
+            return getViewByPosition(slot);
+        }
+        int adapterPos = slot;
+        if (slot == mobileViewCurrentPos) {
+            adapterPos = dragStartPos;
+        } else if (dragStartPos <= slot && slot < mobileViewCurrentPos) {
+            adapterPos = slot + 1;
+        } else if (mobileViewCurrentPos < slot && slot <= dragStartPos) {
+            adapterPos = slot - 1;
+        }
+        return getViewByPosition(adapterPos);
+    }
+
+    /**
+     * Compute where the dragged group lands when dropped over a given item, the same way a single
+     * item lands at the slot it hovers.
+     *
+     * @param hoveredPos adapter position of the hovered item.
+     * @return position of the first selected item after the move.
+     */
+    private int getGroupTarget(int hoveredPos) {
+        int target = hoveredPos - selection.countBefore(hoveredPos);
+        if (hoveredPos > dragStartPos && !selection.isSelected(hoveredPos)) {
+            // dragged forward, the group goes after the hovered item.
+            target++;
+        }
+        return target;
     }
 
     private boolean up(MotionEvent event) {
@@ -389,35 +807,202 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      * Animate dragged view to it's position.
      */
     private void endDrag() {
-        final View view = getViewByPosition(mobileViewCurrentPos);
-        if (view != null && mobileView != null) {
+        if (!dragging) {
+            return;
+        }
+        if (session.isReconciling()) {
+            // tracked positions are meaningless until the data set change is reconciled.
+            abortDrag();
+            return;
+        }
+        session.stop();
+        recordDecision(GestureTrace.DECISION_DROP, groupDragging ? groupTarget : mobileViewCurrentPos, 0);
+        if (groupDragging) {
+            endGroupDrag();
+            return;
+        }
 
+        View view = getViewByPosition(mover == null ? mobileViewCurrentPos : dragStartPos);
+        if (view != null && mobileView != null) {
+            dropAnimatorListener.droppedView = view;
             dragBehavior.getDropAnimator(mobileView, view)
               .setDuration(MOVE_DURATION)
-              .setListener(new AnimatorListenerAdapter() {
-                  @Override
-                  public void onAnimationEnd(Animator animation) {
-                      view.setVisibility(View.VISIBLE);
-                      if (mobileView != null) {
-                          ViewGroup parent = (ViewGroup) mobileView.getParent();
-                          parent.removeView(mobileView);
-                          draggingThumbnail.recycle();
-                          draggingThumbnail = null;
-                          mobileView = null;
-                          recyclerView.removeCallbacks(autoScroller);
-                      }
-                  }
-              })
+              .setListener(dropAnimatorListener)
               .start();
+        } else {
+            // dropped item isn't laid out, no drop animation.
+            removeMobileView();
+        }
+
+        autoScroller.stopScrolling();
+
+        if (mover != null) {
+            commitMove();
         }
 
         dragging = false;
+        dragStartPos = -1;
         mobileViewStartY = -1;
         mobileViewStartX = -1;
         mobileViewCurrentPos = -1;
+        commitJournal();
         listener.onDragEnded();
     }
 
+    /**
+     * Drop the dragged group, the selection is moved at once through the group mover.
+     */
+    private void endGroupDrag() {
+        autoScroller.stopScrolling();
+        removeMobileView();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            recyclerView.getChildAt(i).setVisibility(View.VISIBLE);
+        }
+
+        commitGroupMove();
+
+        dragging = false;
+        groupDragging = false;
+        groupTarget = -1;
+        dragStartPos = -1;
+        mobileViewStartY = -1;
+        mobileViewStartX = -1;
+        mobileViewCurrentPos = -1;
+        commitJournal();
+        listener.onDragEnded();
+    }
+
+    /**
+     * Propagate the move of the selection to the group mover, then notify the adapter.
+     * <p/>
+     * The block move is notified as a sequence of single moves, each selected item being moved
+     * next to the previous one, so that the recycler view animates every visible row within a
+     * single layout pass. The selection follows the notifications and ends on the moved block.
+     */
+    private void commitGroupMove() {
+        int target = groupTarget;
+        int count = selection.getCount();
+        if (target == -1 || count == 0) {
+            return;
+        }
+
+        int[] positions = new int[count];
+        int index = 0;
+        boolean moved = false;
+        for (int pos = selection.nextSelected(0); pos != -1; pos = selection.nextSelected(pos + 1)) {
+            moved |= pos != target + index;
+            positions[index++] = pos;
+        }
+        if (!moved) {
+            return;
+        }
+
+        groupMover.moveItems(selection, target);
+
+        // selected items having less than target unselected items before them end above the block
+        // until moved, they are the first ones of the selection.
+        int before = 0;
+        while (before < count && positions[before] - before < target) {
+            before++;
+        }
+        for (int i = 0; i < count; i++) {
+            int from = i < before ? positions[i] - i : positions[i];
+            int to = i < before ? target + before - 1 : target + i;
+            if (from != to) {
+                adapter.notifyItemMoved(from, to);
+                if (journal != null) {
+                    journal.recordMove(from, to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compact the reorderings of the drag in the journal, if any.
+     * <p/>
+     * A journal file which can't be written doesn't fail the drop : the reordering is kept in
+     * the adapter, the failure is logged and the order has to be saved by other means.
+     */
+    private void commitJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            Log.e(TAG, "Reordering can't be written in the journal, save the order by other means then"
+              + " reset it", e);
+        }
+    }
+
+    /**
+     * End the drag without dropping the dragged item, when it can't be followed anymore.
+     * <p/>
+     * Swaps already performed are kept, a reordering to commit on drop is dropped.
+     */
+    private void abortDrag() {
+        session.stop();
+        autoScroller.stopScrolling();
+        removeMobileView();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            if (mover != null) {
+                shiftView(child, 0);
+            }
+            child.setVisibility(View.VISIBLE);
+        }
+
+        dragging = false;
+        groupDragging = false;
+        groupTarget = -1;
+        dragStartPos = -1;
+        mobileViewStartY = -1;
+        mobileViewStartX = -1;
+        mobileViewCurrentPos = -1;
+        commitJournal();
+        listener.onDragEnded();
+    }
+
+    /**
+     * Update the shift and the visibility of the laid out views within a range of positions.
+     *
+     * @param start first adapter position, inclusive.
+     * @param end   last adapter position, exclusive.
+     */
+    private void refreshViews(int start, int end) {
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int adapterPos = recyclerView.getChildPosition(child);
+            if (adapterPos == RecyclerView.NO_POSITION || adapterPos < start || adapterPos >= end) {
+                continue;
+            }
+            boolean hidden;
+            if (groupDragging) {
+                hidden = selection.isSelected(adapterPos);
+            } else if (mover != null) {
+                shiftView(child, getShift(adapterPos));
+                hidden = adapterPos == dragStartPos;
+            } else {
+                hidden = adapterPos == mobileViewCurrentPos;
+            }
+            child.setVisibility(hidden ? View.INVISIBLE : View.VISIBLE);
+        }
+    }
+
+    /**
+     * Remove the dragging thumbnail and give its bitmap back to the pool.
+     */
+    private void removeMobileView() {
+        if (mobileView != null) {
+            ViewGroup parent = (ViewGroup) mobileView.getParent();
+            if (parent != null) {
+                parent.removeView(mobileView);
+            }
+            thumbnailFactory.release(mobileView);
+            mobileView = null;
+        }
+    }
+
     /**
      * propagate the switch to the adapter.
      *
@@ -425,8 +1010,57 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      * @param to   new drag position withing adapter
      */
     private void onItemSwitch(int from, int to) {
-        swapper.swapPositions(from, to);
-        adapter.notifyItemChanged(to);
+        if (swapper instanceof DragDropGesture.Mover) {
+            ((DragDropGesture.Mover) swapper).moveItem(from, to);
+            if (journal != null) {
+                journal.recordMove(from, to);
+            }
+        } else {
+            int step = to > from ? 1 : -1;
+            for (int pos = from; pos != to; pos += step) {
+                swapper.swapPositions(pos, pos + step);
+                if (journal != null) {
+                    journal.recordSwap(pos, pos + step);
+                }
+            }
+        }
+        adapter.notifyItemRangeChanged(Math.min(from, to), Math.abs(to - from) + 1);
+    }
+
+    /**
+     * Propagate the whole reordering to the adapter once the dragged item is dropped.
+     */
+    private void commitMove() {
+        // views are already displayed in the new order, restore their layout position.
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            shiftView(recyclerView.getChildAt(i), 0);
+        }
+
+        int from = dragStartPos;
+        int to = mobileViewCurrentPos;
+        if (from == to) {
+            return;
+        }
+
+        // new layout matches what is displayed, skip the move animation for this layout pass only.
+        final RecyclerView.ItemAnimator itemAnimator = recyclerView.getItemAnimator();
+        if (itemAnimator != null) {
+            recyclerView.setItemAnimator(null);
+            recyclerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    recyclerView.setItemAnimator(itemAnimator);
+                    return true;
+                }
+            });
+        }
+
+        mover.moveItem(from, to);
+        adapter.notifyItemMoved(from, to);
+        if (journal != null) {
+            journal.recordMove(from, to);
+        }
     }
 
     private View getViewByPosition(int position) {
@@ -438,55 +1072,35 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
      * Scroll the recycler view while dragging if needed.
      * <p/>
      * See also :
-     * {@link DragBehavior#shouldStartScrollingToStart(android.view.View, android.view.View)}
-     * {@link DragBehavior#shouldStartScrollingToEnd(android.view.View, android.view.View)}
+     * {@link DragBehavior#getAutoScrollRatio(android.view.View, android.view.View)}
+     * {@link DragBehavior#canScroll(android.view.View, int)}
      *
      * @return true if the recycler view is being scrolled
      */
     private boolean scrollIfNeeded() {
-
-        boolean shouldScrollToStart = dragBehavior.shouldStartScrollingToStart(recyclerView, mobileView);
-        boolean shouldScrollToEnd = dragBehavior.shouldStartScrollingToEnd(recyclerView, mobileView);
-
-        if (shouldScrollToStart && !isScrolling) {
-            autoScroller.startScrolling(AutoScroller.START);
-        } else if (shouldScrollToEnd && !isScrolling) {
-            autoScroller.startScrolling(AutoScroller.END);
-        } else if (!shouldScrollToEnd && !shouldScrollToStart && isScrolling) {
+        float ratio = dragBehavior.getAutoScrollRatio(recyclerView, mobileView);
+        if (ratio != 0 && dragBehavior.canScroll(recyclerView, ratio < 0 ? -1 : 1)) {
+            if (!autoScroller.isScrolling()) {
+                recordDecision(GestureTrace.DECISION_AUTO_SCROLL, ratio < 0 ? -1 : 1, 0);
+            }
+            autoScroller.startScrolling();
+        } else {
             autoScroller.stopScrolling();
         }
-        return isScrolling;
+        return autoScroller.isScrolling();
     }
 
     /**
-     * Build view which will be used while user performing a drag event.
+     * Record a decision if recording.
      *
-     * @param v touched view after a long press.
-     * @return View which will be used as dragging thumbnail.
-     */
-    private View getDraggingView(View v) {
-        //Clear ripple effect to not get into screenshot,
-        // need something more clever here
-        if (v instanceof FrameLayout) {
-            FrameLayout frameLayout = (FrameLayout) v;
-            Drawable foreground = frameLayout.getForeground();
-            if (foreground != null) {
-                foreground.setVisible(false, false);
-            }
-        } else {
-            if (v.getBackground() != null) {
-                v.getBackground().setVisible(false, false);
-            }
+     * @param decision decision code, see {@link GestureTrace}.
+     * @param first    first argument.
+     * @param second   second argument.
+     */
+    private void recordDecision(int decision, int first, int second) {
+        if (traceRecorder != null) {
+            traceRecorder.recordDecision(decision, first, second, 0);
         }
-
-        draggingThumbnail = Bitmap.createBitmap(v.getWidth(), v.getHeight(), Bitmap.Config.RGB_565);
-        Canvas canvas = new Canvas(draggingThumbnail);
-        v.draw(canvas);
-
-        ImageView imageView = new ImageView(recyclerView.getContext());
-        imageView.setAlpha(0.8f);
-        imageView.setImageBitmap(draggingThumbnail);
-        return imageView;
     }
 
     /**
@@ -498,60 +1112,390 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
 
             @Override
             public void onLongPress(MotionEvent e) {
-                startDrag();
+                // a long press pending when the listener got disabled or detached doesn't drag.
+                if (enabled) {
+                    startDrag();
+                }
             }
 
         };
         gestureDetector = new GestureDetector(recyclerView.getContext(), simpleOnGestureListener);
     }
 
+    /**
+     * Reveal the dropped item and remove the dragging thumbnail once the drop animation ended.
+     */
+    private final class DropAnimatorListener extends AnimatorListenerAdapter {
+
+        /**
+         * View of the dropped item, hidden while dragging.
+         */
+        private View droppedView;
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (droppedView != null) {
+                droppedView.setVisibility(View.VISIBLE);
+                droppedView = null;
+            }
+            removeMobileView();
+        }
+    }
+
+    /**
+     * Shift the tracked positions according to the adapter notifications received while
+     * dragging, the dragged item being followed by {@link DragSession}.
+     * <p/>
+     * While swapping, data follow the drag and the dragged item sits at its slot. While reordering
+     * is committed on drop, the dragged item stays at its start position and items inserted
+     * between it and its slot are displayed as crossed ones, assuming they have the size of the
+     * dragged item.
+     */
+    private final class SessionKeeper implements DragSession.Listener {
+
+        @Override
+        public void onSessionItemsInserted(int positionStart, int itemCount) {
+            if (mover == null) {
+                if (positionStart <= mobileViewCurrentPos) {
+                    mobileViewCurrentPos += itemCount;
+                }
+                dragStartPos = mobileViewCurrentPos;
+                onPositionsShifted();
+                return;
+            }
+            int slotBound = getSlotBound();
+            int crossedStart = Math.min(dragStartPos, mobileViewCurrentPos);
+            int crossedEnd = Math.max(dragStartPos, mobileViewCurrentPos);
+            if (crossedStart < positionStart && positionStart <= crossedEnd
+              || (mobileViewCurrentPos < dragStartPos && positionStart == crossedStart)) {
+                draggedOffset += (mobileViewCurrentPos < dragStartPos ? -1 : 1) * itemCount * draggedSize;
+            }
+            if (positionStart <= dragStartPos) {
+                dragStartPos += itemCount;
+            }
+            if (positionStart < slotBound) {
+                mobileViewCurrentPos += itemCount;
+            }
+            onPositionsShifted();
+        }
+
+        @Override
+        public void onSessionItemsRemoved(int positionStart, int itemCount) {
+            int positionEnd = positionStart + itemCount;
+            int draggedPos = getDraggedPosition();
+            if (positionStart <= draggedPos && draggedPos < positionEnd) {
+                onSessionLost();
+                return;
+            }
+            if (mover == null) {
+                if (mobileViewCurrentPos >= positionEnd) {
+                    mobileViewCurrentPos -= itemCount;
+                }
+                dragStartPos = mobileViewCurrentPos;
+                onPositionsShifted();
+                return;
+            }
+            int slotBound = getSlotBound();
+            int crossedStart = mobileViewCurrentPos < dragStartPos ? mobileViewCurrentPos : dragStartPos + 1;
+            int crossedEnd = mobileViewCurrentPos < dragStartPos ? dragStartPos : mobileViewCurrentPos + 1;
+            int crossedRemoved = Math.max(0, Math.min(positionEnd, crossedEnd) - Math.max(positionStart, crossedStart));
+            draggedOffset -= (mobileViewCurrentPos < dragStartPos ? -1 : 1) * crossedRemoved * draggedSize;
+            int removedBeforeSlot = Math.max(0, Math.min(positionEnd, slotBound) - positionStart);
+            if (dragStartPos >= positionEnd) {
+                dragStartPos -= itemCount;
+            }
+            mobileViewCurrentPos -= removedBeforeSlot;
+            onPositionsShifted();
+        }
+
+        @Override
+        public void onSessionItemMoved(int fromPosition, int toPosition) {
+            if (fromPosition != getDraggedPosition()) {
+                onSessionItemsRemoved(fromPosition, 1);
+                onSessionItemsInserted(toPosition, 1);
+                return;
+            }
+            // dragged item moved by someone else, the drag starts again from its new position.
+            int previousStart = dragStartPos;
+            int previousSlot = mobileViewCurrentPos;
+            reanchor(toPosition);
+            viewRefresher.schedule(Math.min(Math.min(previousStart, previousSlot), toPosition),
+              Math.max(Math.max(previousStart, previousSlot), toPosition) + 1);
+        }
+
+        @Override
+        public void onSessionReconciled(int draggedPosition, int affectedStart, int affectedEnd) {
+            int previousStart = dragStartPos;
+            int previousSlot = mobileViewCurrentPos;
+            int slotOffset = mobileViewCurrentPos - dragStartPos;
+            reanchor(draggedPosition);
+            if (mover != null && !groupDragging) {
+                // keep the dragged item the same number of items away from where it was picked.
+                int lastPosition = adapter.getItemCount() - 1;
+                mobileViewCurrentPos = Math.max(0, Math.min(lastPosition, draggedPosition + slotOffset));
+                draggedOffset = (mobileViewCurrentPos - dragStartPos) * draggedSize;
+            }
+            int start = Math.min(affectedStart, Math.min(Math.min(previousStart, previousSlot),
+              Math.min(dragStartPos, mobileViewCurrentPos)));
+            int end = Math.max(affectedEnd, Math.max(Math.max(previousStart, previousSlot),
+              Math.max(dragStartPos, mobileViewCurrentPos)) + 1);
+            viewRefresher.schedule(start, end);
+        }
+
+        @Override
+        public void onSessionLost() {
+            abortDrag();
+        }
+
+        /**
+         * Start the drag again from a new position of the dragged item.
+         *
+         * @param position new position of the dragged item.
+         */
+        private void reanchor(int position) {
+            dragStartPos = position;
+            mobileViewCurrentPos = position;
+            draggedOffset = 0;
+            onPositionsShifted();
+        }
+
+        /**
+         * Adapter position of the dragged item.
+         *
+         * @return its slot while swapping, its start position while reordering is committed on
+         * drop.
+         */
+        private int getDraggedPosition() {
+            return mover == null ? mobileViewCurrentPos : dragStartPos;
+        }
+
+        /**
+         * Exclusive bound of the positions displayed before the dragged item.
+         *
+         * @return bound.
+         */
+        private int getSlotBound() {
+            return mobileViewCurrentPos >= dragStartPos ? mobileViewCurrentPos + 1 : mobileViewCurrentPos;
+        }
+
+        /**
+         * Refresh what depends on the tracked positions.
+         */
+        private void onPositionsShifted() {
+            if (groupDragging) {
+                // target is computed again on the next move.
+                groupTarget = -1;
+            }
+            findClosestDivider();
+        }
+    }
+
+    /**
+     * Refresh the views of a range of positions once laid out, the recycler view only updates
+     * the positions of its children on the next layout pass.
+     */
+    private final class ViewRefresher implements ViewTreeObserver.OnPreDrawListener {
+
+        /**
+         * First position to refresh, inclusive.
+         */
+        private int start;
+
+        /**
+         * Last position to refresh, exclusive.
+         */
+        private int end;
+
+        /**
+         * True while waiting for the next layout.
+         */
+        private boolean scheduled;
+
+        /**
+         * Refresh a range of positions on the next frame, merged with the range already scheduled.
+         *
+         * @param rangeStart first position, inclusive.
+         * @param rangeEnd   last position, exclusive.
+         */
+        private void schedule(int rangeStart, int rangeEnd) {
+            if (scheduled) {
+                start = Math.min(start, rangeStart);
+                end = Math.max(end, rangeEnd);
+                return;
+            }
+            scheduled = true;
+            start = rangeStart;
+            end = rangeEnd;
+            recyclerView.getViewTreeObserver().addOnPreDrawListener(this);
+        }
+
+        /**
+         * Drop the scheduled refresh, if any.
+         */
+        private void cancel() {
+            if (scheduled) {
+                scheduled = false;
+                recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+            }
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+            scheduled = false;
+            if (dragging) {
+                refreshViews(start, end);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Keep the views entering the screen at their expected place while reordering is only
+     * committed on drop, restore the ones leaving it.
+     */
+    private final class ShiftKeeper implements RecyclerView.OnChildAttachStateChangeListener {
+
+        @Override
+        public void onChildViewAttachedToWindow(View view) {
+            if (!dragging || groupDragging) {
+                return;
+            }
+            int adapterPos = recyclerView.getChildPosition(view);
+            shiftView(view, getShift(adapterPos));
+            view.setVisibility(adapterPos == dragStartPos ? View.INVISIBLE : View.VISIBLE);
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(View view) {
+            if (!dragging || groupDragging) {
+                return;
+            }
+            shiftView(view, 0);
+            view.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Hide the selected views entering the screen while a group is dragged, restore the ones
+     * leaving it.
+     */
+    private final class GroupKeeper implements RecyclerView.OnChildAttachStateChangeListener {
+
+        @Override
+        public void onChildViewAttachedToWindow(View view) {
+            if (!groupDragging) {
+                return;
+            }
+            int adapterPos = recyclerView.getChildPosition(view);
+            boolean selected = adapterPos != RecyclerView.NO_POSITION && selection.isSelected(adapterPos);
+            view.setVisibility(selected ? View.INVISIBLE : View.VISIBLE);
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(View view) {
+            if (!groupDragging) {
+                return;
+            }
+            view.setVisibility(View.VISIBLE);
+        }
+    }
+
     /**
      * Auto scroller used to scroll the recycler view while dragging.
+     * <p/>
+     * Scrolls on each display frame, proportionally to how deep the dragged view is within the
+     * hot zones and to the elapsed frame time, and stops once the recycler view can't be scrolled
+     * further.
      */
-    private final class AutoScroller implements Runnable {
+    private final class AutoScroller implements FrameTicker.Callback {
+
+        /**
+         * Elapsed time assumed for the first frame, in nanoseconds.
+         */
+        private static final long DEFAULT_FRAME_NANOS = 16666667L;
 
         /**
-         * Scroll to the start of the recycle view.
+         * Maximum elapsed time taken into account for a frame, in nanoseconds.
          */
-        static final int START = -1;
+        private static final long MAX_FRAME_NANOS = 50000000L;
 
         /**
-         * Scroll to the end of the recycle view.
+         * Number of nanoseconds in a second.
          */
-        static final int END = 1;
+        private static final float NANOS_PER_SECOND = 1000000000f;
 
-        private int direction;
+        /**
+         * Ticker pacing the scroll on the display frames.
+         */
+        private final FrameTicker frameTicker;
 
-        public AutoScroller() {
+        /**
+         * Time of the last frame, 0 if no frame has been processed yet.
+         */
+        private long lastFrameTimeNanos;
 
+        /**
+         * Sub pixel distance not scrolled yet.
+         */
+        private float pendingDistance;
+
+        public AutoScroller() {
+            frameTicker = new FrameTicker(recyclerView, this);
         }
 
-        public void startScrolling(int direction) {
-            if (direction != START && direction != END) {
-                throw new IllegalArgumentException("Direction unknown");
+        public void startScrolling() {
+            if (frameTicker.isRunning()) {
+                return;
             }
-            isScrolling = true;
-            this.direction = direction;
-            recyclerView.post(this);
+            lastFrameTimeNanos = 0;
+            pendingDistance = 0;
+            frameTicker.start();
         }
 
         public void stopScrolling() {
-            isScrolling = false;
-            recyclerView.removeCallbacks(this);
+            frameTicker.stop();
+        }
+
+        public boolean isScrolling() {
+            return frameTicker.isRunning();
         }
 
         @Override
-        public void run() {
-            dragBehavior.scroll(recyclerView, direction * scrollAmount);
+        public boolean doFrame(long frameTimeNanos) {
+            if (!dragging || mobileView == null) {
+                return false;
+            }
+
+            float ratio = dragBehavior.getAutoScrollRatio(recyclerView, mobileView);
+            int direction = ratio < 0 ? -1 : 1;
+            if (ratio == 0 || !dragBehavior.canScroll(recyclerView, direction)) {
+                // out of the hot zones or reached one end of the list.
+                return false;
+            }
+
+            long elapsed = lastFrameTimeNanos == 0 ? DEFAULT_FRAME_NANOS : frameTimeNanos - lastFrameTimeNanos;
+            elapsed = Math.max(0, Math.min(elapsed, MAX_FRAME_NANOS));
+            lastFrameTimeNanos = frameTimeNanos;
+
+            pendingDistance += maxScrollSpeed * ratio * elapsed / NANOS_PER_SECOND;
+            int distance = (int) pendingDistance;
+            pendingDistance -= distance;
+            if (distance == 0) {
+                return true;
+            }
 
-            float nextX = mobileView.getX() + direction * scrollAmount;
-            float nextY = mobileView.getY() + direction * scrollAmount;
+            float nextX = mobileView.getX() + distance;
+            float nextY = mobileView.getY() + distance;
 
-            if (previousDividerPosition != -1) {
+            // dividers may have been recycled or laid out by the previous scroll.
+            if (previousDividerPosition != -1 && (previousDividerViewHolder == null
+              || previousDividerViewHolder.getPosition() != previousDividerPosition)) {
                 previousDividerViewHolder = recyclerView.findViewHolderForPosition(previousDividerPosition);
             }
 
-            if (nextDividerPosition != -1) {
+            if (nextDividerPosition != -1 && (nextDividerViewHolder == null
+              || nextDividerViewHolder.getPosition() != nextDividerPosition)) {
                 nextDividerViewHolder = recyclerView.findViewHolderForPosition(nextDividerPosition);
             }
 
@@ -560,8 +1504,7 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
                 if (previousDivider != null
                   && dragBehavior.willHoverPreviousDivider(previousDivider, nextX, nextY)) {
                     // stop scrolling when blocked by a divider
-                    isScrolling = false;
-                    return;
+                    return false;
                 }
             }
 
@@ -570,13 +1513,13 @@ class DragDropListener implements RecyclerView.OnItemTouchListener {
                 if (nextDivider != null
                   && dragBehavior.willHoverNextDivider(nextDivider, nextX, nextY)) {
                     // stop scrolling when blocked by a divider
-                    isScrolling = false;
-                    return;
+                    return false;
                 }
             }
 
+            dragBehavior.scroll(recyclerView, distance);
             switchViewsIfNeeded();
-            recyclerView.post(this);
+            return true;
         }
     }
 }
@@ -0,0 +1,324 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Selection of adapter positions dragged together, see
+ * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Builder#select(DragSelection)}.
+ * <p/>
+ * Positions are stored in a bitset, one bit per adapter position, and kept in sync with the
+ * adapter notifications so that a selection can scale to tens of thousands of items.
+ */
+public final class DragSelection extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Shift from a position to the index of its word.
+     */
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * Number of positions stored in a word.
+     */
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    /**
+     * Mask giving the index of a position within its word.
+     */
+    private static final int BIT_INDEX_MASK = BITS_PER_WORD - 1;
+
+    /**
+     * Initial number of words, enough for 1024 positions.
+     */
+    private static final int INITIAL_WORD_COUNT = 16;
+
+    /**
+     * Selected positions, bit i of word w stands for position w * 64 + i.
+     */
+    private long[] words;
+
+    /**
+     * Number of selected positions.
+     */
+    private int count;
+
+    /**
+     * Empty selection.
+     */
+    public DragSelection() {
+        this.words = new long[INITIAL_WORD_COUNT];
+        this.count = 0;
+    }
+
+    /**
+     * Select a position.
+     *
+     * @param position adapter position.
+     */
+    public void select(int position) {
+        checkPosition(position);
+        ensureCapacity(position + 1);
+        long mask = 1L << position;
+        int wordIndex = position >> ADDRESS_BITS_PER_WORD;
+        if ((words[wordIndex] & mask) == 0) {
+            words[wordIndex] |= mask;
+            count++;
+        }
+    }
+
+    /**
+     * Deselect a position.
+     *
+     * @param position adapter position.
+     */
+    public void deselect(int position) {
+        checkPosition(position);
+        int wordIndex = position >> ADDRESS_BITS_PER_WORD;
+        long mask = 1L << position;
+        if (wordIndex < words.length && (words[wordIndex] & mask) != 0) {
+            words[wordIndex] &= ~mask;
+            count--;
+        }
+    }
+
+    /**
+     * Toggle the selection of a position.
+     *
+     * @param position adapter position.
+     * @return true if the position is now selected.
+     */
+    public boolean toggle(int position) {
+        if (isSelected(position)) {
+            deselect(position);
+            return false;
+        }
+        select(position);
+        return true;
+    }
+
+    /**
+     * Check if a position is selected.
+     *
+     * @param position adapter position.
+     * @return true if selected.
+     */
+    public boolean isSelected(int position) {
+        checkPosition(position);
+        int wordIndex = position >> ADDRESS_BITS_PER_WORD;
+        return wordIndex < words.length && (words[wordIndex] & (1L << position)) != 0;
+    }
+
+    /**
+     * Deselect every position.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+        count = 0;
+    }
+
+    /**
+     * Number of selected positions.
+     *
+     * @return selected count.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Find the first selected position starting from the given one, to iterate over the
+     * selection :
+     * <pre>
+     * for (int i = selection.nextSelected(0); i != -1; i = selection.nextSelected(i + 1))
+     * </pre>
+     *
+     * @param from first position to check, inclusive.
+     * @return first selected position, -1 if none.
+     */
+    public int nextSelected(int from) {
+        checkPosition(from);
+        int wordIndex = from >> ADDRESS_BITS_PER_WORD;
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+        long word = words[wordIndex] & (-1L << from);
+        while (word == 0) {
+            wordIndex++;
+            if (wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        return (wordIndex << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Number of selected positions before the given one.
+     *
+     * @param position adapter position, exclusive.
+     * @return selected count in [0, position[.
+     */
+    public int countBefore(int position) {
+        checkPosition(position);
+        int wordIndex = position >> ADDRESS_BITS_PER_WORD;
+        int selected = 0;
+        for (int i = 0; i < Math.min(wordIndex, words.length); i++) {
+            selected += Long.bitCount(words[i]);
+        }
+        if (wordIndex < words.length) {
+            selected += Long.bitCount(words[wordIndex] & ((1L << position) - 1));
+        }
+        return selected;
+    }
+
+    @Override
+    public void onChanged() {
+        super.onChanged();
+        // positions can't be tracked anymore.
+        clear();
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        super.onItemRangeInserted(positionStart, itemCount);
+        insertRange(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        super.onItemRangeRemoved(positionStart, itemCount);
+        removeRange(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        super.onItemRangeMoved(fromPosition, toPosition, itemCount);
+        if (itemCount != 1) {
+            // multi items moves aren't supported by the recycler view yet.
+            clear();
+            return;
+        }
+        boolean selected = isSelected(fromPosition);
+        removeRange(fromPosition, 1);
+        insertRange(toPosition, 1);
+        if (selected) {
+            select(toPosition);
+        }
+    }
+
+    /**
+     * Shift the positions from the given one to make room for inserted items.
+     *
+     * @param start     first inserted position.
+     * @param itemCount number of inserted items.
+     */
+    private void insertRange(int start, int itemCount) {
+        int startWord = start >> ADDRESS_BITS_PER_WORD;
+        if (itemCount <= 0 || startWord >= words.length) {
+            return;
+        }
+        ensureCapacity(getLength() + itemCount);
+
+        // positions below start aren't shifted, hide them while shifting.
+        long lowMask = (1L << start) - 1;
+        long lowBits = words[startWord] & lowMask;
+        words[startWord] &= ~lowMask;
+
+        // destination words are above their source, walk from the top.
+        for (int wordIndex = words.length - 1; wordIndex >= startWord; wordIndex--) {
+            words[wordIndex] = readWord((wordIndex << ADDRESS_BITS_PER_WORD) - itemCount, startWord);
+        }
+        words[startWord] |= lowBits;
+    }
+
+    /**
+     * Shift the positions after a removed range over it.
+     *
+     * @param start     first removed position.
+     * @param itemCount number of removed items.
+     */
+    private void removeRange(int start, int itemCount) {
+        int startWord = start >> ADDRESS_BITS_PER_WORD;
+        if (itemCount <= 0 || startWord >= words.length) {
+            return;
+        }
+        count -= countBefore(start + itemCount) - countBefore(start);
+
+        long lowMask = (1L << start) - 1;
+        long lowBits = words[startWord] & lowMask;
+
+        // destination words are below their source, walk from the bottom.
+        for (int wordIndex = startWord; wordIndex < words.length; wordIndex++) {
+            words[wordIndex] = readWord((wordIndex << ADDRESS_BITS_PER_WORD) + itemCount, 0);
+        }
+        words[startWord] = (words[startWord] & ~lowMask) | lowBits;
+    }
+
+    /**
+     * Read 64 consecutive positions starting at any position.
+     *
+     * @param position  first position to read, may be negative.
+     * @param floorWord words below this one are read as empty.
+     * @return 64 positions packed in a word.
+     */
+    private long readWord(int position, int floorWord) {
+        int wordIndex = position >> ADDRESS_BITS_PER_WORD;
+        int offset = position & BIT_INDEX_MASK;
+        long low = getWord(wordIndex, floorWord) >>> offset;
+        long high = offset == 0 ? 0L : getWord(wordIndex + 1, floorWord) << (BITS_PER_WORD - offset);
+        return low | high;
+    }
+
+    /**
+     * Retrieve a word, empty when out of bounds.
+     *
+     * @param wordIndex index of the word.
+     * @param floorWord words below this one are read as empty.
+     * @return word.
+     */
+    private long getWord(int wordIndex, int floorWord) {
+        if (wordIndex < floorWord || wordIndex >= words.length) {
+            return 0L;
+        }
+        return words[wordIndex];
+    }
+
+    /**
+     * Number of positions up to the highest selected one.
+     *
+     * @return highest selected position + 1, 0 if empty.
+     */
+    private int getLength() {
+        for (int wordIndex = words.length - 1; wordIndex >= 0; wordIndex--) {
+            if (words[wordIndex] != 0) {
+                return (wordIndex << ADDRESS_BITS_PER_WORD) + BITS_PER_WORD
+                  - Long.numberOfLeadingZeros(words[wordIndex]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Grow the bitset to store the given number of positions.
+     *
+     * @param length number of positions.
+     */
+    private void ensureCapacity(int length) {
+        int wordCount = (length + BITS_PER_WORD - 1) >> ADDRESS_BITS_PER_WORD;
+        if (wordCount > words.length) {
+            words = Arrays.copyOf(words, Math.max(wordCount, words.length * 2));
+        }
+    }
+
+    /**
+     * Check a position.
+     *
+     * @param position adapter position.
+     */
+    private static void checkPosition(int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position must be positive : " + position);
+        }
+    }
+}
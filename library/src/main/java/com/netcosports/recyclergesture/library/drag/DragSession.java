@@ -0,0 +1,505 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.widget.RecyclerView;
+
+import com.netcosports.recyclergesture.library.StableIdIndex;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Follow the dragged item through the adapter notifications received while dragging.
+ * <p/>
+ * Range notifications are forwarded right away so that tracked positions can be shifted. When the
+ * adapter has stable ids, the ids of the list in its in-progress order are kept current from those
+ * notifications, so that a full data set change can be reconciled : the dragged item is found back
+ * by id and the range of moved items is computed on a worker thread, against an index from the
+ * previous ids to their position. Without stable ids, a full data set change loses the session.
+ * <p/>
+ * Must be registered before the other observers of the drag, observers being notified from the
+ * last registered, so that they are up to date when the session is notified.
+ */
+final class DragSession extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Adapter of the dragged item.
+     */
+    private final RecyclerView.Adapter adapter;
+
+    /**
+     * Listener notified of the changes impacting the session.
+     */
+    private final Listener listener;
+
+    /**
+     * Executor running the reconciliations.
+     */
+    private final Executor executor;
+
+    /**
+     * Handler used to publish the reconciliations on the main thread.
+     */
+    private final Handler mainHandler;
+
+    /**
+     * True while a drag is in progress.
+     */
+    private boolean active;
+
+    /**
+     * Stable id of the dragged item, {@link RecyclerView#NO_ID} without stable ids.
+     */
+    private long draggedId;
+
+    /**
+     * Ids by position of the list in its in-progress order.
+     */
+    private long[] ids;
+
+    /**
+     * Number of positions in {@link #ids}.
+     */
+    private int idCount;
+
+    /**
+     * Spare buffer receiving the ids of the next reconciliation.
+     */
+    private long[] spareIds;
+
+    /**
+     * Incremented on each drag, reconciliations of a previous drag are dropped.
+     */
+    private int generation;
+
+    /**
+     * True while a reconciliation is running.
+     */
+    private boolean reconciling;
+
+    /**
+     * Reconciliation reused from one data set change to the next.
+     */
+    private final Reconciliation reconciliation;
+
+    /**
+     * Follow the dragged item of an adapter, reconciliations running on
+     * {@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param adapter  adapter of the dragged item.
+     * @param listener listener notified of the changes impacting the session.
+     */
+    DragSession(RecyclerView.Adapter adapter, Listener listener) {
+        this(adapter, listener, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Follow the dragged item of an adapter.
+     * <p/>
+     * Switches are paused while reconciling, the executor shouldn't be shared with tasks which may
+     * delay the reconciliation, such as the process wide {@link android.os.AsyncTask#SERIAL_EXECUTOR}.
+     *
+     * @param adapter  adapter of the dragged item.
+     * @param listener listener notified of the changes impacting the session.
+     * @param executor executor running the reconciliations.
+     */
+    DragSession(RecyclerView.Adapter adapter, Listener listener, Executor executor) {
+        this.adapter = adapter;
+        this.listener = listener;
+        this.executor = executor;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.active = false;
+        this.draggedId = RecyclerView.NO_ID;
+        this.ids = new long[0];
+        this.idCount = 0;
+        this.spareIds = new long[0];
+        this.generation = 0;
+        this.reconciling = false;
+        this.reconciliation = new Reconciliation();
+    }
+
+    /**
+     * Start following a dragged item.
+     *
+     * @param position adapter position of the dragged item.
+     */
+    void start(int position) {
+        active = true;
+        generation++;
+        if (!adapter.hasStableIds()) {
+            draggedId = RecyclerView.NO_ID;
+            return;
+        }
+        draggedId = adapter.getItemId(position);
+        idCount = adapter.getItemCount();
+        ids = readIds(ids, 0, idCount);
+    }
+
+    /**
+     * Stop following the dragged item, a running reconciliation is dropped.
+     */
+    void stop() {
+        active = false;
+        generation++;
+    }
+
+    /**
+     * Used to know if the dragged item is being found back after a data set change, tracked
+     * positions are meaningless meanwhile.
+     *
+     * @return true while reconciling.
+     */
+    boolean isReconciling() {
+        return active && reconciling;
+    }
+
+    @Override
+    public void onChanged() {
+        super.onChanged();
+        if (!active) {
+            return;
+        }
+        if (draggedId == RecyclerView.NO_ID) {
+            listener.onSessionLost();
+            return;
+        }
+        reconcile();
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        super.onItemRangeChanged(positionStart, itemCount);
+        if (!active || draggedId == RecyclerView.NO_ID) {
+            return;
+        }
+        if (reconciling) {
+            // ids may have changed after the new ones were read.
+            reconcile();
+            return;
+        }
+        // swapped items, or items whose content changed, may have changed of id.
+        int end = Math.min(idCount, positionStart + itemCount);
+        for (int position = positionStart; position < end; position++) {
+            ids[position] = adapter.getItemId(position);
+        }
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        super.onItemRangeInserted(positionStart, itemCount);
+        if (!active) {
+            return;
+        }
+        if (reconciling) {
+            // positions are meaningless until the previous data set change is reconciled.
+            reconcile();
+            return;
+        }
+        if (draggedId != RecyclerView.NO_ID && positionStart <= idCount) {
+            if (idCount + itemCount > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(idCount + itemCount, ids.length * 2));
+            }
+            System.arraycopy(ids, positionStart, ids, positionStart + itemCount, idCount - positionStart);
+            idCount += itemCount;
+            readIds(ids, positionStart, positionStart + itemCount);
+        }
+        listener.onSessionItemsInserted(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        super.onItemRangeRemoved(positionStart, itemCount);
+        if (!active) {
+            return;
+        }
+        if (reconciling) {
+            // positions are meaningless until the previous data set change is reconciled.
+            reconcile();
+            return;
+        }
+        if (draggedId != RecyclerView.NO_ID && positionStart < idCount) {
+            int end = Math.min(idCount, positionStart + itemCount);
+            System.arraycopy(ids, end, ids, positionStart, idCount - end);
+            idCount -= end - positionStart;
+        }
+        listener.onSessionItemsRemoved(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        super.onItemRangeMoved(fromPosition, toPosition, itemCount);
+        if (!active) {
+            return;
+        }
+        if (reconciling) {
+            // positions are meaningless until the previous data set change is reconciled.
+            reconcile();
+            return;
+        }
+        if (itemCount != 1) {
+            // multi items moves aren't supported by the recycler view yet.
+            onChanged();
+            return;
+        }
+        if (draggedId != RecyclerView.NO_ID && fromPosition < idCount && toPosition < idCount) {
+            long moved = ids[fromPosition];
+            if (fromPosition < toPosition) {
+                System.arraycopy(ids, fromPosition + 1, ids, fromPosition, toPosition - fromPosition);
+            } else {
+                System.arraycopy(ids, toPosition, ids, toPosition + 1, fromPosition - toPosition);
+            }
+            ids[toPosition] = moved;
+        }
+        listener.onSessionItemMoved(fromPosition, toPosition);
+    }
+
+    /**
+     * Read the new ids on the main thread, then diff them against the in-progress order on the
+     * worker thread.
+     * <p/>
+     * When already reconciling, the running reconciliation is dropped and a new one is started
+     * once it's done, against the same in-progress order.
+     */
+    private void reconcile() {
+        if (reconciling) {
+            reconciliation.restart = true;
+            return;
+        }
+        int count = adapter.getItemCount();
+        spareIds = readIds(spareIds, 0, count);
+        reconciling = true;
+        reconciliation.prepare(generation, ids, idCount, spareIds, count);
+        executor.execute(reconciliation);
+    }
+
+    /**
+     * Publish a reconciliation, main thread only.
+     */
+    private void publish() {
+        reconciling = false;
+        if (reconciliation.restart) {
+            reconciliation.restart = false;
+            if (active && draggedId != RecyclerView.NO_ID) {
+                reconcile();
+            }
+            return;
+        }
+        if (!active || reconciliation.generation != generation) {
+            return;
+        }
+
+        // new ids become the in-progress order, previous buffer receives the next ones.
+        long[] previousIds = ids;
+        ids = reconciliation.newIds;
+        idCount = reconciliation.newCount;
+        spareIds = previousIds;
+
+        if (reconciliation.draggedPosition == -1) {
+            listener.onSessionLost();
+        } else {
+            listener.onSessionReconciled(reconciliation.draggedPosition, reconciliation.affectedStart,
+              reconciliation.affectedEnd);
+        }
+    }
+
+    /**
+     * Read the ids of a range of positions.
+     *
+     * @param buffer buffer to fill, grown if needed.
+     * @param start  first position, inclusive.
+     * @param end    last position, exclusive.
+     * @return filled buffer.
+     */
+    private long[] readIds(long[] buffer, int start, int end) {
+        long[] filled = buffer.length >= end ? buffer : Arrays.copyOf(buffer, Math.max(end, buffer.length * 2));
+        for (int position = start; position < end; position++) {
+            filled[position] = adapter.getItemId(position);
+        }
+        return filled;
+    }
+
+    /**
+     * Listener notified of the changes impacting the session, on the main thread.
+     */
+    interface Listener {
+        /**
+         * Called when items have been inserted while dragging.
+         *
+         * @param positionStart first inserted position.
+         * @param itemCount     number of inserted items.
+         */
+        void onSessionItemsInserted(int positionStart, int itemCount);
+
+        /**
+         * Called when items have been removed while dragging.
+         *
+         * @param positionStart first removed position.
+         * @param itemCount     number of removed items.
+         */
+        void onSessionItemsRemoved(int positionStart, int itemCount);
+
+        /**
+         * Called when an item has been moved while dragging.
+         *
+         * @param fromPosition src position.
+         * @param toPosition   dest position.
+         */
+        void onSessionItemMoved(int fromPosition, int toPosition);
+
+        /**
+         * Called once the dragged item has been found back after a data set change.
+         *
+         * @param draggedPosition new position of the dragged item.
+         * @param affectedStart   first position whose item changed, inclusive.
+         * @param affectedEnd     last position whose item changed, exclusive, items outside of
+         *                        the range are at the same position as before the change.
+         */
+        void onSessionReconciled(int draggedPosition, int affectedStart, int affectedEnd);
+
+        /**
+         * Called when the dragged item can't be followed anymore, removed or changed without
+         * stable ids.
+         */
+        void onSessionLost();
+    }
+
+    /**
+     * Diff of the ids after a data set change against the in-progress order, computed on the
+     * worker thread then published on the main thread.
+     */
+    private final class Reconciliation implements Runnable {
+
+        /**
+         * Index from the previous ids to their position, only used on the worker thread.
+         */
+        private final StableIdIndex index;
+
+        /**
+         * Generation of the adapter reconciled.
+         */
+        private int generation;
+
+        /**
+         * Copy of the ids before the change.
+         */
+        private long[] previousIds;
+
+        /**
+         * Number of positions before the change.
+         */
+        private int previousCount;
+
+        /**
+         * Ids after the change.
+         */
+        private long[] newIds;
+
+        /**
+         * Number of positions after the change.
+         */
+        private int newCount;
+
+        /**
+         * Stable id of the dragged item.
+         */
+        private long draggedId;
+
+        /**
+         * New position of the dragged item, -1 if removed.
+         */
+        private int draggedPosition;
+
+        /**
+         * First position whose item changed, inclusive.
+         */
+        private int affectedStart;
+
+        /**
+         * Last position whose item changed, exclusive.
+         */
+        private int affectedEnd;
+
+        /**
+         * True if the adapter changed again while reconciling.
+         */
+        private boolean restart;
+
+        /**
+         * False until diffed on the worker thread.
+         */
+        private boolean done;
+
+        /**
+         * Reusable reconciliation.
+         */
+        private Reconciliation() {
+            this.index = new StableIdIndex();
+            this.previousIds = new long[0];
+        }
+
+        /**
+         * Prepare the reconciliation of a data set change, main thread only.
+         *
+         * @param changeGeneration generation of the adapter reconciled.
+         * @param currentIds       ids before the change, copied.
+         * @param currentCount     number of positions before the change.
+         * @param changedIds       ids after the change, kept.
+         * @param changedCount     number of positions after the change.
+         */
+        private void prepare(int changeGeneration, long[] currentIds, int currentCount, long[] changedIds,
+                             int changedCount) {
+            this.generation = changeGeneration;
+            if (previousIds.length < currentCount) {
+                previousIds = new long[Math.max(currentCount, previousIds.length * 2)];
+            }
+            System.arraycopy(currentIds, 0, previousIds, 0, currentCount);
+            this.previousCount = currentCount;
+            this.newIds = changedIds;
+            this.newCount = changedCount;
+            this.draggedId = DragSession.this.draggedId;
+            this.restart = false;
+            this.done = false;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                publish();
+                return;
+            }
+            done = true;
+            diff();
+            mainHandler.post(this);
+        }
+
+        /**
+         * Find the dragged item and the range of items which changed of position.
+         */
+        private void diff() {
+            index.build(previousIds, previousCount);
+            draggedPosition = -1;
+            affectedStart = newCount;
+            affectedEnd = 0;
+            for (int position = 0; position < newCount; position++) {
+                long id = newIds[position];
+                if (id == draggedId) {
+                    draggedPosition = position;
+                }
+                if (index.get(id) != position) {
+                    affectedStart = Math.min(affectedStart, position);
+                    affectedEnd = position + 1;
+                }
+            }
+            if (previousCount > newCount) {
+                // removed tail.
+                affectedStart = Math.min(affectedStart, newCount);
+                affectedEnd = Math.max(affectedEnd, newCount);
+            }
+            if (affectedStart > affectedEnd) {
+                affectedStart = affectedEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.os.AsyncTask;
+import android.support.v7.widget.RecyclerView;
+
+import com.netcosports.recyclergesture.library.PositionSnapshot;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Drag strategy answering from a snapshot of another strategy evaluated in bulk on a worker
+ * thread each time the adapter changes.
+ * <p/>
+ * Useful when the wrapped strategy relies on expensive model lookups : the touch handling only
+ * reads a byte per position. Positions not evaluated yet are forwarded to the wrapped strategy.
+ * <p/>
+ * The wrapped strategy is called from a worker thread and must only read data which can be
+ * safely accessed from it.
+ */
+public class DragStrategySnapshot extends DragStrategy {
+
+    /**
+     * Flag set when the item is draggable.
+     */
+    private static final int FLAG_DRAGGABLE = 1;
+
+    /**
+     * Flag set when the item is hoverable.
+     */
+    private static final int FLAG_HOVERABLE = 1 << 1;
+
+    /**
+     * Wrapped strategy.
+     */
+    private final DragStrategy strategy;
+
+    /**
+     * Flags of each position.
+     */
+    private final PositionSnapshot snapshot;
+
+    /**
+     * Snapshot of a strategy evaluated on {@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param strategy wrapped strategy.
+     */
+    public DragStrategySnapshot(DragStrategy strategy) {
+        this(strategy, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Snapshot of a strategy.
+     *
+     * @param strategy wrapped strategy.
+     * @param executor executor the wrapped strategy is evaluated on.
+     */
+    public DragStrategySnapshot(final DragStrategy strategy, Executor executor) {
+        this.strategy = strategy;
+        this.snapshot = new PositionSnapshot(new PositionSnapshot.Evaluator() {
+            @Override
+            public int evaluate(int position) {
+                return toFlags(strategy.isItemDraggable(position), strategy.isItemHoverable(position));
+            }
+        }, executor);
+    }
+
+    /**
+     * Answer for every item of a view type without evaluating the wrapped strategy, lists of a
+     * single view type are then never evaluated item by item.
+     * <p/>
+     * Must be called before the gesture is built.
+     *
+     * @param viewType  view type.
+     * @param draggable true if items of this view type are draggable.
+     * @param hoverable true if items of this view type can be hovered.
+     * @return this snapshot, to chain calls.
+     */
+    public DragStrategySnapshot setViewTypeDefault(int viewType, boolean draggable, boolean hoverable) {
+        snapshot.setViewTypeDefault(viewType, toFlags(draggable, hoverable));
+        return this;
+    }
+
+    @Override
+    public boolean isItemDraggable(int position) {
+        int flags = snapshot.get(position);
+        if (flags == PositionSnapshot.UNKNOWN) {
+            return strategy.isItemDraggable(position);
+        }
+        return (flags & FLAG_DRAGGABLE) != 0;
+    }
+
+    @Override
+    public boolean isItemHoverable(int position) {
+        int flags = snapshot.get(position);
+        if (flags == PositionSnapshot.UNKNOWN) {
+            return strategy.isItemHoverable(position);
+        }
+        return (flags & FLAG_HOVERABLE) != 0;
+    }
+
+    /**
+     * Start evaluating the adapter the gesture is attached to.
+     * <p/>
+     * private package.
+     *
+     * @param adapter adapter of the recycler view.
+     */
+    void attach(RecyclerView.Adapter adapter) {
+        snapshot.attach(adapter);
+    }
+
+    /**
+     * Stop evaluating the adapter the gesture was attached to.
+     * <p/>
+     * private package.
+     */
+    void detach() {
+        snapshot.detach();
+    }
+
+    /**
+     * Pack the answers of the strategy.
+     *
+     * @param draggable true if the item is draggable.
+     * @param hoverable true if the item is hoverable.
+     * @return flags.
+     */
+    private static int toFlags(boolean draggable, boolean hoverable) {
+        return (draggable ? FLAG_DRAGGABLE : 0) | (hoverable ? FLAG_HOVERABLE : 0);
+    }
+}
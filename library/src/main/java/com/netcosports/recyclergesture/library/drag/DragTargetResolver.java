@@ -0,0 +1,68 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.view.ViewGroup;
+
+import com.netcosports.recyclergesture.core.DragGeometry;
+import com.netcosports.recyclergesture.core.LayoutBounds;
+
+/**
+ * Resolve the slot under the dragged view among the laid out children of a linear recycler view.
+ * <p/>
+ * Exposes the layout bounds of the children to {@link DragGeometry#findSlot(LayoutBounds, float)},
+ * the instance is reused from one event to the other so that resolving doesn't allocate.
+ */
+final class DragTargetResolver implements LayoutBounds {
+
+    /**
+     * Behavior providing the drag axis.
+     */
+    private final DragBehavior dragBehavior;
+
+    /**
+     * Recycler view searched by the current call.
+     */
+    private ViewGroup recyclerView;
+
+    /**
+     * Resolve slots along the drag axis of a behavior.
+     *
+     * @param dragBehavior behavior providing the drag axis.
+     */
+    DragTargetResolver(DragBehavior dragBehavior) {
+        this.dragBehavior = dragBehavior;
+    }
+
+    /**
+     * Find the child whose layout bounds contain the given coordinate along the drag axis.
+     * <p/>
+     * Layout bounds are used rather than the displayed ones so that running switch animations
+     * don't affect the result.
+     *
+     * @param recyclerView recycler view whose children are searched.
+     * @param coordinate   coordinate along the drag axis, in recycler view coordinates.
+     * @return index of the closest child, -1 if no child is laid out.
+     */
+    int findChildIndex(ViewGroup recyclerView, float coordinate) {
+        this.recyclerView = recyclerView;
+        try {
+            return DragGeometry.findSlot(this, coordinate);
+        } finally {
+            this.recyclerView = null;
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return recyclerView.getChildCount();
+    }
+
+    @Override
+    public int getStart(int index) {
+        return dragBehavior.getLayoutStart(recyclerView.getChildAt(index));
+    }
+
+    @Override
+    public int getEnd(int index) {
+        return dragBehavior.getLayoutEnd(recyclerView.getChildAt(index));
+    }
+}
@@ -0,0 +1,187 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.ImageView;
+
+/**
+ * Build the views displayed as dragging thumbnail from bitmaps retrieved from a
+ * {@link DragThumbnailPool}.
+ */
+final class DragThumbnailFactory {
+
+    /**
+     * Alpha applied to the dragging thumbnail.
+     */
+    private static final float THUMBNAIL_ALPHA = 0.8f;
+
+    /**
+     * Maximum number of layers drawn for a stacked thumbnail.
+     */
+    private static final int MAX_STACK_LAYERS = 3;
+
+    /**
+     * Offset between two layers of a stacked thumbnail, in dp.
+     */
+    private static final float STACK_OFFSET_DP = 6f;
+
+    /**
+     * Alpha of the layers drawn behind the captured view, in [0, 255].
+     */
+    private static final int STACK_LAYER_ALPHA = 128;
+
+    /**
+     * Pool used to retrieve the thumbnail bitmaps.
+     */
+    private final DragThumbnailPool pool;
+
+    /**
+     * Config of the thumbnail bitmaps, null to pick it from the view opacity.
+     */
+    private final Bitmap.Config config;
+
+    /**
+     * Maximum scale at which a view is captured.
+     */
+    private final float maxScale;
+
+    /**
+     * Canvas reused to draw the captured views.
+     */
+    private final Canvas canvas;
+
+    /**
+     * Matrix reused to scale the captured bitmap back to the view size.
+     */
+    private final Matrix matrix;
+
+    /**
+     * Build the views displayed as dragging thumbnail.
+     *
+     * @param pool     pool used to retrieve the thumbnail bitmaps.
+     * @param config   config of the thumbnail bitmaps, null to pick it from the view opacity.
+     * @param maxScale maximum scale at which a view is captured, in ]0, 1].
+     */
+    DragThumbnailFactory(DragThumbnailPool pool, Bitmap.Config config, float maxScale) {
+        if (maxScale <= 0f || maxScale > 1f) {
+            throw new IllegalArgumentException("Thumbnail scale must be in ]0, 1]");
+        }
+        this.pool = pool;
+        this.config = config;
+        this.maxScale = maxScale;
+        this.canvas = new Canvas();
+        this.matrix = new Matrix();
+    }
+
+    /**
+     * Pool used to retrieve the thumbnail bitmaps.
+     *
+     * @return thumbnail pool.
+     */
+    DragThumbnailPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Capture a view into a pooled bitmap.
+     *
+     * @param v touched view after a long press.
+     * @return View which will be used as dragging thumbnail, with layout params sized as the
+     * captured view.
+     */
+    ImageView create(View v) {
+        return create(v, 1);
+    }
+
+    /**
+     * Capture a view into a pooled bitmap, drawn as a stack when several items are dragged.
+     *
+     * @param v     touched view after a long press.
+     * @param count number of dragged items, layers are drawn behind the captured view for each
+     *              additional item up to {@link #MAX_STACK_LAYERS}.
+     * @return View which will be used as dragging thumbnail, with layout params sized as the
+     * captured view and its layers.
+     */
+    ImageView create(View v, int count) {
+        //Clear ripple effect to not get into screenshot,
+        // need something more clever here
+        if (v instanceof FrameLayout) {
+            FrameLayout frameLayout = (FrameLayout) v;
+            Drawable foreground = frameLayout.getForeground();
+            if (foreground != null) {
+                foreground.setVisible(false, false);
+            }
+        } else {
+            if (v.getBackground() != null) {
+                v.getBackground().setVisible(false, false);
+            }
+        }
+
+        int layers = Math.max(1, Math.min(count, MAX_STACK_LAYERS));
+        int layerOffset = 0;
+        if (layers > 1) {
+            layerOffset = (int) (STACK_OFFSET_DP * v.getResources().getDisplayMetrics().density);
+        }
+        int fullWidth = v.getWidth() + (layers - 1) * layerOffset;
+        int fullHeight = v.getHeight() + (layers - 1) * layerOffset;
+
+        Bitmap.Config bitmapConfig = config;
+        if (bitmapConfig == null) {
+            // stacks leave transparent corners.
+            bitmapConfig = v.isOpaque() && layers == 1 ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        }
+
+        // large items are captured at a lower resolution so that the pooled bitmap, rounded up to the
+        // pool buckets, is retained once released.
+        int bytesPerPixel = bitmapConfig == Bitmap.Config.ARGB_8888 ? 4 : 2;
+        float scale = pool.fitScale(fullWidth, fullHeight, bytesPerPixel, maxScale);
+
+        int width = DragThumbnailPool.scale(fullWidth, scale);
+        int height = DragThumbnailPool.scale(fullHeight, scale);
+        Bitmap bitmap = pool.acquire(width, height, bitmapConfig);
+
+        // draw the back layers first, the captured view ends on top at the top left corner.
+        canvas.setBitmap(bitmap);
+        for (int layer = layers - 1; layer >= 0; layer--) {
+            int saveCount = canvas.save();
+            canvas.scale(scale, scale);
+            canvas.translate(layer * layerOffset, layer * layerOffset);
+            if (layer > 0) {
+                canvas.saveLayerAlpha(0, 0, v.getWidth(), v.getHeight(), STACK_LAYER_ALPHA, Canvas.ALL_SAVE_FLAG);
+            }
+            v.draw(canvas);
+            canvas.restoreToCount(saveCount);
+        }
+        canvas.setBitmap(null);
+
+        // pooled bitmap may be larger than the view, draw it from the top left corner.
+        matrix.setScale(1f / scale, 1f / scale);
+        ImageView imageView = new ImageView(v.getContext());
+        imageView.setAlpha(THUMBNAIL_ALPHA);
+        imageView.setScaleType(ImageView.ScaleType.MATRIX);
+        imageView.setImageMatrix(matrix);
+        imageView.setImageBitmap(bitmap);
+        imageView.setTag(bitmap);
+        imageView.setLayoutParams(new ViewGroup.LayoutParams(fullWidth, fullHeight));
+        return imageView;
+    }
+
+    /**
+     * Give the bitmap of a thumbnail back to the pool once the thumbnail is removed.
+     *
+     * @param thumbnail thumbnail built by {@link #create(android.view.View)}.
+     */
+    void release(ImageView thumbnail) {
+        Object bitmap = thumbnail.getTag();
+        thumbnail.setImageDrawable(null);
+        thumbnail.setTag(null);
+        if (bitmap instanceof Bitmap) {
+            pool.release((Bitmap) bitmap);
+        }
+    }
+}
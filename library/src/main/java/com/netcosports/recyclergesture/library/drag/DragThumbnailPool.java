@@ -0,0 +1,258 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayList;
+
+/**
+ * Pool of bitmaps used to build the dragging thumbnails.
+ * <p/>
+ * Bitmaps are bucketed by size so that a bitmap released at the end of a drag can be reused by
+ * the next one, even if the dragged item doesn't have exactly the same size. The pool is bounded
+ * by a byte budget, least recently released bitmaps are recycled first once it is exceeded.
+ * <p/>
+ * A single pool can be shared between several {@link DragDropGesture}, see
+ * {@link DragDropGesture.Builder#thumbnailPool(DragThumbnailPool)}.
+ */
+public final class DragThumbnailPool {
+
+    /**
+     * Default byte budget of a pool.
+     */
+    public static final int DEFAULT_MAX_SIZE_IN_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Size in pixels of a bucket, width and height are rounded up to a multiple of it.
+     */
+    private static final int BUCKET_SIZE = 64;
+
+    /**
+     * Maximum number of bytes retained by the pool.
+     */
+    private final int maxSizeInBytes;
+
+    /**
+     * Available bitmaps, least recently released first.
+     */
+    private final ArrayList<Bitmap> bitmaps;
+
+    /**
+     * Number of bytes currently retained by the pool.
+     */
+    private int sizeInBytes;
+
+    /**
+     * Number of requests served with a pooled bitmap.
+     */
+    private int hitCount;
+
+    /**
+     * Number of requests which needed a new bitmap.
+     */
+    private int missCount;
+
+    /**
+     * Pool of bitmaps used to build the dragging thumbnails.
+     * <p/>
+     * Use {@link #DEFAULT_MAX_SIZE_IN_BYTES} as byte budget.
+     */
+    public DragThumbnailPool() {
+        this(DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    /**
+     * Pool of bitmaps used to build the dragging thumbnails.
+     *
+     * @param maxSizeInBytes maximum number of bytes retained by the pool, 0 to recycle every
+     *                       bitmap on release. Thumbnails are captured at their maximum scale when
+     *                       the budget can't hold a bitmap of the smallest bucket.
+     */
+    public DragThumbnailPool(int maxSizeInBytes) {
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("Pool size can't be negative");
+        }
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.bitmaps = new ArrayList<>();
+        this.sizeInBytes = 0;
+        this.hitCount = 0;
+        this.missCount = 0;
+    }
+
+    /**
+     * Retrieve a cleared bitmap at least as large as requested.
+     * <p/>
+     * private package.
+     *
+     * @param width  minimum width.
+     * @param height minimum height.
+     * @param config bitmap config.
+     * @return bitmap which should be given back through {@link #release(android.graphics.Bitmap)}.
+     */
+    Bitmap acquire(int width, int height, Bitmap.Config config) {
+        int bucketWidth = bucket(width);
+        int bucketHeight = bucket(height);
+        for (int i = bitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = bitmaps.get(i);
+            if (bitmap.getWidth() == bucketWidth && bitmap.getHeight() == bucketHeight
+              && bitmap.getConfig() == config) {
+                bitmaps.remove(i);
+                sizeInBytes -= getByteCount(bitmap);
+                hitCount++;
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+        missCount++;
+        return Bitmap.createBitmap(bucketWidth, bucketHeight, config);
+    }
+
+    /**
+     * Find the largest scale at which a capture can be acquired and retained once released, its
+     * bitmap being rounded up to the buckets.
+     * <p/>
+     * private package.
+     *
+     * @param width         width of the capture at full scale.
+     * @param height        height of the capture at full scale.
+     * @param bytesPerPixel number of bytes per pixel of the bitmap config.
+     * @param maxScale      maximum scale.
+     * @return scale in ]0, maxScale], maxScale if the budget can't hold the smallest bucket.
+     */
+    float fitScale(int width, int height, int bytesPerPixel, float maxScale) {
+        if (width <= 0 || height <= 0 || maxSizeInBytes < (long) BUCKET_SIZE * BUCKET_SIZE * bytesPerPixel) {
+            // nothing would be retained, the scale isn't bounded.
+            return maxScale;
+        }
+
+        // bucketed bitmap is at least as large as the scaled capture, start from the exact fit.
+        float scale = maxScale;
+        long fullSizeInBytes = (long) width * height * bytesPerPixel;
+        if (fullSizeInBytes * scale * scale > maxSizeInBytes) {
+            scale = (float) Math.sqrt((double) maxSizeInBytes / fullSizeInBytes);
+        }
+
+        int bucketWidth = bucket(scale(width, scale));
+        int bucketHeight = bucket(scale(height, scale));
+        while ((long) bucketWidth * bucketHeight * bytesPerPixel > maxSizeInBytes) {
+            // drop a bucket from the side keeping the largest scale, the smallest bucket fits.
+            float widthScale = (float) (bucketWidth - BUCKET_SIZE) / width;
+            float heightScale = (float) (bucketHeight - BUCKET_SIZE) / height;
+            scale = Math.min(scale, Math.max(widthScale, heightScale));
+            bucketWidth = bucket(scale(width, scale));
+            bucketHeight = bucket(scale(height, scale));
+        }
+        return scale;
+    }
+
+    /**
+     * Give a bitmap back to the pool once it isn't displayed anymore.
+     * <p/>
+     * private package.
+     *
+     * @param bitmap bitmap retrieved through {@link #acquire(int, int, android.graphics.Bitmap.Config)}.
+     */
+    void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        int byteCount = getByteCount(bitmap);
+        if (byteCount > maxSizeInBytes) {
+            bitmap.recycle();
+            return;
+        }
+        bitmaps.add(bitmap);
+        sizeInBytes += byteCount;
+        trimToSize(maxSizeInBytes);
+    }
+
+    /**
+     * Recycle every pooled bitmap.
+     */
+    public void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * Number of thumbnail requests served with a pooled bitmap.
+     *
+     * @return hit count.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of thumbnail requests which needed a new bitmap.
+     *
+     * @return miss count.
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Number of bytes currently retained by the pool.
+     *
+     * @return size in bytes.
+     */
+    public int getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Maximum number of bytes retained by the pool.
+     *
+     * @return byte budget.
+     */
+    public int getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    /**
+     * Recycle least recently released bitmaps until the pool fits the given size.
+     *
+     * @param size maximum number of bytes to retain.
+     */
+    private void trimToSize(int size) {
+        while (sizeInBytes > size && !bitmaps.isEmpty()) {
+            Bitmap eldest = bitmaps.remove(0);
+            sizeInBytes -= getByteCount(eldest);
+            eldest.recycle();
+        }
+    }
+
+    /**
+     * Scale a dimension of a capture, at least a pixel.
+     * <p/>
+     * private package.
+     *
+     * @param dimension dimension at full scale, in pixels.
+     * @param scale     capture scale.
+     * @return scaled dimension.
+     */
+    static int scale(int dimension, float scale) {
+        return Math.max(1, (int) (dimension * scale));
+    }
+
+    /**
+     * Round a dimension up to the bucket size.
+     *
+     * @param dimension dimension in pixels.
+     * @return bucketed dimension.
+     */
+    private static int bucket(int dimension) {
+        int bucketCount = (Math.max(1, dimension) + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        return bucketCount * BUCKET_SIZE;
+    }
+
+    /**
+     * Number of bytes used to store the bitmap pixels.
+     *
+     * @param bitmap bitmap.
+     * @return byte count.
+     */
+    private static int getByteCount(Bitmap bitmap) {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
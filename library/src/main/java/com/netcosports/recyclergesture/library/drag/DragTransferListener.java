@@ -0,0 +1,883 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import com.netcosports.recyclergesture.core.DragGeometry;
+import com.netcosports.recyclergesture.library.FrameTicker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of RecyclerView.OnItemTouchListener shared by every recycler view registered
+ * to a {@link DragDropCoordinator}.
+ * <p/>
+ * Owns the single drag session: the thumbnail lives in the coordinator container, the recycler
+ * view under the pointer is hit tested once per event against bounds cached when the drag
+ * starts, and the hovered recycler view makes room for the dragged item by shifting its views.
+ * Data only change on drop, through a remove and insert pair.
+ * <p/>
+ * Within the hovered recycler view the slot doesn't cross items its strategy doesn't allow to
+ * hover, and the recycler view scrolls by itself while the thumbnail lies near one of its ends.
+ */
+class DragTransferListener implements RecyclerView.OnItemTouchListener {
+
+    /**
+     * Shift motion delay in milliseconds.
+     */
+    private static final int MOVE_DURATION = 150;
+
+    /**
+     * Speed of the auto scroll once the thumbnail reached an end of the hovered recycler view, in
+     * dp per second.
+     */
+    private static final float MAX_SCROLL_SPEED_DP = 1000f;
+
+    /**
+     * Elapsed time assumed for the first frame, in nanoseconds.
+     */
+    private static final long DEFAULT_FRAME_NANOS = 16666667L;
+
+    /**
+     * Maximum elapsed time taken into account for a frame, in nanoseconds.
+     */
+    private static final long MAX_FRAME_NANOS = 50000000L;
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    /**
+     * View the dragging thumbnail is added to, common ancestor of the registered recycler views.
+     */
+    private final ViewGroup container;
+
+    /**
+     * Registered recycler views.
+     */
+    private final List<Target> targets;
+
+    /**
+     * Factory used to build the view displayed as dragging thumbnail.
+     */
+    private final DragThumbnailFactory thumbnailFactory;
+
+    /**
+     * Listener used to catch drag and drop motion.
+     */
+    private final DragDropGesture.Listener listener;
+
+    /**
+     * Gesture detector used to catch long press in order to start the drag.
+     */
+    private final GestureDetector gestureDetector;
+
+    /**
+     * Buffer used to retrieve on screen locations.
+     */
+    private final int[] location;
+
+    /**
+     * Scroller of the hovered recycler view.
+     */
+    private final AutoScroller autoScroller;
+
+    /**
+     * Auto scroll speed in pixels per second.
+     */
+    private final float maxScrollSpeed;
+
+    private boolean enabled = true;
+    private boolean dragging;
+    private int activePointerId;
+    private float downX;
+    private float downY;
+
+    /**
+     * Registered recycler view which received the last down event.
+     */
+    private Target downTarget;
+
+    /**
+     * Registered recycler view the dragged item comes from.
+     */
+    private Target source;
+
+    /**
+     * Registered recycler view currently hovered, null if none.
+     */
+    private Target hovered;
+
+    /**
+     * Adapter position of the dragged item in its source recycler view.
+     */
+    private int dragStartPos;
+
+    /**
+     * View displayed as dragging thumbnail.
+     */
+    private ImageView mobileView;
+
+    /**
+     * Offset between the pointer and the thumbnail left.
+     */
+    private float grabOffsetX;
+
+    /**
+     * Offset between the pointer and the thumbnail top.
+     */
+    private float grabOffsetY;
+
+    /**
+     * Left of the container on screen, cached for the whole drag session.
+     */
+    private int containerScreenLeft;
+
+    /**
+     * Top of the container on screen, cached for the whole drag session.
+     */
+    private int containerScreenTop;
+
+    /**
+     * Width of the dragged item.
+     */
+    private int draggedWidth;
+
+    /**
+     * Height of the dragged item.
+     */
+    private int draggedHeight;
+
+    /**
+     * Last pointer position on screen, used to resolve the slot again once scrolled.
+     */
+    private float pointerScreenX;
+    private float pointerScreenY;
+
+    /**
+     * Listener shared by the recycler views registered to a coordinator.
+     *
+     * @param context          context used to detect long press.
+     * @param container        common ancestor of the registered recycler views.
+     * @param thumbnailFactory factory used to build the dragging thumbnail.
+     * @param listener         listener used to catch motion events.
+     */
+    public DragTransferListener(Context context, ViewGroup container, DragThumbnailFactory thumbnailFactory,
+                                DragDropGesture.Listener listener) {
+        this.container = container;
+        this.thumbnailFactory = thumbnailFactory;
+        this.listener = listener;
+        this.targets = new ArrayList<>();
+        this.location = new int[2];
+        this.autoScroller = new AutoScroller(container);
+        this.maxScrollSpeed = MAX_SCROLL_SPEED_DP * context.getResources().getDisplayMetrics().density;
+        this.dragging = false;
+        this.dragStartPos = -1;
+        this.gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public void onLongPress(MotionEvent e) {
+                startDrag();
+            }
+        });
+    }
+
+    /**
+     * Register a recycler view, its items can then be dragged to any other registered one.
+     *
+     * @param recyclerView recycler view to register.
+     * @param transferer   transferer used to remove and insert items, generally the adapter.
+     * @param dragStrategy strategy used to enable drag on items.
+     * @param vertical     true if the recycler view scrolls vertically.
+     */
+    void register(RecyclerView recyclerView, DragDropCoordinator.Transferer transferer,
+                  DragStrategy dragStrategy, boolean vertical) {
+        Target target = new Target(recyclerView, transferer, dragStrategy, vertical);
+        targets.add(target);
+        // views entering or leaving the screen while dragging must be shifted or restored.
+        recyclerView.addOnChildAttachStateChangeListener(new ShiftKeeper(target));
+        if (dragStrategy instanceof DragStrategySnapshot) {
+            ((DragStrategySnapshot) dragStrategy).attach(recyclerView.getAdapter());
+        }
+        recyclerView.addOnItemTouchListener(this);
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(RecyclerView recyclerView, MotionEvent event) {
+        if (!enabled) {
+            return false;
+        }
+
+        // dragging not start, listen for long pressed
+        if (!dragging) {
+            gestureDetector.onTouchEvent(event);
+        }
+
+        switch (event.getAction() & MotionEvent.ACTION_MASK) {
+            case MotionEvent.ACTION_DOWN:
+                return down(recyclerView, event);
+
+            case MotionEvent.ACTION_MOVE:
+                return dragging && move(event);
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                endDrag();
+                return false;
+
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void onTouchEvent(RecyclerView recyclerView, MotionEvent event) {
+        if (!dragging) {
+            return;
+        }
+
+        switch (event.getAction() & MotionEvent.ACTION_MASK) {
+            case MotionEvent.ACTION_MOVE:
+                move(event);
+                break;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                endDrag();
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Enable/disable drag/drop
+     *
+     * @param enabled true to enable gesture.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private boolean down(RecyclerView recyclerView, MotionEvent event) {
+        activePointerId = event.getPointerId(0);
+        downX = event.getX();
+        downY = event.getY();
+        downTarget = null;
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i).recyclerView == recyclerView) {
+                downTarget = targets.get(i);
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void startDrag() {
+        if (downTarget == null) {
+            return;
+        }
+        View viewUnder = downTarget.recyclerView.findChildViewUnder(downX, downY);
+        if (viewUnder == null) {
+            return;
+        }
+        int position = downTarget.recyclerView.getChildPosition(viewUnder);
+        if (position == RecyclerView.NO_POSITION || !downTarget.dragStrategy.isItemDraggable(position)) {
+            return;
+        }
+
+        dragging = true;
+        source = downTarget;
+        dragStartPos = position;
+        draggedWidth = viewUnder.getWidth();
+        draggedHeight = viewUnder.getHeight();
+
+        // registered recycler views aren't expected to move while dragging, cache their bounds.
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            target.recyclerView.getLocationOnScreen(location);
+            target.screenLeft = location[0];
+            target.screenTop = location[1];
+            target.insertPosition = -1;
+        }
+        container.getLocationOnScreen(location);
+        containerScreenLeft = location[0];
+        containerScreenTop = location[1];
+
+        // initialize the view used as thumbnail while dragging.
+        mobileView = thumbnailFactory.create(viewUnder);
+        mobileView.setX(source.screenLeft + viewUnder.getLeft() - containerScreenLeft);
+        mobileView.setY(source.screenTop + viewUnder.getTop() - containerScreenTop);
+        grabOffsetX = downX - viewUnder.getLeft();
+        grabOffsetY = downY - viewUnder.getTop();
+
+        container.addView(mobileView);
+        mobileView.bringToFront();
+        viewUnder.setVisibility(View.INVISIBLE);
+
+        hovered = source;
+        source.insertPosition = dragStartPos;
+        listener.onDragStarted();
+    }
+
+    private boolean move(MotionEvent event) {
+        int pointerIndex = event.findPointerIndex(activePointerId);
+        if (pointerIndex == -1) {
+            return false;
+        }
+
+        // events keep being dispatched to the source recycler view, whatever the pointer hovers.
+        float screenX = source.screenLeft + event.getX(pointerIndex);
+        float screenY = source.screenTop + event.getY(pointerIndex);
+        mobileView.setX(screenX - grabOffsetX - containerScreenLeft);
+        mobileView.setY(screenY - grabOffsetY - containerScreenTop);
+        pointerScreenX = screenX;
+        pointerScreenY = screenY;
+
+        updateSlot();
+        if (hovered != null && getAutoScrollRatio(hovered) != 0) {
+            autoScroller.startScrolling();
+        } else {
+            autoScroller.stopScrolling();
+        }
+        return true;
+    }
+
+    /**
+     * Resolve the recycler view and the slot under the pointer, and make room for the dragged
+     * item if they changed.
+     */
+    private void updateSlot() {
+        Target target = hovered != null && hovered.contains(pointerScreenX, pointerScreenY)
+          ? hovered : findTargetUnder(pointerScreenX, pointerScreenY);
+        int insertPosition = -1;
+        if (target != null) {
+            insertPosition = target.findInsertPosition(pointerScreenX, pointerScreenY);
+            if (insertPosition == -1) {
+                // slot unknown, for instance while the recycler view is laid out again.
+                return;
+            }
+            // the slot can't cross the items which can't be hovered, from the current slot, from the
+            // original one when entering the source again, from the nearest hoverable one otherwise.
+            if (target == hovered && target.insertPosition != -1) {
+                int draggedPosition = target == source ? dragStartPos : -1;
+                insertPosition = target.clampInsertPosition(toAdapterSlot(target, target.insertPosition),
+                  insertPosition, draggedPosition);
+            } else if (target == source) {
+                insertPosition = target.clampInsertPosition(dragStartPos, insertPosition, dragStartPos);
+            } else {
+                insertPosition = target.findHoverableSlot(insertPosition);
+            }
+            if (target == source && insertPosition > dragStartPos) {
+                insertPosition--;
+            }
+        }
+
+        if (target != hovered || (target != null && insertPosition != target.insertPosition)) {
+            updateHover(target, insertPosition);
+        }
+    }
+
+    /**
+     * Convert an insert position, expressed once the dragged item removed from the source, to a
+     * slot between the adapter positions of the recycler view.
+     *
+     * @param target         registered recycler view.
+     * @param insertPosition insert position.
+     * @return slot, the dragged item being inserted before the item at this position.
+     */
+    private int toAdapterSlot(Target target, int insertPosition) {
+        return target == source && insertPosition > dragStartPos ? insertPosition + 1 : insertPosition;
+    }
+
+    /**
+     * Define how deep the thumbnail is within the auto scroll hot zones of a recycler view.
+     *
+     * @param target registered recycler view.
+     * @return ratio in [-1, 1], 0 outside the hot zones or if it can't scroll further.
+     */
+    private float getAutoScrollRatio(Target target) {
+        float ratio;
+        if (target.vertical) {
+            ratio = DragGeometry.getAutoScrollRatio(mobileView.getY() + containerScreenTop - target.screenTop,
+              draggedHeight, target.recyclerView.getHeight());
+        } else {
+            ratio = DragGeometry.getAutoScrollRatio(mobileView.getX() + containerScreenLeft - target.screenLeft,
+              draggedWidth, target.recyclerView.getWidth());
+        }
+        if (ratio != 0 && !target.dragBehavior.canScroll(target.recyclerView, ratio < 0 ? -1 : 1)) {
+            return 0;
+        }
+        return ratio;
+    }
+
+    /**
+     * Find the registered recycler view under a point.
+     *
+     * @param screenX x on screen.
+     * @param screenY y on screen.
+     * @return registered recycler view, null if none.
+     */
+    private Target findTargetUnder(float screenX, float screenY) {
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (target.contains(screenX, screenY)) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Update the hovered recycler view and the slot the dragged item would be inserted in, views
+     * of the recycler views involved are shifted to match.
+     *
+     * @param target         hovered recycler view, null if none.
+     * @param insertPosition insert position in the hovered recycler view.
+     */
+    private void updateHover(Target target, int insertPosition) {
+        Target previous = hovered;
+        hovered = target;
+        if (previous != null && previous != target) {
+            previous.insertPosition = -1;
+            applyShifts(previous);
+        }
+        if (target != null) {
+            target.insertPosition = insertPosition;
+            applyShifts(target);
+        }
+    }
+
+    /**
+     * Shift the views of a registered recycler view to reflect the removal of the dragged item
+     * from the source and its insertion in the hovered one.
+     *
+     * @param target registered recycler view.
+     */
+    private void applyShifts(Target target) {
+        RecyclerView recyclerView = target.recyclerView;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int position = recyclerView.getChildPosition(child);
+            if (position == RecyclerView.NO_POSITION || (target == source && position == dragStartPos)) {
+                continue;
+            }
+            target.dragBehavior.animateShift(target.childAnimator, child, getShift(target, position));
+        }
+    }
+
+    /**
+     * Restore the layout position and the visibility of every view of a registered recycler view.
+     *
+     * @param target registered recycler view.
+     */
+    private void restoreViews(Target target) {
+        RecyclerView recyclerView = target.recyclerView;
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            target.childAnimator.cancel(child);
+            target.dragBehavior.shift(child, 0);
+            child.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Compute the offset of the view displaying a given adapter position.
+     *
+     * @param target   registered recycler view.
+     * @param position adapter position.
+     * @return offset along the recycler view axis.
+     */
+    private float getShift(Target target, int position) {
+        int size = target.vertical ? draggedHeight : draggedWidth;
+        float shift = 0;
+        int remainingPosition = position;
+        if (target == source && position > dragStartPos) {
+            // the dragged item leaves its source, following items close the gap.
+            shift -= size;
+            remainingPosition--;
+        }
+        if (target.insertPosition != -1 && remainingPosition >= target.insertPosition) {
+            shift += size;
+        }
+        return shift;
+    }
+
+    /**
+     * Drop the dragged item in the hovered recycler view, if any.
+     */
+    private void endDrag() {
+        if (!dragging) {
+            return;
+        }
+
+        autoScroller.stopScrolling();
+        Target destination = hovered;
+        int insertPosition = destination == null ? -1 : destination.insertPosition;
+        for (int i = 0; i < targets.size(); i++) {
+            targets.get(i).insertPosition = -1;
+        }
+        // views may have been recycled to display other items while scrolling, restore them all.
+        for (int i = 0; i < targets.size(); i++) {
+            restoreViews(targets.get(i));
+        }
+        removeMobileView();
+
+        // the session ends even if the transfer fails and is rolled back.
+        Target from = source;
+        int fromPosition = dragStartPos;
+        dragging = false;
+        source = null;
+        hovered = null;
+        dragStartPos = -1;
+        try {
+            if (destination != null && insertPosition != -1) {
+                transfer(from, fromPosition, destination, insertPosition);
+            }
+        } finally {
+            listener.onDragEnded();
+        }
+    }
+
+    /**
+     * Remove an item from a recycler view and insert it in another one, or the same one, as a
+     * single operation: the insertion failing, the item is put back at its original position
+     * and adapters are only notified once both sides succeeded.
+     *
+     * @param from         source recycler view.
+     * @param fromPosition position of the item in the source.
+     * @param to           destination recycler view.
+     * @param toPosition   position of the item in the destination, once removed from the source.
+     */
+    private void transfer(Target from, int fromPosition, Target to, int toPosition) {
+        if (from == to && fromPosition == toPosition) {
+            return;
+        }
+
+        Object item = from.transferer.removeItem(fromPosition);
+        try {
+            to.transferer.insertItem(toPosition, item);
+        } catch (RuntimeException e) {
+            from.transferer.insertItem(fromPosition, item);
+            throw e;
+        }
+
+        if (from == to) {
+            from.adapter.notifyItemMoved(fromPosition, toPosition);
+        } else {
+            from.adapter.notifyItemRemoved(fromPosition);
+            to.adapter.notifyItemInserted(toPosition);
+        }
+    }
+
+    /**
+     * Remove the dragging thumbnail and give its bitmap back to the pool.
+     */
+    private void removeMobileView() {
+        if (mobileView != null) {
+            container.removeView(mobileView);
+            thumbnailFactory.release(mobileView);
+            mobileView = null;
+        }
+    }
+
+    /**
+     * Recycler view registered to the coordinator.
+     */
+    private static final class Target {
+
+        /**
+         * Registered recycler view.
+         */
+        private final RecyclerView recyclerView;
+
+        /**
+         * Adapter of the recycler view.
+         */
+        private final RecyclerView.Adapter adapter;
+
+        /**
+         * Transferer used to remove and insert items of the adapter.
+         */
+        private final DragDropCoordinator.Transferer transferer;
+
+        /**
+         * Strategy used to enable drag on items.
+         */
+        private final DragStrategy dragStrategy;
+
+        /**
+         * Linear behavior matching the orientation of the recycler view.
+         */
+        private final DragBehavior dragBehavior;
+
+        /**
+         * Resolver of the child under a hovering point.
+         */
+        private final DragTargetResolver targetResolver;
+
+        /**
+         * Shift animations of the recycler view children, at most one per child.
+         */
+        private final ChildAnimator childAnimator;
+
+        /**
+         * True if the recycler view scrolls vertically.
+         */
+        private final boolean vertical;
+
+        /**
+         * Left of the recycler view on screen, cached for the whole drag session.
+         */
+        private int screenLeft;
+
+        /**
+         * Top of the recycler view on screen, cached for the whole drag session.
+         */
+        private int screenTop;
+
+        /**
+         * Position at which the dragged item would be inserted, -1 if not hovered.
+         * <p/>
+         * For the source recycler view, the position is expressed once the dragged item removed.
+         */
+        private int insertPosition;
+
+        /**
+         * Recycler view registered to the coordinator.
+         *
+         * @param recyclerView registered recycler view.
+         * @param transferer   transferer used to remove and insert items.
+         * @param dragStrategy strategy used to enable drag on items.
+         * @param vertical     true if the recycler view scrolls vertically.
+         */
+        private Target(RecyclerView recyclerView, DragDropCoordinator.Transferer transferer,
+                       DragStrategy dragStrategy, boolean vertical) {
+            this.recyclerView = recyclerView;
+            this.adapter = recyclerView.getAdapter();
+            this.transferer = transferer;
+            this.dragStrategy = dragStrategy;
+            this.vertical = vertical;
+            this.dragBehavior = vertical ? new DragBehaviorVertical() : new DragBehaviorHorizontal();
+            this.targetResolver = new DragTargetResolver(dragBehavior);
+            this.childAnimator = new ChildAnimator(recyclerView, MOVE_DURATION);
+            this.insertPosition = -1;
+        }
+
+        /**
+         * Check if a point lies within the recycler view bounds.
+         *
+         * @param screenX x on screen.
+         * @param screenY y on screen.
+         * @return true if the point is within the cached bounds.
+         */
+        private boolean contains(float screenX, float screenY) {
+            return screenX >= screenLeft && screenX < screenLeft + recyclerView.getWidth()
+              && screenY >= screenTop && screenY < screenTop + recyclerView.getHeight();
+        }
+
+        /**
+         * Bound a new insert position by the items which can't be hovered between it and the
+         * current one.
+         *
+         * @param from            current slot, the dragged item being inserted before the item at
+         *                        this position.
+         * @param to              new slot.
+         * @param draggedPosition adapter position of the dragged item if it comes from this
+         *                        recycler view, -1 otherwise.
+         * @return new slot, right next to the first item which can't be hovered if any.
+         */
+        private int clampInsertPosition(int from, int to, int draggedPosition) {
+            for (int position = from; position < to; position++) {
+                if (position != draggedPosition && !dragStrategy.isItemHoverable(position)) {
+                    return position;
+                }
+            }
+            for (int position = from - 1; position >= to; position--) {
+                if (position != draggedPosition && !dragStrategy.isItemHoverable(position)) {
+                    return position + 1;
+                }
+            }
+            return to;
+        }
+
+        /**
+         * Find the slot nearest to a given one which lies next to an item which can be hovered.
+         * <p/>
+         * Used when entering the recycler view, the dragged item doesn't come from it.
+         *
+         * @param slot slot under the pointer, the dragged item being inserted before the item at
+         *             this position.
+         * @return nearest slot next to an item which can be hovered, the given one if none.
+         */
+        private int findHoverableSlot(int slot) {
+            int count = adapter.getItemCount();
+            for (int distance = 0; distance <= count; distance++) {
+                if (slot - distance >= 0 && isSlotHoverable(slot - distance, count)) {
+                    return slot - distance;
+                }
+                if (distance > 0 && slot + distance <= count && isSlotHoverable(slot + distance, count)) {
+                    return slot + distance;
+                }
+            }
+            return slot;
+        }
+
+        /**
+         * Check if one of the items around a slot can be hovered.
+         *
+         * @param slot  slot, the dragged item being inserted before the item at this position.
+         * @param count number of items.
+         * @return true if the previous or the next item can be hovered, or if there is no item.
+         */
+        private boolean isSlotHoverable(int slot, int count) {
+            return count == 0 || (slot > 0 && dragStrategy.isItemHoverable(slot - 1))
+              || (slot < count && dragStrategy.isItemHoverable(slot));
+        }
+
+        /**
+         * Find the position at which an item hovering the given point would be inserted.
+         * <p/>
+         * The item is inserted before the child under the point when the point lies in the first
+         * half of the child, after it otherwise.
+         *
+         * @param screenX x on screen.
+         * @param screenY y on screen.
+         * @return adapter position, -1 if unknown.
+         */
+        private int findInsertPosition(float screenX, float screenY) {
+            if (recyclerView.getChildCount() == 0) {
+                return adapter.getItemCount() == 0 ? 0 : -1;
+            }
+            float coordinate = vertical ? screenY - screenTop : screenX - screenLeft;
+            int childIndex = targetResolver.findChildIndex(recyclerView, coordinate);
+            View child = recyclerView.getChildAt(childIndex);
+            int position = recyclerView.getChildPosition(child);
+            if (position == RecyclerView.NO_POSITION) {
+                return -1;
+            }
+            float center = (dragBehavior.getLayoutStart(child) + dragBehavior.getLayoutEnd(child)) / 2f;
+            return coordinate < center ? position : position + 1;
+        }
+    }
+
+    /**
+     * Keep the views entering the screen of a registered recycler view at their expected place
+     * while dragging, the dragged item being hidden, and restore the ones leaving it.
+     */
+    private final class ShiftKeeper implements RecyclerView.OnChildAttachStateChangeListener {
+
+        /**
+         * Registered recycler view whose children are kept.
+         */
+        private final Target target;
+
+        /**
+         * Keep the children of a registered recycler view.
+         *
+         * @param target registered recycler view.
+         */
+        private ShiftKeeper(Target target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onChildViewAttachedToWindow(View view) {
+            if (!dragging) {
+                return;
+            }
+            int position = target.recyclerView.getChildPosition(view);
+            boolean dragged = target == source && position == dragStartPos;
+            float shift = position == RecyclerView.NO_POSITION || dragged ? 0 : getShift(target, position);
+            target.dragBehavior.shift(view, shift);
+            view.setVisibility(dragged ? View.INVISIBLE : View.VISIBLE);
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(View view) {
+            if (!dragging) {
+                return;
+            }
+            // recycled views must come back at rest, whatever the order the listeners are called in.
+            target.childAnimator.cancel(view);
+            target.dragBehavior.shift(view, 0);
+            view.setVisibility(View.VISIBLE);
+        }
+    }
+
+    /**
+     * Scroll the hovered recycler view while the thumbnail lies within one of its hot zones.
+     */
+    private final class AutoScroller implements FrameTicker.Callback {
+
+        /**
+         * Ticker pacing the scroll on the display frames.
+         */
+        private final FrameTicker frameTicker;
+
+        /**
+         * Time of the last frame, 0 if no frame has been processed yet.
+         */
+        private long lastFrameTimeNanos;
+
+        /**
+         * Sub pixel distance not scrolled yet.
+         */
+        private float pendingDistance;
+
+        /**
+         * Scroller of the hovered recycler view.
+         *
+         * @param host view used to post frames on devices without Choreographer.
+         */
+        private AutoScroller(View host) {
+            frameTicker = new FrameTicker(host, this);
+        }
+
+        private void startScrolling() {
+            if (frameTicker.isRunning()) {
+                return;
+            }
+            lastFrameTimeNanos = 0;
+            pendingDistance = 0;
+            frameTicker.start();
+        }
+
+        private void stopScrolling() {
+            frameTicker.stop();
+        }
+
+        @Override
+        public boolean doFrame(long frameTimeNanos) {
+            if (!dragging || hovered == null) {
+                return false;
+            }
+            float ratio = getAutoScrollRatio(hovered);
+            if (ratio == 0) {
+                // out of the hot zones or reached one end of the list.
+                return false;
+            }
+
+            long elapsed = lastFrameTimeNanos == 0 ? DEFAULT_FRAME_NANOS : frameTimeNanos - lastFrameTimeNanos;
+            elapsed = Math.max(0, Math.min(elapsed, MAX_FRAME_NANOS));
+            lastFrameTimeNanos = frameTimeNanos;
+
+            pendingDistance += maxScrollSpeed * ratio * elapsed / NANOS_PER_SECOND;
+            int distance = (int) pendingDistance;
+            pendingDistance -= distance;
+            if (distance != 0) {
+                hovered.dragBehavior.scroll(hovered.recyclerView, distance);
+                // other items are now under the pointer, views scrolled in are shifted on attach.
+                updateSlot();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+
+import java.util.Arrays;
+
+/**
+ * Spatial index of the laid out children of a grid, used to find the slot under the dragged view.
+ * <p/>
+ * The cross axis is split into lanes bounded by the children edges, each child being registered
+ * in every lane it covers so that multi span items and staggered layouts are supported. Within a
+ * lane children are sorted along the scrolling axis. Looking a slot up is then two binary
+ * searches, the index being only rebuilt once per layout pass or scroll.
+ */
+final class GridSlotIndex extends RecyclerView.OnScrollListener
+  implements ViewTreeObserver.OnGlobalLayoutListener {
+
+    /**
+     * Initial capacity of the buffers.
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * True if the grid scrolls vertically.
+     */
+    private final boolean vertical;
+
+    /**
+     * Lane bounds along the cross axis, lane i covers [laneBounds[i], laneBounds[i + 1][.
+     */
+    private int[] laneBounds;
+
+    /**
+     * Number of lanes.
+     */
+    private int laneCount;
+
+    /**
+     * Index of the first entry of each lane, entries of lane i are in
+     * [laneOffsets[i], laneOffsets[i + 1][.
+     */
+    private int[] laneOffsets;
+
+    /**
+     * Child index of each entry.
+     */
+    private int[] entryChildren;
+
+    /**
+     * Layout end of each entry along the scrolling axis.
+     */
+    private int[] entryEnds;
+
+    /**
+     * Layout start of each entry along the scrolling axis.
+     */
+    private int[] entryStarts;
+
+    /**
+     * Number of entries already filled in each lane while rebuilding.
+     */
+    private int[] filledCounts;
+
+    /**
+     * False when the index must be rebuilt before being used.
+     */
+    private boolean valid;
+
+    /**
+     * Recycler view whose layout passes and scrolls invalidate the index.
+     */
+    private RecyclerView attachedRecyclerView;
+
+    /**
+     * Spatial index of the laid out children of a grid.
+     *
+     * @param vertical true if the grid scrolls vertically.
+     */
+    GridSlotIndex(boolean vertical) {
+        this.vertical = vertical;
+        this.laneBounds = new int[INITIAL_CAPACITY];
+        this.laneOffsets = new int[INITIAL_CAPACITY];
+        this.entryChildren = new int[INITIAL_CAPACITY];
+        this.entryStarts = new int[INITIAL_CAPACITY];
+        this.entryEnds = new int[INITIAL_CAPACITY];
+        this.filledCounts = new int[INITIAL_CAPACITY];
+        this.laneCount = 0;
+        this.valid = false;
+    }
+
+    /**
+     * Rebuild the index after each layout pass or scroll of the given recycler view.
+     *
+     * @param recyclerView indexed recycler view.
+     */
+    void attach(RecyclerView recyclerView) {
+        if (attachedRecyclerView == recyclerView) {
+            return;
+        }
+        if (attachedRecyclerView != null) {
+            attachedRecyclerView.removeOnScrollListener(this);
+            attachedRecyclerView.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+        }
+        attachedRecyclerView = recyclerView;
+        recyclerView.addOnScrollListener(this);
+        recyclerView.getViewTreeObserver().addOnGlobalLayoutListener(this);
+        valid = false;
+    }
+
+    /**
+     * Force the index to be rebuilt on next lookup.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        super.onScrolled(recyclerView, dx, dy);
+        valid = false;
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        valid = false;
+    }
+
+    /**
+     * Find the child laid out the closest to the given point.
+     *
+     * @param parent grid whose children are indexed.
+     * @param x      x in parent coordinates.
+     * @param y      y in parent coordinates.
+     * @return index of the closest child, -1 if no child is laid out.
+     */
+    int findNearestChild(ViewGroup parent, float x, float y) {
+        if (!valid) {
+            rebuild(parent);
+        }
+        if (laneCount == 0) {
+            return -1;
+        }
+
+        float cross = vertical ? x : y;
+        float main = vertical ? y : x;
+
+        int lane = findLane(cross);
+
+        // lanes without any child can't be dropped on, look for the closest one around.
+        for (int distance = 0; distance < laneCount; distance++) {
+            if (lane - distance >= 0 && laneOffsets[lane - distance] < laneOffsets[lane - distance + 1]) {
+                return findInLane(lane - distance, main);
+            }
+            if (lane + distance < laneCount && laneOffsets[lane + distance] < laneOffsets[lane + distance + 1]) {
+                return findInLane(lane + distance, main);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the lane containing the given cross axis coordinate, clamped to the existing lanes.
+     *
+     * @param cross coordinate along the cross axis.
+     * @return lane index.
+     */
+    private int findLane(float cross) {
+        int low = 0;
+        int high = laneCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (laneBounds[mid + 1] <= cross) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the child of a lane containing the given scrolling axis coordinate, or the closest one.
+     *
+     * @param lane lane index.
+     * @param main coordinate along the scrolling axis.
+     * @return child index.
+     */
+    private int findInLane(int lane, float main) {
+        int low = laneOffsets[lane];
+        int high = laneOffsets[lane + 1] - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entryEnds[mid] <= main) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return entryChildren[low];
+    }
+
+    /**
+     * Rebuild the index from the current children layout bounds.
+     *
+     * @param parent grid whose children are indexed.
+     */
+    private void rebuild(ViewGroup parent) {
+        int childCount = parent.getChildCount();
+
+        // lane bounds are the distinct cross axis edges of the children.
+        int boundCount = 0;
+        laneBounds = ensureCapacity(laneBounds, childCount * 2);
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            laneBounds[boundCount++] = getCrossStart(child);
+            laneBounds[boundCount++] = getCrossEnd(child);
+        }
+        Arrays.sort(laneBounds, 0, boundCount);
+        int distinct = 0;
+        for (int i = 0; i < boundCount; i++) {
+            if (distinct == 0 || laneBounds[i] != laneBounds[distinct - 1]) {
+                laneBounds[distinct++] = laneBounds[i];
+            }
+        }
+        laneCount = Math.max(0, distinct - 1);
+
+        // count the entries of each lane, then compute each lane offset.
+        laneOffsets = ensureCapacity(laneOffsets, laneCount + 1);
+        Arrays.fill(laneOffsets, 0, laneCount + 1, 0);
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int last = findLaneStartingAt(getCrossEnd(child));
+            for (int lane = findLaneStartingAt(getCrossStart(child)); lane < last; lane++) {
+                laneOffsets[lane + 1]++;
+            }
+        }
+        for (int lane = 0; lane < laneCount; lane++) {
+            laneOffsets[lane + 1] += laneOffsets[lane];
+        }
+
+        int entryCount = laneOffsets[laneCount];
+        entryChildren = ensureCapacity(entryChildren, entryCount);
+        entryStarts = ensureCapacity(entryStarts, entryCount);
+        entryEnds = ensureCapacity(entryEnds, entryCount);
+        filledCounts = ensureCapacity(filledCounts, laneCount);
+
+        // fill each lane keeping it sorted along the scrolling axis, children are mostly in order.
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int start = vertical ? child.getTop() : child.getLeft();
+            int end = vertical ? child.getBottom() : child.getRight();
+            int last = findLaneStartingAt(getCrossEnd(child));
+            for (int lane = findLaneStartingAt(getCrossStart(child)); lane < last; lane++) {
+                int firstEntry = laneOffsets[lane];
+                int entry = firstEntry + filledCounts[lane];
+                while (entry > firstEntry && entryStarts[entry - 1] > start) {
+                    entryChildren[entry] = entryChildren[entry - 1];
+                    entryStarts[entry] = entryStarts[entry - 1];
+                    entryEnds[entry] = entryEnds[entry - 1];
+                    entry--;
+                }
+                entryChildren[entry] = i;
+                entryStarts[entry] = start;
+                entryEnds[entry] = end;
+                filledCounts[lane]++;
+            }
+        }
+        Arrays.fill(filledCounts, 0, laneCount, 0);
+        valid = true;
+    }
+
+    /**
+     * Find the lane starting at the given bound.
+     *
+     * @param bound lane bound.
+     * @return lane index, {@link #laneCount} for the end of the last lane.
+     */
+    private int findLaneStartingAt(int bound) {
+        int index = Arrays.binarySearch(laneBounds, 0, laneCount + 1, bound);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * Layout start of a child along the cross axis.
+     *
+     * @param child grid child.
+     * @return cross axis start.
+     */
+    private int getCrossStart(View child) {
+        return vertical ? child.getLeft() : child.getTop();
+    }
+
+    /**
+     * Layout end of a child along the cross axis.
+     *
+     * @param child grid child.
+     * @return cross axis end.
+     */
+    private int getCrossEnd(View child) {
+        return vertical ? child.getRight() : child.getBottom();
+    }
+
+    /**
+     * Grow a buffer if needed.
+     *
+     * @param buffer   buffer.
+     * @param capacity minimum capacity required.
+     * @return buffer with at least the given capacity.
+     */
+    private static int[] ensureCapacity(int[] buffer, int capacity) {
+        if (capacity > buffer.length) {
+            return Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,506 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Journal of the reorderings performed by a drag, see
+ * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Builder#journal(ReorderJournal)}.
+ * <p/>
+ * Every swap and move performed while dragging is logged, then compacted on drop into the minimal
+ * sequence of moves leading to the same order : items belonging to the longest increasing
+ * subsequence of the previous order stay in place, the other ones are moved once each.
+ * <p/>
+ * When backed by a file, compacted moves are appended to a memory-mapped journal so that a custom
+ * order can be restored at startup by replaying the moves sequentially, instead of reading and
+ * rewriting the whole list. Call {@link #reset()} once the order has been saved by other means to
+ * truncate the journal.
+ * <p/>
+ * Main thread only, except for {@link #replay(DragDropGesture.Mover)} which can be called from any
+ * thread before the journal is attached to a gesture.
+ */
+public final class ReorderJournal implements Closeable {
+
+    /**
+     * Marker written at the beginning of a journal file.
+     */
+    private static final int MAGIC = 0x52474a31;
+
+    /**
+     * Offset of the number of committed moves in a journal file.
+     */
+    private static final int COUNT_OFFSET = 4;
+
+    /**
+     * Magic and committed move count.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Bytes of a move in a journal file, source and destination positions.
+     */
+    private static final int MOVE_SIZE = 8;
+
+    /**
+     * Moves a journal file is initially mapped for.
+     */
+    private static final int INITIAL_FILE_MOVES = 4096;
+
+    /**
+     * Operations the log initially holds, more than a drag usually performs.
+     */
+    private static final int INITIAL_LOG_OPERATIONS = 512;
+
+    /**
+     * Operations logged since the last commit, source and destination of each move.
+     */
+    private int[] log;
+
+    /**
+     * Number of ints used in {@link #log}.
+     */
+    private int logSize;
+
+    /**
+     * Moves of the last commit, source and destination of each move.
+     */
+    private int[] moves;
+
+    /**
+     * Number of moves of the last commit.
+     */
+    private int moveCount;
+
+    /**
+     * Previous position, relative to the reordered range, of each item of the range.
+     */
+    private int[] order;
+
+    /**
+     * Items of the reordered range, by previous relative position, while moves are computed.
+     */
+    private int[] current;
+
+    /**
+     * Index in {@link #order} of the smallest tail of each increasing subsequence length.
+     */
+    private int[] tails;
+
+    /**
+     * Index in {@link #order} of the previous item of the increasing subsequence of each item.
+     */
+    private int[] predecessors;
+
+    /**
+     * True for the items, by previous relative position, which keep their place.
+     */
+    private boolean[] stable;
+
+    /**
+     * Journal file, null if the journal is kept in memory only.
+     */
+    private final RandomAccessFile file;
+
+    /**
+     * Channel of the journal file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Mapping of the journal file.
+     */
+    private MappedByteBuffer mapped;
+
+    /**
+     * Number of moves stored in the journal file.
+     */
+    private int journalSize;
+
+    /**
+     * Journal compacting the moves of each drag, without persistence.
+     */
+    public ReorderJournal() {
+        this.file = null;
+        this.channel = null;
+        this.mapped = null;
+        this.journalSize = 0;
+        init();
+    }
+
+    /**
+     * Journal compacting the moves of each drag and appending them to a file.
+     * <p/>
+     * The file is created if it doesn't exist, moves it already contains are kept.
+     *
+     * @param journalFile journal file.
+     * @throws IOException if the file can't be mapped or isn't a journal.
+     */
+    public ReorderJournal(File journalFile) throws IOException {
+        this.file = new RandomAccessFile(journalFile, "rw");
+        this.channel = file.getChannel();
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + INITIAL_FILE_MOVES * MOVE_SIZE);
+                mapped.putInt(0, MAGIC);
+                mapped.putInt(COUNT_OFFSET, 0);
+            } else {
+                if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                    throw new IOException("Not a reorder journal : " + journalFile);
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                if (mapped.getInt(0) != MAGIC) {
+                    throw new IOException("Not a reorder journal : " + journalFile);
+                }
+            }
+            journalSize = mapped.getInt(COUNT_OFFSET);
+            if (journalSize < 0 || HEADER_SIZE + (long) journalSize * MOVE_SIZE > mapped.capacity()) {
+                throw new IOException("Corrupted reorder journal : " + journalFile);
+            }
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        init();
+    }
+
+    /**
+     * Log a swap between two items.
+     *
+     * @param from position of the first item.
+     * @param to   position of the second item.
+     */
+    public void recordSwap(int from, int to) {
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        if (low == high) {
+            return;
+        }
+        // a swap is a move of the first item over the second one, then a move of the second one
+        // back at the first place.
+        recordMove(low, high);
+        if (high - low > 1) {
+            recordMove(high - 1, low);
+        }
+    }
+
+    /**
+     * Log a move of an item, items between the two positions are shifted by one toward the source
+     * position.
+     *
+     * @param from src position.
+     * @param to   dest position.
+     */
+    public void recordMove(int from, int to) {
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("Positions must be positive : " + from + ", " + to);
+        }
+        if (from == to) {
+            return;
+        }
+        if (logSize + 2 > log.length) {
+            log = Arrays.copyOf(log, log.length * 2);
+        }
+        log[logSize++] = from;
+        log[logSize++] = to;
+    }
+
+    /**
+     * Compact the operations logged since the last commit into the minimal sequence of moves, then
+     * append them to the journal file if any.
+     * <p/>
+     * Called by the gesture on drop, right before
+     * {@link com.netcosports.recyclergesture.library.drag.DragDropGesture.Listener#onDragEnded()}.
+     *
+     * @return number of moves, see {@link #getMoveFrom(int)} and {@link #getMoveTo(int)}.
+     * @throws IOException if the journal file can't be extended.
+     */
+    public int commit() throws IOException {
+        moveCount = 0;
+        if (logSize == 0) {
+            return 0;
+        }
+
+        // only the range crossed by the logged operations is reordered.
+        int start = Integer.MAX_VALUE;
+        int end = 0;
+        for (int i = 0; i < logSize; i++) {
+            start = Math.min(start, log[i]);
+            end = Math.max(end, log[i]);
+        }
+        int length = end - start + 1;
+        ensureRangeCapacity(length);
+
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < logSize; i += 2) {
+            move(order, log[i] - start, log[i + 1] - start);
+        }
+        logSize = 0;
+
+        markStable(length);
+        computeMoves(start, length);
+
+        if (mapped != null && moveCount > 0) {
+            append();
+        }
+        return moveCount;
+    }
+
+    /**
+     * Number of moves of the last commit.
+     *
+     * @return move count.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Source position of a move of the last commit.
+     *
+     * @param index index of the move.
+     * @return src position.
+     */
+    public int getMoveFrom(int index) {
+        checkMoveIndex(index);
+        return moves[2 * index];
+    }
+
+    /**
+     * Destination position of a move of the last commit.
+     *
+     * @param index index of the move.
+     * @return dest position.
+     */
+    public int getMoveTo(int index) {
+        checkMoveIndex(index);
+        return moves[2 * index + 1];
+    }
+
+    /**
+     * Number of moves stored in the journal file.
+     *
+     * @return move count, 0 if the journal is kept in memory only.
+     */
+    public int getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Apply the moves stored in the journal file, in the order they were committed.
+     * <p/>
+     * Called on the list loaded at startup in the order it had when the journal was last reset.
+     *
+     * @param mover mover applying each move to the list.
+     */
+    public void replay(DragDropGesture.Mover mover) {
+        checkFile();
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < journalSize; i++) {
+            mover.moveItem(mapped.getInt(offset), mapped.getInt(offset + 4));
+            offset += MOVE_SIZE;
+        }
+    }
+
+    /**
+     * Truncate the journal file, to be called once the current order has been saved by other
+     * means.
+     */
+    public void reset() {
+        checkFile();
+        journalSize = 0;
+        mapped.putInt(COUNT_OFFSET, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            mapped.force();
+            file.close();
+        }
+    }
+
+    /**
+     * Allocate the buffers used by the log and the compaction.
+     */
+    private void init() {
+        this.log = new int[2 * INITIAL_LOG_OPERATIONS];
+        this.logSize = 0;
+        this.moves = new int[2 * INITIAL_LOG_OPERATIONS];
+        this.moveCount = 0;
+        this.order = new int[0];
+        this.current = new int[0];
+        this.tails = new int[0];
+        this.predecessors = new int[0];
+        this.stable = new boolean[0];
+    }
+
+    /**
+     * Grow the compaction buffers to reorder a range.
+     *
+     * @param length length of the range.
+     */
+    private void ensureRangeCapacity(int length) {
+        if (order.length < length) {
+            int capacity = Math.max(length, order.length * 2);
+            order = new int[capacity];
+            current = new int[capacity];
+            tails = new int[capacity];
+            predecessors = new int[capacity];
+            stable = new boolean[capacity];
+        }
+        if (moves.length < 2 * length) {
+            moves = new int[2 * length];
+        }
+    }
+
+    /**
+     * Mark the items of the longest increasing subsequence of {@link #order}, those items keep
+     * their relative order and don't need to be moved.
+     *
+     * @param length length of the range.
+     */
+    private void markStable(int length) {
+        int longest = 0;
+        for (int i = 0; i < length; i++) {
+            // find the first tail greater than the item, the item extends the subsequence before it.
+            int low = 0;
+            int high = longest;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (order[tails[middle]] < order[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == longest) {
+                longest++;
+            }
+        }
+
+        Arrays.fill(stable, 0, length, false);
+        for (int i = longest > 0 ? tails[longest - 1] : -1; i != -1; i = predecessors[i]) {
+            stable[order[i]] = true;
+        }
+    }
+
+    /**
+     * Compute the moves leading from the previous order to {@link #order}, only moving the items
+     * which aren't stable.
+     * <p/>
+     * Items are placed by increasing final position, each one right after the item preceding it
+     * in the final order, so that stable and placed items are always in their final relative
+     * order.
+     *
+     * @param start  first position of the range.
+     * @param length length of the range.
+     */
+    private void computeMoves(int start, int length) {
+        for (int i = 0; i < length; i++) {
+            current[i] = i;
+        }
+        for (int i = 0; i < length; i++) {
+            if (stable[order[i]]) {
+                continue;
+            }
+            int from = indexOf(order[i], length);
+            int previous = i == 0 ? -1 : indexOf(order[i - 1], length);
+            int to = from > previous ? previous + 1 : previous;
+            if (from != to) {
+                move(current, from, to);
+                moves[2 * moveCount] = start + from;
+                moves[2 * moveCount + 1] = start + to;
+                moveCount++;
+            }
+        }
+    }
+
+    /**
+     * Find an item in {@link #current}.
+     *
+     * @param item   previous relative position of the item.
+     * @param length length of the range.
+     * @return index of the item.
+     */
+    private int indexOf(int item, int length) {
+        for (int i = 0; i < length; i++) {
+            if (current[i] == item) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Item not found : " + item);
+    }
+
+    /**
+     * Append the moves of the last commit to the journal file, the move count in the header is
+     * only updated once every move has been written.
+     *
+     * @throws IOException if the journal file can't be extended.
+     */
+    private void append() throws IOException {
+        long required = HEADER_SIZE + (long) (journalSize + moveCount) * MOVE_SIZE;
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Reorder journal is full, see ReorderJournal.reset()");
+        }
+        if (required > mapped.capacity()) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+              Math.min(Integer.MAX_VALUE, Math.max(required, 2L * mapped.capacity())));
+        }
+        int offset = HEADER_SIZE + journalSize * MOVE_SIZE;
+        for (int i = 0; i < moveCount; i++) {
+            mapped.putInt(offset, moves[2 * i]);
+            mapped.putInt(offset + 4, moves[2 * i + 1]);
+            offset += MOVE_SIZE;
+        }
+        journalSize += moveCount;
+        mapped.putInt(COUNT_OFFSET, journalSize);
+    }
+
+    /**
+     * Check that the journal is backed by a file.
+     */
+    private void checkFile() {
+        if (mapped == null) {
+            throw new IllegalStateException("Reorder journal isn't backed by a file");
+        }
+    }
+
+    /**
+     * Check the index of a move of the last commit.
+     *
+     * @param index index of the move.
+     */
+    private void checkMoveIndex(int index) {
+        if (index < 0 || index >= moveCount) {
+            throw new IndexOutOfBoundsException("Move index " + index + " out of " + moveCount);
+        }
+    }
+
+    /**
+     * Move an item within an array, items between the two positions are shifted by one toward the
+     * source position.
+     *
+     * @param items array.
+     * @param from  src index.
+     * @param to    dest index.
+     */
+    private static void move(int[] items, int from, int to) {
+        int moved = items[from];
+        if (from < to) {
+            System.arraycopy(items, from + 1, items, from, to - from);
+        } else {
+            System.arraycopy(items, to, items, to + 1, from - to);
+        }
+        items[to] = moved;
+    }
+}
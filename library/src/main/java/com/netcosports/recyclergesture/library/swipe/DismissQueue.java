@@ -0,0 +1,508 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.FrameTicker;
+import com.netcosports.recyclergesture.library.StableIdIndex;
+
+import java.util.Arrays;
+
+/**
+ * Dismissals waiting for their dismiss animation to end, removed from the adapter in batches.
+ * <p/>
+ * A dismissal is due as soon as the end of its animation is reported through
+ * {@link #markReady(View)}, or once its view is detached from the recycler view. A watchdog delay
+ * covers animations whose end is never reported. Dismissals of a range enqueued at once form a
+ * group, due together as soon as one of them is, views of the items outside the viewport being
+ * unknown.
+ * <p/>
+ * Positions captured at swipe time are only hints, kept up to date through the adapter
+ * notifications. When the adapter has stable ids, pending dismissals are tracked by id and
+ * resolved to a position at commit time only : hints which don't point to their item anymore are
+ * looked up at once through a single pass over the adapter ids. Dismissals whose item can't be
+ * found are stale, they are dropped and counted instead of removing another item. Dismissals due
+ * on the same frame are
+ * flushed together, each run of contiguous positions being removed through a single
+ * {@link SwipeToDismissGesture.BulkDismisser#dismissRange(int, int)} and a single
+ * {@link android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeRemoved(int, int)}.
+ */
+final class DismissQueue extends RecyclerView.AdapterDataObserver
+        implements FrameTicker.Callback, RecyclerView.OnChildAttachStateChangeListener {
+
+    /**
+     * Initial capacity of the queue.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Position of a dismissal whose item must be looked up by id.
+     */
+    private static final int UNRESOLVED = -1;
+
+    private final RecyclerView mRecyclerView;
+    private final SwipeToDismissGesture.Dismisser mDismisser;
+    private final FrameTicker mFrameTicker;
+
+    /**
+     * Index from the ids of the pending dismissals to their index in the queue.
+     */
+    private final StableIdIndex mIdIndex;
+
+    /**
+     * Buffer hiding the dismissed items until their dismissal can't be undone, null to remove them
+     * right away.
+     */
+    private SwipeUndoBuffer mUndoBuffer;
+
+    /**
+     * Animator flying the dismissed items out, null if none.
+     */
+    private SwipeAnimator mAnimator;
+
+    /**
+     * Adapter the queue is registered to, null if not registered yet.
+     */
+    private RecyclerView.Adapter mAdapter;
+
+    // Pending dismissals, only the first mCount entries are meaningful.
+    private View[] mViews;
+    private int[] mPositions;
+    private long[] mIds;
+    private long[] mDueTimes;
+    private int[] mGroups;
+    private int mCount;
+
+    /**
+     * Group of the next dismissals enqueued.
+     */
+    private int mNextGroup;
+
+    /**
+     * Number of dismissals dropped because their item couldn't be found anymore.
+     */
+    private int mStaleCount;
+
+    // Dismissals being flushed, reused from one flush to the other.
+    private View[] mBatchViews;
+    private int[] mBatchPositions;
+
+    /**
+     * Dismissals of the items of a recycler view.
+     *
+     * @param recyclerView recycler view whose items are dismissed.
+     * @param dismisser    dismisser removing the items from the data.
+     */
+    DismissQueue(RecyclerView recyclerView, SwipeToDismissGesture.Dismisser dismisser) {
+        mRecyclerView = recyclerView;
+        mDismisser = dismisser;
+        mFrameTicker = new FrameTicker(recyclerView, this);
+        mIdIndex = new StableIdIndex();
+        mViews = new View[INITIAL_CAPACITY];
+        mPositions = new int[INITIAL_CAPACITY];
+        mIds = new long[INITIAL_CAPACITY];
+        mDueTimes = new long[INITIAL_CAPACITY];
+        mGroups = new int[INITIAL_CAPACITY];
+        mBatchViews = new View[INITIAL_CAPACITY];
+        mBatchPositions = new int[INITIAL_CAPACITY];
+        mCount = 0;
+        recyclerView.addOnChildAttachStateChangeListener(this);
+    }
+
+    /**
+     * Hide the dismissed items in an undo buffer instead of removing them from the data.
+     *
+     * @param undoBuffer undo buffer, null to remove the dismissed items right away.
+     */
+    void setUndoBuffer(SwipeUndoBuffer undoBuffer) {
+        mUndoBuffer = undoBuffer;
+    }
+
+    /**
+     * Stop the dismiss animation of the items removed before it ended.
+     *
+     * @param animator animator flying the dismissed items out.
+     */
+    void setAnimator(SwipeAnimator animator) {
+        mAnimator = animator;
+    }
+
+    /**
+     * Queue the dismissal of an item.
+     *
+     * @param view           view displaying the item, its translation is restored once dismissed.
+     * @param position       adapter position of the item.
+     * @param watchdogMillis delay after which the item is removed if the end of its dismiss
+     *                       animation hasn't been reported.
+     */
+    void enqueue(View view, int position, long watchdogMillis) {
+        ensureAttached();
+        add(view, position, SystemClock.uptimeMillis() + watchdogMillis, mNextGroup++);
+        mFrameTicker.start();
+    }
+
+    /**
+     * Queue the dismissal of contiguous items as a group, removed together.
+     *
+     * @param positionStart  adapter position of the first item.
+     * @param itemCount      number of items.
+     * @param watchdogMillis delay after which the items are removed if the end of their dismiss
+     *                       animations hasn't been reported.
+     */
+    void enqueueRange(int positionStart, int itemCount, long watchdogMillis) {
+        ensureAttached();
+        long dueTime = SystemClock.uptimeMillis() + watchdogMillis;
+        int group = mNextGroup++;
+        for (int position = positionStart; position < positionStart + itemCount; position++) {
+            RecyclerView.ViewHolder holder = mRecyclerView.findViewHolderForPosition(position);
+            add(holder == null ? null : holder.itemView, position, dueTime, group);
+        }
+        mFrameTicker.start();
+    }
+
+    /**
+     * Remove the item displayed by a view on the next frame, its dismiss animation being over.
+     * The items of its group are removed along.
+     *
+     * @param view view whose dismiss animation ended or has been canceled.
+     */
+    void markReady(View view) {
+        for (int i = 0; i < mCount; i++) {
+            if (mViews[i] == view) {
+                int group = mGroups[i];
+                for (int j = 0; j < mCount; j++) {
+                    if (mGroups[j] == group) {
+                        mDueTimes[j] = 0;
+                    }
+                }
+                mFrameTicker.start();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of dismissals waiting to be flushed.
+     *
+     * @return pending dismissal count.
+     */
+    int getPendingCount() {
+        return mCount;
+    }
+
+    /**
+     * Number of dismissals dropped because their item had been removed, or couldn't be found back
+     * after a full change of an adapter without stable ids.
+     *
+     * @return stale dismissal count since the queue has been created.
+     */
+    int getStaleCount() {
+        return mStaleCount;
+    }
+
+    /**
+     * Remove every pending item right away, whether its dismiss animation ended or not.
+     */
+    void flush() {
+        flushDue(Long.MAX_VALUE);
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        // due times follow the uptime clock the animations are paced on.
+        flushDue(SystemClock.uptimeMillis());
+        return mCount > 0;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        // a detached view may never report the end of its animation.
+        markReady(view);
+    }
+
+    @Override
+    public void onChanged() {
+        // positions are lost, items can only be found back by id.
+        for (int i = mCount - 1; i >= 0; i--) {
+            if (mIds[i] == RecyclerView.NO_ID) {
+                drop(i);
+            } else {
+                mPositions[i] = UNRESOLVED;
+            }
+        }
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        for (int i = 0; i < mCount; i++) {
+            if (mPositions[i] >= positionStart) {
+                mPositions[i] += itemCount;
+            }
+        }
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        for (int i = mCount - 1; i >= 0; i--) {
+            int position = mPositions[i];
+            if (position >= positionStart + itemCount) {
+                mPositions[i] = position - itemCount;
+            } else if (position >= positionStart) {
+                // removed by someone else, nothing left to dismiss.
+                drop(i);
+            }
+        }
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        for (int i = 0; i < mCount; i++) {
+            int position = mPositions[i];
+            if (position == UNRESOLVED) {
+                continue;
+            }
+            if (position >= fromPosition && position < fromPosition + itemCount) {
+                mPositions[i] = position - fromPosition + toPosition;
+            } else if (fromPosition < toPosition && position >= fromPosition + itemCount
+                    && position < toPosition + itemCount) {
+                mPositions[i] = position - itemCount;
+            } else if (fromPosition > toPosition && position >= toPosition && position < fromPosition) {
+                mPositions[i] = position + itemCount;
+            }
+        }
+    }
+
+    /**
+     * Remove the items whose dismissal is due.
+     *
+     * @param now current uptime, in milliseconds.
+     */
+    private void flushDue(long now) {
+        if (mCount == 0) {
+            return;
+        }
+
+        // position hints which don't point to their item anymore are looked up by id.
+        boolean lookUp = false;
+        for (int i = 0; i < mCount; i++) {
+            if (mDueTimes[i] <= now && !isResolved(i)) {
+                mPositions[i] = UNRESOLVED;
+                lookUp = true;
+            }
+        }
+        if (lookUp) {
+            lookUpPositions();
+        }
+
+        // move the due dismissals to the batch, the adapter notifications then only update the
+        // pending ones.
+        int batchSize = 0;
+        for (int i = mCount - 1; i >= 0; i--) {
+            if (mDueTimes[i] > now) {
+                continue;
+            }
+            if (mPositions[i] == UNRESOLVED) {
+                drop(i);
+                continue;
+            }
+            if (batchSize == mBatchPositions.length) {
+                mBatchViews = Arrays.copyOf(mBatchViews, batchSize * 2);
+                mBatchPositions = Arrays.copyOf(mBatchPositions, batchSize * 2);
+            }
+            mBatchViews[batchSize] = mViews[i];
+            mBatchPositions[batchSize] = mPositions[i];
+            batchSize++;
+            remove(i);
+        }
+        if (batchSize == 0) {
+            return;
+        }
+
+        // from the last position so that removing a run doesn't shift the runs still to remove.
+        Arrays.sort(mBatchPositions, 0, batchSize);
+        int end = batchSize - 1;
+        while (end >= 0) {
+            int start = end;
+            while (start > 0 && mBatchPositions[start - 1] == mBatchPositions[start] - 1) {
+                start--;
+            }
+            dismissRange(mBatchPositions[start], end - start + 1);
+            end = start - 1;
+        }
+
+        for (int i = 0; i < batchSize; i++) {
+            View view = mBatchViews[i];
+            if (view != null) {
+                if (mAnimator != null && mAnimator.isDismissing(view)) {
+                    // the watchdog fired first, the item leaves as if its animation ended instead
+                    // of flashing back in place.
+                    mAnimator.cancel(view);
+                    view.setAlpha(0);
+                }
+                view.setTranslationX(0);
+                view.setTranslationY(0);
+                mBatchViews[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Remove a run of contiguous items from the data, or hide them until they can't be undone, and
+     * notify the adapter once.
+     *
+     * @param positionStart position of the first item.
+     * @param itemCount     number of items.
+     */
+    private void dismissRange(int positionStart, int itemCount) {
+        if (mUndoBuffer != null) {
+            mUndoBuffer.hide(positionStart, itemCount);
+            return;
+        }
+        if (mDismisser instanceof SwipeToDismissGesture.BulkDismisser) {
+            ((SwipeToDismissGesture.BulkDismisser) mDismisser).dismissRange(positionStart, itemCount);
+        } else {
+            for (int position = positionStart + itemCount - 1; position >= positionStart; position--) {
+                mDismisser.dismiss(position);
+            }
+        }
+        mAdapter.notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+    /**
+     * Used to know if the position hint of a dismissal still points to its item.
+     *
+     * @param index index of the dismissal.
+     * @return true if the position is valid.
+     */
+    private boolean isResolved(int index) {
+        int position = mPositions[index];
+        long id = mIds[index];
+        return position != UNRESOLVED && position < mAdapter.getItemCount()
+                && (id == RecyclerView.NO_ID || mAdapter.getItemId(position) == id);
+    }
+
+    /**
+     * Find the position of the unresolved dismissals by id, in a single pass over the adapter.
+     * Dismissals whose item can't be found stay unresolved.
+     */
+    private void lookUpPositions() {
+        if (!mAdapter.hasStableIds()) {
+            return;
+        }
+        int unresolved = 0;
+        for (int i = 0; i < mCount; i++) {
+            if (mPositions[i] == UNRESOLVED && mIds[i] != RecyclerView.NO_ID) {
+                unresolved++;
+            }
+        }
+        mIdIndex.build(mIds, mCount);
+        int itemCount = mAdapter.getItemCount();
+        for (int position = 0; position < itemCount && unresolved > 0; position++) {
+            int index = mIdIndex.get(mAdapter.getItemId(position));
+            if (index != -1 && mPositions[index] == UNRESOLVED && mIds[index] != RecyclerView.NO_ID) {
+                mPositions[index] = position;
+                unresolved--;
+            }
+        }
+    }
+
+    /**
+     * Give up a stale dismissal, its view is restored.
+     *
+     * @param index index of the dismissal.
+     */
+    private void drop(int index) {
+        View view = mViews[index];
+        if (view != null) {
+            cancelAnimation(view);
+            view.setTranslationX(0);
+            view.setTranslationY(0);
+            view.setAlpha(1);
+        }
+        mStaleCount++;
+        remove(index);
+    }
+
+    /**
+     * Add a dismissal, unless its item is already pending.
+     *
+     * @param view     view displaying the item, null if not laid out.
+     * @param position adapter position of the item.
+     * @param dueTime  uptime at which the item is removed at the latest.
+     * @param group    group of the dismissal.
+     */
+    private void add(View view, int position, long dueTime, int group) {
+        if (position == RecyclerView.NO_POSITION || indexOfPosition(position) != -1) {
+            return;
+        }
+        if (mCount == mPositions.length) {
+            int capacity = mCount * 2;
+            mViews = Arrays.copyOf(mViews, capacity);
+            mPositions = Arrays.copyOf(mPositions, capacity);
+            mIds = Arrays.copyOf(mIds, capacity);
+            mDueTimes = Arrays.copyOf(mDueTimes, capacity);
+            mGroups = Arrays.copyOf(mGroups, capacity);
+        }
+        mViews[mCount] = view;
+        mPositions[mCount] = position;
+        mIds[mCount] = mAdapter.hasStableIds() ? mAdapter.getItemId(position) : RecyclerView.NO_ID;
+        mDueTimes[mCount] = dueTime;
+        mGroups[mCount] = group;
+        mCount++;
+    }
+
+    /**
+     * Remove a dismissal from the queue, the last one takes its place.
+     *
+     * @param index index of the dismissal.
+     */
+    private void remove(int index) {
+        int last = --mCount;
+        mViews[index] = mViews[last];
+        mPositions[index] = mPositions[last];
+        mIds[index] = mIds[last];
+        mDueTimes[index] = mDueTimes[last];
+        mGroups[index] = mGroups[last];
+        mViews[last] = null;
+    }
+
+    private void cancelAnimation(View view) {
+        if (mAnimator != null) {
+            mAnimator.cancel(view);
+        }
+    }
+
+    private int indexOfPosition(int position) {
+        for (int i = 0; i < mCount; i++) {
+            if (mPositions[i] == position) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Follow the notifications of the current adapter of the recycler view.
+     */
+    private void ensureAttached() {
+        RecyclerView.Adapter adapter = mRecyclerView.getAdapter();
+        if (adapter == mAdapter) {
+            return;
+        }
+        if (mAdapter != null) {
+            mAdapter.unregisterAdapterDataObserver(this);
+            flush();
+        }
+        mAdapter = adapter;
+        mAdapter.registerAdapterDataObserver(this);
+        if (mUndoBuffer != null) {
+            mUndoBuffer.attach(adapter, mDismisser);
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.DragGeometry;
+import com.netcosports.recyclergesture.library.FrameTicker;
+
+/**
+ * Items swiped together : once a swipe started, moving the pointer across the list extends it to
+ * every item between the first swiped item and the item under the pointer.
+ * <p/>
+ * Every item of the range follows the swipe offset, items scrolled in included. The list scrolls
+ * by itself while the pointer lies near one of its ends, half an item deep. A dismissed range is
+ * enqueued as a single group of the {@link DismissQueue} : it's removed through a single
+ * {@link SwipeToDismissGesture.BulkDismisser#dismissRange(int, int)} once the dismiss animations,
+ * all started on the same frame from the release velocity, ended.
+ * <p/>
+ * Only items whose direction allows the axis and the sign allowed to the first swiped item join
+ * the range. The range follows the adapter notifications received during the gesture : inserted
+ * items stop it, removed ones leave it and a data set change ends it, the swiped item being left
+ * as is.
+ */
+final class RangeSwipe implements FrameTicker.Callback, RecyclerView.OnChildAttachStateChangeListener {
+
+    /**
+     * Speed of the auto scroll once the pointer reached an end of the list, in dp per second.
+     */
+    private static final float MAX_SCROLL_SPEED_DP = 1000f;
+
+    /**
+     * Elapsed time assumed for the first frame, in nanoseconds.
+     */
+    private static final long DEFAULT_FRAME_NANOS = 16666667L;
+
+    /**
+     * Maximum elapsed time taken into account for a frame, in nanoseconds.
+     */
+    private static final long MAX_FRAME_NANOS = 50000000L;
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    private final RecyclerView mRecyclerView;
+    private final SwipeToDismissStrategy mStrategy;
+    private final SwipeAnimator mAnimator;
+    private final FrameTicker mFrameTicker;
+    private final float mMaxScrollSpeed;
+    private final RangeKeeper mRangeKeeper;
+
+    /**
+     * Adapter observed while a range is swiped, null otherwise.
+     */
+    private RecyclerView.Adapter mObservedAdapter;
+
+    private SwipeToDismissDirection mDirection;
+
+    /**
+     * Position of the first swiped item, {@link RecyclerView#NO_POSITION} if no range is swiped.
+     */
+    private int mAnchor = RecyclerView.NO_POSITION;
+
+    /**
+     * Bounds of the range, inclusive.
+     */
+    private int mStart;
+    private int mEnd;
+
+    /**
+     * Size of an item across the swipe axis.
+     */
+    private int mItemSize;
+
+    /**
+     * Pointer across the swipe axis relative to the recycler view, and the item under it.
+     */
+    private float mPointer;
+    private int mPointerPosition;
+
+    /**
+     * Offset and opacity of the swiped items.
+     */
+    private float mOffset;
+    private float mAlpha;
+
+    private long mLastFrameTimeNanos;
+    private float mPendingDistance;
+
+    /**
+     * Items swiped together.
+     *
+     * @param recyclerView recycler view whose items are swiped.
+     * @param strategy     strategy telling which items can be swiped, the range stops before the
+     *                     first one which can't.
+     * @param animator     animator of the released items.
+     */
+    RangeSwipe(RecyclerView recyclerView, SwipeToDismissStrategy strategy, SwipeAnimator animator) {
+        mRecyclerView = recyclerView;
+        mStrategy = strategy;
+        mAnimator = animator;
+        mFrameTicker = new FrameTicker(recyclerView, this);
+        mMaxScrollSpeed = MAX_SCROLL_SPEED_DP * recyclerView.getResources().getDisplayMetrics().density;
+        mRangeKeeper = new RangeKeeper();
+        recyclerView.addOnChildAttachStateChangeListener(this);
+    }
+
+    /**
+     * Start a range from the first swiped item.
+     *
+     * @param anchor    position of the swiped item.
+     * @param direction allowed direction of the swiped item.
+     * @param itemSize  size of the item across the swipe axis.
+     */
+    void start(int anchor, SwipeToDismissDirection direction, int itemSize) {
+        mAnchor = anchor;
+        mStart = anchor;
+        mEnd = anchor;
+        mPointerPosition = anchor;
+        mDirection = direction;
+        mItemSize = itemSize;
+        if (mObservedAdapter == null) {
+            mObservedAdapter = mRecyclerView.getAdapter();
+            mObservedAdapter.registerAdapterDataObserver(mRangeKeeper);
+        }
+    }
+
+    /**
+     * Used to know if a range is being swiped.
+     *
+     * @return true if started and neither restored nor dismissed yet.
+     */
+    boolean isActive() {
+        return mAnchor != RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Position of the first item of the range.
+     *
+     * @return position.
+     */
+    int getStart() {
+        return mStart;
+    }
+
+    /**
+     * Number of items of the range.
+     *
+     * @return item count.
+     */
+    int getItemCount() {
+        return mEnd - mStart + 1;
+    }
+
+    /**
+     * Follow a pointer move.
+     *
+     * @param pointer pointer across the swipe axis, relative to the recycler view.
+     * @param offset  offset of the items along the swipe axis.
+     * @param alpha   opacity of the items.
+     */
+    void move(float pointer, float offset, float alpha) {
+        if (!isActive()) {
+            return;
+        }
+        mPointer = pointer;
+        mOffset = offset;
+        mAlpha = alpha;
+        update();
+        float ratio = getAutoScrollRatio();
+        if (ratio != 0 && canScroll(ratio < 0 ? -1 : 1)) {
+            if (!mFrameTicker.isRunning()) {
+                mLastFrameTimeNanos = 0;
+                mPendingDistance = 0;
+                mFrameTicker.start();
+            }
+        } else {
+            mFrameTicker.stop();
+        }
+    }
+
+    /**
+     * Animate the items of the range back and end the range.
+     *
+     * @param velocity release velocity along the swipe axis, in pixels per second.
+     */
+    void restore(float velocity) {
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            View child = mRecyclerView.getChildAt(i);
+            if (isInRange(mRecyclerView.getChildPosition(child))) {
+                mAnimator.restore(child, mDirection.getAxis(), velocity);
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Dismiss the items of the range and end the range.
+     *
+     * @param queue     queue removing the items once animated.
+     * @param direction -1 to dismiss to the start (left or top), 1 to the end (right or bottom).
+     * @param velocity  release velocity along the swipe axis, in pixels per second.
+     * @param watchdog  delay after which the items are removed if the end of their animation
+     *                  hasn't been reported.
+     */
+    void dismiss(DismissQueue queue, int direction, float velocity, long watchdog) {
+        queue.enqueueRange(mStart, getItemCount(), watchdog);
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            View child = mRecyclerView.getChildAt(i);
+            if (isInRange(mRecyclerView.getChildPosition(child))) {
+                mAnimator.dismiss(child, mDirection.getAxis(), direction, velocity);
+            }
+        }
+        reset();
+    }
+
+    /**
+     * End the range, the items are left as is.
+     */
+    void reset() {
+        mAnchor = RecyclerView.NO_POSITION;
+        mFrameTicker.stop();
+        if (mObservedAdapter != null) {
+            mObservedAdapter.unregisterAdapterDataObserver(mRangeKeeper);
+            mObservedAdapter = null;
+        }
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        if (!isActive()) {
+            return false;
+        }
+        float ratio = getAutoScrollRatio();
+        int direction = ratio < 0 ? -1 : 1;
+        if (ratio == 0 || !canScroll(direction)) {
+            // out of the hot zones or reached one end of the list.
+            return false;
+        }
+
+        long elapsed = mLastFrameTimeNanos == 0 ? DEFAULT_FRAME_NANOS : frameTimeNanos - mLastFrameTimeNanos;
+        elapsed = Math.max(0, Math.min(elapsed, MAX_FRAME_NANOS));
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        mPendingDistance += mMaxScrollSpeed * ratio * elapsed / NANOS_PER_SECOND;
+        int distance = (int) mPendingDistance;
+        mPendingDistance -= distance;
+        if (distance != 0) {
+            if (mDirection.getAxis() == Axis.HORIZONTAL) {
+                mRecyclerView.scrollBy(0, distance);
+            } else {
+                mRecyclerView.scrollBy(distance, 0);
+            }
+            // other items are now under the pointer.
+            update();
+        }
+        return true;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+        if (isActive() && isInRange(mRecyclerView.getChildPosition(view))) {
+            mDirection.animateDismissMotion(view, mOffset, mAlpha);
+        }
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        // recycled views must come back at rest.
+        if (isActive() && isInRange(mRecyclerView.getChildPosition(view))) {
+            restoreNow(view);
+        }
+    }
+
+    /**
+     * Extend or shrink the range to the item under the pointer and move its items.
+     */
+    private void update() {
+        int position = findPositionUnder(mPointer);
+        if (position != RecyclerView.NO_POSITION && position != mPointerPosition) {
+            mPointerPosition = position;
+            int start = mAnchor;
+            int end = mAnchor;
+            // up to the pointer, the range stops before the first item which can't be swiped.
+            while (start > position && isSwipeable(start - 1)) {
+                start--;
+            }
+            while (end < position && isSwipeable(end + 1)) {
+                end++;
+            }
+            for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+                View child = mRecyclerView.getChildAt(i);
+                int childPosition = mRecyclerView.getChildPosition(child);
+                if (isInRange(childPosition) && (childPosition < start || childPosition > end)) {
+                    restoreNow(child);
+                }
+            }
+            mStart = start;
+            mEnd = end;
+        }
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            View child = mRecyclerView.getChildAt(i);
+            if (isInRange(mRecyclerView.getChildPosition(child))) {
+                mDirection.animateDismissMotion(child, mOffset, mAlpha);
+            }
+        }
+    }
+
+    /**
+     * Find the item laid out under a coordinate across the swipe axis.
+     *
+     * @param pointer coordinate relative to the recycler view.
+     * @return adapter position, {@link RecyclerView#NO_POSITION} if none.
+     */
+    private int findPositionUnder(float pointer) {
+        boolean horizontal = mDirection.getAxis() == Axis.HORIZONTAL;
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            View child = mRecyclerView.getChildAt(i);
+            int start = horizontal ? child.getTop() : child.getLeft();
+            int end = horizontal ? child.getBottom() : child.getRight();
+            if (start <= pointer && pointer < end) {
+                return mRecyclerView.getChildPosition(child);
+            }
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Used to know if an item can join the range : its direction must allow every motion allowed
+     * to the first swiped item.
+     *
+     * @param position adapter position.
+     * @return true if the item can be swiped along with the first swiped item.
+     */
+    private boolean isSwipeable(int position) {
+        if (position < 0 || position >= mRecyclerView.getAdapter().getItemCount()) {
+            return false;
+        }
+        SwipeToDismissDirection direction = mStrategy.getDismissDirection(position);
+        if (direction == SwipeToDismissDirection.NONE || direction.getAxis() != mDirection.getAxis()) {
+            return false;
+        }
+        int sign = direction.getAllowedSign();
+        return sign == 0 || sign == mDirection.getAllowedSign();
+    }
+
+    private boolean isInRange(int position) {
+        return position != RecyclerView.NO_POSITION && mStart <= position && position <= mEnd;
+    }
+
+    /**
+     * Put back the views of a range of positions, as laid out.
+     *
+     * @param from first position.
+     * @param to   last position, inclusive.
+     */
+    private void restoreRange(int from, int to) {
+        for (int i = mRecyclerView.getChildCount() - 1; i >= 0; i--) {
+            View child = mRecyclerView.getChildAt(i);
+            int position = mRecyclerView.getChildPosition(child);
+            if (position != RecyclerView.NO_POSITION && from <= position && position <= to) {
+                restoreNow(child);
+            }
+        }
+    }
+
+    private void restoreNow(View view) {
+        mAnimator.cancel(view);
+        view.setTranslationX(0);
+        view.setTranslationY(0);
+        view.setAlpha(1);
+    }
+
+    /**
+     * Define how deep the pointer is within the auto scroll hot zones of the list.
+     *
+     * @return ratio in [-1, 1], 0 outside the hot zones.
+     */
+    private float getAutoScrollRatio() {
+        int containerSize = mDirection.getAxis() == Axis.HORIZONTAL
+                ? mRecyclerView.getHeight() : mRecyclerView.getWidth();
+        return DragGeometry.getAutoScrollRatio(mPointer - mItemSize / 2f, mItemSize, containerSize);
+    }
+
+    private boolean canScroll(int direction) {
+        return mDirection.getAxis() == Axis.HORIZONTAL
+                ? mRecyclerView.canScrollVertically(direction) : mRecyclerView.canScrollHorizontally(direction);
+    }
+
+    /**
+     * Keep the range on the same items while the adapter is updated during the gesture, so that
+     * the dismissed items are the swiped ones.
+     * <p/>
+     * Views keep their previous positions until the next layout pass, the views of the items
+     * leaving the range are put back from those. The range is extended again on the next move.
+     */
+    private final class RangeKeeper extends RecyclerView.AdapterDataObserver {
+
+        @Override
+        public void onChanged() {
+            // items can't be followed anymore, only the swiped item is left as is.
+            restoreRange(mStart, mAnchor - 1);
+            restoreRange(mAnchor + 1, mEnd);
+            reset();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            if (positionStart > mEnd || positionStart + itemCount <= mStart) {
+                return;
+            }
+            // changed items may not be swipeable anymore.
+            int start = mAnchor;
+            int end = mAnchor;
+            while (start > mStart && isSwipeable(start - 1)) {
+                start--;
+            }
+            while (end < mEnd && isSwipeable(end + 1)) {
+                end++;
+            }
+            if (start != mStart || end != mEnd) {
+                restoreRange(mStart, start - 1);
+                restoreRange(end + 1, mEnd);
+                mStart = start;
+                mEnd = end;
+                mPointerPosition = RecyclerView.NO_POSITION;
+            }
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            if (positionStart > mStart && positionStart <= mEnd) {
+                // the range stops before the inserted items.
+                if (positionStart <= mAnchor) {
+                    restoreRange(mStart, positionStart - 1);
+                    mStart = positionStart;
+                } else {
+                    restoreRange(positionStart, mEnd);
+                    mEnd = positionStart - 1;
+                }
+                mPointerPosition = RecyclerView.NO_POSITION;
+            }
+            mAnchor = shiftInserted(mAnchor, positionStart, itemCount);
+            mStart = shiftInserted(mStart, positionStart, itemCount);
+            mEnd = shiftInserted(mEnd, positionStart, itemCount);
+            mPointerPosition = shiftInserted(mPointerPosition, positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            int removedEnd = positionStart + itemCount;
+            if (mStart >= positionStart && mEnd < removedEnd) {
+                // every swiped item is gone.
+                reset();
+                return;
+            }
+            if (mAnchor >= positionStart && mAnchor < removedEnd) {
+                // the range goes on from the closest item left.
+                mAnchor = mEnd >= removedEnd ? removedEnd : positionStart - 1;
+            }
+            mAnchor = shiftRemoved(mAnchor, positionStart, itemCount, positionStart);
+            mStart = shiftRemoved(mStart, positionStart, itemCount, positionStart);
+            mEnd = shiftRemoved(mEnd, positionStart, itemCount, positionStart - 1);
+            mPointerPosition = shiftRemoved(mPointerPosition, positionStart, itemCount, RecyclerView.NO_POSITION);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            int low = Math.min(fromPosition, toPosition);
+            int high = Math.max(fromPosition, toPosition);
+            if (high < mStart || low > mEnd) {
+                return;
+            }
+            if (low < mStart && high > mEnd) {
+                // moved across the whole range.
+                int shift = fromPosition < toPosition ? -1 : 1;
+                mAnchor += shift;
+                mStart += shift;
+                mEnd += shift;
+                mPointerPosition = shiftMoved(mPointerPosition, fromPosition, toPosition);
+                return;
+            }
+            // moved within the range, it starts again from the first swiped item.
+            restoreRange(mStart, mAnchor - 1);
+            restoreRange(mAnchor + 1, mEnd);
+            mAnchor = shiftMoved(mAnchor, fromPosition, toPosition);
+            mStart = mAnchor;
+            mEnd = mAnchor;
+            mPointerPosition = RecyclerView.NO_POSITION;
+        }
+
+        private int shiftInserted(int position, int positionStart, int itemCount) {
+            return position >= positionStart ? position + itemCount : position;
+        }
+
+        private int shiftRemoved(int position, int positionStart, int itemCount, int removed) {
+            if (position < positionStart) {
+                return position;
+            }
+            return position >= positionStart + itemCount ? position - itemCount : removed;
+        }
+
+        private int shiftMoved(int position, int fromPosition, int toPosition) {
+            if (position == fromPosition) {
+                return toPosition;
+            }
+            if (fromPosition < toPosition && position > fromPosition && position <= toPosition) {
+                return position - 1;
+            }
+            if (fromPosition > toPosition && position >= toPosition && position < fromPosition) {
+                return position + 1;
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.annotation.TargetApi;
+import android.content.ContentResolver;
+import android.os.Build;
+import android.provider.Settings;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.Decay;
+import com.netcosports.recyclergesture.core.Spring;
+import com.netcosports.recyclergesture.core.SwipeTracker;
+import com.netcosports.recyclergesture.library.FrameTicker;
+
+import java.util.Arrays;
+
+/**
+ * Physics based animations of the released items, started from the release velocity.
+ * <p/>
+ * A dismissed item flies out : flung fast enough to leave on its own within a few frames, it keeps
+ * its velocity slowed down by friction, otherwise a spring pulls it out from its release velocity.
+ * A fling barely reaching the edge would approach it asymptotically, slower than the spring. Either
+ * way the animation ends as soon as the
+ * item crossed its own size, which happens within a few frames for fast flings, and its end is
+ * reported to the {@link DismissQueue} so that the list collapses right away. A canceled swipe is
+ * pulled back by a critically damped spring carrying the velocity the item had when released.
+ * <p/>
+ * Every animated item is stepped from a single frame callback, its state being held in parallel
+ * arrays, so that no allocation happens per frame. The opacity follows the offset exactly as while
+ * swiping.
+ */
+final class SwipeAnimator implements FrameTicker.Callback, RecyclerView.OnChildAttachStateChangeListener {
+
+    /**
+     * Upper bound of the duration of a dismiss animation, in milliseconds, before scaling.
+     */
+    static final long MAX_DISMISS_MILLIS = 300;
+
+    /**
+     * Initial capacity, enough for the items of a range dismissed at once.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Longest time a dismissed item may take to leave on its own, in seconds, about the time the
+     * exit spring takes from rest. Slower flings are handed over to the exit spring.
+     */
+    private static final float MAX_FLING_SECONDS = 0.08f;
+
+    /**
+     * Spring pulling a dismissed item out, slightly bouncy so that it crosses its size quickly.
+     */
+    private static final float EXIT_STIFFNESS = Spring.STIFFNESS_MEDIUM;
+    private static final float EXIT_DAMPING_RATIO = 0.75f;
+
+    /**
+     * Spring pulling a canceled item back, without overshooting.
+     */
+    private static final float RETURN_STIFFNESS = 800f;
+
+    /**
+     * Distance to its target below which an item settled, in pixels.
+     */
+    private static final float REST_DISTANCE = 0.5f;
+
+    /**
+     * Speed below which an item settled, in pixels per second.
+     */
+    private static final float REST_VELOCITY = 10f;
+
+    /**
+     * Elapsed time assumed for the first frame, in nanoseconds.
+     */
+    private static final long DEFAULT_FRAME_NANOS = 16666667L;
+
+    /**
+     * Maximum elapsed time taken into account for a frame, in nanoseconds.
+     */
+    private static final long MAX_FRAME_NANOS = 50000000L;
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    private static final float NANOS_PER_SECOND = 1000000000f;
+
+    // Motions of the animated items.
+    private static final int MOTION_RETURN = 0;
+    private static final int MOTION_EXIT = 1;
+    private static final int MOTION_FLING = 2;
+
+    private final RecyclerView mRecyclerView;
+    private final DismissQueue mDismissQueue;
+    private final FrameTicker mFrameTicker;
+
+    // Integrators, loaded with the state of each item in turn.
+    private final Spring mExitSpring;
+    private final Spring mReturnSpring;
+    private final Decay mDecay;
+
+    // Animated items, only the first mCount entries are meaningful.
+    private View[] mViews;
+    private boolean[] mHorizontal;
+    private int[] mMotions;
+    private float[] mOffsets;
+    private float[] mVelocities;
+    private float[] mTargets;
+    private int[] mSizes;
+    private int mCount;
+
+    /**
+     * Scale of the animations time, 0 to end them right away.
+     */
+    private float mDurationScale = 1f;
+
+    private long mLastFrameTimeNanos;
+
+    /**
+     * Animations of the released items of a recycler view.
+     *
+     * @param recyclerView recycler view whose items are animated.
+     * @param dismissQueue queue notified of the end of the dismiss animations.
+     */
+    SwipeAnimator(RecyclerView recyclerView, DismissQueue dismissQueue) {
+        mRecyclerView = recyclerView;
+        mDismissQueue = dismissQueue;
+        mFrameTicker = new FrameTicker(recyclerView, this);
+        mExitSpring = new Spring(EXIT_STIFFNESS, EXIT_DAMPING_RATIO);
+        mReturnSpring = new Spring(RETURN_STIFFNESS, Spring.DAMPING_RATIO_NO_BOUNCY);
+        mDecay = new Decay(Decay.FRICTION_DEFAULT);
+        mViews = new View[INITIAL_CAPACITY];
+        mHorizontal = new boolean[INITIAL_CAPACITY];
+        mMotions = new int[INITIAL_CAPACITY];
+        mOffsets = new float[INITIAL_CAPACITY];
+        mVelocities = new float[INITIAL_CAPACITY];
+        mTargets = new float[INITIAL_CAPACITY];
+        mSizes = new int[INITIAL_CAPACITY];
+        recyclerView.addOnChildAttachStateChangeListener(this);
+    }
+
+    /**
+     * Fly a dismissed item out, its end is reported through {@link DismissQueue#markReady(View)}.
+     *
+     * @param view      view of the dismissed item.
+     * @param axis      swipe axis.
+     * @param direction -1 to dismiss to the start (left or top), 1 to the end (right or bottom).
+     * @param velocity  release velocity along the swipe axis, in pixels per second.
+     */
+    void dismiss(View view, Axis axis, int direction, float velocity) {
+        boolean horizontal = axis == Axis.HORIZONTAL;
+        int size = horizontal ? view.getWidth() : view.getHeight();
+        float offset = horizontal ? view.getTranslationX() : view.getTranslationY();
+        float target = direction * size;
+        mDecay.start(offset, velocity);
+        // fast enough to leave on its own, otherwise pulled out.
+        int motion = mDecay.getTimeTo(target) <= MAX_FLING_SECONDS ? MOTION_FLING : MOTION_EXIT;
+        start(view, horizontal, motion, offset, velocity, target, size);
+    }
+
+    /**
+     * Pull a released item back to rest.
+     *
+     * @param view     view of the released item.
+     * @param axis     swipe axis.
+     * @param velocity release velocity along the swipe axis, in pixels per second.
+     */
+    void restore(View view, Axis axis, float velocity) {
+        boolean horizontal = axis == Axis.HORIZONTAL;
+        int size = horizontal ? view.getWidth() : view.getHeight();
+        float offset = horizontal ? view.getTranslationX() : view.getTranslationY();
+        start(view, horizontal, MOTION_RETURN, offset, velocity, 0, size);
+    }
+
+    /**
+     * Stop animating a view, left where it is.
+     *
+     * @param view animated view.
+     */
+    void cancel(View view) {
+        int index = indexOf(view);
+        if (index != -1) {
+            remove(index);
+        }
+    }
+
+    /**
+     * Used to know if a view is flying out.
+     *
+     * @param view view.
+     * @return true if its dismiss animation is running.
+     */
+    boolean isDismissing(View view) {
+        int index = indexOf(view);
+        return index != -1 && mMotions[index] != MOTION_RETURN;
+    }
+
+    /**
+     * Delay after which the watchdog of the {@link DismissQueue} removes an item whose dismiss
+     * animation end hasn't been reported.
+     *
+     * @param slackMillis delay added to the longest dismiss animation.
+     * @return delay in milliseconds.
+     */
+    long getWatchdogMillis(long slackMillis) {
+        return (long) (MAX_DISMISS_MILLIS * getAnimatorDurationScale()) + slackMillis;
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        long elapsed = mLastFrameTimeNanos == 0 ? DEFAULT_FRAME_NANOS : frameTimeNanos - mLastFrameTimeNanos;
+        elapsed = Math.max(0, Math.min(elapsed, MAX_FRAME_NANOS));
+        mLastFrameTimeNanos = frameTimeNanos;
+        step(mDurationScale == 0 ? Float.MAX_VALUE : elapsed / NANOS_PER_SECOND / mDurationScale);
+        return mCount > 0;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        // a detached view jumps to the end of its animation, recycled views must come back at rest.
+        int index = indexOf(view);
+        if (index != -1) {
+            mOffsets[index] = mTargets[index];
+            finish(index);
+        }
+    }
+
+    /**
+     * Advance every animated item.
+     *
+     * @param seconds elapsed time, in seconds.
+     */
+    void step(float seconds) {
+        for (int i = mCount - 1; i >= 0; i--) {
+            float offset;
+            float velocity;
+            boolean ended;
+            float target = mTargets[i];
+            if (mMotions[i] == MOTION_FLING) {
+                mDecay.start(mOffsets[i], mVelocities[i]);
+                mDecay.step(seconds);
+                offset = mDecay.getPosition();
+                velocity = mDecay.getVelocity();
+                ended = mDecay.isAtRest(REST_VELOCITY);
+            } else {
+                Spring spring = mMotions[i] == MOTION_RETURN ? mReturnSpring : mExitSpring;
+                spring.start(mOffsets[i], mVelocities[i], target);
+                spring.step(seconds);
+                offset = spring.getPosition();
+                velocity = spring.getVelocity();
+                ended = spring.isAtRest(REST_DISTANCE, REST_VELOCITY);
+            }
+            // a dismissed item is gone once it crossed its size.
+            if (mMotions[i] != MOTION_RETURN && (offset - target) * Math.signum(target) >= 0) {
+                ended = true;
+            }
+            mOffsets[i] = ended ? target : offset;
+            mVelocities[i] = velocity;
+            if (ended) {
+                finish(i);
+            } else {
+                apply(i);
+            }
+        }
+    }
+
+    /**
+     * Start or retarget the animation of a view.
+     *
+     * @param view       animated view.
+     * @param horizontal true if animated along x.
+     * @param motion     motion of the view.
+     * @param offset     current offset of the view along the swipe axis.
+     * @param velocity   current velocity, in pixels per second.
+     * @param target     offset the view settles on.
+     * @param size       size of the view along the swipe axis.
+     */
+    private void start(View view, boolean horizontal, int motion, float offset, float velocity, float target,
+                       int size) {
+        int index = indexOf(view);
+        if (index == -1) {
+            if (mCount == mViews.length) {
+                grow();
+            }
+            index = mCount++;
+        }
+        mViews[index] = view;
+        mHorizontal[index] = horizontal;
+        mMotions[index] = motion;
+        mOffsets[index] = offset;
+        mVelocities[index] = velocity;
+        mTargets[index] = target;
+        mSizes[index] = Math.max(1, size);
+        if (!mFrameTicker.isRunning()) {
+            mDurationScale = getAnimatorDurationScale();
+            mLastFrameTimeNanos = 0;
+            mFrameTicker.start();
+        }
+    }
+
+    /**
+     * Move an animated view to its current offset.
+     *
+     * @param index index of the animation.
+     */
+    private void apply(int index) {
+        View view = mViews[index];
+        float offset = mOffsets[index];
+        if (mHorizontal[index]) {
+            view.setTranslationX(offset);
+        } else {
+            view.setTranslationY(offset);
+        }
+        view.setAlpha(SwipeTracker.getSwipeAlpha(offset, mSizes[index]));
+    }
+
+    /**
+     * End the animation of a view, reported to the queue if dismissed.
+     *
+     * @param index index of the animation.
+     */
+    private void finish(int index) {
+        View view = mViews[index];
+        boolean dismissed = mMotions[index] != MOTION_RETURN;
+        apply(index);
+        remove(index);
+        if (dismissed) {
+            mDismissQueue.markReady(view);
+        }
+    }
+
+    /**
+     * Remove an animation, the last one takes its place.
+     *
+     * @param index index of the animation.
+     */
+    private void remove(int index) {
+        int last = --mCount;
+        mViews[index] = mViews[last];
+        mHorizontal[index] = mHorizontal[last];
+        mMotions[index] = mMotions[last];
+        mOffsets[index] = mOffsets[last];
+        mVelocities[index] = mVelocities[last];
+        mTargets[index] = mTargets[last];
+        mSizes[index] = mSizes[last];
+        mViews[last] = null;
+    }
+
+    private void grow() {
+        int capacity = mCount * 2;
+        mViews = Arrays.copyOf(mViews, capacity);
+        mHorizontal = Arrays.copyOf(mHorizontal, capacity);
+        mMotions = Arrays.copyOf(mMotions, capacity);
+        mOffsets = Arrays.copyOf(mOffsets, capacity);
+        mVelocities = Arrays.copyOf(mVelocities, capacity);
+        mTargets = Arrays.copyOf(mTargets, capacity);
+        mSizes = Arrays.copyOf(mSizes, capacity);
+    }
+
+    private int indexOf(View view) {
+        for (int i = 0; i < mCount; i++) {
+            if (mViews[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Scale applied by the system to the animator durations, 0 if animations are disabled.
+     *
+     * @return duration scale.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private float getAnimatorDurationScale() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return 1f;
+        }
+        ContentResolver resolver = mRecyclerView.getContext().getContentResolver();
+        return Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+    }
+}
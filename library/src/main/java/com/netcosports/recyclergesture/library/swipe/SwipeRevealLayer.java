@@ -0,0 +1,502 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.library.FrameTicker;
+
+import java.util.Arrays;
+
+/**
+ * Actions revealed behind a partially swiped item, such as archive, mute or pin.
+ * <p/>
+ * Actions aren't views inflated in each item : the layer draws them under the children, in the
+ * gap left by the swiped item, from drawables and colors shared by every item. A released item
+ * settles either closed or open with all its actions revealed, and only one item is open at a
+ * time : opening another one, or touching anywhere else, slides the open item back.
+ * <p/>
+ * Settle animations are driven by a {@link FrameTicker}, nothing is allocated once the actions
+ * have been added.
+ */
+public final class SwipeRevealLayer extends RecyclerView.ItemDecoration
+        implements FrameTicker.Callback, RecyclerView.OnChildAttachStateChangeListener {
+
+    /**
+     * Index returned when no action is found.
+     */
+    static final int NO_ACTION = -1;
+
+    /**
+     * Initial capacity of the actions.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final int mActionSize;
+    private final OnActionClickListener mListener;
+    private final Paint mPaint;
+    private final Rect mGap;
+    private final Rect mSlot;
+
+    // Actions, only the first mActionCount entries are meaningful.
+    private int[] mActionIds;
+    private Drawable[] mIcons;
+    private int[] mColors;
+    private int mActionCount;
+
+    /**
+     * Recycler view the layer is drawn on, null if not attached yet.
+     */
+    private RecyclerView mRecyclerView;
+    private FrameTicker mFrameTicker;
+    private long mAnimationTime;
+
+    /**
+     * Item swiped, open or settling, and item sliding back after another one has been swiped.
+     */
+    private Row mActive;
+    private Row mClosing;
+
+    /**
+     * Actions revealed behind a partially swiped item.
+     *
+     * @param actionSize size of an action along the swipe axis, in pixels.
+     * @param listener   listener notified when a revealed action is clicked.
+     */
+    public SwipeRevealLayer(int actionSize, OnActionClickListener listener) {
+        if (actionSize <= 0) {
+            throw new IllegalArgumentException("Action size must be positive : " + actionSize);
+        }
+        mActionSize = actionSize;
+        mListener = listener;
+        mPaint = new Paint();
+        mPaint.setStyle(Paint.Style.FILL);
+        mGap = new Rect();
+        mSlot = new Rect();
+        mActionIds = new int[INITIAL_CAPACITY];
+        mIcons = new Drawable[INITIAL_CAPACITY];
+        mColors = new int[INITIAL_CAPACITY];
+        mActionCount = 0;
+        mActive = new Row();
+        mClosing = new Row();
+    }
+
+    /**
+     * Add an action, actions are laid out from the edge the item is swiped away from.
+     *
+     * @param actionId identifier passed to the listener when the action is clicked.
+     * @param icon     icon drawn centered in the action, null for none. Shared by every item.
+     * @param color    background color of the action.
+     * @return this layer, to chain the actions.
+     */
+    public SwipeRevealLayer addAction(int actionId, Drawable icon, int color) {
+        if (mActionCount == mActionIds.length) {
+            int capacity = mActionCount * 2;
+            mActionIds = Arrays.copyOf(mActionIds, capacity);
+            mIcons = Arrays.copyOf(mIcons, capacity);
+            mColors = Arrays.copyOf(mColors, capacity);
+        }
+        mActionIds[mActionCount] = actionId;
+        mIcons[mActionCount] = icon;
+        mColors[mActionCount] = color;
+        mActionCount++;
+        return this;
+    }
+
+    /**
+     * Number of actions.
+     *
+     * @return action count.
+     */
+    public int getActionCount() {
+        return mActionCount;
+    }
+
+    /**
+     * Distance an item travels to reveal every action.
+     *
+     * @return reveal size in pixels.
+     */
+    public int getRevealSize() {
+        return mActionCount * mActionSize;
+    }
+
+    /**
+     * Adapter position of the open item.
+     *
+     * @return position, {@link RecyclerView#NO_POSITION} if no item is open.
+     */
+    public int getOpenPosition() {
+        if (mActive.mView == null || mActive.mTarget == 0 || mRecyclerView == null) {
+            return RecyclerView.NO_POSITION;
+        }
+        return mRecyclerView.getChildPosition(mActive.mView);
+    }
+
+    /**
+     * Slide the open item back, if any.
+     */
+    public void close() {
+        if (mActive.mView != null && mActive.mTarget != 0) {
+            settle(mActive.mView, mActive.mAxis, 0);
+        }
+    }
+
+    /**
+     * Draw the layer under the children of a recycler view.
+     * private package.
+     *
+     * @param recyclerView  recycler view whose items reveal the actions.
+     * @param animationTime duration of the settle animations.
+     */
+    void attach(RecyclerView recyclerView, long animationTime) {
+        if (mRecyclerView == recyclerView) {
+            return;
+        }
+        if (mRecyclerView != null) {
+            throw new IllegalStateException("Reveal layer already attached to another recycler view");
+        }
+        mRecyclerView = recyclerView;
+        mAnimationTime = animationTime;
+        mFrameTicker = new FrameTicker(recyclerView, this);
+        recyclerView.addItemDecoration(this);
+        recyclerView.addOnChildAttachStateChangeListener(this);
+    }
+
+    /**
+     * Offset of an item revealing the actions.
+     * private package.
+     *
+     * @param view child of the recycler view.
+     * @return offset along the swipe axis, 0 if the item doesn't reveal the actions.
+     */
+    float getOffset(View view) {
+        if (view == null) {
+            return 0;
+        } else if (mActive.mView == view) {
+            return mActive.getOffset();
+        } else if (mClosing.mView == view) {
+            return mClosing.getOffset();
+        }
+        return 0;
+    }
+
+    /**
+     * Move an item under the pointer, the previous item slides back.
+     * private package.
+     *
+     * @param view   swiped item.
+     * @param axis   swipe axis.
+     * @param offset offset of the item along the swipe axis.
+     */
+    void track(View view, Axis axis, float offset) {
+        activate(view, axis);
+        mActive.mAnimating = false;
+        mActive.mTarget = offset;
+        mActive.setOffset(offset);
+        mRecyclerView.invalidate();
+    }
+
+    /**
+     * Animate an item to its resting offset, the previous item slides back.
+     * private package.
+     *
+     * @param view   released item.
+     * @param axis   swipe axis.
+     * @param offset resting offset, 0 to close the item.
+     */
+    void settle(View view, Axis axis, float offset) {
+        activate(view, axis);
+        mActive.animateTo(offset, SystemClock.uptimeMillis());
+        mFrameTicker.start();
+    }
+
+    /**
+     * Find the action of the open item under a point.
+     * private package.
+     *
+     * @param x abscissa in the recycler view.
+     * @param y ordinate in the recycler view.
+     * @return index of the action, {@link #NO_ACTION} if none.
+     */
+    int findAction(float x, float y) {
+        if (mActive.mView == null || mActive.getOffset() == 0) {
+            return NO_ACTION;
+        }
+        getGap(mActive, mGap);
+        if (!mGap.contains((int) x, (int) y)) {
+            return NO_ACTION;
+        }
+        for (int i = 0; i < mActionCount; i++) {
+            getSlot(mActive, i, mSlot);
+            if (mSlot.contains((int) x, (int) y)) {
+                return i;
+            }
+        }
+        return NO_ACTION;
+    }
+
+    /**
+     * Close the open item and notify the listener that one of its actions has been clicked.
+     * private package.
+     *
+     * @param index index of the action.
+     * @return adapter position of the item.
+     */
+    int performAction(int index) {
+        int position = mRecyclerView.getChildPosition(mActive.mView);
+        close();
+        if (position != RecyclerView.NO_POSITION && mListener != null) {
+            mListener.onActionClicked(position, mActionIds[index]);
+        }
+        return position;
+    }
+
+    @Override
+    public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
+        drawActions(c, parent, mClosing);
+        drawActions(c, parent, mActive);
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        // start times follow the uptime clock, as the frame time of the fallback scheduler doesn't.
+        long now = SystemClock.uptimeMillis();
+        boolean active = step(mActive, now);
+        boolean closing = step(mClosing, now);
+        // translating a child doesn't redraw the decorations.
+        mRecyclerView.invalidate();
+        return active || closing;
+    }
+
+    @Override
+    public void onChildViewAttachedToWindow(View view) {
+
+    }
+
+    @Override
+    public void onChildViewDetachedFromWindow(View view) {
+        // recycled views must come back closed.
+        if (mActive.mView == view) {
+            mActive.clear();
+        } else if (mClosing.mView == view) {
+            mClosing.clear();
+        }
+    }
+
+    /**
+     * Make an item the active one, the previous active item slides back.
+     *
+     * @param view item.
+     * @param axis swipe axis.
+     */
+    private void activate(View view, Axis axis) {
+        if (mActive.mView == view) {
+            return;
+        }
+        if (mClosing.mView == view) {
+            // taken back while sliding back, keep it where it is.
+            mClosing.mView = null;
+            mClosing.mAnimating = false;
+        }
+        if (mActive.mView != null) {
+            if (mClosing.mView != null) {
+                mClosing.clear();
+            }
+            Row closing = mActive;
+            mActive = mClosing;
+            mClosing = closing;
+            mClosing.animateTo(0, SystemClock.uptimeMillis());
+            mFrameTicker.start();
+        }
+        mActive.mView = view;
+        mActive.mAxis = axis;
+        mActive.mTarget = 0;
+        mActive.mAnimating = false;
+    }
+
+    /**
+     * Advance the settle animation of a row.
+     *
+     * @param row row.
+     * @param now current uptime, in milliseconds.
+     * @return true if still animating.
+     */
+    private boolean step(Row row, long now) {
+        if (row.mView == null || !row.mAnimating) {
+            return false;
+        }
+        float u = mAnimationTime <= 0 ? 1f : Math.min(1f, (float) (now - row.mStartTime) / mAnimationTime);
+        // decelerate.
+        float eased = 1f - (1f - u) * (1f - u);
+        row.setOffset(row.mFrom + (row.mTarget - row.mFrom) * eased);
+        if (u < 1f) {
+            return true;
+        }
+        row.mAnimating = false;
+        if (row.mTarget == 0) {
+            row.mView = null;
+        }
+        return false;
+    }
+
+    /**
+     * Draw the actions revealed by a row.
+     *
+     * @param c      canvas of the recycler view.
+     * @param parent recycler view.
+     * @param row    row.
+     */
+    private void drawActions(Canvas c, RecyclerView parent, Row row) {
+        if (row.mView == null || row.mView.getParent() != parent || row.getOffset() == 0) {
+            return;
+        }
+        getGap(row, mGap);
+        c.save();
+        c.clipRect(mGap);
+        for (int i = 0; i < mActionCount; i++) {
+            getSlot(row, i, mSlot);
+            mPaint.setColor(mColors[i]);
+            c.drawRect(mSlot, mPaint);
+            Drawable icon = mIcons[i];
+            if (icon != null) {
+                int width = icon.getIntrinsicWidth();
+                int height = icon.getIntrinsicHeight();
+                if (width < 0 || height < 0) {
+                    icon.setBounds(mSlot);
+                } else {
+                    int left = mSlot.centerX() - width / 2;
+                    int top = mSlot.centerY() - height / 2;
+                    icon.setBounds(left, top, left + width, top + height);
+                }
+                icon.draw(c);
+            }
+        }
+        c.restore();
+    }
+
+    /**
+     * Area uncovered by a swiped row.
+     *
+     * @param row row.
+     * @param gap rect set to the area, in the recycler view coordinates.
+     */
+    private void getGap(Row row, Rect gap) {
+        View view = row.mView;
+        int offset = Math.round(row.getOffset());
+        if (row.mAxis == Axis.HORIZONTAL) {
+            if (offset > 0) {
+                gap.set(view.getLeft(), view.getTop(), view.getLeft() + offset, view.getBottom());
+            } else {
+                gap.set(view.getRight() + offset, view.getTop(), view.getRight(), view.getBottom());
+            }
+        } else {
+            if (offset > 0) {
+                gap.set(view.getLeft(), view.getTop(), view.getRight(), view.getTop() + offset);
+            } else {
+                gap.set(view.getLeft(), view.getBottom() + offset, view.getRight(), view.getBottom());
+            }
+        }
+    }
+
+    /**
+     * Slot of an action revealed by a swiped row, laid out from the edge the row is swiped away from.
+     *
+     * @param row   row.
+     * @param index index of the action.
+     * @param slot  rect set to the slot, in the recycler view coordinates.
+     */
+    private void getSlot(Row row, int index, Rect slot) {
+        View view = row.mView;
+        boolean toEnd = row.getOffset() > 0;
+        if (row.mAxis == Axis.HORIZONTAL) {
+            int left = toEnd ? view.getLeft() + index * mActionSize : view.getRight() - (index + 1) * mActionSize;
+            slot.set(left, view.getTop(), left + mActionSize, view.getBottom());
+        } else {
+            int top = toEnd ? view.getTop() + index * mActionSize : view.getBottom() - (index + 1) * mActionSize;
+            slot.set(view.getLeft(), top, view.getRight(), top + mActionSize);
+        }
+    }
+
+    /**
+     * Listener notified when a revealed action is clicked.
+     */
+    public interface OnActionClickListener {
+        /**
+         * Called when a revealed action is clicked, the item is being closed.
+         *
+         * @param position adapter position of the item.
+         * @param actionId identifier of the action.
+         */
+        void onActionClicked(int position, int actionId);
+    }
+
+    /**
+     * Item revealing the actions.
+     */
+    private static final class Row {
+
+        /**
+         * Item, null if none.
+         */
+        private View mView;
+        private Axis mAxis;
+
+        /**
+         * Offset at the start of the settle animation, and resting offset.
+         */
+        private float mFrom;
+        private float mTarget;
+        private long mStartTime;
+        private boolean mAnimating;
+
+        /**
+         * Current offset of the item along the swipe axis.
+         *
+         * @return offset.
+         */
+        float getOffset() {
+            return mAxis == Axis.HORIZONTAL ? mView.getTranslationX() : mView.getTranslationY();
+        }
+
+        /**
+         * Translate the item along the swipe axis.
+         *
+         * @param offset offset.
+         */
+        void setOffset(float offset) {
+            if (mAxis == Axis.HORIZONTAL) {
+                mView.setTranslationX(offset);
+            } else {
+                mView.setTranslationY(offset);
+            }
+        }
+
+        /**
+         * Start animating the item from its current offset.
+         *
+         * @param target resting offset.
+         * @param now    current uptime, in milliseconds.
+         */
+        void animateTo(float target, long now) {
+            mFrom = getOffset();
+            mTarget = target;
+            mStartTime = now;
+            mAnimating = true;
+        }
+
+        /**
+         * Put the item back closed and forget it.
+         */
+        void clear() {
+            setOffset(0);
+            mView = null;
+            mAnimating = false;
+        }
+    }
+}
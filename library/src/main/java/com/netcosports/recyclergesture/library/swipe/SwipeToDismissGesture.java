@@ -2,7 +2,9 @@ package com.netcosports.recyclergesture.library.swipe;
 
 import android.support.v7.widget.RecyclerView;
 
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
 import com.netcosports.recyclergesture.library.RecyclerGesture;
+import com.netcosports.recyclergesture.library.TouchPredictor;
 
 /**
  * Simple swipe to dismiss gesture.
@@ -24,14 +26,27 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
     /**
      * Simple swipe to dismiss gesture.
      *
-     * @param recycler  recycler view on which the gesture will be applied.
-     * @param direction swipe direction.
-     * @param strategy  dismiss strategy applied.
-     * @param dismisser dismisser which will perform the dismiss.
+     * @param recycler   recycler view on which the gesture will be applied.
+     * @param direction  swipe direction.
+     * @param strategy   dismiss strategy applied.
+     * @param dismisser  dismisser which will perform the dismiss.
+     * @param predictor  predictor of the pointer position, null to follow the last touch sample.
+     * @param recorder   recorder of the received events and decisions, null if not recorded.
+     * @param undoBuffer buffer hiding the dismissed items until committed, null to remove them right away.
+     * @param platformVelocityTracker true to estimate the release velocity with the platform tracker.
+     * @param revealLayer layer of the actions revealed by the swiped items, null to dismiss them.
      */
     private SwipeToDismissGesture(RecyclerView recycler, SwipeToDismissDirection direction,
-                                  SwipeToDismissStrategy strategy, Dismisser dismisser) {
-        mSwipeToDismissListener = new SwipeToDismissListener(recycler, direction, strategy, dismisser);
+                                  SwipeToDismissStrategy strategy, Dismisser dismisser,
+                                  TouchPredictor predictor, GestureTraceRecorder recorder,
+                                  SwipeUndoBuffer undoBuffer, boolean platformVelocityTracker,
+                                  SwipeRevealLayer revealLayer) {
+        mSwipeToDismissListener = new SwipeToDismissListener(recycler, direction, strategy, dismisser,
+                predictor);
+        mSwipeToDismissListener.setTraceRecorder(recorder);
+        mSwipeToDismissListener.setUndoBuffer(undoBuffer);
+        mSwipeToDismissListener.setPlatformVelocityTracker(platformVelocityTracker);
+        mSwipeToDismissListener.setRevealLayer(revealLayer);
         recycler.addOnItemTouchListener(mSwipeToDismissListener);
     }
 
@@ -41,6 +56,17 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
         mSwipeToDismissListener.setEnabled(enable);
     }
 
+    /**
+     * Number of dismissals dropped instead of being applied, their item having been removed by
+     * someone else before the end of the dismiss animation, or being impossible to find back after
+     * a notifyDataSetChanged() on an adapter without stable ids.
+     *
+     * @return stale dismissal count since the gesture has been built.
+     */
+    public int getStaleDismissalCount() {
+        return mSwipeToDismissListener.getStaleDismissalCount();
+    }
+
     /**
      * Builder pattern.
      */
@@ -65,6 +91,36 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
          */
         private SwipeToDismissDirection direction;
 
+        /**
+         * predictor of the pointer position, null to follow the last touch sample.
+         */
+        private TouchPredictor predictor;
+
+        /**
+         * recorder of the received events and decisions, null if not recorded.
+         */
+        private GestureTraceRecorder recorder;
+
+        /**
+         * buffer hiding the dismissed items until committed, null to remove them right away.
+         */
+        private SwipeUndoBuffer undoBuffer;
+
+        /**
+         * true to estimate the release velocity with the platform tracker.
+         */
+        private boolean platformVelocityTracker;
+
+        /**
+         * layer of the actions revealed by the swiped items, null to dismiss them.
+         */
+        private SwipeRevealLayer revealLayer;
+
+        /**
+         * true to extend the swipe to the items the pointer moves across.
+         */
+        private boolean rangeSwipe;
+
         /**
          * Builder pattern for {@link SwipeToDismissGesture}
          *
@@ -81,6 +137,12 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
             recyclerView = null;
             dismisser = null;
             strategy = null;
+            predictor = null;
+            recorder = null;
+            undoBuffer = null;
+            platformVelocityTracker = false;
+            revealLayer = null;
+            rangeSwipe = false;
         }
 
         /**
@@ -88,18 +150,16 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
          * <p/>
          * Note : the recycler adapter must implements
          * {@link com.netcosports.recyclergesture.library.swipe.SwipeToDismissGesture.Dismisser} interface to
-         * proceed to the dismiss.
+         * proceed to the dismiss, unless the swiped items reveal actions.
          *
          * @param target recycler view on which the dismiss gesture will be attached.
          * @return builder to chain param.
          */
         public Builder on(RecyclerView target) {
             this.recyclerView = target;
-            if (!(this.recyclerView.getAdapter() instanceof Dismisser)) {
-                throw new IllegalArgumentException("RecyclerView adapter must implement Dismisser"
-                        + " interface to proceed to the data swapping");
+            if (this.recyclerView.getAdapter() instanceof Dismisser) {
+                this.dismisser = ((Dismisser) this.recyclerView.getAdapter());
             }
-            this.dismisser = ((Dismisser) this.recyclerView.getAdapter());
             return this;
         }
 
@@ -116,6 +176,94 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
             return this;
         }
 
+        /**
+         * Translate the swiped item to the pointer position predicted a few milliseconds ahead,
+         * estimated from every touch sample batched in the events. Dismiss is still triggered
+         * from the actual pointer position.
+         * <p/>
+         * Keep a reference on the predictor to read its error metrics, see
+         * {@link TouchPredictor#getPredictionErrorRms()}.
+         *
+         * @param predictor predictor of the pointer position.
+         * @return builder to chain param.
+         */
+        public Builder predict(TouchPredictor predictor) {
+            this.predictor = predictor;
+            return this;
+        }
+
+        /**
+         * Record the touch events received by the gesture and the decisions it takes, such as
+         * swipe start, dismiss and cancel.
+         * <p/>
+         * The recorder keeps the latest records in a ring buffer, dump it with
+         * {@link GestureTraceRecorder#writeTo(java.io.File)} to replay a session in JVM tests.
+         *
+         * @param recorder recorder of the gesture.
+         * @return builder to chain param.
+         */
+        public Builder trace(GestureTraceRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+
+        /**
+         * Let the user undo the latest dismissals : dismissed items are hidden from the adapter
+         * positions and only committed to the dismisser once their undo window expired.
+         * <p/>
+         * Note : the adapter must report {@link SwipeUndoBuffer#getItemCount(int)} items and bind
+         * the data found at {@link SwipeUndoBuffer#getDataPosition(int)}.
+         *
+         * @param undoBuffer buffer of the dismissals which can be undone.
+         * @return builder to chain param.
+         */
+        public Builder undo(SwipeUndoBuffer undoBuffer) {
+            this.undoBuffer = undoBuffer;
+            return this;
+        }
+
+        /**
+         * Estimate the release velocity, used to detect flings, with the platform
+         * {@link android.view.VelocityTracker} instead of the library
+         * {@link com.netcosports.recyclergesture.core.VelocityEstimator}.
+         *
+         * @return builder to chain param.
+         */
+        public Builder platformVelocityTracker() {
+            this.platformVelocityTracker = true;
+            return this;
+        }
+
+        /**
+         * Reveal actions behind the swiped items instead of dismissing them : a released item
+         * settles open with every action revealed, or closed. Only one item is open at a time.
+         * <p/>
+         * Actions are drawn by the layer from resources shared by every item, nothing is inflated
+         * per view holder.
+         *
+         * @param revealLayer layer of the revealed actions.
+         * @return builder to chain param.
+         */
+        public Builder reveal(SwipeRevealLayer revealLayer) {
+            this.revealLayer = revealLayer;
+            return this;
+        }
+
+        /**
+         * Swipe several items at once : once a swipe started, moving the pointer across the list
+         * extends it to every item between the first swiped item and the item under the pointer.
+         * The list scrolls by itself near its ends.
+         * <p/>
+         * A dismissed range is removed at once, through a single
+         * {@link BulkDismisser#dismissRange(int, int)} when the adapter implements it.
+         *
+         * @return builder to chain param.
+         */
+        public Builder rangeSwipe() {
+            this.rangeSwipe = true;
+            return this;
+        }
+
         /**
          * Builder pattern.
          *
@@ -130,7 +278,15 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
                 throw new IllegalStateException("A swipe direction must be specified through withDirection");
             }
 
-            return new SwipeToDismissGesture(recyclerView, direction, strategy, dismisser);
+            if (this.revealLayer == null && this.dismisser == null) {
+                throw new IllegalArgumentException("RecyclerView adapter must implement Dismisser"
+                        + " interface to proceed to the data swapping");
+            }
+
+            SwipeToDismissGesture gesture = new SwipeToDismissGesture(recyclerView, direction, strategy, dismisser,
+                    predictor, recorder, undoBuffer, platformVelocityTracker, revealLayer);
+            gesture.mSwipeToDismissListener.setRangeSwipe(rangeSwipe);
+            return gesture;
         }
     }
 
@@ -145,4 +301,22 @@ public final class SwipeToDismissGesture extends RecyclerGesture {
          */
         void dismiss(int position);
     }
+
+    /**
+     * Dismisser removing contiguous items at once.
+     * <p/>
+     * Items dismissed in a row are removed once their dismiss animation ended, each run of
+     * contiguous positions through a single call and a single
+     * {@link android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeRemoved(int, int)}.
+     * Plain dismissers are called back item by item from the last position of each run.
+     */
+    public interface BulkDismisser extends Dismisser {
+        /**
+         * Called when a run of contiguous items is dismissed, possibly a single one.
+         *
+         * @param positionStart position of the first item which should be removed from the data.
+         * @param itemCount     number of items to remove.
+         */
+        void dismissRange(int positionStart, int itemCount);
+    }
 }
@@ -6,12 +6,26 @@ import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.GestureTrace;
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
+import com.netcosports.recyclergesture.core.SwipeTracker;
+import com.netcosports.recyclergesture.core.VelocityEstimator;
+import com.netcosports.recyclergesture.library.MotionEventTrace;
+import com.netcosports.recyclergesture.library.TouchPredictor;
+
 /**
  * Simple {@link android.support.v7.widget.RecyclerView.OnItemTouchListener}
  * that allows items to be swiped and dismissed.
  */
 class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
 
+    /**
+     * Delay added to the longest dismiss animation before the watchdog removes an item whose
+     * animation end hasn't been reported.
+     */
+    private static final long WATCHDOG_SLACK_MILLIS = 250;
+
     private final RecyclerView mRecyclerView;
     private int mSlop;
     private int mMinFlingVelocity;
@@ -21,17 +35,33 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
     private int mViewWidth = 1; // 1 and not 0 to prevent dividing by zero
 
     // Transient properties
-    private float mDownX;
-    private float mDownY;
-    private boolean mSwiping;
-    private int mSwipingSlop;
-    private VelocityTracker mVelocityTracker;
+    private final SwipeTracker mSwipeTracker;
+    private final VelocityEstimator mVelocityEstimator;
+    private VelocityTracker mPlatformVelocityTracker;
+    private boolean mTracking;
     private float mTranslationX;
     private boolean mEnable = false;
     private View mSwipeView;
     private SwipeToDismissDirection mAllowedSwipeToDismissDirection = SwipeToDismissDirection.NONE;
     private SwipeToDismissStrategy mDismissStrategy;
-    private SwipeToDismissGesture.Dismisser mDismisser;
+    private DismissQueue mDismissQueue;
+    private SwipeAnimator mSwipeAnimator;
+    private TouchPredictor mTouchPredictor;
+    private float mPredictionLead;
+    private GestureTraceRecorder mTraceRecorder;
+
+    // Reveal mode, swiped items reveal actions instead of being dismissed.
+    private SwipeRevealLayer mRevealLayer;
+    private float mRevealBase;
+    private int mRevealSign;
+    private int mPendingAction = SwipeRevealLayer.NO_ACTION;
+    private float mActionDownX;
+    private float mActionDownY;
+
+    // Range mode, moving across the list extends the swipe to the items under the pointer.
+    private RangeSwipe mRangeSwipe;
+    private float mRawOffsetX;
+    private float mRawOffsetY;
 
 
     /**
@@ -41,23 +71,108 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
      * @param direction    swipe direction.
      * @param dismisser    Dismisser used to process to the dismiss when dismiss motion is triggered.
      * @param strategy     strategy applied for dismiss motion, if null all items will follow the main policy.
+     * @param predictor    predictor of the pointer position, null to follow the last touch sample.
      */
     public SwipeToDismissListener(RecyclerView recyclerView, SwipeToDismissDirection direction,
-                                  SwipeToDismissStrategy strategy, SwipeToDismissGesture.Dismisser dismisser) {
+                                  SwipeToDismissStrategy strategy, SwipeToDismissGesture.Dismisser dismisser,
+                                  TouchPredictor predictor) {
 
         ViewConfiguration vc = ViewConfiguration.get(recyclerView.getContext());
         mSlop = vc.getScaledTouchSlop();
         mMinFlingVelocity = vc.getScaledMinimumFlingVelocity() * 4;
         mMaxFlingVelocity = vc.getScaledMaximumFlingVelocity();
         mAnimationTime = recyclerView.getContext().getResources().getInteger(android.R.integer.config_shortAnimTime);
+        mSwipeTracker = new SwipeTracker(mSlop, mMinFlingVelocity, mMaxFlingVelocity);
+        mVelocityEstimator = new VelocityEstimator();
         mRecyclerView = recyclerView;
-        mDismisser = dismisser;
+        mDismissQueue = new DismissQueue(recyclerView, dismisser);
+        mSwipeAnimator = new SwipeAnimator(recyclerView, mDismissQueue);
+        mDismissQueue.setAnimator(mSwipeAnimator);
+        mTouchPredictor = predictor;
         if (strategy == null) {
             mDismissStrategy = new SwipeToDismissStrategy();
         } else {
             mDismissStrategy = strategy;
         }
         mDismissStrategy.setDefaultSwipeToDismissDirection(direction);
+        if (mDismissStrategy instanceof SwipeToDismissStrategySnapshot && recyclerView.getAdapter() != null) {
+            ((SwipeToDismissStrategySnapshot) mDismissStrategy).attach(recyclerView.getAdapter(), direction);
+        }
+    }
+
+    /**
+     * Record the received events and the decisions taken.
+     * private package.
+     *
+     * @param recorder recorder, null to stop recording.
+     */
+    void setTraceRecorder(GestureTraceRecorder recorder) {
+        mTraceRecorder = recorder;
+    }
+
+    /**
+     * Estimate the release velocity with the platform {@link android.view.VelocityTracker} instead of
+     * the library estimator. The tracker is obtained once and reused from one gesture to the other.
+     * private package.
+     *
+     * @param platform true to use the platform tracker.
+     */
+    void setPlatformVelocityTracker(boolean platform) {
+        if (platform && mPlatformVelocityTracker == null) {
+            mPlatformVelocityTracker = VelocityTracker.obtain();
+        } else if (!platform && mPlatformVelocityTracker != null) {
+            mPlatformVelocityTracker.recycle();
+            mPlatformVelocityTracker = null;
+        }
+    }
+
+    /**
+     * Hide the dismissed items until their dismissal can't be undone anymore.
+     * private package.
+     *
+     * @param undoBuffer undo buffer, null to remove the dismissed items right away.
+     */
+    void setUndoBuffer(SwipeUndoBuffer undoBuffer) {
+        mDismissQueue.setUndoBuffer(undoBuffer);
+    }
+
+    /**
+     * Reveal actions behind the swiped items instead of dismissing them.
+     * private package.
+     *
+     * @param revealLayer layer drawing the actions, null to dismiss the swiped items.
+     */
+    void setRevealLayer(SwipeRevealLayer revealLayer) {
+        mRevealLayer = revealLayer;
+        if (revealLayer != null) {
+            revealLayer.attach(mRecyclerView, mAnimationTime);
+        }
+    }
+
+    /**
+     * Extend the swipe to the items the pointer moves across, dismissed together.
+     * private package.
+     *
+     * @param enabled true to swipe ranges of items.
+     */
+    void setRangeSwipe(boolean enabled) {
+        if (enabled && mRangeSwipe == null) {
+            mRangeSwipe = new RangeSwipe(mRecyclerView, mDismissStrategy, mSwipeAnimator);
+        } else if (!enabled && mRangeSwipe != null) {
+            mRangeSwipe.reset();
+            mRecyclerView.removeOnChildAttachStateChangeListener(mRangeSwipe);
+            mRangeSwipe = null;
+        }
+    }
+
+    /**
+     * Number of dismissals dropped because their item changed before being removed.
+     * private package.
+     *
+     * @return stale dismissal count.
+     */
+    int getStaleDismissalCount() {
+        return mDismissQueue.getStaleCount();
     }
 
     /**
@@ -71,6 +186,11 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
 
     @Override
     public void onTouchEvent(RecyclerView recyclerView, MotionEvent motionEvent) {
+        MotionEventTrace.record(mTraceRecorder, motionEvent);
+        if (mPendingAction != SwipeRevealLayer.NO_ACTION) {
+            trackAction(motionEvent);
+            return;
+        }
         motionEvent.offsetLocation(mTranslationX, 0);
 
         switch (motionEvent.getActionMasked()) {
@@ -98,6 +218,7 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
         if (mEnable) {
             return false;
         }
+        MotionEventTrace.record(mTraceRecorder, motionEvent);
         // offset because the view is translated during swipe
         motionEvent.offsetLocation(mTranslationX, 0);
 
@@ -122,10 +243,28 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
             return false;
         }
 
-        mDownX = motionEvent.getRawX();
-        mDownY = motionEvent.getRawY();
+        if (mTouchPredictor != null) {
+            mTouchPredictor.reset();
+            addPredictorSamples(motionEvent);
+        }
+        if (mRevealLayer != null) {
+            int action = mRevealLayer.findAction(motionEvent.getX(), motionEvent.getY());
+            if (action != SwipeRevealLayer.NO_ACTION) {
+                // intercept the gesture, a click on the action is dispatched on release.
+                mPendingAction = action;
+                mActionDownX = motionEvent.getRawX();
+                mActionDownY = motionEvent.getRawY();
+                return true;
+            }
+        }
         mSwipeView = mRecyclerView.findChildViewUnder(motionEvent.getX(), motionEvent.getY());
-        if (mSwipeView == null) {
+        if (mRevealLayer != null && mRevealLayer.getOffset(mSwipeView) == 0) {
+            // touching anywhere else than the open item closes it.
+            mRevealLayer.close();
+        }
+        if (mSwipeView == null || mSwipeAnimator.isDismissing(mSwipeView)) {
+            // an item flying out can't be caught back.
+            mSwipeView = null;
             return false;
         }
         int pos = mRecyclerView.getChildPosition(mSwipeView);
@@ -137,132 +276,323 @@ class SwipeToDismissListener implements RecyclerView.OnItemTouchListener {
             resetMotion();
             return false;
         } else {
-            mVelocityTracker = VelocityTracker.obtain();
-            mVelocityTracker.addMovement(motionEvent);
+            int allowedSign = mAllowedSwipeToDismissDirection.getAllowedSign();
+            if (mRevealLayer != null) {
+                mRevealBase = mRevealLayer.getOffset(mSwipeView);
+                mRevealSign = allowedSign;
+                if (mRevealBase != 0) {
+                    // an open item can be swiped back.
+                    allowedSign = 0;
+                }
+            }
+            mSwipeTracker.down(motionEvent.getRawX(), motionEvent.getRawY(),
+                    mAllowedSwipeToDismissDirection.getAxis(), allowedSign);
+            mTracking = true;
+            mRawOffsetX = motionEvent.getRawX() - motionEvent.getX();
+            mRawOffsetY = motionEvent.getRawY() - motionEvent.getY();
+            if (mPlatformVelocityTracker != null) {
+                mPlatformVelocityTracker.clear();
+            }
+            mVelocityEstimator.reset();
+            addMovement(motionEvent);
             return false;
         }
     }
 
     private void cancel() {
-        if (mVelocityTracker == null) {
+        if (!mTracking) {
             return;
         }
 
-        mSwipeView.animate()
-                .translationX(0)
-                .translationY(0)
-                .alpha(1)
-                .setDuration(mAnimationTime)
-                .setListener(null);
+        restoreSwipeView(0);
 
-        mVelocityTracker.recycle();
-        mVelocityTracker = null;
+        mTracking = false;
         mTranslationX = 0;
-        mDownX = 0;
-        mDownY = 0;
-        mSwiping = false;
+        mPredictionLead = 0;
+        mSwipeTracker.reset();
         mSwipeView = null;
     }
 
     private void up(MotionEvent motionEvent) {
-        if (mEnable || mVelocityTracker == null || mSwipeView == null || !mSwiping) {
+        if (mEnable || !mTracking || mSwipeView == null || !mSwipeTracker.isSwiping()) {
             return;
         }
         mSwipeView.setPressed(false);
-        float deltaX = motionEvent.getRawX() - mDownX;
-        float deltaY = motionEvent.getRawY() - mDownY;
-        mVelocityTracker.addMovement(motionEvent);
-        mVelocityTracker.computeCurrentVelocity(1000);
+        addMovement(motionEvent);
+        float velocityX;
+        float velocityY;
+        if (mPlatformVelocityTracker != null) {
+            mPlatformVelocityTracker.computeCurrentVelocity(1000);
+            velocityX = mPlatformVelocityTracker.getXVelocity();
+            velocityY = mPlatformVelocityTracker.getYVelocity();
+        } else {
+            velocityX = mVelocityEstimator.getVelocityX();
+            velocityY = mVelocityEstimator.getVelocityY();
+        }
 
-        boolean isDismissTriggered = mAllowedSwipeToDismissDirection.triggerDismiss(deltaX, deltaY,
-                mSwipeView, mVelocityTracker, mMinFlingVelocity, mMaxFlingVelocity);
+        if (mRevealLayer != null) {
+            settleReveal(velocityX, velocityY);
+            resetMotion();
+            return;
+        }
 
-        if (isDismissTriggered) {
+        int dismissDirection = mSwipeTracker.up(motionEvent.getRawX(), motionEvent.getRawY(),
+                velocityX, velocityY,
+                mAllowedSwipeToDismissDirection.getSize(mSwipeView));
+        // released views keep moving at the release velocity.
+        float velocity = mAllowedSwipeToDismissDirection.getAxis().along(velocityX, velocityY);
+
+        if (mRangeSwipe != null && mRangeSwipe.isActive()) {
+            // the swiped view may have been recycled by the auto scroll, only the range is reliable.
+            if (dismissDirection != 0) {
+                recordDecision(GestureTrace.DECISION_DISMISS, mRangeSwipe.getStart(), dismissDirection);
+                mRangeSwipe.dismiss(mDismissQueue, dismissDirection, velocity,
+                        mSwipeAnimator.getWatchdogMillis(WATCHDOG_SLACK_MILLIS));
+            } else {
+                recordDecision(GestureTrace.DECISION_SWIPE_CANCEL, mRangeSwipe.getStart(), 0);
+                mRangeSwipe.restore(velocity);
+            }
+        } else if (dismissDirection != 0) {
             // dismiss
-            final int pos = mRecyclerView.getChildPosition(mSwipeView);
-            final View swipeViewCopy = mSwipeView;
-            mAllowedSwipeToDismissDirection.animateTriggeredDismiss(mSwipeView, mAnimationTime);
-
-            //this is instead of unreliable onAnimationEnd callback
-            swipeViewCopy.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    mDismisser.dismiss(pos);
-                    mRecyclerView.getAdapter().notifyItemRemoved(pos);
-                    swipeViewCopy.setTranslationX(0);
-                    swipeViewCopy.setTranslationY(0);
+            int pos = mRecyclerView.getChildPosition(mSwipeView);
+            recordDecision(GestureTrace.DECISION_DISMISS, pos, dismissDirection);
 
-                }
-            }, mAnimationTime + 100);
+            // the item is removed once the dismiss animation ended, canceled included, items
+            // dismissed in a row being removed together.
+            mDismissQueue.enqueue(mSwipeView, pos, mSwipeAnimator.getWatchdogMillis(WATCHDOG_SLACK_MILLIS));
+            mSwipeAnimator.dismiss(mSwipeView, mAllowedSwipeToDismissDirection.getAxis(), dismissDirection, velocity);
 
-        } else if (mSwiping) {
+        } else {
             // cancel
-            mSwipeView.animate()
-                    .translationX(0)
-                    .translationY(0)
-                    .alpha(1)
-                    .setDuration(mAnimationTime)
-                    .setListener(null);
+            recordDecision(GestureTrace.DECISION_SWIPE_CANCEL, mRecyclerView.getChildPosition(mSwipeView), 0);
+            restoreSwipeView(velocity);
         }
 
         resetMotion();
     }
 
     private boolean move(MotionEvent motionEvent) {
-        if (mSwipeView == null || mVelocityTracker == null || mEnable) {
+        if (mSwipeView == null || !mTracking || mEnable) {
             return false;
         }
 
-        mVelocityTracker.addMovement(motionEvent);
-        float deltaX = motionEvent.getRawX() - mDownX;
-        float deltaY = motionEvent.getRawY() - mDownY;
-
-        if (mAllowedSwipeToDismissDirection.isSwiping(deltaX, deltaY, mSlop)) {
-            mSwiping = true;
-            mSwipingSlop = (deltaX > 0 ? mSlop : -mSlop);
-            mSwipeView.setPressed(false);
-
-            MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
-            cancelEvent.setAction(MotionEvent.ACTION_CANCEL
-                    | (motionEvent.getActionIndex() << MotionEvent.ACTION_POINTER_INDEX_SHIFT));
-            mSwipeView.onTouchEvent(cancelEvent);
+        addMovement(motionEvent);
+        float x = motionEvent.getRawX();
+        float y = motionEvent.getRawY();
+        mPredictionLead = 0;
+        if (mTouchPredictor != null) {
+            // the prediction only leads the displayed offset, decisions rely on the actual samples.
+            addPredictorSamples(motionEvent);
+            mPredictionLead = mAllowedSwipeToDismissDirection.getAxis().along(mTouchPredictor.getX() - x,
+                    mTouchPredictor.getY() - y);
         }
 
+        boolean wasSwiping = mSwipeTracker.isSwiping();
+        int state = mSwipeTracker.move(x, y);
+
         //Prevent swipes to disallowed directions
-        if ((deltaX < 0 && mAllowedSwipeToDismissDirection == SwipeToDismissDirection.RIGHT)
-                || (deltaX > 0 && mAllowedSwipeToDismissDirection == SwipeToDismissDirection.LEFT)
-                || (deltaY > 0 && mAllowedSwipeToDismissDirection == SwipeToDismissDirection.TOP)
-                || (deltaY < 0 && mAllowedSwipeToDismissDirection == SwipeToDismissDirection.BOTTOM)) {
-            if (mSwiping) {
+        if (state == SwipeTracker.STATE_IDLE) {
+            if (wasSwiping) {
                 // cancel
-                mSwipeView.animate()
-                        .translationX(0)
-                        .translationY(0)
-                        .alpha(1)
-                        .setDuration(mAnimationTime)
-                        .setListener(null);
+                recordDecision(GestureTrace.DECISION_SWIPE_CANCEL, mRecyclerView.getChildPosition(mSwipeView), 0);
+                restoreSwipeView(0);
             }
             resetMotion();
             return false;
         }
 
-        if (mSwiping) {
-            mTranslationX = deltaX;
-            mAllowedSwipeToDismissDirection.animateDismissMotion(deltaX, deltaY, mSwipeView, mSwipingSlop);
+        if (state == SwipeTracker.STATE_SWIPING) {
+            if (!wasSwiping) {
+                recordDecision(GestureTrace.DECISION_SWIPE_START, mRecyclerView.getChildPosition(mSwipeView), 0);
+                mSwipeView.setPressed(false);
+                // catch a view still pulled back by a previous gesture.
+                mSwipeAnimator.cancel(mSwipeView);
+
+                // dispatch the current event as a cancel one instead of obtaining a copy.
+                int action = motionEvent.getAction();
+                motionEvent.setAction(MotionEvent.ACTION_CANCEL
+                        | (motionEvent.getActionIndex() << MotionEvent.ACTION_POINTER_INDEX_SHIFT));
+                mSwipeView.onTouchEvent(motionEvent);
+                motionEvent.setAction(action);
+            }
+            mTranslationX = mSwipeTracker.getDeltaX();
+            if (mRevealLayer != null) {
+                mRevealLayer.track(mSwipeView, mAllowedSwipeToDismissDirection.getAxis(), getRevealOffset());
+            } else if (mRangeSwipe != null) {
+                Axis axis = mAllowedSwipeToDismissDirection.getAxis();
+                if (!wasSwiping || !mRangeSwipe.isActive()) {
+                    // a data set change ends the range, it starts again from the swiped item.
+                    mRangeSwipe.start(mRecyclerView.getChildPosition(mSwipeView), mAllowedSwipeToDismissDirection,
+                            axis == Axis.HORIZONTAL ? mSwipeView.getHeight() : mSwipeView.getWidth());
+                }
+                // across the swipe axis, from the actual pointer relative to the recycler view.
+                float pointer = axis.across(motionEvent.getRawX() - mRawOffsetX, motionEvent.getRawY() - mRawOffsetY);
+                mRangeSwipe.move(pointer, getDisplayedOffset(), getDisplayedAlpha());
+            } else {
+                mAllowedSwipeToDismissDirection.animateDismissMotion(mSwipeView, getDisplayedOffset(),
+                        getDisplayedAlpha());
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Animate the swiped view back to where it was before the gesture.
+     *
+     * @param velocity release velocity along the swipe axis, in pixels per second.
+     */
+    private void restoreSwipeView(float velocity) {
+        if (mRangeSwipe != null && mRangeSwipe.isActive()) {
+            mRangeSwipe.restore(velocity);
+            return;
+        }
+        if (mRevealLayer != null) {
+            if (mRevealLayer.getOffset(mSwipeView) != mRevealBase) {
+                mRevealLayer.settle(mSwipeView, mAllowedSwipeToDismissDirection.getAxis(), mRevealBase);
+            }
+            return;
+        }
+        mSwipeAnimator.restore(mSwipeView, mAllowedSwipeToDismissDirection.getAxis(), velocity);
+    }
+
+    /**
+     * Offset of the swiped view in reveal mode, from its offset before the gesture and bounded by
+     * the actions it can reveal.
+     *
+     * @return offset along the swipe axis.
+     */
+    private float getRevealOffset() {
+        float revealSize = mRevealLayer.getRevealSize();
+        float min = mRevealSign > 0 ? 0 : -revealSize;
+        float max = mRevealSign < 0 ? 0 : revealSize;
+        return Math.max(min, Math.min(max, mRevealBase + getDisplayedOffset()));
+    }
+
+    /**
+     * Offset of the swiped view, led by the predicted pointer if any.
+     *
+     * @return offset along the swipe axis.
+     */
+    private float getDisplayedOffset() {
+        return mSwipeTracker.getOffset() + mPredictionLead;
+    }
+
+    /**
+     * Opacity of the swiped view, led by the predicted pointer if any.
+     *
+     * @return alpha in [0, 1].
+     */
+    private float getDisplayedAlpha() {
+        float delta = mSwipeTracker.getAxis().along(mSwipeTracker.getDeltaX(), mSwipeTracker.getDeltaY());
+        return SwipeTracker.getSwipeAlpha(delta + mPredictionLead,
+                mAllowedSwipeToDismissDirection.getSize(mSwipeView));
+    }
+
+    /**
+     * Settle the released view open or closed in reveal mode.
+     *
+     * @param velocityX release velocity on x, in pixels per second.
+     * @param velocityY release velocity on y, in pixels per second.
+     */
+    private void settleReveal(float velocityX, float velocityY) {
+        Axis axis = mAllowedSwipeToDismissDirection.getAxis();
+        int revealSize = mRevealLayer.getRevealSize();
+        int side = SwipeTracker.resolveReveal(getRevealOffset(), revealSize, axis.along(velocityX, velocityY),
+                mMinFlingVelocity, mMaxFlingVelocity);
+        if (SwipeTracker.isBlocked(mRevealSign, side)) {
+            side = 0;
+        }
+        recordDecision(GestureTrace.DECISION_REVEAL, mRecyclerView.getChildPosition(mSwipeView), side);
+        mRevealLayer.settle(mSwipeView, axis, side * revealSize);
+    }
+
+    /**
+     * Dispatch a click on the action touched on down, unless the pointer travels further than the
+     * touch slop.
+     *
+     * @param motionEvent touch event.
+     */
+    private void trackAction(MotionEvent motionEvent) {
+        switch (motionEvent.getActionMasked()) {
+            case MotionEvent.ACTION_MOVE: {
+                if (Math.abs(motionEvent.getRawX() - mActionDownX) > mSlop
+                        || Math.abs(motionEvent.getRawY() - mActionDownY) > mSlop) {
+                    mPendingAction = SwipeRevealLayer.NO_ACTION;
+                }
+                break;
+            }
+            case MotionEvent.ACTION_UP: {
+                int action = mPendingAction;
+                mPendingAction = SwipeRevealLayer.NO_ACTION;
+                recordDecision(GestureTrace.DECISION_ACTION, mRevealLayer.performAction(action), action);
+                break;
+            }
+            case MotionEvent.ACTION_CANCEL: {
+                mPendingAction = SwipeRevealLayer.NO_ACTION;
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Feed the velocity tracker with the raw samples of an event, historical ones included.
+     * Events are offset by the translation of the swiped view, which moves along the finger, so
+     * relative samples would count the pointer motion twice.
+     *
+     * @param motionEvent touch event.
+     */
+    private void addMovement(MotionEvent motionEvent) {
+        float offsetX = motionEvent.getRawX() - motionEvent.getX();
+        float offsetY = motionEvent.getRawY() - motionEvent.getY();
+        if (mPlatformVelocityTracker != null) {
+            motionEvent.offsetLocation(offsetX, offsetY);
+            mPlatformVelocityTracker.addMovement(motionEvent);
+            motionEvent.offsetLocation(-offsetX, -offsetY);
+            return;
+        }
+        int historySize = motionEvent.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            mVelocityEstimator.addSample(motionEvent.getHistoricalX(h) + offsetX,
+                    motionEvent.getHistoricalY(h) + offsetY, motionEvent.getHistoricalEventTime(h));
+        }
+        mVelocityEstimator.addSample(motionEvent.getRawX(), motionEvent.getRawY(), motionEvent.getEventTime());
+    }
+
+    /**
+     * Feed the predictor with the raw samples of an event, historical samples are only available
+     * relative to the view so they are shifted by the offset of the current sample.
+     *
+     * @param motionEvent touch event.
+     */
+    private void addPredictorSamples(MotionEvent motionEvent) {
+        mTouchPredictor.addSamples(motionEvent, 0, motionEvent.getRawX() - motionEvent.getX(),
+                motionEvent.getRawY() - motionEvent.getY());
+    }
+
+    /**
+     * Record a decision if recording.
+     *
+     * @param decision decision code, see {@link GestureTrace}.
+     * @param first    first argument.
+     * @param second   second argument.
+     */
+    private void recordDecision(int decision, int first, int second) {
+        if (mTraceRecorder != null) {
+            mTraceRecorder.recordDecision(decision, first, second, 0);
+        }
+    }
+
     private void resetMotion() {
-        if (mVelocityTracker != null) {
-            mVelocityTracker.recycle();
-            mVelocityTracker = null;
+        if (mRangeSwipe != null) {
+            mRangeSwipe.reset();
         }
+        mTracking = false;
         mTranslationX = 0;
-        mDownX = 0;
-        mDownY = 0;
-        mSwiping = false;
+        mPredictionLead = 0;
+        mSwipeTracker.reset();
         mSwipeView = null;
 
     }
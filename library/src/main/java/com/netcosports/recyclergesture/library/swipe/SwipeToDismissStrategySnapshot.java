@@ -0,0 +1,99 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.os.AsyncTask;
+import android.support.v7.widget.RecyclerView;
+
+import com.netcosports.recyclergesture.library.PositionSnapshot;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Dismiss strategy answering from a snapshot of another strategy evaluated in bulk on a worker
+ * thread each time the adapter changes.
+ * <p/>
+ * Useful when the wrapped strategy relies on expensive model lookups : the touch handling only
+ * reads a byte per position. Positions not evaluated yet are forwarded to the wrapped strategy.
+ * <p/>
+ * The wrapped strategy is called from a worker thread and must only read data which can be
+ * safely accessed from it.
+ */
+public class SwipeToDismissStrategySnapshot extends SwipeToDismissStrategy {
+
+    /**
+     * Directions indexed by ordinal.
+     */
+    private static final SwipeToDismissDirection[] DIRECTIONS = SwipeToDismissDirection.values();
+
+    /**
+     * Wrapped strategy.
+     */
+    private final SwipeToDismissStrategy mStrategy;
+
+    /**
+     * Direction ordinal of each position.
+     */
+    private final PositionSnapshot mSnapshot;
+
+    /**
+     * Snapshot of a strategy evaluated on {@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}.
+     *
+     * @param strategy wrapped strategy.
+     */
+    public SwipeToDismissStrategySnapshot(SwipeToDismissStrategy strategy) {
+        this(strategy, AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Snapshot of a strategy.
+     *
+     * @param strategy wrapped strategy.
+     * @param executor executor the wrapped strategy is evaluated on.
+     */
+    public SwipeToDismissStrategySnapshot(final SwipeToDismissStrategy strategy, Executor executor) {
+        mStrategy = strategy;
+        mSnapshot = new PositionSnapshot(new PositionSnapshot.Evaluator() {
+            @Override
+            public int evaluate(int position) {
+                SwipeToDismissDirection direction = strategy.getDismissDirection(position);
+                return direction == null ? SwipeToDismissDirection.NONE.ordinal() : direction.ordinal();
+            }
+        }, executor);
+    }
+
+    /**
+     * Answer for every item of a view type without evaluating the wrapped strategy, lists of a
+     * single view type are then never evaluated item by item.
+     * <p/>
+     * Must be called before the gesture is built.
+     *
+     * @param viewType  view type.
+     * @param direction dismiss direction of the items of this view type.
+     * @return this snapshot, to chain calls.
+     */
+    public SwipeToDismissStrategySnapshot setViewTypeDefault(int viewType, SwipeToDismissDirection direction) {
+        mSnapshot.setViewTypeDefault(viewType, direction.ordinal());
+        return this;
+    }
+
+    @Override
+    public SwipeToDismissDirection getDismissDirection(int position) {
+        int ordinal = mSnapshot.get(position);
+        if (ordinal == PositionSnapshot.UNKNOWN) {
+            return mStrategy.getDismissDirection(position);
+        }
+        return DIRECTIONS[ordinal];
+    }
+
+    /**
+     * Start evaluating the adapter the gesture is attached to.
+     * <p/>
+     * private package.
+     *
+     * @param adapter   adapter of the recycler view.
+     * @param direction default direction of the gesture, also given to the wrapped strategy.
+     */
+    void attach(RecyclerView.Adapter adapter, SwipeToDismissDirection direction) {
+        mStrategy.setDefaultSwipeToDismissDirection(direction);
+        mSnapshot.attach(adapter);
+    }
+}
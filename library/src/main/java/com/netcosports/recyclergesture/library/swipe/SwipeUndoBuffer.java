@@ -0,0 +1,394 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Bounded buffer of dismissed items which can still be undone.
+ * <p/>
+ * Dismissed items are hidden from the adapter positions instead of being removed from the data :
+ * the adapter reports {@link #getItemCount(int)} items and binds the data found at
+ * {@link #getDataPosition(int)}. Undoing a dismissal only shows the item again, the data having
+ * never been touched. Dismissals are committed to the
+ * {@link com.netcosports.recyclergesture.library.swipe.SwipeToDismissGesture.Dismisser} once
+ * their undo window expired, or once the buffer is full, every dismissal due at that time being
+ * committed in a single batch.
+ * <p/>
+ * Structural changes notified by the adapter while dismissals are pending must be expressed in
+ * adapter positions, inserted or removed data being located through {@link #getDataPosition(int)}.
+ * <p/>
+ * Note : a full data set change can't be followed, call {@link #commit()} before
+ * {@link android.support.v7.widget.RecyclerView.Adapter#notifyDataSetChanged()}.
+ */
+public final class SwipeUndoBuffer extends RecyclerView.AdapterDataObserver {
+
+    /**
+     * Data positions of the hidden items, in dismiss order from {@link #mHead}.
+     */
+    private final int[] mRingPositions;
+
+    /**
+     * Time at which each item was hidden, in {@link android.os.SystemClock#uptimeMillis()} base.
+     */
+    private final long[] mRingTimes;
+
+    /**
+     * Data positions of the hidden items, sorted.
+     */
+    private final int[] mSortedPositions;
+
+    /**
+     * Data positions committed in the current batch.
+     */
+    private final int[] mBatchPositions;
+
+    /**
+     * Duration during which a dismissal can be undone.
+     */
+    private final long mUndoWindowMillis;
+
+    /**
+     * Handler committing the dismissals once their undo window expired.
+     */
+    private final Handler mHandler;
+
+    /**
+     * Commit of the expired dismissals, posted on {@link #mHandler}.
+     */
+    private final Runnable mCommitRunnable;
+
+    /**
+     * Index of the oldest dismissal in the ring.
+     */
+    private int mHead;
+
+    /**
+     * Number of hidden items.
+     */
+    private int mSize;
+
+    /**
+     * Adapter the hidden items belong to, null until attached.
+     */
+    private RecyclerView.Adapter mAdapter;
+
+    /**
+     * Dismisser the dismissals are committed to, null until attached.
+     */
+    private SwipeToDismissGesture.Dismisser mDismisser;
+
+    /**
+     * True while the buffer notifies the adapter, its own notifications being already applied.
+     */
+    private boolean mNotifying;
+
+    /**
+     * Bounded buffer of dismissed items which can still be undone.
+     *
+     * @param capacity         maximum number of dismissals which can be undone at once.
+     * @param undoWindowMillis duration during which a dismissal can be undone.
+     */
+    public SwipeUndoBuffer(int capacity, long undoWindowMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+        }
+        if (undoWindowMillis < 0) {
+            throw new IllegalArgumentException("Undo window can't be negative : " + undoWindowMillis);
+        }
+        mRingPositions = new int[capacity];
+        mRingTimes = new long[capacity];
+        mSortedPositions = new int[capacity];
+        mBatchPositions = new int[capacity];
+        mUndoWindowMillis = undoWindowMillis;
+        mHandler = new Handler(Looper.getMainLooper());
+        mCommitRunnable = new Runnable() {
+            @Override
+            public void run() {
+                commitDue(SystemClock.uptimeMillis(), 0);
+            }
+        };
+        mHead = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Number of items the adapter should report.
+     *
+     * @param dataCount number of items in the data.
+     * @return number of items not hidden.
+     */
+    public int getItemCount(int dataCount) {
+        return dataCount - mSize;
+    }
+
+    /**
+     * Position in the data of the item displayed at an adapter position.
+     *
+     * @param adapterPosition adapter position.
+     * @return data position.
+     */
+    public int getDataPosition(int adapterPosition) {
+        int dataPosition = adapterPosition;
+        for (int i = 0; i < mSize && mSortedPositions[i] <= dataPosition; i++) {
+            dataPosition++;
+        }
+        return dataPosition;
+    }
+
+    /**
+     * Number of dismissals which can still be undone.
+     *
+     * @return pending dismissal count.
+     */
+    public int getPendingCount() {
+        return mSize;
+    }
+
+    /**
+     * Show the last dismissed item again.
+     *
+     * @return true if a dismissal has been undone, false if none was pending.
+     */
+    public boolean undo() {
+        if (mSize == 0) {
+            return false;
+        }
+        int tail = (mHead + mSize - 1) % mRingPositions.length;
+        int dataPosition = mRingPositions[tail];
+        int sortedIndex = Arrays.binarySearch(mSortedPositions, 0, mSize, dataPosition);
+        System.arraycopy(mSortedPositions, sortedIndex + 1, mSortedPositions, sortedIndex, mSize - sortedIndex - 1);
+        mSize--;
+        scheduleCommit();
+        notifyInserted(dataPosition - sortedIndex);
+        return true;
+    }
+
+    /**
+     * Commit every pending dismissal right away.
+     */
+    public void commit() {
+        commitDue(Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Attach the buffer to the adapter of the gesture.
+     * private package.
+     *
+     * @param adapter   adapter the hidden items belong to.
+     * @param dismisser dismisser the dismissals are committed to.
+     */
+    void attach(RecyclerView.Adapter adapter, SwipeToDismissGesture.Dismisser dismisser) {
+        if (mAdapter == adapter) {
+            return;
+        }
+        if (mAdapter != null) {
+            commit();
+            mAdapter.unregisterAdapterDataObserver(this);
+        }
+        mAdapter = adapter;
+        mDismisser = dismisser;
+        mAdapter.registerAdapterDataObserver(this);
+    }
+
+    /**
+     * Hide a run of contiguous items, making room in the buffer if needed.
+     * private package.
+     *
+     * @param positionStart adapter position of the first item.
+     * @param itemCount     number of items.
+     */
+    void hide(int positionStart, int itemCount) {
+        int capacity = mRingPositions.length;
+        long now = SystemClock.uptimeMillis();
+        commitDue(now, Math.max(0, mSize + Math.min(itemCount, capacity) - capacity));
+
+        // items beyond the capacity can't be undone, commit them right away. The whole buffer has
+        // just been committed in that case, adapter and data positions are the same.
+        int committed = Math.max(0, itemCount - capacity);
+        if (committed > 0) {
+            dismissRange(positionStart, committed);
+        }
+
+        int dataPosition = getDataPosition(positionStart);
+        for (int i = committed; i < itemCount; i++) {
+            // the items of the run are contiguous once hidden ones are skipped.
+            while (Arrays.binarySearch(mSortedPositions, 0, mSize, dataPosition) >= 0) {
+                dataPosition++;
+            }
+            int sortedIndex = -Arrays.binarySearch(mSortedPositions, 0, mSize, dataPosition) - 1;
+            System.arraycopy(mSortedPositions, sortedIndex, mSortedPositions, sortedIndex + 1, mSize - sortedIndex);
+            mSortedPositions[sortedIndex] = dataPosition;
+            int tail = (mHead + mSize) % capacity;
+            mRingPositions[tail] = dataPosition;
+            mRingTimes[tail] = now;
+            mSize++;
+        }
+        scheduleCommit();
+        notifyRemoved(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        if (mNotifying || mSize == 0) {
+            return;
+        }
+        insertData(getDataPosition(positionStart), itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        if (mNotifying || mSize == 0) {
+            return;
+        }
+        removeData(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (mNotifying || mSize == 0) {
+            return;
+        }
+        removeData(fromPosition, itemCount);
+        insertData(getDataPosition(toPosition), itemCount);
+    }
+
+    /**
+     * Commit the dismissals whose undo window expired, and at least a given number of the oldest
+     * ones, in a single batch.
+     *
+     * @param now      current uptime.
+     * @param minCount minimum number of dismissals to commit.
+     */
+    private void commitDue(long now, int minCount) {
+        int capacity = mRingPositions.length;
+        int batchSize = 0;
+        while (mSize > 0 && (batchSize < minCount || mRingTimes[mHead] + mUndoWindowMillis <= now)) {
+            int dataPosition = mRingPositions[mHead];
+            int sortedIndex = Arrays.binarySearch(mSortedPositions, 0, mSize, dataPosition);
+            System.arraycopy(mSortedPositions, sortedIndex + 1, mSortedPositions, sortedIndex, mSize - sortedIndex - 1);
+            mBatchPositions[batchSize++] = dataPosition;
+            mHead = (mHead + 1) % capacity;
+            mSize--;
+        }
+        if (batchSize > 0) {
+            Arrays.sort(mBatchPositions, 0, batchSize);
+
+            // from the last position so that removing a run doesn't shift the runs still to remove.
+            int end = batchSize - 1;
+            while (end >= 0) {
+                int start = end;
+                while (start > 0 && mBatchPositions[start - 1] == mBatchPositions[start] - 1) {
+                    start--;
+                }
+                dismissRange(mBatchPositions[start], end - start + 1);
+                end = start - 1;
+            }
+
+            // committed items left the data, hidden items after them moved toward the start.
+            for (int i = 0; i < mSize; i++) {
+                int index = (mHead + i) % capacity;
+                mRingPositions[index] -= countBelow(mBatchPositions, batchSize, mRingPositions[index]);
+            }
+            for (int i = mSize - 1; i >= 0; i--) {
+                mSortedPositions[i] -= countBelow(mBatchPositions, batchSize, mSortedPositions[i]);
+            }
+        }
+        scheduleCommit();
+    }
+
+    /**
+     * Remove a run of contiguous data items.
+     *
+     * @param positionStart data position of the first item.
+     * @param itemCount     number of items.
+     */
+    private void dismissRange(int positionStart, int itemCount) {
+        if (mDismisser instanceof SwipeToDismissGesture.BulkDismisser) {
+            ((SwipeToDismissGesture.BulkDismisser) mDismisser).dismissRange(positionStart, itemCount);
+        } else {
+            for (int position = positionStart + itemCount - 1; position >= positionStart; position--) {
+                mDismisser.dismiss(position);
+            }
+        }
+    }
+
+    /**
+     * Shift the hidden items after data inserted by the adapter owner.
+     *
+     * @param dataStart data position of the first inserted item.
+     * @param itemCount number of inserted items.
+     */
+    private void insertData(int dataStart, int itemCount) {
+        for (int i = 0; i < mSize; i++) {
+            if (mSortedPositions[i] >= dataStart) {
+                mSortedPositions[i] += itemCount;
+            }
+            int index = (mHead + i) % mRingPositions.length;
+            if (mRingPositions[index] >= dataStart) {
+                mRingPositions[index] += itemCount;
+            }
+        }
+    }
+
+    /**
+     * Shift the hidden items after visible data removed by the adapter owner.
+     *
+     * @param positionStart adapter position of the first removed item.
+     * @param itemCount     number of removed items.
+     */
+    private void removeData(int positionStart, int itemCount) {
+        // a hidden item is preceded by as many visible items as its data position minus the hidden
+        // items below it, only the removed ones among them shift it.
+        for (int i = 0; i < mSize; i++) {
+            int index = (mHead + i) % mRingPositions.length;
+            int dataPosition = mRingPositions[index];
+            int visibleBefore = dataPosition - Arrays.binarySearch(mSortedPositions, 0, mSize, dataPosition);
+            mRingPositions[index] = dataPosition - Math.max(0, Math.min(itemCount, visibleBefore - positionStart));
+        }
+        for (int i = mSize - 1; i >= 0; i--) {
+            int visibleBefore = mSortedPositions[i] - i;
+            mSortedPositions[i] -= Math.max(0, Math.min(itemCount, visibleBefore - positionStart));
+        }
+    }
+
+    /**
+     * Post the commit of the oldest dismissal at the end of its undo window.
+     */
+    private void scheduleCommit() {
+        mHandler.removeCallbacks(mCommitRunnable);
+        if (mSize > 0) {
+            long delay = mRingTimes[mHead] + mUndoWindowMillis - SystemClock.uptimeMillis();
+            mHandler.postDelayed(mCommitRunnable, Math.max(0, delay));
+        }
+    }
+
+    private void notifyRemoved(int positionStart, int itemCount) {
+        mNotifying = true;
+        try {
+            mAdapter.notifyItemRangeRemoved(positionStart, itemCount);
+        } finally {
+            mNotifying = false;
+        }
+    }
+
+    private void notifyInserted(int position) {
+        mNotifying = true;
+        try {
+            mAdapter.notifyItemInserted(position);
+        } finally {
+            mNotifying = false;
+        }
+    }
+
+    /**
+     * Count the values of a sorted array lower than a given one.
+     */
+    private static int countBelow(int[] sorted, int size, int value) {
+        int index = Arrays.binarySearch(sorted, 0, size, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.netcosports.recyclergesture.library;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Count the bytes allocated by the current thread between two points.
+ * <p/>
+ * Relies on the HotSpot {@link com.sun.management.ThreadMXBean} extension.
+ */
+public final class AllocationCounter {
+
+    /**
+     * Thread bean used to read the allocated bytes.
+     */
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    /**
+     * Id of the measured thread.
+     */
+    private final long threadId;
+
+    /**
+     * Allocated bytes when the measure started.
+     */
+    private long startBytes;
+
+    /**
+     * Count the bytes allocated by the current thread between two points.
+     */
+    public AllocationCounter() {
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadId = Thread.currentThread().getId();
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("Thread allocated memory isn't supported by this JVM");
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        // first calls may allocate, don't let them pollute the first measure.
+        threadBean.getThreadAllocatedBytes(threadId);
+        threadBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Start a measure.
+     */
+    public void start() {
+        startBytes = threadBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Stop the measure.
+     *
+     * @return number of bytes allocated since {@link #start()}.
+     */
+    public long stop() {
+        return threadBean.getThreadAllocatedBytes(threadId) - startBytes;
+    }
+}
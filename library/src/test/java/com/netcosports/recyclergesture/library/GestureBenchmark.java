@@ -0,0 +1,222 @@
+package com.netcosports.recyclergesture.library;
+
+import android.view.MotionEvent;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Replay scripted gestures through a {@link RecyclerFixture} and measure the time spent by the
+ * touch listener on each event.
+ * <p/>
+ * Durations are recorded in a preallocated buffer so that measuring doesn't allocate.
+ */
+public final class GestureBenchmark {
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Number of nanoseconds in a microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /**
+     * Fixture events are dispatched to.
+     */
+    private final RecyclerFixture fixture;
+
+    /**
+     * Duration of each measured event, in nanoseconds.
+     */
+    private long[] durations;
+
+    /**
+     * Number of measured events.
+     */
+    private int count;
+
+    /**
+     * Replay gestures through a fixture.
+     *
+     * @param fixture fixture whose touch listener is measured.
+     * @param capacity number of events expected to be measured, the buffer grows if needed.
+     */
+    public GestureBenchmark(RecyclerFixture fixture, int capacity) {
+        this.fixture = fixture;
+        this.durations = new long[capacity];
+        this.count = 0;
+    }
+
+    /**
+     * Dispatch every event of a stream, measuring each of them.
+     *
+     * @param stream stream to replay.
+     */
+    public void replay(MotionEventStream stream) {
+        replay(stream, 0, stream.size());
+    }
+
+    /**
+     * Dispatch a range of events of a stream, measuring each of them.
+     *
+     * @param stream stream to replay.
+     * @param start  index of the first event, inclusive.
+     * @param end    index of the last event, exclusive.
+     */
+    public void replay(MotionEventStream stream, int start, int end) {
+        for (int i = start; i < end; i++) {
+            dispatch(stream.get(i));
+        }
+    }
+
+    /**
+     * Dispatch an event and measure it.
+     *
+     * @param event event to dispatch.
+     */
+    public void dispatch(MotionEvent event) {
+        if (count == durations.length) {
+            durations = Arrays.copyOf(durations, durations.length * 2);
+        }
+        long start = System.nanoTime();
+        fixture.dispatch(event);
+        durations[count++] = System.nanoTime() - start;
+    }
+
+    /**
+     * Forget the events measured so far, for instance once warmed up.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Summarize the events measured so far.
+     *
+     * @param name name of the scenario.
+     * @return report.
+     */
+    public Report report(String name) {
+        long[] sorted = Arrays.copyOf(durations, count);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long duration : sorted) {
+            total += duration;
+        }
+        RecyclerFixture.FixtureAdapter adapter = fixture.getAdapter();
+        return new Report(name, count, total, percentile(sorted, 50), percentile(sorted, 90),
+          percentile(sorted, 99), count == 0 ? 0 : sorted[count - 1], adapter.getSwapCount(),
+          adapter.getMoveCount(), adapter.getDismissCount());
+    }
+
+    /**
+     * Nearest rank percentile.
+     *
+     * @param sorted  sorted durations.
+     * @param percent percentile in [0, 100].
+     * @return duration in nanoseconds, 0 if empty.
+     */
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100d * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Throughput and latency of a replayed scenario.
+     */
+    public static final class Report {
+
+        private final String name;
+        private final int eventCount;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+        private final int swapCount;
+        private final int moveCount;
+        private final int dismissCount;
+
+        private Report(String name, int eventCount, long totalNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+          long maxNanos, int swapCount, int moveCount, int dismissCount) {
+            this.name = name;
+            this.eventCount = eventCount;
+            this.totalNanos = totalNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+            this.swapCount = swapCount;
+            this.moveCount = moveCount;
+            this.dismissCount = dismissCount;
+        }
+
+        /**
+         * Number of events dispatched per second of listener time.
+         *
+         * @return throughput.
+         */
+        public double getEventsPerSecond() {
+            return totalNanos == 0 ? 0 : eventCount * NANOS_PER_SECOND / totalNanos;
+        }
+
+        /**
+         * 99th percentile of the time spent per event.
+         *
+         * @return duration in nanoseconds.
+         */
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        /**
+         * Number of measured events.
+         *
+         * @return event count.
+         */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        /**
+         * Number of swaps performed by the adapter.
+         *
+         * @return swap count.
+         */
+        public int getSwapCount() {
+            return swapCount;
+        }
+
+        /**
+         * Number of moves performed by the adapter.
+         *
+         * @return move count.
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Number of dismisses performed by the adapter.
+         *
+         * @return dismiss count.
+         */
+        public int getDismissCount() {
+            return dismissCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-40s %7d events %10.0f ev/s  p50 %7.1fus  p90 %7.1fus  p99 %7.1fus"
+              + "  max %8.1fus  swaps %5d  moves %5d  dismisses %4d", name, eventCount, getEventsPerSecond(),
+              p50Nanos / NANOS_PER_MICRO, p90Nanos / NANOS_PER_MICRO, p99Nanos / NANOS_PER_MICRO,
+              maxNanos / NANOS_PER_MICRO, swapCount, moveCount, dismissCount);
+        }
+    }
+}
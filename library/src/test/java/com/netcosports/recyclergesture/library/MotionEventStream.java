@@ -0,0 +1,295 @@
+package com.netcosports.recyclergesture.library;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import com.netcosports.recyclergesture.core.GestureTrace;
+import com.netcosports.recyclergesture.core.GestureTraceReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scripted stream of single pointer {@link android.view.MotionEvent}, or stream of the events of a
+ * recorded trace.
+ * <p/>
+ * Events are obtained up front so that replaying them doesn't allocate.
+ */
+public final class MotionEventStream {
+
+    /**
+     * Events of the stream, in dispatch order.
+     */
+    private final MotionEvent[] events;
+
+    /**
+     * Scripted stream of single pointer motion events.
+     *
+     * @param events events of the stream, in dispatch order.
+     */
+    private MotionEventStream(MotionEvent[] events) {
+        this.events = events;
+    }
+
+    /**
+     * Stream of the events recorded in a trace, decisions are skipped.
+     * <p/>
+     * When the recorder dropped records, pointers of the first event may be missing : records are
+     * skipped until a whole event is found.
+     *
+     * @param reader trace reader.
+     * @return stream of the recorded events.
+     */
+    public static MotionEventStream fromTrace(GestureTraceReader reader) {
+        List<MotionEvent> events = new ArrayList<MotionEvent>();
+        int count = reader.getRecordCount();
+        long downTime = count == 0 ? 0 : reader.getEventTime(0);
+        int index = 0;
+        while (index < count) {
+            int pointerCount = reader.getPointerCount(index);
+            if (reader.getKind(index) != GestureTrace.KIND_EVENT || !isWholeEvent(reader, index, pointerCount)) {
+                index++;
+                continue;
+            }
+
+            int action = reader.getAction(index);
+            long eventTime = reader.getEventTime(index);
+            if (action == MotionEvent.ACTION_DOWN) {
+                downTime = eventTime;
+            }
+            MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[pointerCount];
+            MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointerCount];
+            for (int i = 0; i < pointerCount; i++) {
+                properties[i] = new MotionEvent.PointerProperties();
+                properties[i].id = reader.getPointerId(index + i);
+                properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+                coords[i] = new MotionEvent.PointerCoords();
+                coords[i].x = reader.getX(index + i);
+                coords[i].y = reader.getY(index + i);
+                coords[i].pressure = 1f;
+                coords[i].size = 1f;
+            }
+            int fullAction = action | (reader.getActionIndex(index) << MotionEvent.ACTION_POINTER_INDEX_SHIFT);
+            events.add(MotionEvent.obtain(downTime, eventTime, fullAction, pointerCount, properties, coords,
+              0, 0, 1f, 1f, 0, 0, 0, 0));
+            index += pointerCount;
+        }
+        return new MotionEventStream(events.toArray(new MotionEvent[events.size()]));
+    }
+
+    /**
+     * Check that the records of an event are all present.
+     */
+    private static boolean isWholeEvent(GestureTraceReader reader, int index, int pointerCount) {
+        if (pointerCount == 0 || index + pointerCount > reader.getRecordCount()) {
+            return false;
+        }
+        for (int i = 1; i < pointerCount; i++) {
+            if (reader.getKind(index + i) != GestureTrace.KIND_EVENT
+              || reader.getPointerCount(index + i) != pointerCount
+              || reader.getEventTime(index + i) != reader.getEventTime(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of events in the stream.
+     *
+     * @return event count.
+     */
+    public int size() {
+        return events.length;
+    }
+
+    /**
+     * Retrieve an event of the stream.
+     *
+     * @param index index of the event in dispatch order.
+     * @return event.
+     */
+    public MotionEvent get(int index) {
+        return events[index];
+    }
+
+    /**
+     * Recycle every event of the stream.
+     */
+    public void recycle() {
+        for (MotionEvent event : events) {
+            event.recycle();
+        }
+    }
+
+    /**
+     * Builder pattern.
+     */
+    public static final class Builder {
+
+        /**
+         * Default delay between two events in milliseconds.
+         */
+        private static final long DEFAULT_FRAME_MILLIS = 8;
+
+        /**
+         * Events built so far.
+         */
+        private final List<MotionEvent> events;
+
+        /**
+         * Delay between two events in milliseconds.
+         */
+        private long frameMillis;
+
+        /**
+         * Time of the first down event.
+         */
+        private long downTime;
+
+        /**
+         * Time of the last event.
+         */
+        private long eventTime;
+
+        /**
+         * Position of the pointer.
+         */
+        private float x;
+
+        /**
+         * Position of the pointer.
+         */
+        private float y;
+
+        /**
+         * Builder pattern, the stream starts at the current uptime.
+         */
+        public Builder() {
+            this.events = new ArrayList<>();
+            this.frameMillis = DEFAULT_FRAME_MILLIS;
+            this.downTime = SystemClock.uptimeMillis();
+            this.eventTime = downTime;
+        }
+
+        /**
+         * Delay between two events.
+         *
+         * @param millis delay in milliseconds.
+         * @return builder to chain param.
+         */
+        public Builder frameMillis(long millis) {
+            this.frameMillis = millis;
+            return this;
+        }
+
+        /**
+         * Put the pointer down.
+         *
+         * @param downX pointer x.
+         * @param downY pointer y.
+         * @return builder to chain param.
+         */
+        public Builder down(float downX, float downY) {
+            x = downX;
+            y = downY;
+            downTime = eventTime;
+            add(MotionEvent.ACTION_DOWN);
+            return this;
+        }
+
+        /**
+         * Let time pass without any event, for instance to trigger a long press.
+         *
+         * @param millis elapsed time in milliseconds.
+         * @return builder to chain param.
+         */
+        public Builder hold(long millis) {
+            eventTime += millis;
+            return this;
+        }
+
+        /**
+         * Move the pointer linearly to the given position.
+         *
+         * @param toX   final pointer x.
+         * @param toY   final pointer y.
+         * @param steps number of move events.
+         * @return builder to chain param.
+         */
+        public Builder moveTo(float toX, float toY, int steps) {
+            float fromX = x;
+            float fromY = y;
+            for (int i = 1; i <= steps; i++) {
+                x = fromX + (toX - fromX) * i / steps;
+                y = fromY + (toY - fromY) * i / steps;
+                eventTime += frameMillis;
+                add(MotionEvent.ACTION_MOVE);
+            }
+            return this;
+        }
+
+        /**
+         * Move the pointer back and forth around its position.
+         *
+         * @param amplitudeX amplitude of the oscillation along x.
+         * @param amplitudeY amplitude of the oscillation along y.
+         * @param count      number of move events.
+         * @return builder to chain param.
+         */
+        public Builder oscillate(float amplitudeX, float amplitudeY, int count) {
+            float centerX = x;
+            float centerY = y;
+            for (int i = 0; i < count; i++) {
+                float sign = i % 2 == 0 ? 1f : -1f;
+                x = centerX + sign * amplitudeX;
+                y = centerY + sign * amplitudeY;
+                eventTime += frameMillis;
+                add(MotionEvent.ACTION_MOVE);
+            }
+            x = centerX;
+            y = centerY;
+            return this;
+        }
+
+        /**
+         * Lift the pointer.
+         *
+         * @return builder to chain param.
+         */
+        public Builder up() {
+            eventTime += frameMillis;
+            add(MotionEvent.ACTION_UP);
+            return this;
+        }
+
+        /**
+         * Cancel the gesture.
+         *
+         * @return builder to chain param.
+         */
+        public Builder cancel() {
+            eventTime += frameMillis;
+            add(MotionEvent.ACTION_CANCEL);
+            return this;
+        }
+
+        /**
+         * Build the stream.
+         *
+         * @return scripted stream.
+         */
+        public MotionEventStream build() {
+            return new MotionEventStream(events.toArray(new MotionEvent[events.size()]));
+        }
+
+        /**
+         * Add an event at the current pointer position.
+         *
+         * @param action event action.
+         */
+        private void add(int action) {
+            events.add(MotionEvent.obtain(downTime, eventTime, action, x, y, 0));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.netcosports.recyclergesture.library;
+
+import android.support.v7.widget.LinearLayoutManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that adapter notifications only evaluate the positions they touch, coalesced, that
+ * evaluator failures aren't swallowed and that a detached snapshot can be attached again.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class PositionSnapshotTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Id of the items inserted, out of the initial ids.
+     */
+    private static final int INSERTED_ITEM = 1000;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private List<Runnable> tasks;
+    private PositionSnapshot snapshot;
+    private int evaluatedCount;
+    private boolean failing;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        tasks = new ArrayList<>();
+        failing = false;
+        snapshot = new PositionSnapshot(new PositionSnapshot.Evaluator() {
+            @Override
+            public int evaluate(int position) {
+                if (failing) {
+                    throw new IllegalStateException("Evaluator failure");
+                }
+                evaluatedCount++;
+                return valueOf(items.get(position));
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        snapshot.attach(fixture.getAdapter());
+        evaluate();
+        evaluatedCount = 0;
+    }
+
+    @Test
+    public void everyPositionIsEvaluatedOnceAttached() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(valueOf(i), snapshot.get(i));
+        }
+    }
+
+    @Test
+    public void rangeNotificationsOnlyEvaluateTheTouchedPositions() {
+        items.add(0, INSERTED_ITEM);
+        fixture.getAdapter().notifyItemInserted(0);
+        assertEquals(PositionSnapshot.UNKNOWN, snapshot.get(0));
+        assertEquals(valueOf(0), snapshot.get(1));
+        evaluate();
+
+        assertEquals(1, evaluatedCount);
+        assertEquals(valueOf(INSERTED_ITEM), snapshot.get(0));
+        assertEquals(valueOf(ITEM_COUNT - 1), snapshot.get(ITEM_COUNT));
+    }
+
+    @Test
+    public void notificationsOfAMessageAreCoalesced() {
+        items.set(3, INSERTED_ITEM);
+        fixture.getAdapter().notifyItemChanged(3);
+        items.set(6, INSERTED_ITEM + 1);
+        fixture.getAdapter().notifyItemChanged(6);
+        items.remove(10);
+        fixture.getAdapter().notifyItemRemoved(10);
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, tasks.size());
+        evaluate();
+
+        assertEquals(4, evaluatedCount);
+        assertEquals(valueOf(INSERTED_ITEM), snapshot.get(3));
+        assertEquals(valueOf(INSERTED_ITEM + 1), snapshot.get(6));
+        assertEquals(valueOf(11), snapshot.get(10));
+    }
+
+    @Test
+    public void positionsToEvaluateFollowTheNotifications() {
+        items.set(3, INSERTED_ITEM);
+        fixture.getAdapter().notifyItemChanged(3);
+        ShadowLooper.idleMainLooper();
+        // the evaluation of the previous positions is dropped once run.
+        items.add(0, INSERTED_ITEM + 1);
+        fixture.getAdapter().notifyItemInserted(0);
+        evaluate();
+
+        assertEquals(valueOf(INSERTED_ITEM + 1), snapshot.get(0));
+        assertEquals(valueOf(INSERTED_ITEM), snapshot.get(4));
+        assertEquals(valueOf(4), snapshot.get(5));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void evaluatorFailuresAreThrownOnTheMainThread() {
+        failing = true;
+        fixture.getAdapter().notifyItemChanged(3);
+        evaluate();
+    }
+
+    @Test
+    public void failuresOfAnOutdatedEvaluationAreDropped() {
+        failing = true;
+        fixture.getAdapter().notifyItemChanged(3);
+        ShadowLooper.idleMainLooper();
+        runTasks();
+        failing = false;
+        fixture.getAdapter().notifyItemChanged(4);
+        evaluate();
+
+        assertEquals(valueOf(3), snapshot.get(3));
+        assertEquals(valueOf(4), snapshot.get(4));
+    }
+
+    @Test
+    public void detachedSnapshotCanBeAttachedToAnotherAdapter() {
+        // evaluation running while detached, dropped once published.
+        fixture.getAdapter().notifyItemChanged(3);
+        ShadowLooper.idleMainLooper();
+        snapshot.detach();
+        assertEquals(PositionSnapshot.UNKNOWN, snapshot.get(0));
+
+        RecyclerFixture.FixtureAdapter adapter = new RecyclerFixture.FixtureAdapter(INSERTED_ITEM, 10, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL);
+        items = adapter.getItems();
+        snapshot.attach(adapter);
+        evaluate();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(valueOf(INSERTED_ITEM + i), snapshot.get(i));
+        }
+        assertEquals(PositionSnapshot.UNKNOWN, snapshot.get(10));
+
+        // the previous adapter isn't followed anymore.
+        fixture.getAdapter().notifyItemRangeRemoved(0, 5);
+        assertEquals(valueOf(INSERTED_ITEM), snapshot.get(0));
+    }
+
+    /**
+     * Run the evaluations until every one of them is published.
+     */
+    private void evaluate() {
+        ShadowLooper.idleMainLooper();
+        while (!tasks.isEmpty()) {
+            runTasks();
+            ShadowLooper.idleMainLooper();
+        }
+    }
+
+    /**
+     * Run the pending worker tasks, the results are published on the main looper.
+     */
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    private static int valueOf(int item) {
+        return item % 7;
+    }
+}
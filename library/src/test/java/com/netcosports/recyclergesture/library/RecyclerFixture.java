@@ -0,0 +1,389 @@
+package com.netcosports.recyclergesture.library;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.netcosports.recyclergesture.library.drag.DragDropCoordinator;
+import com.netcosports.recyclergesture.library.drag.DragDropGesture;
+import com.netcosports.recyclergesture.library.drag.DragSelection;
+import com.netcosports.recyclergesture.library.swipe.SwipeToDismissGesture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Laid out {@link android.support.v7.widget.RecyclerView} of fixed size items used to replay
+ * gestures outside of a device.
+ */
+public final class RecyclerFixture {
+
+    /**
+     * Parent of the recycler view, dragging thumbnail is added to it.
+     */
+    private final FrameLayout parent;
+
+    /**
+     * Recycler view under test.
+     */
+    private final RecyclerView recyclerView;
+
+    /**
+     * Adapter of the recycler view.
+     */
+    private final FixtureAdapter adapter;
+
+    /**
+     * Touch listener events are replayed to.
+     */
+    private RecyclerView.OnItemTouchListener touchListener;
+
+    /**
+     * True once the touch listener intercepted the current gesture.
+     */
+    private boolean intercepted;
+
+    /**
+     * Laid out recycler view of fixed size items.
+     *
+     * @param context     context used to build the views.
+     * @param itemCount   number of items in the adapter.
+     * @param itemSize    size of an item along the scrolling axis in pixels.
+     * @param orientation {@link android.support.v7.widget.LinearLayoutManager#VERTICAL} or
+     *                    {@link android.support.v7.widget.LinearLayoutManager#HORIZONTAL}.
+     * @param width       width of the recycler view in pixels.
+     * @param height      height of the recycler view in pixels.
+     */
+    public RecyclerFixture(Context context, int itemCount, int itemSize, int orientation, int width, int height) {
+        this(context, itemCount, itemSize, new LinearLayoutManager(context, orientation, false), orientation, width,
+          height);
+    }
+
+    /**
+     * Laid out recycler view of fixed size items, with a custom layout manager.
+     *
+     * @param context       context used to build the views.
+     * @param itemCount     number of items in the adapter.
+     * @param itemSize      size of an item along the scrolling axis in pixels.
+     * @param layoutManager layout manager of the recycler view, a grid one for instance.
+     * @param orientation   scrolling axis of the layout manager,
+     *                      {@link android.support.v7.widget.LinearLayoutManager#VERTICAL} or
+     *                      {@link android.support.v7.widget.LinearLayoutManager#HORIZONTAL}.
+     * @param width         width of the recycler view in pixels.
+     * @param height        height of the recycler view in pixels.
+     */
+    public RecyclerFixture(Context context, int itemCount, int itemSize, RecyclerView.LayoutManager layoutManager,
+      int orientation, int width, int height) {
+        parent = new FrameLayout(context);
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setHasFixedSize(true);
+        adapter = new FixtureAdapter(itemCount, itemSize, orientation);
+        recyclerView.setAdapter(adapter);
+        parent.addView(recyclerView, new FrameLayout.LayoutParams(width, height));
+
+        parent.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+          View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, width, height);
+    }
+
+    /**
+     * Recycler view under test.
+     *
+     * @return laid out recycler view.
+     */
+    public RecyclerView getRecyclerView() {
+        return recyclerView;
+    }
+
+    /**
+     * Adapter of the recycler view.
+     *
+     * @return adapter.
+     */
+    public FixtureAdapter getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * Replay events to the given listener the way the recycler view dispatches them.
+     *
+     * @param listener listener events are replayed to.
+     */
+    public void setTouchListener(RecyclerView.OnItemTouchListener listener) {
+        this.touchListener = listener;
+        this.intercepted = false;
+    }
+
+    /**
+     * Dispatch an event to the touch listener: intercept events until the listener claims the
+     * gesture, then touch events until the gesture ends.
+     *
+     * @param event event to dispatch.
+     */
+    public void dispatch(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            intercepted = false;
+        }
+        if (intercepted) {
+            touchListener.onTouchEvent(recyclerView, event);
+        } else {
+            intercepted = touchListener.onInterceptTouchEvent(recyclerView, event);
+        }
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            intercepted = false;
+        }
+    }
+
+    /**
+     * Lay out the view hierarchy again, for instance after an adapter notification.
+     */
+    public void layout() {
+        parent.measure(View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY),
+          View.MeasureSpec.makeMeasureSpec(parent.getHeight(), View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, parent.getWidth(), parent.getHeight());
+    }
+
+    /**
+     * Adapter of fixed size items implementing every gesture callback.
+     */
+    public static final class FixtureAdapter extends RecyclerView.Adapter<FixtureViewHolder>
+      implements DragDropGesture.Swapper, DragDropGesture.Mover, DragDropGesture.GroupMover,
+      SwipeToDismissGesture.BulkDismisser, DragDropCoordinator.Transferer {
+
+        /**
+         * Item models, each item is identified by its initial position.
+         */
+        private final List<Integer> items;
+
+        /**
+         * Size of an item along the scrolling axis.
+         */
+        private final int itemSize;
+
+        /**
+         * Scrolling axis.
+         */
+        private final int orientation;
+
+        /**
+         * Number of swaps performed.
+         */
+        private int swapCount;
+
+        /**
+         * Number of moves performed.
+         */
+        private int moveCount;
+
+        /**
+         * Number of dismisses performed.
+         */
+        private int dismissCount;
+
+        /**
+         * Number of range removals performed.
+         */
+        private int dismissRangeCount;
+
+        /**
+         * True if inserting a transferred item fails.
+         */
+        private boolean insertFailing;
+
+        /**
+         * Adapter of fixed size items.
+         *
+         * @param itemCount   number of items.
+         * @param itemSize    size of an item along the scrolling axis.
+         * @param orientation scrolling axis.
+         */
+        FixtureAdapter(int itemCount, int itemSize, int orientation) {
+            this(0, itemCount, itemSize, orientation);
+        }
+
+        /**
+         * Adapter of fixed size items, identified from a given first item.
+         *
+         * @param firstItem   item of the first position.
+         * @param itemCount   number of items.
+         * @param itemSize    size of an item along the scrolling axis.
+         * @param orientation scrolling axis.
+         */
+        FixtureAdapter(int firstItem, int itemCount, int itemSize, int orientation) {
+            this.items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(firstItem + i);
+            }
+            this.itemSize = itemSize;
+            this.orientation = orientation;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public FixtureViewHolder onCreateViewHolder(ViewGroup viewGroup, int viewType) {
+            View itemView = new View(viewGroup.getContext());
+            if (orientation == LinearLayoutManager.VERTICAL) {
+                itemView.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, itemSize));
+            } else {
+                itemView.setLayoutParams(new RecyclerView.LayoutParams(itemSize, ViewGroup.LayoutParams.MATCH_PARENT));
+            }
+            return new FixtureViewHolder(itemView);
+        }
+
+        @Override
+        public void onBindViewHolder(FixtureViewHolder holder, int position) {
+            holder.item = items.get(position);
+        }
+
+        @Override
+        public int getItemCount() {
+            return items.size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return items.get(position);
+        }
+
+        @Override
+        public void swapPositions(int from, int to) {
+            Collections.swap(items, from, to);
+            swapCount++;
+        }
+
+        @Override
+        public void moveItem(int from, int to) {
+            items.add(to, items.remove(from));
+            moveCount++;
+        }
+
+        @Override
+        public void moveItems(DragSelection selection, int to) {
+            List<Integer> block = new ArrayList<>(selection.getCount());
+            List<Integer> others = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                (selection.isSelected(i) ? block : others).add(items.get(i));
+            }
+            others.addAll(to, block);
+            items.clear();
+            items.addAll(others);
+            moveCount++;
+        }
+
+        @Override
+        public void dismiss(int position) {
+            items.remove(position);
+            dismissCount++;
+        }
+
+        @Override
+        public void dismissRange(int positionStart, int itemCount) {
+            items.subList(positionStart, positionStart + itemCount).clear();
+            dismissCount += itemCount;
+            dismissRangeCount++;
+        }
+
+        @Override
+        public Object removeItem(int position) {
+            return items.remove(position);
+        }
+
+        @Override
+        public void insertItem(int position, Object item) {
+            if (insertFailing) {
+                throw new IllegalStateException("Insertion failure");
+            }
+            items.add(position, (Integer) item);
+        }
+
+        /**
+         * Make the insertion of transferred items fail, to check that transfers are rolled back.
+         *
+         * @param insertFailing true if inserting fails.
+         */
+        public void setInsertFailing(boolean insertFailing) {
+            this.insertFailing = insertFailing;
+        }
+
+        /**
+         * Item models in adapter order.
+         *
+         * @return items identified by their initial position.
+         */
+        public List<Integer> getItems() {
+            return items;
+        }
+
+        /**
+         * Number of swaps performed.
+         *
+         * @return swap count.
+         */
+        public int getSwapCount() {
+            return swapCount;
+        }
+
+        /**
+         * Number of moves performed.
+         *
+         * @return move count.
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Number of dismisses performed.
+         *
+         * @return dismiss count.
+         */
+        public int getDismissCount() {
+            return dismissCount;
+        }
+
+        /**
+         * Number of range removals performed, each of them notified once.
+         *
+         * @return range removal count.
+         */
+        public int getDismissRangeCount() {
+            return dismissRangeCount;
+        }
+    }
+
+    /**
+     * View holder of a fixture item.
+     */
+    public static final class FixtureViewHolder extends RecyclerView.ViewHolder {
+
+        /**
+         * Item bound to the holder.
+         */
+        private int item;
+
+        /**
+         * View holder of a fixture item.
+         *
+         * @param itemView item view.
+         */
+        FixtureViewHolder(View itemView) {
+            super(itemView);
+        }
+
+        /**
+         * Item bound to the holder.
+         *
+         * @return item identified by its initial position.
+         */
+        public int getItem() {
+            return item;
+        }
+    }
+}
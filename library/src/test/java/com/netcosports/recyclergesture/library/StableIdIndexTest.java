@@ -0,0 +1,57 @@
+package com.netcosports.recyclergesture.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check the lookups of the id index, rebuilt over lists of various sizes.
+ */
+public class StableIdIndexTest {
+
+    @Test
+    public void idsAreFoundAtTheirPosition() {
+        StableIdIndex index = new StableIdIndex();
+        long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            // clustered and spread ids, negative ones included.
+            ids[i] = i % 2 == 0 ? i : -((long) i << 32);
+        }
+        index.build(ids, ids.length);
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, index.get(ids[i]));
+        }
+        assertEquals(-1, index.get(1));
+        assertEquals(-1, index.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void rebuildReplacesThePreviousContent() {
+        StableIdIndex index = new StableIdIndex();
+        index.build(new long[]{10, 20, 30}, 3);
+        index.build(new long[]{30, 40}, 2);
+
+        assertEquals(0, index.get(30));
+        assertEquals(1, index.get(40));
+        assertEquals(-1, index.get(10));
+        assertEquals(-1, index.get(20));
+    }
+
+    @Test
+    public void firstPositionOfADuplicatedIdIsKept() {
+        StableIdIndex index = new StableIdIndex();
+        index.build(new long[]{7, 8, 7}, 3);
+
+        assertEquals(0, index.get(7));
+    }
+
+    @Test
+    public void onlyTheGivenCountIsIndexed() {
+        StableIdIndex index = new StableIdIndex();
+        index.build(new long[]{1, 2, 3, 4}, 2);
+
+        assertEquals(1, index.get(2));
+        assertEquals(-1, index.get(3));
+    }
+}
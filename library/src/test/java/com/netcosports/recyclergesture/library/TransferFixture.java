@@ -0,0 +1,187 @@
+package com.netcosports.recyclergesture.library;
+
+import android.app.Activity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.robolectric.Robolectric;
+
+/**
+ * Two vertical {@link android.support.v7.widget.RecyclerView} of fixed size items laid out side
+ * by side in a container attached to a window, used to replay gestures dragging items from one
+ * to the other.
+ * <p/>
+ * Events are expressed in the container coordinates, and dispatched to the recycler view which
+ * received the down event in its own coordinates, the way the framework does.
+ */
+public final class TransferFixture {
+
+    /**
+     * Common ancestor of the recycler views, dragging thumbnail is added to it.
+     */
+    private final FrameLayout container;
+
+    /**
+     * Recycler views under test, from left to right.
+     */
+    private final RecyclerView[] recyclerViews;
+
+    /**
+     * Adapters of the recycler views.
+     */
+    private final RecyclerFixture.FixtureAdapter[] adapters;
+
+    /**
+     * Touch listener events are replayed to.
+     */
+    private RecyclerView.OnItemTouchListener touchListener;
+
+    /**
+     * Recycler view which received the down event of the current gesture, null if none.
+     */
+    private RecyclerView touched;
+
+    /**
+     * True once the touch listener intercepted the current gesture.
+     */
+    private boolean intercepted;
+
+    /**
+     * Two laid out recycler views of fixed size items, side by side.
+     *
+     * @param leftCount      number of items of the left recycler view, identified from 0.
+     * @param rightCount     number of items of the right recycler view.
+     * @param firstRightItem item of the first position of the right recycler view.
+     * @param itemSize       height of an item in pixels.
+     * @param width          width of each recycler view in pixels.
+     * @param height         height of each recycler view in pixels.
+     * @param margin         space left below the recycler views, where items can't be dropped.
+     */
+    public TransferFixture(int leftCount, int rightCount, int firstRightItem, int itemSize, int width, int height,
+      int margin) {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        container = new FrameLayout(activity);
+        recyclerViews = new RecyclerView[2];
+        adapters = new RecyclerFixture.FixtureAdapter[2];
+        adapters[0] = new RecyclerFixture.FixtureAdapter(0, leftCount, itemSize, LinearLayoutManager.VERTICAL);
+        adapters[1] = new RecyclerFixture.FixtureAdapter(firstRightItem, rightCount, itemSize,
+          LinearLayoutManager.VERTICAL);
+        for (int i = 0; i < 2; i++) {
+            RecyclerView recyclerView = new RecyclerView(activity);
+            recyclerView.setLayoutManager(new LinearLayoutManager(activity, LinearLayoutManager.VERTICAL, false));
+            recyclerView.setHasFixedSize(true);
+            recyclerView.setAdapter(adapters[i]);
+            FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(width, height);
+            params.leftMargin = i * width;
+            container.addView(recyclerView, params);
+            recyclerViews[i] = recyclerView;
+        }
+
+        // recycler views are located on screen, the container must be attached to a window.
+        activity.setContentView(container, new ViewGroup.LayoutParams(2 * width, height + margin));
+        layout();
+    }
+
+    /**
+     * Common ancestor of the recycler views.
+     *
+     * @return container attached to a window.
+     */
+    public FrameLayout getContainer() {
+        return container;
+    }
+
+    /**
+     * Recycler view under test.
+     *
+     * @param index 0 for the left one, 1 for the right one.
+     * @return laid out recycler view.
+     */
+    public RecyclerView getRecyclerView(int index) {
+        return recyclerViews[index];
+    }
+
+    /**
+     * Adapter of a recycler view under test.
+     *
+     * @param index 0 for the left one, 1 for the right one.
+     * @return adapter.
+     */
+    public RecyclerFixture.FixtureAdapter getAdapter(int index) {
+        return adapters[index];
+    }
+
+    /**
+     * Replay events to the given listener the way the recycler views dispatch them.
+     *
+     * @param listener listener events are replayed to, shared by both recycler views.
+     */
+    public void setTouchListener(RecyclerView.OnItemTouchListener listener) {
+        this.touchListener = listener;
+        this.touched = null;
+        this.intercepted = false;
+    }
+
+    /**
+     * Dispatch an event expressed in the container coordinates to the recycler view under the
+     * down event: intercept events until the listener claims the gesture, then touch events
+     * until the gesture ends.
+     *
+     * @param event event to dispatch, given back unchanged.
+     */
+    public void dispatch(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            intercepted = false;
+            touched = findRecyclerViewUnder(event.getX(), event.getY());
+        }
+        if (touched == null) {
+            return;
+        }
+
+        event.offsetLocation(-touched.getLeft(), -touched.getTop());
+        if (intercepted) {
+            touchListener.onTouchEvent(touched, event);
+        } else {
+            intercepted = touchListener.onInterceptTouchEvent(touched, event);
+        }
+        event.offsetLocation(touched.getLeft(), touched.getTop());
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            intercepted = false;
+            touched = null;
+        }
+    }
+
+    /**
+     * Lay out the view hierarchy again, for instance after an adapter notification.
+     */
+    public void layout() {
+        ViewGroup.LayoutParams params = container.getLayoutParams();
+        container.measure(View.MeasureSpec.makeMeasureSpec(params.width, View.MeasureSpec.EXACTLY),
+          View.MeasureSpec.makeMeasureSpec(params.height, View.MeasureSpec.EXACTLY));
+        container.layout(container.getLeft(), container.getTop(), container.getLeft() + params.width,
+          container.getTop() + params.height);
+    }
+
+    /**
+     * Find the recycler view under a point of the container.
+     *
+     * @param x x in the container.
+     * @param y y in the container.
+     * @return recycler view, null if none.
+     */
+    private RecyclerView findRecyclerViewUnder(float x, float y) {
+        for (RecyclerView recyclerView : recyclerViews) {
+            if (x >= recyclerView.getLeft() && x < recyclerView.getRight()
+              && y >= recyclerView.getTop() && y < recyclerView.getBottom()) {
+                return recyclerView;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that children are animated at most once at a time, retargeted without jumping and
+ * dropped once out of the viewport.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class ChildAnimatorTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final long DURATION = 150;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    @Test
+    public void retargetingKeepsOneAnimationPerChild() {
+        RecyclerFixture fixture = createFixture();
+        ChildAnimator animator = new ChildAnimator(fixture.getRecyclerView(), DURATION);
+        View child = fixture.getRecyclerView().getChildAt(2);
+
+        animator.animateTo(child, 0, ITEM_SIZE);
+        animator.doFrame(System.nanoTime() + DURATION / 2 * NANOS_PER_MILLI);
+        float midway = child.getTranslationY();
+        assertTrue(midway > 0 && midway < ITEM_SIZE);
+
+        animator.animateTo(child, 0, -ITEM_SIZE);
+        assertEquals(1, animator.getAnimationCount());
+
+        // the retargeted animation starts where the child is.
+        animator.doFrame(System.nanoTime());
+        assertEquals(midway, child.getTranslationY(), 1f);
+
+        assertFalse(animator.doFrame(System.nanoTime() + 2 * DURATION * NANOS_PER_MILLI));
+        assertEquals(-ITEM_SIZE, child.getTranslationY(), 0f);
+        assertEquals(0, animator.getAnimationCount());
+    }
+
+    @Test
+    public void slideStartsOnTheSource() {
+        RecyclerFixture fixture = createFixture();
+        ChildAnimator animator = new ChildAnimator(fixture.getRecyclerView(), DURATION);
+        View view = fixture.getRecyclerView().getChildAt(2);
+        View source = fixture.getRecyclerView().getChildAt(3);
+
+        animator.slideFrom(view, source);
+        assertEquals(ITEM_SIZE, view.getTranslationY(), 0f);
+        animator.slideFrom(source, view);
+        assertEquals(2, animator.getAnimationCount());
+
+        animator.doFrame(System.nanoTime() + 2 * DURATION * NANOS_PER_MILLI);
+        assertEquals(0f, view.getTranslationY(), 0f);
+        assertEquals(0f, source.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void detachedChildrenAreSettled() {
+        RecyclerFixture fixture = createFixture();
+        ChildAnimator animator = new ChildAnimator(fixture.getRecyclerView(), DURATION);
+        View child = fixture.getRecyclerView().getChildAt(0);
+
+        animator.animateTo(child, 0, ITEM_SIZE);
+        assertTrue(animator.isAnimating(child));
+
+        fixture.getRecyclerView().scrollBy(0, HEIGHT * 2);
+        assertFalse(animator.isAnimating(child));
+        assertEquals(ITEM_SIZE, child.getTranslationY(), 0f);
+    }
+
+    private static RecyclerFixture createFixture() {
+        return new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+    }
+}
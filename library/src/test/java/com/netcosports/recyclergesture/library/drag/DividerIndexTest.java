@@ -0,0 +1,164 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that the divider index follows the adapter notifications, each lookup being compared to
+ * a full scan of the adapter.
+ * <p/>
+ * Items which are a multiple of {@link #DIVIDER_STEP} are dividers.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DividerIndexTest {
+
+    private static final int ITEM_COUNT = 30;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int DIVIDER_STEP = 5;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private DragStrategy strategy;
+    private DividerIndex index;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        strategy = new DragStrategy() {
+            @Override
+            public boolean isItemHoverable(int position) {
+                return items.get(position) % DIVIDER_STEP != 0;
+            }
+        };
+        index = new DividerIndex(strategy);
+        fixture.getAdapter().registerAdapterDataObserver(index);
+        index.ensureValid(items.size());
+    }
+
+    @Test
+    public void indexMatchesTheAdapterOnceBuilt() {
+        assertEquals(-1, index.previous(0));
+        assertEquals(5, index.previous(7));
+        assertEquals(5, index.next(0));
+        assertEquals(10, index.next(5));
+        assertEquals(-1, index.next(25));
+        assertIndexed();
+    }
+
+    @Test
+    public void insertedDividersAreIndexedAndFollowingOnesShifted() {
+        items.add(3, 100);
+        items.add(4, 101);
+        fixture.getAdapter().notifyItemRangeInserted(3, 2);
+        assertEquals(3, index.next(0));
+        assertEquals(7, index.next(3));
+        assertIndexed();
+
+        items.add(items.size(), 102);
+        fixture.getAdapter().notifyItemInserted(items.size() - 1);
+        assertIndexed();
+    }
+
+    @Test
+    public void removedDividersAreDroppedAndFollowingOnesShifted() {
+        items.subList(4, 11).clear();
+        fixture.getAdapter().notifyItemRangeRemoved(4, 7);
+        assertEquals(0, index.previous(4));
+        assertEquals(8, index.next(0));
+        assertIndexed();
+    }
+
+    @Test
+    public void movedDividerFollowsItsItem() {
+        // divider moved down, then back up past another divider.
+        Collections.rotate(items.subList(5, 13), -1);
+        fixture.getAdapter().notifyItemMoved(5, 12);
+        assertEquals(9, index.next(0));
+        assertIndexed();
+
+        Collections.rotate(items.subList(2, 13), 1);
+        fixture.getAdapter().notifyItemMoved(12, 2);
+        assertEquals(2, index.next(0));
+        assertIndexed();
+    }
+
+    @Test
+    public void movedItemShiftsTheDividersInBetween() {
+        Collections.rotate(items.subList(1, 17), -1);
+        fixture.getAdapter().notifyItemMoved(1, 16);
+        assertEquals(4, index.next(0));
+        assertIndexed();
+    }
+
+    @Test
+    public void changedItemsAreEvaluatedAgain() {
+        items.set(5, 101);
+        items.set(7, 200);
+        fixture.getAdapter().notifyItemRangeChanged(5, 3);
+        assertEquals(7, index.next(0));
+        assertIndexed();
+    }
+
+    @Test
+    public void dataSetChangeRebuildsTheIndex() {
+        Collections.reverse(items);
+        fixture.getAdapter().notifyDataSetChanged();
+        index.ensureValid(items.size());
+        assertIndexed();
+    }
+
+    @Test
+    public void unregisteredIndexIsntNotifiedAnymore() {
+        fixture.getAdapter().unregisterAdapterDataObserver(index);
+        items.add(0, 100);
+        fixture.getAdapter().notifyItemInserted(0);
+        assertEquals(5, index.next(0));
+    }
+
+    /**
+     * Check every lookup of the index against a full scan of the adapter.
+     */
+    private void assertIndexed() {
+        for (int position = 0; position < items.size(); position++) {
+            assertEquals("previous(" + position + ")", scanPrevious(position), index.previous(position));
+            assertEquals("next(" + position + ")", scanNext(position), index.next(position));
+        }
+    }
+
+    private int scanPrevious(int position) {
+        for (int i = position - 1; i >= 0; i--) {
+            if (!strategy.isItemHoverable(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scanNext(int position) {
+        for (int i = position + 1; i < items.size(); i++) {
+            if (!strategy.isItemHoverable(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,151 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.AllocationCounter;
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+import com.netcosports.recyclergesture.library.TouchPredictor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replay a drag crossing slots back and forth and entering the auto scroll hot zone, and check that
+ * ACTION_MOVE events don't allocate once warmed up.
+ * <p/>
+ * Each event is measured on its own, the layout pass following it isn't. Frames aren't dispatched
+ * so the list doesn't actually scroll.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerAllocationTest {
+
+    /**
+     * Round trips replayed before measuring, to let lazy initializations happen.
+     */
+    private static final int WARM_UP_CYCLES = 5;
+
+    /**
+     * Round trips measured.
+     */
+    private static final int MEASURED_CYCLES = 50;
+
+    /**
+     * Move events per way of a round trip.
+     */
+    private static final int STEPS = 20;
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    private RecyclerFixture fixture;
+    private DragDropListener listener;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 100, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+    }
+
+    @After
+    public void tearDown() {
+        fixture = null;
+        listener = null;
+    }
+
+    @Test
+    public void swapModeMoveDoesntAllocate() {
+        listener = newListener(null);
+        assertMoveDoesntAllocate();
+    }
+
+    @Test
+    public void commitOnDropModeMoveDoesntAllocate() {
+        listener = newListener(fixture.getAdapter());
+        assertMoveDoesntAllocate();
+    }
+
+    @Test
+    public void predictedMoveDoesntAllocate() {
+        listener = newListener(null);
+        listener.setTouchPredictor(new TouchPredictor(16));
+        assertMoveDoesntAllocate();
+    }
+
+    /**
+     * Start a drag on the item in the middle of the screen then drag it down across four slots,
+     * into the bottom hot zone, and back, again and again.
+     */
+    private void assertMoveDoesntAllocate() {
+        fixture.setTouchListener(listener);
+        float x = WIDTH / 2f;
+        float y = ITEM_SIZE * 3.5f;
+        // the dragged item then lies within the bottom hot zone.
+        float hotY = HEIGHT - ITEM_SIZE * 0.4f;
+
+        MotionEventStream down = new MotionEventStream.Builder()
+          .down(x, y)
+          .build();
+        fixture.dispatch(down.get(0));
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout());
+
+        MotionEventStream.Builder builder = new MotionEventStream.Builder()
+          .down(x, y)
+          .hold(ViewConfiguration.getLongPressTimeout());
+        for (int i = 0; i < WARM_UP_CYCLES + MEASURED_CYCLES; i++) {
+            builder.moveTo(x, hotY, STEPS).moveTo(x, y, STEPS);
+        }
+        MotionEventStream moves = builder.up().build();
+
+        // skip the down event of the second stream, only used as time reference.
+        int warmUpEvents = WARM_UP_CYCLES * 2 * STEPS;
+        for (int i = 1; i <= warmUpEvents; i++) {
+            fixture.dispatch(moves.get(i));
+            fixture.layout();
+        }
+
+        AllocationCounter counter = new AllocationCounter();
+        long bytes = 0;
+        for (int i = warmUpEvents + 1; i < moves.size() - 1; i++) {
+            counter.start();
+            fixture.dispatch(moves.get(i));
+            bytes += counter.stop();
+            fixture.layout();
+        }
+
+        fixture.dispatch(moves.get(moves.size() - 1));
+        down.recycle();
+        moves.recycle();
+
+        assertEquals("ACTION_MOVE allocated " + bytes + " bytes over " + MEASURED_CYCLES + " round trips",
+          0, bytes);
+    }
+
+    private DragDropListener newListener(DragDropGesture.Mover mover) {
+        return new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(), fixture.getAdapter(),
+          mover, new DragBehaviorVertical(), new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+    }
+}
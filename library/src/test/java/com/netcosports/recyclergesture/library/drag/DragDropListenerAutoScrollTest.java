@@ -0,0 +1,243 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the auto scroll speed is proportional to the depth of the dragged view within the
+ * hot zones and to the elapsed frame time, and that it stops once the list can't scroll further.
+ * <p/>
+ * Item 1 is long pressed then held within a hot zone, frames are dispatched with chosen frame
+ * times once the drag started.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerAutoScrollTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Number of items of a list scrolling by two items only.
+     */
+    private static final int SHORT_ITEM_COUNT = 10;
+
+    private static final long FRAME_60_HZ = 16666667L;
+    private static final long FRAME_120_HZ = 8333333L;
+
+    /**
+     * Pointer y putting the dragged view a few pixels within the bottom hot zone.
+     */
+    private static final float SHALLOW_Y = HEIGHT - ITEM_SIZE * 0.85f;
+
+    /**
+     * Pointer y putting the dragged view deep within the bottom hot zone.
+     */
+    private static final float DEEP_Y = HEIGHT - ITEM_SIZE * 0.6f;
+
+    private RecyclerFixture fixture;
+    private RecordingBehavior behavior;
+    private DragDropListener listener;
+    private MotionEventStream stream;
+    private int startedCount;
+    private long frameTimeNanos;
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void speedIsProportionalToTheDepthWithinTheHotZone() {
+        setUp(ITEM_COUNT);
+        holdAt(SHALLOW_Y);
+        runFrames(1, FRAME_60_HZ);
+        float shallowRatio = behavior.ratio;
+        int shallowDistance = runFrames(6, FRAME_60_HZ);
+
+        // ratio is evaluated on the next frame, from the new position of the dragged view.
+        moveTo(DEEP_Y);
+        runFrames(1, FRAME_60_HZ);
+        float deepRatio = behavior.ratio;
+        int deepDistance = runFrames(6, FRAME_60_HZ);
+
+        assertTrue(shallowRatio > 0 && shallowRatio < deepRatio);
+        assertTrue(shallowDistance > 0 && shallowDistance < deepDistance);
+        assertEquals(deepDistance * shallowRatio / deepRatio, shallowDistance, 2f);
+    }
+
+    @Test
+    public void speedDoesntDependOnTheFrameRate() {
+        setUp(ITEM_COUNT);
+        holdAt(SHALLOW_Y);
+        runFrames(1, FRAME_60_HZ);
+
+        int distance60 = runFrames(6, FRAME_60_HZ);
+        int distance120 = runFrames(12, FRAME_120_HZ);
+
+        assertTrue(distance60 > 0);
+        assertEquals(distance60, distance120, 1);
+    }
+
+    @Test
+    public void longFrameIsCapped() {
+        setUp(ITEM_COUNT);
+        holdAt(DEEP_Y);
+        runFrames(1, FRAME_60_HZ);
+
+        int capped = runFrames(1, 50000000L);
+        int stalled = runFrames(1, 1000000000L);
+
+        assertTrue(capped > 0);
+        assertEquals(capped, stalled, 1);
+    }
+
+    @Test
+    public void scrollStopsOnceTheEndOfTheListIsReached() {
+        setUp(SHORT_ITEM_COUNT);
+        holdAt(DEEP_Y);
+
+        int frames = 0;
+        while (listener.doAutoScrollFrame(frameTimeNanos += FRAME_60_HZ) && frames < 100) {
+            frames++;
+        }
+
+        assertTrue(frames < 100);
+        assertFalse(fixture.getRecyclerView().canScrollVertically(1));
+        int scrollCount = behavior.scrollCount;
+        assertFalse(listener.doAutoScrollFrame(frameTimeNanos += FRAME_60_HZ));
+        assertEquals(scrollCount, behavior.scrollCount);
+    }
+
+    @Test
+    public void scrollDoesntStartAtTheStartOfTheList() {
+        setUp(ITEM_COUNT);
+        holdAt(ITEM_SIZE * 0.6f);
+
+        assertTrue(behavior.ratio < 0);
+        assertFalse(listener.doAutoScrollFrame(frameTimeNanos += FRAME_60_HZ));
+        assertEquals(0, behavior.scrollCount);
+    }
+
+    /**
+     * Lay out the list and listen to its drags, reordering is committed on drop.
+     *
+     * @param itemCount number of items.
+     */
+    private void setUp(int itemCount) {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, itemCount, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        behavior = new RecordingBehavior();
+        startedCount = 0;
+        frameTimeNanos = 1000000000L;
+        listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(), fixture.getAdapter(),
+          fixture.getAdapter(), behavior, new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+                  startedCount++;
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+        fixture.setTouchListener(listener);
+    }
+
+    /**
+     * Long press item 1 and hold the pointer at the given height.
+     * <p/>
+     * The looper only runs until the drag started, frames are dispatched by the test.
+     *
+     * @param y pointer y.
+     */
+    private void holdAt(float y) {
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * 1.5f)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, y, 10)
+          .moveTo(WIDTH / 2f, y, 1)
+          .build();
+        for (int i = 0; i < stream.size(); i++) {
+            if (i > 0 && startedCount == 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+        assertEquals(1, startedCount);
+    }
+
+    /**
+     * Move the held pointer to another height.
+     *
+     * @param y pointer y.
+     */
+    private void moveTo(float y) {
+        MotionEventStream move = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, y)
+          .moveTo(WIDTH / 2f, y, 1)
+          .build();
+        fixture.dispatch(move.get(1));
+        move.recycle();
+    }
+
+    /**
+     * Dispatch frames to the auto scroller at a fixed interval.
+     *
+     * @param count         number of frames.
+     * @param intervalNanos time elapsed before each frame.
+     * @return distance scrolled by those frames.
+     */
+    private int runFrames(int count, long intervalNanos) {
+        int start = behavior.scrolled;
+        for (int i = 0; i < count; i++) {
+            frameTimeNanos += intervalNanos;
+            listener.doAutoScrollFrame(frameTimeNanos);
+        }
+        return behavior.scrolled - start;
+    }
+
+    /**
+     * Vertical behavior recording the last auto scroll ratio and the scrolled distance.
+     */
+    private static final class RecordingBehavior extends DragBehaviorVertical {
+
+        private float ratio;
+        private int scrolled;
+        private int scrollCount;
+
+        @Override
+        public float getAutoScrollRatio(View recyclerView, View draggedView) {
+            ratio = super.getAutoScrollRatio(recyclerView, draggedView);
+            return ratio;
+        }
+
+        @Override
+        public void scroll(View recyclerView, int distance) {
+            scrolled += distance;
+            scrollCount++;
+            super.scroll(recyclerView, distance);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.GestureBenchmark;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replay drags back and forth over several items and report the time spent per event, for lists
+ * of several sizes and layouts.
+ * <p/>
+ * The p99 budget can be tightened with -Pbenchmark.p99Micros=... when looking for regressions,
+ * the default one only catches pathological slowdowns on a loaded machine.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerBenchmarkTest {
+
+    /**
+     * Default budget for the 99th percentile of the time spent per event.
+     */
+    private static final long DEFAULT_P99_BUDGET_MICROS = 20000;
+
+    /**
+     * Drags replayed before measuring, to let lazy initializations and the JIT happen.
+     */
+    private static final int WARM_UP_DRAGS = 3;
+
+    /**
+     * Drags measured.
+     */
+    private static final int MEASURED_DRAGS = 10;
+
+    /**
+     * Move events from the picked item to the farthest one, and back.
+     */
+    private static final int STEPS = 40;
+
+    private static final int ITEM_SIZE = 100;
+    private static final int LENGTH = 800;
+    private static final int BREADTH = 480;
+    private static final int SPAN_COUNT = 3;
+
+    @Test
+    public void verticalSwap() {
+        run("vertical swap, 100 items", vertical(100), new DragBehaviorVertical(), false);
+        run("vertical swap, 10000 items", vertical(10000), new DragBehaviorVertical(), false);
+    }
+
+    @Test
+    public void verticalCommitOnDrop() {
+        run("vertical commit on drop, 100 items", vertical(100), new DragBehaviorVertical(), true);
+        run("vertical commit on drop, 10000 items", vertical(10000), new DragBehaviorVertical(), true);
+    }
+
+    @Test
+    public void horizontalSwap() {
+        RecyclerFixture small = new RecyclerFixture(RuntimeEnvironment.application, 100, ITEM_SIZE,
+          LinearLayoutManager.HORIZONTAL, LENGTH, BREADTH);
+        run("horizontal swap, 100 items", small, new DragBehaviorHorizontal(), false);
+        RecyclerFixture large = new RecyclerFixture(RuntimeEnvironment.application, 10000, ITEM_SIZE,
+          LinearLayoutManager.HORIZONTAL, LENGTH, BREADTH);
+        run("horizontal swap, 10000 items", large, new DragBehaviorHorizontal(), false);
+    }
+
+    @Test
+    public void gridSwap() {
+        run("grid swap, 100 items", grid(100), new DragBehaviorGrid(true), false);
+        run("grid swap, 10000 items", grid(10000), new DragBehaviorGrid(true), false);
+    }
+
+    private static RecyclerFixture vertical(int itemCount) {
+        return new RecyclerFixture(RuntimeEnvironment.application, itemCount, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, BREADTH, LENGTH);
+    }
+
+    private static RecyclerFixture grid(int itemCount) {
+        return new RecyclerFixture(RuntimeEnvironment.application, itemCount, ITEM_SIZE,
+          new GridLayoutManager(RuntimeEnvironment.application, SPAN_COUNT), LinearLayoutManager.VERTICAL,
+          BREADTH, LENGTH);
+    }
+
+    /**
+     * Replay drags from the second item to the sixth one along the scrolling axis, and back.
+     */
+    private void run(String name, RecyclerFixture fixture, DragBehavior behavior, boolean commitOnDrop) {
+        DragDropListener listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(),
+          fixture.getAdapter(), commitOnDrop ? fixture.getAdapter() : null, behavior, new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+        fixture.setTouchListener(listener);
+
+        boolean horizontal = behavior instanceof DragBehaviorHorizontal;
+        float startAxis = ITEM_SIZE * 1.5f;
+        float endAxis = ITEM_SIZE * 5.5f;
+        float startCross = behavior instanceof DragBehaviorGrid ? BREADTH / (2f * SPAN_COUNT) : BREADTH / 2f;
+        float endCross = behavior instanceof DragBehaviorGrid ? BREADTH - startCross : startCross;
+
+        GestureBenchmark benchmark = new GestureBenchmark(fixture, MEASURED_DRAGS * (2 * STEPS + 2));
+        for (int drag = 0; drag < WARM_UP_DRAGS + MEASURED_DRAGS; drag++) {
+            if (drag == WARM_UP_DRAGS) {
+                benchmark.reset();
+            }
+            MotionEventStream stream = new MotionEventStream.Builder()
+              .down(x(horizontal, startAxis, startCross), y(horizontal, startAxis, startCross))
+              .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+              .moveTo(x(horizontal, endAxis, endCross), y(horizontal, endAxis, endCross), STEPS)
+              .moveTo(x(horizontal, startAxis, startCross), y(horizontal, startAxis, startCross), STEPS)
+              .up()
+              .build();
+
+            // long press is detected by the looper between the down and the first move.
+            benchmark.dispatch(stream.get(0));
+            ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout());
+            benchmark.replay(stream, 1, stream.size());
+
+            // let the drop animation end and the adapter notifications be laid out.
+            ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+            fixture.layout();
+            stream.recycle();
+        }
+
+        GestureBenchmark.Report report = benchmark.report(name);
+        System.out.println(report);
+
+        assertEquals(MEASURED_DRAGS * (2 * STEPS + 2), report.getEventCount());
+        assertTrue(name + " didn't reorder anything", report.getSwapCount() + report.getMoveCount() > 0);
+        long budgetNanos = Long.getLong("benchmark.p99Micros", DEFAULT_P99_BUDGET_MICROS) * 1000;
+        assertTrue(name + " p99 is " + report.getP99Nanos() + " ns, budget is " + budgetNanos + " ns",
+          report.getP99Nanos() <= budgetNanos);
+    }
+
+    private static float x(boolean horizontal, float axis, float cross) {
+        return horizontal ? axis : cross;
+    }
+
+    private static float y(boolean horizontal, float axis, float cross) {
+        return horizontal ? cross : axis;
+    }
+}
@@ -0,0 +1,169 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that reordering is only committed once dropped in commit on drop mode, views being
+ * shifted by translation while dragging.
+ * <p/>
+ * Item 1 is long pressed then dragged across several slots, shifts are applied right away
+ * instead of being animated so that translations can be checked at any time.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerCommitTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Dragged item, identified by its initial position.
+     */
+    private static final int DRAGGED_ITEM = 1;
+
+    /**
+     * Slot the dragged item is dropped in.
+     */
+    private static final int TARGET_SLOT = 5;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private MotionEventStream stream;
+    private int endedCount;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        endedCount = 0;
+
+        DragBehavior dragBehavior = new DragBehaviorVertical() {
+            @Override
+            public void animateShift(ChildAnimator animator, View view, float offset) {
+                shift(view, offset);
+            }
+        };
+        DragDropListener listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(),
+          fixture.getAdapter(), fixture.getAdapter(), dragBehavior, new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+                  endedCount++;
+              }
+          });
+        fixture.setTouchListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void crossedViewsAreShiftedWhileDraggingThenMovedOnceDropped() {
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * (DRAGGED_ITEM + 0.5f))
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * (TARGET_SLOT + 0.5f), 20)
+          .up()
+          .build();
+        replay(0, stream.size() - 2);
+
+        // data are untouched, crossed views moved up by one slot and the hidden dragged view
+        // follows its future slot.
+        assertEquals(0, fixture.getAdapter().getMoveCount());
+        assertEquals(0, fixture.getAdapter().getSwapCount());
+        assertEquals(DRAGGED_ITEM, (int) items.get(DRAGGED_ITEM));
+        RecyclerView recyclerView = fixture.getRecyclerView();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            int position = recyclerView.getChildPosition(child);
+            float expected = 0;
+            if (position == DRAGGED_ITEM) {
+                expected = (TARGET_SLOT - DRAGGED_ITEM) * ITEM_SIZE;
+            } else if (position > DRAGGED_ITEM && position <= TARGET_SLOT) {
+                expected = -ITEM_SIZE;
+            }
+            assertEquals("translation of " + position, expected, child.getTranslationY(), 0f);
+            assertEquals(position == DRAGGED_ITEM ? View.INVISIBLE : View.VISIBLE, child.getVisibility());
+        }
+
+        replay(stream.size() - 1, stream.size() - 1);
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+
+        assertEquals(1, endedCount);
+        assertEquals(1, fixture.getAdapter().getMoveCount());
+        assertEquals(0, fixture.getAdapter().getSwapCount());
+        assertEquals(Arrays.asList(0, 2, 3, 4, 5, DRAGGED_ITEM, 6), items.subList(0, 7));
+        assertEquals(ITEM_COUNT, items.size());
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            assertEquals(0f, child.getTranslationY(), 0f);
+        }
+    }
+
+    @Test
+    public void dropInTheStartSlotDoesntMoveAnything() {
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * (DRAGGED_ITEM + 0.5f))
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * (TARGET_SLOT + 0.5f), 20)
+          .moveTo(WIDTH / 2f, ITEM_SIZE * (DRAGGED_ITEM + 0.5f), 20)
+          .up()
+          .build();
+        replay(0, stream.size() - 1);
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+
+        assertEquals(1, endedCount);
+        assertEquals(0, fixture.getAdapter().getMoveCount());
+        assertEquals(DRAGGED_ITEM, (int) items.get(DRAGGED_ITEM));
+        RecyclerView recyclerView = fixture.getRecyclerView();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            assertEquals(0f, recyclerView.getChildAt(i).getTranslationY(), 0f);
+        }
+    }
+
+    /**
+     * Dispatch a range of events, letting the looper run for the time elapsed in between so that
+     * the long press is detected.
+     */
+    private void replay(int first, int last) {
+        for (int i = first; i <= last; i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+    }
+}
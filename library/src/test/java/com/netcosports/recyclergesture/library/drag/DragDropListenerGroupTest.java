@@ -0,0 +1,177 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that a dragged group is bounded by the dividers around the long pressed item, and that
+ * a selection holding an item which can't be dragged isn't dragged at all.
+ * <p/>
+ * Items 1 and 2 are selected, item 1 is long pressed then dragged past the divider.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerGroupTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Item which can't be dragged nor hovered.
+     */
+    private static final int DIVIDER = 4;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private DragStrategy strategy;
+    private DragSelection selection;
+    private DragDropListener listener;
+    private MotionEventStream stream;
+    private int startedCount;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        selection = new DragSelection();
+        selection.select(1);
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * 1.5f)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 6.5f, 20)
+          .up()
+          .build();
+        startedCount = 0;
+
+        strategy = new DragStrategy() {
+            @Override
+            public boolean isItemDraggable(int position) {
+                return items.get(position) != DIVIDER;
+            }
+
+            @Override
+            public boolean isItemHoverable(int position) {
+                return items.get(position) != DIVIDER;
+            }
+        };
+        listener = createListener();
+        fixture.setTouchListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void groupIsDroppedBeforeTheNextDivider() {
+        selection.select(2);
+        replay();
+
+        assertEquals(1, startedCount);
+        assertEquals(Arrays.asList(0, 3, 1, 2, DIVIDER, 5), items.subList(0, 6));
+    }
+
+    @Test
+    public void selectionHoldingAnItemWhichCantBeDraggedIsntDragged() {
+        selection.select(DIVIDER);
+        replay();
+
+        assertEquals(0, startedCount);
+        assertEquals(0, fixture.getAdapter().getMoveCount());
+    }
+
+    @Test
+    public void selectionIsGivenToTheListenerBuiltAgain() {
+        // the selection can only be registered once to the adapter, it must have been unregistered.
+        listener.detach();
+        listener = createListener();
+        fixture.setTouchListener(listener);
+
+        // the selection is shifted once by each notification.
+        items.add(0, ITEM_COUNT);
+        fixture.getAdapter().notifyItemInserted(0);
+        assertEquals(2, selection.nextSelected(0));
+        items.remove(0);
+        fixture.getAdapter().notifyItemRemoved(0);
+        assertEquals(1, selection.nextSelected(0));
+        fixture.layout();
+
+        selection.select(2);
+        replay();
+
+        assertEquals(1, startedCount);
+        assertEquals(Arrays.asList(0, 3, 1, 2, DIVIDER, 5), items.subList(0, 6));
+    }
+
+    @Test
+    public void detachedListenerNeitherDragsNorFollowsTheAdapter() {
+        selection.select(2);
+        listener.detach();
+        replay();
+
+        assertEquals(0, startedCount);
+        assertEquals(0, fixture.getAdapter().getMoveCount());
+
+        items.add(0, ITEM_COUNT);
+        fixture.getAdapter().notifyItemInserted(0);
+        assertEquals(1, selection.nextSelected(0));
+    }
+
+    /**
+     * Listener dragging the selection.
+     *
+     * @return listener registered to the adapter.
+     */
+    private DragDropListener createListener() {
+        return new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(), fixture.getAdapter(), null,
+          new DragBehaviorVertical(), strategy, selection, new DragThumbnailFactory(new DragThumbnailPool(), null, 1f),
+          new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+                  startedCount++;
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+    }
+
+    /**
+     * Dispatch the gesture, letting the looper run for the time elapsed in between so that the
+     * long press is detected.
+     */
+    private void replay() {
+        for (int i = 0; i < stream.size(); i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+    }
+}
@@ -0,0 +1,208 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that the dragged item is followed through the adapter notifications received while
+ * dragging, whether items are swapped while dragging or moved once dropped.
+ * <p/>
+ * Item 1 is dragged to slot 5, the adapter is updated, then the item is dragged back to slot 3
+ * and dropped.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerSessionTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Id of the items inserted while dragging, out of the initial ids.
+     */
+    private static final int INSERTED_ITEM = 1000;
+
+    /**
+     * Dragged item, identified by its initial position.
+     */
+    private static final int DRAGGED_ITEM = 1;
+
+    /**
+     * Index of the last event before the adapter is updated.
+     */
+    private static final int UPDATE_INDEX = 10;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private MotionEventStream stream;
+    private int endedCount;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * 1.5f)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 5.5f, UPDATE_INDEX)
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 3.5f, 10)
+          .up()
+          .build();
+        endedCount = 0;
+    }
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void swapModeFollowsInsertions() {
+        startDrag(null);
+        assertEquals(5, items.indexOf(DRAGGED_ITEM));
+        items.add(0, INSERTED_ITEM);
+        fixture.getAdapter().notifyItemInserted(0);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    @Test
+    public void swapModeIsLostWhenTheDraggedItemIsRemoved() {
+        startDrag(null);
+        items.remove(5);
+        fixture.getAdapter().notifyItemRemoved(5);
+        assertEquals(1, endedCount);
+    }
+
+    @Test
+    public void swapModeFollowsRemovalsOfOtherItems() {
+        startDrag(null);
+        // item now displayed where the drag started.
+        items.remove(1);
+        fixture.getAdapter().notifyItemRemoved(1);
+        assertEquals(0, endedCount);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    @Test
+    public void swapModeFollowsMovesOfOtherItems() {
+        startDrag(null);
+        items.add(10, items.remove(0));
+        fixture.getAdapter().notifyItemMoved(0, 10);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    @Test
+    public void commitOnDropModeFollowsInsertions() {
+        startDrag(fixture.getAdapter());
+        assertEquals(DRAGGED_ITEM, (int) items.get(1));
+        items.add(0, INSERTED_ITEM);
+        fixture.getAdapter().notifyItemInserted(0);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    @Test
+    public void commitOnDropModeIsLostWhenTheDraggedItemIsRemoved() {
+        startDrag(fixture.getAdapter());
+        items.remove(1);
+        fixture.getAdapter().notifyItemRemoved(1);
+        assertEquals(1, endedCount);
+    }
+
+    @Test
+    public void commitOnDropModeFollowsRemovalsOfCrossedItems() {
+        startDrag(fixture.getAdapter());
+        items.remove(3);
+        fixture.getAdapter().notifyItemRemoved(3);
+        assertEquals(0, endedCount);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    @Test
+    public void commitOnDropModeFollowsMovesOfOtherItems() {
+        startDrag(fixture.getAdapter());
+        items.add(10, items.remove(0));
+        fixture.getAdapter().notifyItemMoved(0, 10);
+        endDrag();
+
+        assertDroppedAt(3);
+    }
+
+    /**
+     * Long press the dragged item and drag it to slot 5.
+     */
+    private void startDrag(DragDropGesture.Mover mover) {
+        DragDropListener listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(),
+          fixture.getAdapter(), mover, new DragBehaviorVertical(), new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+                  endedCount++;
+              }
+          });
+        fixture.setTouchListener(listener);
+        replay(0, UPDATE_INDEX);
+    }
+
+    /**
+     * Lay out the update, drag the item back to slot 3 and drop it.
+     */
+    private void endDrag() {
+        fixture.layout();
+        replay(UPDATE_INDEX + 1, stream.size() - 1);
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+        assertEquals(1, endedCount);
+    }
+
+    private void assertDroppedAt(int position) {
+        assertEquals(DRAGGED_ITEM, (int) items.get(position));
+    }
+
+    /**
+     * Dispatch a range of events, letting the looper run for the time elapsed in between so that
+     * the long press is detected.
+     */
+    private void replay(int first, int last) {
+        for (int i = first; i <= last; i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that a flick crossing several slots within a single event is resolved at once, the target
+ * slot being clamped to the first or the last laid out child once the dragged view leaves the
+ * list.
+ * <p/>
+ * Items are swapped while dragging, through a single move per resolved target.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerTargetTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Number of items of a list shorter than the recycler view.
+     */
+    private static final int SHORT_ITEM_COUNT = 5;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private MotionEventStream stream;
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void flickAcrossSeveralSlotsIsResolvedAtOnce() {
+        setUp(ITEM_COUNT);
+        drag(1, ITEM_SIZE * 5.5f);
+
+        assertEquals(1, fixture.getAdapter().getMoveCount());
+        assertEquals(Arrays.asList(0, 2, 3, 4, 5, 1, 6), items.subList(0, 7));
+    }
+
+    @Test
+    public void flickAboveTheListIsClampedToTheFirstSlot() {
+        // the list can't scroll further up, the target is resolved right away.
+        setUp(ITEM_COUNT);
+        drag(3, -HEIGHT / 2f);
+
+        assertEquals(1, fixture.getAdapter().getMoveCount());
+        assertEquals(Arrays.asList(3, 0, 1, 2, 4), items.subList(0, 5));
+    }
+
+    @Test
+    public void flickBelowTheLastChildIsClampedToTheLastSlot() {
+        // items don't fill the recycler view, which can't scroll.
+        setUp(SHORT_ITEM_COUNT);
+        drag(1, HEIGHT * 1.5f);
+
+        assertEquals(1, fixture.getAdapter().getMoveCount());
+        assertEquals(Arrays.asList(0, 2, 3, 4, 1), items);
+    }
+
+    @Test
+    public void flickBackToTheStartSlotDoesntMoveAnything() {
+        setUp(ITEM_COUNT);
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * 2.5f)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 2.6f, 1)
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 2.4f, 1)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(0, fixture.getAdapter().getMoveCount());
+        assertEquals(2, (int) items.get(2));
+    }
+
+    /**
+     * Lay out the list and listen to its drags, items are swapped while dragging.
+     *
+     * @param itemCount number of items.
+     */
+    private void setUp(int itemCount) {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, itemCount, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        DragDropListener listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(),
+          fixture.getAdapter(), null, new DragBehaviorVertical(), new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+        fixture.setTouchListener(listener);
+    }
+
+    /**
+     * Long press an item, flick it within a single move event then drop it.
+     *
+     * @param position position of the long pressed item, its center is pressed.
+     * @param toY      pointer y once flicked.
+     */
+    private void drag(int position, float toY) {
+        stream = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * (position + 0.5f))
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, toY, 1)
+          .up()
+          .build();
+        replay();
+    }
+
+    /**
+     * Dispatch the gesture, letting the looper run for the time elapsed in between so that the
+     * long press is detected.
+     */
+    private void replay() {
+        for (int i = 0; i < stream.size(); i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+    }
+}
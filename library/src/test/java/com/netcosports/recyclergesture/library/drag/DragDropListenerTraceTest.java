@@ -0,0 +1,140 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.core.GestureTrace;
+import com.netcosports.recyclergesture.core.GestureTraceReader;
+import com.netcosports.recyclergesture.core.GestureTraceRecorder;
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Record a drag session, then replay the trace against a fresh list : the same decisions must be
+ * taken and the list must end in the same order.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragDropListenerTraceTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayedTraceTakesTheSameDecisions() throws IOException {
+        MotionEventStream scripted = new MotionEventStream.Builder()
+          .down(WIDTH / 2f, ITEM_SIZE * 1.5f)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout())
+          .moveTo(WIDTH / 2f, ITEM_SIZE * 5.5f, 30)
+          .oscillate(0, ITEM_SIZE, 3)
+          .up()
+          .build();
+
+        GestureTraceRecorder recorder = new GestureTraceRecorder(1024);
+        RecyclerFixture recorded = createFixture(recorder);
+        replay(recorded, scripted);
+        scripted.recycle();
+
+        File file = folder.newFile();
+        recorder.writeTo(file);
+        GestureTraceReader reader = new GestureTraceReader(file);
+        try {
+            List<String> decisions = getDecisions(reader);
+            assertTrue(decisions.get(0).startsWith(GestureTrace.DECISION_DRAG_START + " "));
+            assertTrue(decisions.get(1).startsWith(GestureTrace.DECISION_SWITCH + " "));
+            assertTrue(decisions.get(decisions.size() - 1).startsWith(GestureTrace.DECISION_DROP + " "));
+
+            GestureTraceRecorder replayRecorder = new GestureTraceRecorder(1024);
+            RecyclerFixture replayed = createFixture(replayRecorder);
+            MotionEventStream stream = MotionEventStream.fromTrace(reader);
+            assertEquals(scripted.size(), stream.size());
+            replay(replayed, stream);
+            stream.recycle();
+
+            File replayFile = folder.newFile();
+            replayRecorder.writeTo(replayFile);
+            GestureTraceReader replayReader = new GestureTraceReader(replayFile);
+            try {
+                assertEquals(decisions, getDecisions(replayReader));
+            } finally {
+                replayReader.close();
+            }
+            assertEquals(recorded.getAdapter().getItems(), replayed.getAdapter().getItems());
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static RecyclerFixture createFixture(GestureTraceRecorder recorder) {
+        RecyclerFixture fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        DragDropListener listener = new DragDropListener(fixture.getRecyclerView(), fixture.getAdapter(),
+          fixture.getAdapter(), null, new DragBehaviorVertical(), new DragStrategy(), null,
+          new DragThumbnailFactory(new DragThumbnailPool(), null, 1f), new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+
+              }
+
+              @Override
+              public void onDragEnded() {
+
+              }
+          });
+        listener.setTraceRecorder(recorder);
+        fixture.setTouchListener(listener);
+        return fixture;
+    }
+
+    /**
+     * Dispatch the events of a stream, letting the looper run for the time elapsed in between so
+     * that the long press is detected.
+     */
+    private static void replay(RecyclerFixture fixture, MotionEventStream stream) {
+        for (int i = 0; i < stream.size(); i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+        ShadowLooper.idleMainLooper(ViewConfiguration.getLongPressTimeout());
+        fixture.layout();
+    }
+
+    /**
+     * Decisions of a trace, in order, as "code first second".
+     */
+    private static List<String> getDecisions(GestureTraceReader reader) {
+        List<String> decisions = new ArrayList<String>();
+        for (int i = 0; i < reader.getRecordCount(); i++) {
+            if (reader.getKind(i) == GestureTrace.KIND_DECISION) {
+                decisions.add(reader.getDecision(i) + " " + reader.getDecisionArgument(i, 0) + " "
+                  + reader.getDecisionArgument(i, 1));
+            }
+        }
+        return decisions;
+    }
+}
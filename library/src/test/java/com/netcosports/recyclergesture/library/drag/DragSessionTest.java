@@ -0,0 +1,154 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the dragged item is found back by id once a data set change is reconciled.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragSessionTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    private RecyclerFixture fixture;
+    private List<Integer> items;
+    private List<Runnable> tasks;
+    private DragSession session;
+    private int reconciledPosition;
+    private int affectedStart;
+    private int affectedEnd;
+    private int lostCount;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, ITEM_COUNT, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        items = fixture.getAdapter().getItems();
+        tasks = new ArrayList<>();
+        reconciledPosition = -1;
+        session = new DragSession(fixture.getAdapter(), new DragSession.Listener() {
+            @Override
+            public void onSessionItemsInserted(int positionStart, int itemCount) {
+
+            }
+
+            @Override
+            public void onSessionItemsRemoved(int positionStart, int itemCount) {
+
+            }
+
+            @Override
+            public void onSessionItemMoved(int fromPosition, int toPosition) {
+
+            }
+
+            @Override
+            public void onSessionReconciled(int draggedPosition, int start, int end) {
+                reconciledPosition = draggedPosition;
+                affectedStart = start;
+                affectedEnd = end;
+            }
+
+            @Override
+            public void onSessionLost() {
+                lostCount++;
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // run on demand, to update the adapter while reconciling.
+                tasks.add(command);
+            }
+        });
+        fixture.getAdapter().registerAdapterDataObserver(session);
+    }
+
+    @After
+    public void tearDown() {
+        fixture.getAdapter().unregisterAdapterDataObserver(session);
+    }
+
+    @Test
+    public void draggedItemIsFoundBackAfterAFullChange() {
+        session.start(1);
+        items.add(20, items.remove(1));
+        fixture.getAdapter().notifyDataSetChanged();
+        assertTrue(session.isReconciling());
+
+        runTasks();
+        assertFalse(session.isReconciling());
+        assertEquals(20, reconciledPosition);
+        assertEquals(1, affectedStart);
+        assertEquals(21, affectedEnd);
+    }
+
+    @Test
+    public void sessionIsLostWhenTheDraggedItemDisappeared() {
+        session.start(1);
+        items.remove(1);
+        fixture.getAdapter().notifyDataSetChanged();
+
+        runTasks();
+        assertEquals(1, lostCount);
+    }
+
+    @Test
+    public void idsChangedWhileReconcilingAreReconciledAgain() {
+        session.start(1);
+        fixture.getAdapter().notifyDataSetChanged();
+        // new ids have already been read.
+        Collections.swap(items, 1, 30);
+        fixture.getAdapter().notifyItemChanged(1);
+        fixture.getAdapter().notifyItemChanged(30);
+
+        runTasks();
+        assertEquals(30, reconciledPosition);
+    }
+
+    @Test
+    public void reconciliationOfAFinishedDragIsDropped() {
+        session.start(1);
+        items.add(20, items.remove(1));
+        fixture.getAdapter().notifyDataSetChanged();
+        session.stop();
+
+        runTasks();
+        assertEquals(-1, reconciledPosition);
+        assertEquals(0, lostCount);
+    }
+
+    /**
+     * Run the pending reconciliations, published on the main looper.
+     */
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+            ShadowLooper.idleMainLooper();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.graphics.Bitmap;
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+import android.widget.ImageView;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the pool budget bounds the capture scale, bitmaps being rounded up to the pool
+ * buckets, unless it can't hold a bitmap of the smallest bucket.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragThumbnailFactoryTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Size of the pool buckets, in pixels.
+     */
+    private static final int BUCKET_SIZE = 64;
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private View view;
+    private DragThumbnailFactory factory;
+
+    @Before
+    public void setUp() {
+        RecyclerFixture fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        view = fixture.getRecyclerView().getChildAt(2);
+    }
+
+    @Test
+    public void emptyPoolCapturesAtTheMaximumScale() {
+        Bitmap bitmap = capture(new DragThumbnailPool(0));
+
+        assertTrue(bitmap.getWidth() >= WIDTH);
+        assertTrue(bitmap.getHeight() >= ITEM_SIZE);
+    }
+
+    @Test
+    public void poolTooSmallForABucketCapturesAtTheMaximumScale() {
+        Bitmap bitmap = capture(new DragThumbnailPool(BUCKET_SIZE * BUCKET_SIZE * BYTES_PER_PIXEL - 1));
+
+        assertTrue(bitmap.getWidth() >= WIDTH);
+        assertTrue(bitmap.getHeight() >= ITEM_SIZE);
+    }
+
+    @Test
+    public void smallPoolCapturesABucketedBitmapWithinItsBudget() {
+        // a quarter of the pixels fit, but half the size rounded up to the buckets doesn't.
+        int budget = WIDTH * ITEM_SIZE;
+        DragThumbnailPool pool = new DragThumbnailPool(budget);
+        ImageView thumbnail = create(pool);
+        Bitmap bitmap = (Bitmap) thumbnail.getTag();
+
+        assertTrue(bitmap.getWidth() < WIDTH / 2);
+        assertTrue(bitmap.getWidth() * bitmap.getHeight() * BYTES_PER_PIXEL <= budget);
+
+        // the bitmap is retained once released, then reused by the next capture.
+        factory.release(thumbnail);
+        assertTrue(pool.getSizeInBytes() > 0);
+        create(pool);
+        assertEquals(1, pool.getHitCount());
+    }
+
+    @Test
+    public void scaleFitsTheBucketsOfTheBudget() {
+        DragThumbnailPool pool = new DragThumbnailPool(WIDTH * ITEM_SIZE);
+        float scale = pool.fitScale(WIDTH, ITEM_SIZE, BYTES_PER_PIXEL, 1f);
+        int width = bucket(DragThumbnailPool.scale(WIDTH, scale));
+        int height = bucket(DragThumbnailPool.scale(ITEM_SIZE, scale));
+
+        assertTrue(scale > 0f);
+        assertTrue(width * height * BYTES_PER_PIXEL <= WIDTH * ITEM_SIZE);
+        assertEquals(1f, new DragThumbnailPool().fitScale(WIDTH, ITEM_SIZE, BYTES_PER_PIXEL, 1f), 0f);
+    }
+
+    private Bitmap capture(DragThumbnailPool pool) {
+        return (Bitmap) create(pool).getTag();
+    }
+
+    private ImageView create(DragThumbnailPool pool) {
+        factory = new DragThumbnailFactory(pool, Bitmap.Config.ARGB_8888, 1f);
+        return factory.create(view, 1);
+    }
+
+    private static int bucket(int dimension) {
+        return (dimension + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,282 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.TransferFixture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Drag items between two recycler views laid out side by side and check the content of both
+ * adapters once dropped.
+ * <p/>
+ * Item 2 of the left recycler view is long pressed, the right recycler view holds items from
+ * {@link #FIRST_RIGHT_ITEM}. Coordinates are expressed in the common container.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DragTransferListenerTest {
+
+    private static final int ITEM_COUNT = 30;
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 240;
+    private static final int HEIGHT = 800;
+
+    /**
+     * Space below the recycler views, where items can't be dropped.
+     */
+    private static final int MARGIN = 200;
+
+    private static final int FIRST_RIGHT_ITEM = 100;
+    private static final int DRAGGED_ITEM = 2;
+    private static final float LEFT_X = WIDTH / 2f;
+    private static final float RIGHT_X = WIDTH * 1.5f;
+    private static final float DOWN_Y = ITEM_SIZE * 2.5f;
+
+    /**
+     * Items which can't be hovered, none by default.
+     */
+    private static final int NO_DIVIDER = -1;
+
+    private TransferFixture fixture;
+    private List<Integer> left;
+    private List<Integer> right;
+    private int leftDivider;
+    private int rightDivider;
+    private int startedCount;
+    private int endedCount;
+    private MotionEventStream stream;
+
+    @Before
+    public void setUp() {
+        fixture = new TransferFixture(ITEM_COUNT, ITEM_COUNT, FIRST_RIGHT_ITEM, ITEM_SIZE, WIDTH, HEIGHT, MARGIN);
+        left = fixture.getAdapter(0).getItems();
+        right = fixture.getAdapter(1).getItems();
+        leftDivider = NO_DIVIDER;
+        rightDivider = NO_DIVIDER;
+        startedCount = 0;
+        endedCount = 0;
+
+        DragTransferListener listener = new DragTransferListener(RuntimeEnvironment.application,
+          fixture.getContainer(), new DragThumbnailFactory(new DragThumbnailPool(), null, 1f),
+          new DragDropGesture.Listener() {
+              @Override
+              public void onDragStarted() {
+                  startedCount++;
+              }
+
+              @Override
+              public void onDragEnded() {
+                  endedCount++;
+              }
+          });
+        listener.register(fixture.getRecyclerView(0), fixture.getAdapter(0), new DragStrategy() {
+            @Override
+            public boolean isItemHoverable(int position) {
+                return left.get(position) != leftDivider;
+            }
+        }, true);
+        listener.register(fixture.getRecyclerView(1), fixture.getAdapter(1), new DragStrategy() {
+            @Override
+            public boolean isItemHoverable(int position) {
+                return right.get(position) != rightDivider;
+            }
+        }, true);
+        fixture.setTouchListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void itemIsTransferredToTheHoveredRecyclerView() {
+        // slot before the fourth item, in its first half.
+        stream = longPress()
+          .moveTo(RIGHT_X, ITEM_SIZE * 3.3f, 20)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(1, startedCount);
+        assertEquals(1, endedCount);
+        assertEquals(Arrays.asList(0, 1, 3, 4), left.subList(0, 4));
+        assertEquals(ITEM_COUNT - 1, left.size());
+        assertEquals(Arrays.asList(100, 101, 102, DRAGGED_ITEM, 103), right.subList(0, 5));
+        assertEquals(ITEM_COUNT + 1, right.size());
+        assertViewsRestored();
+    }
+
+    @Test
+    public void itemDroppedBackInItsSourceIsMoved() {
+        stream = longPress()
+          .moveTo(LEFT_X, ITEM_SIZE * 6.3f, 20)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(Arrays.asList(0, 1, 3, 4, 5, DRAGGED_ITEM, 6), left.subList(0, 7));
+        assertEquals(ITEM_COUNT, left.size());
+        assertEquals(ITEM_COUNT, right.size());
+        assertEquals(FIRST_RIGHT_ITEM, (int) right.get(0));
+        assertViewsRestored();
+    }
+
+    @Test
+    public void itemDroppedOutsideOfTheRecyclerViewsIsntMoved() {
+        stream = longPress()
+          .moveTo(RIGHT_X, HEIGHT + MARGIN / 2f, 20)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(1, endedCount);
+        assertEquals(DRAGGED_ITEM, (int) left.get(DRAGGED_ITEM));
+        assertEquals(ITEM_COUNT, left.size());
+        assertEquals(ITEM_COUNT, right.size());
+        assertViewsRestored();
+    }
+
+    @Test
+    public void failedInsertionIsRolledBack() {
+        fixture.getAdapter(1).setInsertFailing(true);
+        stream = longPress()
+          .moveTo(RIGHT_X, ITEM_SIZE * 3.3f, 20)
+          .up()
+          .build();
+        try {
+            replay();
+            fail("Insertion failure not thrown");
+        } catch (IllegalStateException expected) {
+            // thrown from the drop.
+        }
+
+        assertEquals(1, endedCount);
+        assertEquals(DRAGGED_ITEM, (int) left.get(DRAGGED_ITEM));
+        assertEquals(ITEM_COUNT, left.size());
+        assertEquals(ITEM_COUNT, right.size());
+    }
+
+    @Test
+    public void slotOfAnotherRecyclerViewDoesntCrossItsDividers() {
+        rightDivider = 105;
+        stream = longPress()
+          .moveTo(RIGHT_X, DOWN_Y, 10)
+          .moveTo(RIGHT_X, ITEM_SIZE * 6.3f, 10)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(Arrays.asList(100, 101, 102, 103, 104, DRAGGED_ITEM, 105), right.subList(0, 7));
+    }
+
+    @Test
+    public void slotOfTheSourceEnteredAgainDoesntCrossItsDividers() {
+        // enters the source again past the divider, the slot is bounded from the original one.
+        leftDivider = 4;
+        stream = longPress()
+          .moveTo(RIGHT_X, DOWN_Y, 10)
+          .moveTo(LEFT_X, ITEM_SIZE * 6.3f, 10)
+          .up()
+          .build();
+        replay();
+
+        assertEquals(Arrays.asList(0, 1, 3, DRAGGED_ITEM, 4, 5), left.subList(0, 6));
+        assertEquals(ITEM_COUNT, right.size());
+    }
+
+    @Test
+    public void hoveredRecyclerViewScrollsNearItsEnd() {
+        // the thumbnail lies within the bottom hot zone of the right recycler view.
+        stream = longPress()
+          .moveTo(RIGHT_X, HEIGHT - ITEM_SIZE / 3f, 20)
+          .hold(500)
+          .up()
+          .build();
+        replay();
+
+        RecyclerView recyclerView = fixture.getRecyclerView(1);
+        assertTrue(((LinearLayoutManager) recyclerView.getLayoutManager()).findFirstVisibleItemPosition() > 0);
+        assertTrue(right.indexOf(DRAGGED_ITEM) >= HEIGHT / ITEM_SIZE);
+        assertFalse(left.contains(DRAGGED_ITEM));
+        assertViewsRestored();
+    }
+
+    @Test
+    public void onlyTheDraggedItemIsHiddenOnceItsSourceScrolled() {
+        // the view of the dragged item is recycled while scrolling, its item bound to another one.
+        stream = longPress()
+          .moveTo(LEFT_X, HEIGHT - ITEM_SIZE / 3f, 20)
+          .hold(500)
+          .build();
+        replay();
+
+        RecyclerView recyclerView = fixture.getRecyclerView(0);
+        assertTrue(((LinearLayoutManager) recyclerView.getLayoutManager()).findFirstVisibleItemPosition()
+          > DRAGGED_ITEM);
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            boolean dragged = recyclerView.getChildPosition(child) == DRAGGED_ITEM;
+            assertEquals(dragged ? View.INVISIBLE : View.VISIBLE, child.getVisibility());
+        }
+    }
+
+    /**
+     * Long press the dragged item.
+     *
+     * @return builder to chain the drag.
+     */
+    private MotionEventStream.Builder longPress() {
+        return new MotionEventStream.Builder()
+          .down(LEFT_X, DOWN_Y)
+          .hold(ViewConfiguration.getLongPressTimeout() + ViewConfiguration.getTapTimeout());
+    }
+
+    /**
+     * Dispatch the gesture, letting the looper run for the time elapsed in between so that the
+     * long press is detected and the frames are dispatched.
+     */
+    private void replay() {
+        for (int i = 0; i < stream.size(); i++) {
+            if (i > 0) {
+                ShadowLooper.idleMainLooper(stream.get(i).getEventTime() - stream.get(i - 1).getEventTime());
+            }
+            fixture.dispatch(stream.get(i));
+        }
+    }
+
+    /**
+     * Check that every view of both recycler views is displayed at its layout position.
+     */
+    private void assertViewsRestored() {
+        for (int index = 0; index < 2; index++) {
+            RecyclerView recyclerView = fixture.getRecyclerView(index);
+            for (int i = 0; i < recyclerView.getChildCount(); i++) {
+                View child = recyclerView.getChildAt(i);
+                assertEquals(View.VISIBLE, child.getVisibility());
+                assertEquals(0f, child.getTranslationY(), 0f);
+            }
+        }
+    }
+}
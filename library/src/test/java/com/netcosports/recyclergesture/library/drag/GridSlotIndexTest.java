@@ -0,0 +1,171 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check the lookups of the grid slot index over children laid out by hand, then its rebuild once
+ * a grid scrolled or was laid out again.
+ * <p/>
+ * Cells are 100 pixels wide and high unless stated otherwise.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class GridSlotIndexTest {
+
+    private static final int CELL = 100;
+
+    private FrameLayout parent;
+    private GridSlotIndex index;
+
+    @Before
+    public void setUp() {
+        parent = new FrameLayout(RuntimeEnvironment.application);
+        index = new GridSlotIndex(true);
+    }
+
+    @Test
+    public void emptyGridHasNoChild() {
+        assertEquals(-1, index.findNearestChild(parent, 50, 50));
+    }
+
+    @Test
+    public void partialLastRowResolvesToTheClosestChildOfTheLane() {
+        // 3 columns, 8 children : the last cell of the third row is empty.
+        for (int i = 0; i < 8; i++) {
+            addCell(i % 3, i / 3);
+        }
+
+        assertEquals(4, index.findNearestChild(parent, 150, 150));
+        assertEquals(7, index.findNearestChild(parent, 150, 250));
+        assertEquals(5, index.findNearestChild(parent, 250, 250));
+        assertEquals(6, index.findNearestChild(parent, 50, 10000));
+        assertEquals(0, index.findNearestChild(parent, -50, 50));
+        assertEquals(2, index.findNearestChild(parent, 1000, 50));
+    }
+
+    @Test
+    public void unevenSpansAreRegisteredInEveryLaneTheyCover() {
+        // full span header, then a 2 span item followed by a single one, then the opposite.
+        addChild(0, 0, 3 * CELL, CELL);
+        addChild(0, CELL, 2 * CELL, 2 * CELL);
+        addChild(2 * CELL, CELL, 3 * CELL, 2 * CELL);
+        addChild(0, 2 * CELL, CELL, 3 * CELL);
+        addChild(CELL, 2 * CELL, 3 * CELL, 3 * CELL);
+
+        assertEquals(0, index.findNearestChild(parent, 250, 50));
+        assertEquals(1, index.findNearestChild(parent, 50, 150));
+        assertEquals(1, index.findNearestChild(parent, 150, 150));
+        assertEquals(2, index.findNearestChild(parent, 250, 150));
+        assertEquals(3, index.findNearestChild(parent, 50, 250));
+        assertEquals(4, index.findNearestChild(parent, 150, 250));
+        assertEquals(4, index.findNearestChild(parent, 250, 250));
+    }
+
+    @Test
+    public void reversedLayoutIsSortedAlongTheScrollingAxis() {
+        // 2 columns, 3 rows, children laid out from the bottom right corner.
+        for (int i = 0; i < 6; i++) {
+            addCell(1 - i % 2, 2 - i / 2);
+        }
+
+        assertEquals(0, index.findNearestChild(parent, 150, 250));
+        assertEquals(1, index.findNearestChild(parent, 50, 250));
+        assertEquals(4, index.findNearestChild(parent, 150, 50));
+        assertEquals(5, index.findNearestChild(parent, 50, 50));
+        assertEquals(3, index.findNearestChild(parent, 50, 150));
+    }
+
+    @Test
+    public void staggeredLanesKeepTheirOwnBounds() {
+        addChild(0, 0, CELL, 150);
+        addChild(CELL, 0, 2 * CELL, 80);
+        addChild(0, 150, CELL, 250);
+        addChild(CELL, 80, 2 * CELL, 300);
+
+        assertEquals(0, index.findNearestChild(parent, 50, 100));
+        assertEquals(1, index.findNearestChild(parent, 150, 70));
+        assertEquals(2, index.findNearestChild(parent, 50, 200));
+        assertEquals(3, index.findNearestChild(parent, 150, 100));
+        assertEquals(3, index.findNearestChild(parent, 150, 290));
+    }
+
+    @Test
+    public void indexIsRebuiltOnceScrolled() {
+        RecyclerFixture fixture = createGrid();
+        RecyclerView grid = fixture.getRecyclerView();
+        index.attach(grid);
+        assertEquals(4, findPosition(grid, 150, 150));
+
+        // the third row is now at the top, half scrolled out.
+        grid.scrollBy(0, 250);
+        assertEquals(13, findPosition(grid, 150, 150));
+    }
+
+    @Test
+    public void indexIsRebuiltOnceLaidOut() {
+        RecyclerFixture fixture = createGrid();
+        RecyclerView grid = fixture.getRecyclerView();
+        index.attach(grid);
+        assertEquals(4, findPosition(grid, 150, 150));
+
+        ((LinearLayoutManager) grid.getLayoutManager()).scrollToPositionWithOffset(30, 0);
+        fixture.layout();
+        grid.getViewTreeObserver().dispatchOnGlobalLayout();
+        assertEquals(34, findPosition(grid, 150, 150));
+    }
+
+    /**
+     * Lay a cell out.
+     *
+     * @param column column of the cell.
+     * @param row    row of the cell.
+     */
+    private void addCell(int column, int row) {
+        addChild(column * CELL, row * CELL, (column + 1) * CELL, (row + 1) * CELL);
+    }
+
+    /**
+     * Lay a child out at the given bounds, after the previous ones.
+     */
+    private void addChild(int left, int top, int right, int bottom) {
+        View child = new View(RuntimeEnvironment.application);
+        parent.addView(child);
+        child.layout(left, top, right, bottom);
+        index.invalidate();
+    }
+
+    /**
+     * Vertical grid of 3 columns.
+     *
+     * @return laid out grid of 60 items.
+     */
+    private static RecyclerFixture createGrid() {
+        return new RecyclerFixture(RuntimeEnvironment.application, 60, CELL,
+          new GridLayoutManager(RuntimeEnvironment.application, 3), LinearLayoutManager.VERTICAL, 3 * CELL, 800);
+    }
+
+    /**
+     * Adapter position of the child found under a point.
+     *
+     * @return adapter position.
+     */
+    private int findPosition(RecyclerView grid, float x, float y) {
+        return grid.getChildPosition(grid.getChildAt(index.findNearestChild(grid, x, y)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.netcosports.recyclergesture.library.drag;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check the compaction of the reorderings and their replay from a journal file.
+ */
+public class ReorderJournalTest {
+
+    private static final int ITEM_COUNT = 60;
+    private static final int ROUNDS = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compactedMovesLeadToTheSameOrder() throws IOException {
+        Random random = new Random(42);
+        ReorderJournal journal = new ReorderJournal();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Integer> expected = createList();
+            int operations = 1 + random.nextInt(20);
+            for (int i = 0; i < operations; i++) {
+                int from = random.nextInt(ITEM_COUNT);
+                int to = random.nextInt(ITEM_COUNT);
+                if (random.nextBoolean()) {
+                    expected.set(to, expected.set(from, expected.get(to)));
+                    journal.recordSwap(from, to);
+                } else {
+                    expected.add(to, expected.remove(from));
+                    journal.recordMove(from, to);
+                }
+            }
+
+            int moveCount = journal.commit();
+            List<Integer> compacted = createList();
+            for (int i = 0; i < moveCount; i++) {
+                compacted.add(journal.getMoveTo(i), compacted.remove(journal.getMoveFrom(i)));
+            }
+            assertEquals(expected, compacted);
+            assertEquals(ITEM_COUNT - longestIncreasingSubsequence(expected), moveCount);
+        }
+    }
+
+    @Test
+    public void journalFileIsReplayed() throws IOException {
+        File file = new File(folder.getRoot(), "order.journal");
+        final List<Integer> expected = createList();
+        ReorderJournal journal = new ReorderJournal(file);
+        Random random = new Random(7);
+        // enough drags to grow the mapping.
+        for (int drag = 0; drag < 5000; drag++) {
+            int from = random.nextInt(ITEM_COUNT);
+            int to = random.nextInt(ITEM_COUNT);
+            expected.add(to, expected.remove(from));
+            journal.recordMove(from, to);
+            journal.commit();
+        }
+        journal.close();
+
+        final List<Integer> restored = createList();
+        ReorderJournal reopened = new ReorderJournal(file);
+        reopened.replay(new DragDropGesture.Mover() {
+            @Override
+            public void moveItem(int from, int to) {
+                restored.add(to, restored.remove(from));
+            }
+        });
+        assertEquals(expected, restored);
+
+        reopened.reset();
+        assertEquals(0, reopened.getJournalSize());
+        reopened.close();
+    }
+
+    private static List<Integer> createList() {
+        List<Integer> list = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    private static int longestIncreasingSubsequence(List<Integer> list) {
+        int[] lengths = new int[list.size()];
+        int longest = 0;
+        for (int i = 0; i < list.size(); i++) {
+            lengths[i] = 1;
+            for (int j = 0; j < i; j++) {
+                if (list.get(j) < list.get(i)) {
+                    lengths[i] = Math.max(lengths[i], lengths[j] + 1);
+                }
+            }
+            longest = Math.max(longest, lengths[i]);
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,161 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that pending dismissals follow the adapter updates and are removed as contiguous ranges.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class DismissQueueTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final long WATCHDOG = 60000;
+
+    private RecyclerFixture fixture;
+    private RecyclerFixture.FixtureAdapter adapter;
+    private DismissQueue queue;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        adapter = fixture.getAdapter();
+        queue = new DismissQueue(fixture.getRecyclerView(), adapter);
+    }
+
+    @Test
+    public void contiguousDismissalsAreRemovedAsOneRange() {
+        enqueue(4, 2, 7, 3);
+        queue.flush();
+
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(4, adapter.getDismissCount());
+        assertEquals(2, adapter.getDismissRangeCount());
+        assertEquals(Arrays.asList(0, 1, 5, 6, 8), adapter.getItems().subList(0, 5));
+    }
+
+    @Test
+    public void positionsFollowAdapterUpdates() {
+        enqueue(5);
+        adapter.moveItem(0, 10);
+        adapter.notifyItemMoved(0, 10);
+        queue.flush();
+
+        assertFalse(adapter.getItems().contains(5));
+        assertTrue(adapter.getItems().contains(0));
+    }
+
+    @Test
+    public void itemsAreFoundBackByIdAfterAFullChange() {
+        enqueue(5, 6);
+        adapter.moveItem(0, 10);
+        adapter.notifyDataSetChanged();
+        queue.flush();
+
+        assertFalse(adapter.getItems().contains(5));
+        assertFalse(adapter.getItems().contains(6));
+        assertTrue(adapter.getItems().contains(0));
+        assertEquals(1, adapter.getDismissRangeCount());
+    }
+
+    @Test
+    public void itemsRemovedMeanwhileAreNotDismissedTwice() {
+        enqueue(5);
+        adapter.dismiss(5);
+        adapter.notifyItemRemoved(5);
+        queue.flush();
+
+        assertEquals(1, adapter.getDismissCount());
+        assertEquals(49, adapter.getItemCount());
+    }
+
+    @Test
+    public void positionHintsAreCheckedAgainstTheIdsAtCommitTime() {
+        // not notified yet, the hint now points to item 6.
+        enqueue(5);
+        adapter.moveItem(0, 10);
+        queue.flush();
+
+        assertFalse(adapter.getItems().contains(5));
+        assertTrue(adapter.getItems().contains(6));
+        assertEquals(0, queue.getStaleCount());
+    }
+
+    @Test
+    public void staleDismissalsAreDroppedAndCounted() {
+        enqueue(5, 20);
+        adapter.dismiss(5);
+        adapter.notifyItemRemoved(5);
+        adapter.dismiss(19);
+        queue.flush();
+
+        assertEquals(2, queue.getStaleCount());
+        assertEquals(2, adapter.getDismissCount());
+        assertTrue(adapter.getItems().contains(21));
+    }
+
+    @Test
+    public void endedAnimationsAreRemovedBeforeTheWatchdog() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        queue.enqueue(view, 2, WATCHDOG);
+        queue.doFrame(0);
+        assertEquals(1, queue.getPendingCount());
+
+        queue.markReady(view);
+        queue.doFrame(0);
+        assertEquals(0, queue.getPendingCount());
+        assertFalse(adapter.getItems().contains(2));
+    }
+
+    @Test
+    public void detachedViewsAreRemovedBeforeTheWatchdog() {
+        View view = fixture.getRecyclerView().getChildAt(0);
+        queue.enqueue(view, 0, WATCHDOG);
+        fixture.getRecyclerView().scrollBy(0, HEIGHT * 2);
+        queue.doFrame(0);
+
+        assertEquals(0, queue.getPendingCount());
+        assertFalse(adapter.getItems().contains(0));
+    }
+
+    @Test
+    public void rangesAreRemovedAtOnceWhenOneOfTheirAnimationsEnded() {
+        // items past the viewport have no view, they follow the laid out ones.
+        queue.enqueueRange(5, 10, WATCHDOG);
+        queue.markReady(fixture.getRecyclerView().getChildAt(6));
+        queue.doFrame(0);
+
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(10, adapter.getDismissCount());
+        assertEquals(1, adapter.getDismissRangeCount());
+        assertEquals(Arrays.asList(3, 4, 15, 16), adapter.getItems().subList(3, 7));
+    }
+
+    private void enqueue(int... positions) {
+        RecyclerView recyclerView = fixture.getRecyclerView();
+        for (int position : positions) {
+            queue.enqueue(recyclerView.getChildAt(position), position, 0);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Check that a range follows the pointer across the list and stops before items which can't be
+ * swiped.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class RangeSwipeTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final float OFFSET = 120;
+
+    private RecyclerFixture fixture;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void rangeFollowsThePointerBothWays() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy());
+        range.start(2, SwipeToDismissDirection.HORIZONTAL, ITEM_SIZE);
+        range.move(ITEM_SIZE * 5.5f, OFFSET, 0.5f);
+
+        assertEquals(2, range.getStart());
+        assertEquals(4, range.getItemCount());
+        assertEquals(OFFSET, getChild(5).getTranslationX(), 0f);
+
+        // back over the first swiped item, the other ones are put back.
+        range.move(ITEM_SIZE * 3.5f, OFFSET, 0.5f);
+        assertEquals(2, range.getItemCount());
+        assertEquals(OFFSET, getChild(3).getTranslationX(), 0f);
+        assertEquals(0f, getChild(4).getTranslationX(), 0f);
+        assertEquals(1f, getChild(5).getAlpha(), 0f);
+
+        range.move(ITEM_SIZE * 0.5f, OFFSET, 0.5f);
+        assertEquals(0, range.getStart());
+        assertEquals(3, range.getItemCount());
+        assertEquals(0f, getChild(3).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void rangeStopsBeforeItemsWhichCantBeSwiped() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy() {
+            @Override
+            public SwipeToDismissDirection getDismissDirection(int position) {
+                return position == 4 ? SwipeToDismissDirection.NONE : super.getDismissDirection(position);
+            }
+        });
+        range.start(2, SwipeToDismissDirection.HORIZONTAL, ITEM_SIZE);
+        range.move(ITEM_SIZE * 6.5f, OFFSET, 1f);
+
+        assertEquals(2, range.getStart());
+        assertEquals(2, range.getItemCount());
+        assertEquals(0f, getChild(6).getTranslationX(), 0f);
+
+        range.reset();
+        assertFalse(range.isActive());
+    }
+
+    @Test
+    public void rangeOnlyJoinsItemsAllowingTheSwipedDirection() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy() {
+            @Override
+            public SwipeToDismissDirection getDismissDirection(int position) {
+                return position == 5 ? SwipeToDismissDirection.LEFT : super.getDismissDirection(position);
+            }
+        });
+        range.start(2, SwipeToDismissDirection.RIGHT, ITEM_SIZE);
+        range.move(ITEM_SIZE * 6.5f, OFFSET, 1f);
+
+        assertEquals(2, range.getStart());
+        assertEquals(3, range.getItemCount());
+        assertEquals(0f, getChild(5).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void rangeFollowsTheRemovalsOfOtherItems() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy());
+        range.start(2, SwipeToDismissDirection.HORIZONTAL, ITEM_SIZE);
+        range.move(ITEM_SIZE * 5.5f, OFFSET, 1f);
+        fixture.getAdapter().getItems().remove(0);
+        fixture.getAdapter().notifyItemRemoved(0);
+        assertEquals(1, range.getStart());
+        assertEquals(4, range.getItemCount());
+
+        // first swiped item removed, the range goes on with the next one.
+        fixture.getAdapter().getItems().subList(1, 3).clear();
+        fixture.getAdapter().notifyItemRangeRemoved(1, 2);
+        assertEquals(1, range.getStart());
+        assertEquals(2, range.getItemCount());
+    }
+
+    @Test
+    public void rangeStopsBeforeInsertedItems() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy());
+        range.start(2, SwipeToDismissDirection.HORIZONTAL, ITEM_SIZE);
+        range.move(ITEM_SIZE * 5.5f, OFFSET, 1f);
+        fixture.getAdapter().getItems().add(4, 1000);
+        fixture.getAdapter().notifyItemInserted(4);
+
+        assertEquals(2, range.getStart());
+        assertEquals(2, range.getItemCount());
+        // views are still laid out at their previous positions.
+        assertEquals(0f, getChild(4).getTranslationX(), 0f);
+        assertEquals(OFFSET, getChild(3).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void dataSetChangeEndsTheRange() {
+        RangeSwipe range = createRange(new SwipeToDismissStrategy());
+        range.start(2, SwipeToDismissDirection.HORIZONTAL, ITEM_SIZE);
+        range.move(ITEM_SIZE * 5.5f, OFFSET, 1f);
+        fixture.getAdapter().notifyDataSetChanged();
+
+        assertFalse(range.isActive());
+        assertEquals(OFFSET, getChild(2).getTranslationX(), 0f);
+        assertEquals(0f, getChild(3).getTranslationX(), 0f);
+    }
+
+    private RangeSwipe createRange(SwipeToDismissStrategy strategy) {
+        strategy.setDefaultSwipeToDismissDirection(SwipeToDismissDirection.HORIZONTAL);
+        DismissQueue queue = new DismissQueue(fixture.getRecyclerView(), fixture.getAdapter());
+        return new RangeSwipe(fixture.getRecyclerView(), strategy, new SwipeAnimator(fixture.getRecyclerView(), queue));
+    }
+
+    private View getChild(int position) {
+        return fixture.getRecyclerView().getChildAt(position);
+    }
+}
@@ -0,0 +1,129 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+
+import com.netcosports.recyclergesture.core.Axis;
+import com.netcosports.recyclergesture.core.Decay;
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that released items are animated from their release velocity and that the end of the
+ * dismiss animations is reported to the queue.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeAnimatorTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final long WATCHDOG = 60000;
+    private static final float FRAME = 1 / 60f;
+
+    private RecyclerFixture fixture;
+    private DismissQueue queue;
+    private SwipeAnimator animator;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        queue = new DismissQueue(fixture.getRecyclerView(), fixture.getAdapter());
+        animator = new SwipeAnimator(fixture.getRecyclerView(), queue);
+        queue.setAnimator(animator);
+    }
+
+    @Test
+    public void fastFlingsLeaveWithinAFewFrames() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        view.setTranslationX(WIDTH / 4f);
+        queue.enqueue(view, 2, WATCHDOG);
+        animator.dismiss(view, Axis.HORIZONTAL, 1, 5000);
+        assertTrue(animator.isDismissing(view));
+
+        step(6);
+        assertFalse(animator.isDismissing(view));
+        queue.doFrame(0);
+        assertEquals(0, queue.getPendingCount());
+        assertFalse(fixture.getAdapter().getItems().contains(2));
+    }
+
+    @Test
+    public void flingsBarelyReachingTheEdgeAreHandedToTheSpring() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        view.setTranslationX(WIDTH / 2f);
+        queue.enqueue(view, 2, WATCHDOG);
+        // friction alone would stop right past the edge, approached for seconds.
+        float threshold = WIDTH / 2f * Decay.FRICTION_DEFAULT;
+        animator.dismiss(view, Axis.HORIZONTAL, 1, threshold * 1.01f);
+
+        step(8);
+        assertFalse(animator.isDismissing(view));
+        queue.doFrame(0);
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void watchdogFlushLeavesTheItemHidden() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        view.setTranslationX(WIDTH / 4f);
+        queue.enqueue(view, 2, WATCHDOG);
+        animator.dismiss(view, Axis.HORIZONTAL, 1, 0);
+        step(1);
+        queue.flush();
+
+        assertFalse(animator.isDismissing(view));
+        assertEquals(0f, view.getTranslationX(), 0f);
+        assertEquals(0f, view.getAlpha(), 0f);
+    }
+
+    @Test
+    public void slowReleasesArePulledOut() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        view.setTranslationX(-WIDTH * 0.6f);
+        queue.enqueue(view, 2, WATCHDOG);
+        animator.dismiss(view, Axis.HORIZONTAL, -1, 0);
+
+        step(20);
+        assertFalse(animator.isDismissing(view));
+        assertEquals(-WIDTH, view.getTranslationX(), 0f);
+        assertEquals(0f, view.getAlpha(), 0f);
+    }
+
+    @Test
+    public void canceledSwipesCarryTheirVelocityBack() {
+        View view = fixture.getRecyclerView().getChildAt(2);
+        View still = fixture.getRecyclerView().getChildAt(3);
+        view.setTranslationX(100);
+        still.setTranslationX(100);
+        animator.restore(view, Axis.HORIZONTAL, -2000);
+        animator.restore(still, Axis.HORIZONTAL, 0);
+
+        step(1);
+        assertTrue(view.getTranslationX() < still.getTranslationX());
+
+        step(60);
+        assertEquals(0f, view.getTranslationX(), 0f);
+        assertEquals(1f, view.getAlpha(), 0f);
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    private void step(int frames) {
+        for (int i = 0; i < frames; i++) {
+            animator.step(FRAME);
+        }
+    }
+}
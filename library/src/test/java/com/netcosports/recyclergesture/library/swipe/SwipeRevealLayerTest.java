@@ -0,0 +1,136 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.graphics.Color;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that swiped items settle open or closed and that only one item is open at a time.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeRevealLayerTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final int ACTION_SIZE = 80;
+    private static final int ACTION_ARCHIVE = 1;
+    private static final int ACTION_PIN = 2;
+    private static final long SETTLE_MILLIS = 1000;
+
+    private RecyclerFixture fixture;
+    private SwipeRevealLayer layer;
+    private int clickedPosition;
+    private int clickedAction;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        clickedPosition = RecyclerView.NO_POSITION;
+        layer = new SwipeRevealLayer(ACTION_SIZE, new SwipeRevealLayer.OnActionClickListener() {
+            @Override
+            public void onActionClicked(int position, int actionId) {
+                clickedPosition = position;
+                clickedAction = actionId;
+            }
+        });
+        layer.addAction(ACTION_ARCHIVE, null, Color.GRAY)
+          .addAction(ACTION_PIN, null, Color.BLUE);
+        SwipeToDismissListener listener = new SwipeToDismissListener(fixture.getRecyclerView(),
+          SwipeToDismissDirection.LEFT, null, null, null);
+        listener.setRevealLayer(layer);
+        fixture.setTouchListener(listener);
+    }
+
+    @Test
+    public void swipePastHalfTheActionsOpensTheItem() {
+        swipe(3, -ACTION_SIZE * 1.5f);
+
+        assertEquals(3, layer.getOpenPosition());
+        assertEquals(-layer.getRevealSize(), getChild(3).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void shortSwipeClosesTheItem() {
+        swipe(3, -ACTION_SIZE / 2f);
+
+        assertEquals(RecyclerView.NO_POSITION, layer.getOpenPosition());
+        assertEquals(0f, getChild(3).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void openingAnotherItemClosesTheOpenOne() {
+        swipe(3, -ACTION_SIZE * 1.5f);
+        swipe(5, -ACTION_SIZE * 1.5f);
+
+        assertEquals(5, layer.getOpenPosition());
+        assertEquals(0f, getChild(3).getTranslationX(), 0f);
+        assertEquals(-layer.getRevealSize(), getChild(5).getTranslationX(), 0f);
+    }
+
+    @Test
+    public void clickingAnActionNotifiesTheListenerAndClosesTheItem() {
+        swipe(3, -ACTION_SIZE * 1.5f);
+
+        // actions are laid out from the edge the item is swiped away from.
+        float y = ITEM_SIZE * 3.5f;
+        replay(new MotionEventStream.Builder()
+          .down(WIDTH - ACTION_SIZE * 1.5f, y)
+          .up()
+          .build());
+        settle();
+
+        assertEquals(3, clickedPosition);
+        assertEquals(ACTION_PIN, clickedAction);
+        assertEquals(RecyclerView.NO_POSITION, layer.getOpenPosition());
+        assertEquals(0f, getChild(3).getTranslationX(), 0f);
+    }
+
+    /**
+     * Swipe an item and release it without any fling.
+     */
+    private void swipe(int position, float deltaX) {
+        float x = WIDTH / 2f;
+        float y = ITEM_SIZE * (position + 0.5f);
+        replay(new MotionEventStream.Builder()
+          .down(x, y)
+          .moveTo(x + deltaX, y, 20)
+          .hold(200)
+          .up()
+          .build());
+        settle();
+    }
+
+    private void replay(MotionEventStream stream) {
+        for (int i = 0; i < stream.size(); i++) {
+            fixture.dispatch(stream.get(i));
+        }
+        stream.recycle();
+    }
+
+    private void settle() {
+        ShadowLooper.idleMainLooper(SETTLE_MILLIS);
+        layer.doFrame(0);
+    }
+
+    private View getChild(int position) {
+        return fixture.getRecyclerView().getChildAt(position);
+    }
+}
@@ -0,0 +1,79 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+
+import com.netcosports.recyclergesture.library.AllocationCounter;
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replay a steady swipe and check that ACTION_MOVE events don't allocate once warmed up.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeToDismissListenerAllocationTest {
+
+    /**
+     * Move events replayed before measuring, to let the swipe start and lazy initializations happen.
+     */
+    private static final int WARM_UP_EVENTS = 200;
+
+    /**
+     * Move events measured.
+     */
+    private static final int MEASURED_EVENTS = 2000;
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    private RecyclerFixture fixture;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 100, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void swipingMoveDoesntAllocate() {
+        SwipeToDismissListener listener = new SwipeToDismissListener(fixture.getRecyclerView(),
+          SwipeToDismissDirection.HORIZONTAL, null, fixture.getAdapter(), null);
+        fixture.setTouchListener(listener);
+
+        float y = ITEM_SIZE * 3.5f;
+        MotionEventStream stream = new MotionEventStream.Builder()
+          .down(WIDTH / 4f, y)
+          .moveTo(WIDTH / 2f, y, 10)
+          .oscillate(WIDTH / 20f, 0, WARM_UP_EVENTS - 10 + MEASURED_EVENTS)
+          .cancel()
+          .build();
+
+        for (int i = 0; i <= WARM_UP_EVENTS; i++) {
+            fixture.dispatch(stream.get(i));
+        }
+
+        AllocationCounter counter = new AllocationCounter();
+        long bytes = 0;
+        for (int i = WARM_UP_EVENTS + 1; i <= WARM_UP_EVENTS + MEASURED_EVENTS; i++) {
+            counter.start();
+            fixture.dispatch(stream.get(i));
+            bytes += counter.stop();
+        }
+
+        fixture.dispatch(stream.get(stream.size() - 1));
+        stream.recycle();
+
+        assertEquals("ACTION_MOVE allocated " + bytes + " bytes over " + MEASURED_EVENTS + " events", 0, bytes);
+    }
+}
@@ -0,0 +1,104 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.GestureBenchmark;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replay swipes dismissing items one after the other and report the time spent per event, for
+ * lists of several sizes.
+ * <p/>
+ * The p99 budget can be tightened with -Pbenchmark.p99Micros=... when looking for regressions,
+ * the default one only catches pathological slowdowns on a loaded machine.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeToDismissListenerBenchmarkTest {
+
+    /**
+     * Default budget for the 99th percentile of the time spent per event.
+     */
+    private static final long DEFAULT_P99_BUDGET_MICROS = 20000;
+
+    /**
+     * Swipes replayed before measuring, to let lazy initializations and the JIT happen.
+     */
+    private static final int WARM_UP_SWIPES = 3;
+
+    /**
+     * Swipes measured.
+     */
+    private static final int MEASURED_SWIPES = 20;
+
+    /**
+     * Move events of a swipe.
+     */
+    private static final int STEPS = 30;
+
+    /**
+     * Delay after which a triggered dismiss is performed, longer than the dismiss animation.
+     */
+    private static final long DISMISS_DELAY_MILLIS = 1000;
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    @Test
+    public void horizontalDismiss() {
+        run("horizontal dismiss, 100 items", 100);
+        run("horizontal dismiss, 10000 items", 10000);
+    }
+
+    /**
+     * Swipe the second item to the right until dismissed, over and over.
+     */
+    private void run(String name, int itemCount) {
+        RecyclerFixture fixture = new RecyclerFixture(RuntimeEnvironment.application, itemCount, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        SwipeToDismissListener listener = new SwipeToDismissListener(fixture.getRecyclerView(),
+          SwipeToDismissDirection.HORIZONTAL, null, fixture.getAdapter(), null);
+        fixture.setTouchListener(listener);
+
+        float y = ITEM_SIZE * 1.5f;
+        GestureBenchmark benchmark = new GestureBenchmark(fixture, MEASURED_SWIPES * (STEPS + 2));
+        for (int swipe = 0; swipe < WARM_UP_SWIPES + MEASURED_SWIPES; swipe++) {
+            if (swipe == WARM_UP_SWIPES) {
+                benchmark.reset();
+            }
+            MotionEventStream stream = new MotionEventStream.Builder()
+              .down(WIDTH / 10f, y)
+              .moveTo(WIDTH * 0.9f, y, STEPS)
+              .up()
+              .build();
+            benchmark.replay(stream);
+
+            // let the dismiss be performed and laid out.
+            ShadowLooper.idleMainLooper(DISMISS_DELAY_MILLIS);
+            fixture.layout();
+            stream.recycle();
+        }
+
+        GestureBenchmark.Report report = benchmark.report(name);
+        System.out.println(report);
+
+        assertEquals(MEASURED_SWIPES * (STEPS + 2), report.getEventCount());
+        assertTrue(name + " didn't dismiss anything", report.getDismissCount() > 0);
+        long budgetNanos = Long.getLong("benchmark.p99Micros", DEFAULT_P99_BUDGET_MICROS) * 1000;
+        assertTrue(name + " p99 is " + report.getP99Nanos() + " ns, budget is " + budgetNanos + " ns",
+          report.getP99Nanos() <= budgetNanos);
+    }
+}
@@ -0,0 +1,87 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+import com.netcosports.recyclergesture.library.MotionEventStream;
+import com.netcosports.recyclergesture.library.RecyclerFixture;
+import com.netcosports.recyclergesture.library.TouchPredictor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that the predicted pointer only leads the swiped view, the swipe starting from the actual
+ * samples.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeToDismissListenerPredictionTest {
+
+    private static final int ITEM_SIZE = 100;
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+    private static final float DOWN_X = WIDTH / 4f;
+    private static final float DOWN_Y = ITEM_SIZE * 3.5f;
+
+    private RecyclerFixture fixture;
+    private View swipedView;
+    private int slop;
+    private MotionEventStream stream;
+
+    @Before
+    public void setUp() {
+        fixture = new RecyclerFixture(RuntimeEnvironment.application, 50, ITEM_SIZE,
+          LinearLayoutManager.VERTICAL, WIDTH, HEIGHT);
+        fixture.setTouchListener(new SwipeToDismissListener(fixture.getRecyclerView(),
+          SwipeToDismissDirection.RIGHT, null, fixture.getAdapter(),
+          new TouchPredictor(TouchPredictor.MAX_HORIZON_MILLIS)));
+        swipedView = fixture.getRecyclerView().getChildAt(3);
+        slop = ViewConfiguration.get(RuntimeEnvironment.application).getScaledTouchSlop();
+    }
+
+    @After
+    public void tearDown() {
+        stream.recycle();
+    }
+
+    @Test
+    public void predictionPastTheSlopDoesntStartTheSwipe() {
+        // the predicted pointer is well past the slop, the actual one stays short of it.
+        stream = new MotionEventStream.Builder()
+          .down(DOWN_X, DOWN_Y)
+          .moveTo(DOWN_X + slop - 1, DOWN_Y, 4)
+          .build();
+        replay();
+
+        assertEquals(0f, swipedView.getTranslationX(), 0f);
+    }
+
+    @Test
+    public void swipedViewIsLedByThePrediction() {
+        float delta = WIDTH / 4f;
+        stream = new MotionEventStream.Builder()
+          .down(DOWN_X, DOWN_Y)
+          .moveTo(DOWN_X + delta, DOWN_Y, 10)
+          .build();
+        replay();
+
+        assertTrue(swipedView.getTranslationX() > delta - slop);
+    }
+
+    private void replay() {
+        for (int i = 0; i < stream.size(); i++) {
+            fixture.dispatch(stream.get(i));
+        }
+    }
+}
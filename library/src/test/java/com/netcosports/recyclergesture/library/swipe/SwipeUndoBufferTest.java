@@ -0,0 +1,143 @@
+package com.netcosports.recyclergesture.library.swipe;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.netcosports.recyclergesture.library.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check that dismissed items are hidden until their undo window expires, then committed in
+ * batches.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SwipeUndoBufferTest {
+
+    private static final long UNDO_WINDOW = 3000;
+
+    private UndoAdapter adapter;
+    private SwipeUndoBuffer buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new SwipeUndoBuffer(3, UNDO_WINDOW);
+        adapter = new UndoAdapter(10, buffer);
+        buffer.attach(adapter, adapter);
+    }
+
+    @Test
+    public void undoShowsTheItemAgainWithoutTouchingTheData() {
+        buffer.hide(2, 1);
+        buffer.hide(4, 2);
+        assertEquals(Arrays.asList(0, 1, 3, 4, 7, 8, 9), adapter.getVisibleItems());
+
+        assertTrue(buffer.undo());
+        assertEquals(Arrays.asList(0, 1, 3, 4, 6, 7, 8, 9), adapter.getVisibleItems());
+        assertEquals(10, adapter.items.size());
+        assertEquals(0, adapter.rangeCount);
+    }
+
+    @Test
+    public void expiredDismissalsAreCommittedInOneBatch() {
+        buffer.hide(2, 1);
+        buffer.hide(2, 1);
+        buffer.hide(6, 1);
+        ShadowLooper.idleMainLooper(UNDO_WINDOW);
+
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(Arrays.asList(0, 1, 4, 5, 6, 7, 9), adapter.items);
+        assertEquals(Arrays.asList(0, 1, 4, 5, 6, 7, 9), adapter.getVisibleItems());
+        assertEquals(2, adapter.rangeCount);
+        assertFalse(buffer.undo());
+    }
+
+    @Test
+    public void fullBufferCommitsTheOldestDismissals() {
+        buffer.hide(0, 1);
+        buffer.hide(0, 3);
+
+        assertEquals(3, buffer.getPendingCount());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), adapter.items);
+        assertEquals(Arrays.asList(4, 5, 6, 7, 8, 9), adapter.getVisibleItems());
+    }
+
+    @Test
+    public void hiddenItemsFollowAdapterUpdates() {
+        buffer.hide(3, 1);
+        adapter.items.add(buffer.getDataPosition(1), 100);
+        adapter.notifyItemInserted(1);
+        buffer.commit();
+
+        assertEquals(Arrays.asList(0, 100, 1, 2, 4, 5, 6, 7, 8, 9), adapter.items);
+    }
+
+    /**
+     * Adapter hiding the items of the buffer.
+     */
+    private static final class UndoAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+      implements SwipeToDismissGesture.BulkDismisser {
+
+        private final List<Integer> items;
+        private final SwipeUndoBuffer buffer;
+        private int rangeCount;
+
+        UndoAdapter(int itemCount, SwipeUndoBuffer buffer) {
+            this.items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(i);
+            }
+            this.buffer = buffer;
+        }
+
+        List<Integer> getVisibleItems() {
+            List<Integer> visible = new ArrayList<>();
+            for (int i = 0; i < getItemCount(); i++) {
+                visible.add(items.get(buffer.getDataPosition(i)));
+            }
+            return visible;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+        }
+
+        @Override
+        public int getItemCount() {
+            return buffer.getItemCount(items.size());
+        }
+
+        @Override
+        public void dismiss(int position) {
+            items.remove(position);
+        }
+
+        @Override
+        public void dismissRange(int positionStart, int itemCount) {
+            items.subList(positionStart, positionStart + itemCount).clear();
+            rangeCount++;
+        }
+    }
+}